@@ -0,0 +1,113 @@
+/**
+ * BloomFilter.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.io.Serializable;
+
+/**
+ * Bloom filter over strings, of fixed size chosen from the expected number of
+ * insertions and the acceptable false positive rate, using double hashing of a 64 bit
+ * hash of the string to derive the bit positions.
+ *
+ */
+class BloomFilter implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final long[] bits;
+
+	private final long bitCount;
+
+	private final int hashCount;
+
+	/**
+	 * @param expectedInsertions number of strings expected to be added.
+	 * @param falsePositiveRate acceptable probability that mightContain returns true for a
+	 *   string not added, once expectedInsertions strings have been added.
+	 */
+	BloomFilter(long expectedInsertions, double falsePositiveRate) {
+		if (falsePositiveRate <= 0d || falsePositiveRate >= 1d) {
+			throw new IllegalArgumentException("False positive rate must be between 0 and 1, exclusive.");
+		}
+		long n = Math.max(1L, expectedInsertions);
+		double ln2 = Math.log(2);
+		long m = (long)Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+		long words = Math.max(1L, (m + 63) / 64);
+		if (words > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Bloom filter too large for " + n + " insertions at " + falsePositiveRate);
+		}
+		bits = new long[(int)words];
+		bitCount = words * 64;
+		hashCount = Math.max(1, (int)Math.round((double)bitCount / n * ln2));
+	}
+
+	/**
+	 * @param value to add.
+	 */
+	void put(String value) {
+		long hash = hash64(value);
+		long h1 = hash;
+		long h2 = (hash >>> 32) | 1L;
+		for (int i=0; i<hashCount; i++) {
+			long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+			bits[(int)(bit >>> 6)] |= 1L << bit;
+		}
+	}
+
+	/**
+	 * @param value to test.
+	 * @return false if value was definitely not added, true if it probably was.
+	 */
+	boolean mightContain(String value) {
+		long hash = hash64(value);
+		long h1 = hash;
+		long h2 = (hash >>> 32) | 1L;
+		for (int i=0; i<hashCount; i++) {
+			long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+			if ((bits[(int)(bit >>> 6)] & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the size of the filter in bytes.
+	 */
+	long getFootprint() {
+		return bitCount / 8;
+	}
+
+	/**
+	 * FNV-1a over the characters, with the murmur3 64 bit finalizer.
+	 */
+	private static long hash64(String value) {
+		long h = 0xcbf29ce484222325L;
+		for (int i=0; i<value.length(); i++) {
+			h ^= value.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+}
@@ -0,0 +1,54 @@
+/**
+ * CSVDataRecord.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * A row of validation data read by commons-csv from a file with a header row.
+ *
+ */
+public class CSVDataRecord implements DataRecord {
+
+	private final CSVRecord record;
+
+	/**
+	 * @param record parsed with a header, so that values can be accessed by name.
+	 */
+	public CSVDataRecord(CSVRecord record) {
+		this.record = record;
+	}
+
+	@Override
+	public String get(String name) {
+		return record.get(name);
+	}
+
+	@Override
+	public boolean isMapped(String name) {
+		return record.isMapped(name);
+	}
+
+	/**
+	 * @return the underlying CSVRecord.
+	 */
+	public CSVRecord getRecord() {
+		return record;
+	}
+
+}
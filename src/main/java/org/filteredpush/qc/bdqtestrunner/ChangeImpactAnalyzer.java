@@ -0,0 +1,798 @@
+/**
+ * ChangeImpactAnalyzer.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Finds the tests whose implementation changed between two versions of a library jar,
+ * so that only the rows of validation data for those tests need be run again.
+ *
+ * Each method in the jar is read with ASM and its bytecode hashed, ignoring line numbers,
+ * local variable names, and stack map frames, which change with unrelated edits to the
+ * source, along with its access flags, descriptor, and annotations.  The fingerprint of
+ * a test is the hash of the bodies of the methods annotated with Provides for its GUID,
+ * of the no argument constructor and static initialization of their classes, and of all
+ * the methods within the jar reachable from them: calls, resolved up the superclass and
+ * interface hierarchy, together with any overriding methods in subclasses within the jar
+ * for virtual and interface calls, method handles of lambdas and method references, and
+ * the static initialization and constant fields of each class referenced.  Calls out of
+ * the jar are not followed, dependencies are assumed fixed between the versions compared.
+ * Methods invoked only by reflection are not found.
+ *
+ * Resources in the jar other than classes (such as vocabularies, properties, and service
+ * registrations) can't be traced to the tests that load them, so every resource is hashed,
+ * and the hash of all of them is part of the fingerprint of every test: a change to any
+ * resource changes all the tests in the jar.  The manifest, maven metadata, and signature
+ * files under META-INF/, which change with every build, are not hashed.
+ *
+ * A test is changed if its fingerprint differs, or it is implemented in only one of the
+ * versions.  Any change within the jar reachable from a test changes it, whether or not
+ * the change alters its behavior.
+ *
+ */
+public class ChangeImpactAnalyzer {
+
+	private static final Log logger = LogFactory.getLog(ChangeImpactAnalyzer.class);
+
+	/** Descriptor of the annotation giving the GUID of the test a method implements. */
+	public static final String PROVIDES = "Lorg/datakurator/ffdq/annotations/Provides;";
+
+	/** Member name standing for the static initialization and constant fields of a class. */
+	private static final String STATIC_STATE = "<static>";
+
+	private static final int PARSING_OPTIONS = ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES;
+
+	/** Classes in the jar by internal name. */
+	private final Map<String,ClassInfo> classes = new HashMap<String,ClassInfo>();
+
+	/** Classes declaring each method name and descriptor, to find overriding methods. */
+	private final Map<String,List<String>> declaring = new HashMap<String,List<String>>();
+
+	/** Keys of the methods providing each test, by GUID without urn:uuid: */
+	private final Map<String,Set<String>> provides = new TreeMap<String,Set<String>>();
+
+	/** Supertypes of each class within the jar, computed as needed. */
+	private final Map<String,Set<String>> supertypes = new HashMap<String,Set<String>>();
+
+	/** Hash of each resource in the jar other than a class, by name. */
+	private final Map<String,String> resources = new TreeMap<String,String>();
+
+	/**
+	 * Read and hash all the classes in a jar.
+	 *
+	 * @param jar the library jar.
+	 * @throws IOException if unable to read the jar or a class in it.
+	 */
+	public ChangeImpactAnalyzer(File jar) throws IOException {
+		long start = System.nanoTime();
+		JarFile jarFile = new JarFile(jar);
+		try {
+			Enumeration<JarEntry> entries = jarFile.entries();
+			while (entries.hasMoreElements()) {
+				JarEntry entry = entries.nextElement();
+				if (entry.getName().endsWith(".class") && !entry.getName().startsWith("META-INF/")) {
+					InputStream in = jarFile.getInputStream(entry);
+					try {
+						new ClassReader(in).accept(new HashingClassVisitor(), PARSING_OPTIONS);
+					} catch (RuntimeException e) {
+						throw new IOException("Unable to read " + entry.getName() + " in " + jar.getName() + ": " + e.getMessage(), e);
+					} finally {
+						in.close();
+					}
+				} else if (!entry.isDirectory() && !isBuildMetadata(entry.getName())) {
+					resources.put(entry.getName(), hash(jarFile.getInputStream(entry)));
+				}
+			}
+		} finally {
+			jarFile.close();
+		}
+		logger.debug(String.format("Read %d classes, %d resources, %d tests from %s in %.3f ms", classes.size(), resources.size(), provides.size(), jar.getName(), (System.nanoTime() - start)/1000000d));
+	}
+
+	/**
+	 * @return the GUIDs, without urn:uuid:, of the tests implemented in the jar.
+	 */
+	public Set<String> getTests() {
+		return Collections.unmodifiableSet(provides.keySet());
+	}
+
+	/**
+	 * Fingerprint each test implemented in the jar.
+	 *
+	 * @return hex encoded fingerprint by GUID, without urn:uuid:, in GUID order.
+	 */
+	public Map<String,String> getFingerprints() {
+		Map<String,String> result = new TreeMap<String,String>();
+		MessageDigest resourceDigest = newDigest();
+		for (Map.Entry<String,String> resource : resources.entrySet()) {
+			resourceDigest.update(resource.getKey().getBytes(StandardCharsets.UTF_8));
+			resourceDigest.update(resource.getValue().getBytes(StandardCharsets.UTF_8));
+		}
+		byte[] resourceHash = resourceDigest.digest();
+		for (Map.Entry<String,Set<String>> entry : provides.entrySet()) {
+			Set<String> roots = new HashSet<String>();
+			for (String method : entry.getValue()) {
+				String owner = method.substring(0, method.indexOf('.'));
+				roots.add(method);
+				roots.add(owner + ".<init>()V");
+			}
+			MessageDigest digest = newDigest();
+			digest.update(resourceHash);
+			for (String member : reachable(roots)) {
+				digest.update(member.getBytes(StandardCharsets.UTF_8));
+				digest.update(body(member).getBytes(StandardCharsets.UTF_8));
+			}
+			result.put(entry.getKey(), toHex(digest.digest()));
+		}
+		return result;
+	}
+
+	/**
+	 * Compare the fingerprints of the tests in two versions of a library.
+	 *
+	 * @param before fingerprints from the earlier version.
+	 * @param after fingerprints from the later version.
+	 * @return the GUIDs of tests whose fingerprint differs, or which are in only one version, in order.
+	 */
+	public static Set<String> changed(Map<String,String> before, Map<String,String> after) {
+		Set<String> result = new TreeSet<String>();
+		for (Map.Entry<String,String> entry : after.entrySet()) {
+			if (!entry.getValue().equals(before.get(entry.getKey()))) {
+				result.add(entry.getKey());
+			}
+		}
+		for (String guid : before.keySet()) {
+			if (!after.containsKey(guid)) {
+				result.add(guid);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Read a list of GUIDs, one per line, as written by writeTests, ignoring blank lines
+	 * and lines starting with #.
+	 *
+	 * @param file to read.
+	 * @return the GUIDs, without urn:uuid:
+	 * @throws IOException if unable to read the file.
+	 */
+	public static Set<String> readTests(File file) throws IOException {
+		Set<String> result = new TreeSet<String>();
+		BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+		try {
+			String line;
+			while ((line = in.readLine()) != null) {
+				line = line.trim();
+				if (line.length() > 0 && !line.startsWith("#")) {
+					result.add(stripUrn(line));
+				}
+			}
+		} finally {
+			in.close();
+		}
+		return result;
+	}
+
+	/**
+	 * Write a list of GUIDs, one per line.
+	 *
+	 * @param guids to write.
+	 * @param file to write, replaced if it exists.
+	 * @throws IOException if unable to write the file.
+	 */
+	public static void writeTests(Set<String> guids, File file) throws IOException {
+		Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8);
+		try {
+			for (String guid : guids) {
+				out.write(guid);
+				out.write("\n");
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * @param guid a GUID, with or without urn:uuid:
+	 * @return the GUID without urn:uuid:
+	 */
+	public static String stripUrn(String guid) {
+		return guid.startsWith("urn:uuid:") ? guid.substring("urn:uuid:".length()) : guid;
+	}
+
+	/**
+	 * Find the members within the jar reachable from a set of methods.
+	 *
+	 * @return keys of the members, in order.
+	 */
+	private Set<String> reachable(Set<String> roots) {
+		Set<String> result = new TreeSet<String>();
+		Deque<String> pending = new ArrayDeque<String>(roots);
+		while (!pending.isEmpty()) {
+			String member = pending.poll();
+			int dot = member.indexOf('.');
+			ClassInfo owner = classes.get(member.substring(0, dot));
+			if (owner==null || !result.add(member)) {
+				continue;
+			}
+			String method = member.substring(dot + 1);
+			// using any member of a class initializes the class
+			pending.add(owner.name + "." + STATIC_STATE);
+			List<String[]> references = owner.references.get(method);
+			if (references==null) {
+				continue;
+			}
+			for (String[] reference : references) {
+				pending.addAll(resolve(reference));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Find the members within the jar a reference may reach.
+	 *
+	 * @param reference kind, owner, name, and descriptor.
+	 * @return keys of the members.
+	 */
+	private List<String> resolve(String[] reference) {
+		List<String> result = new ArrayList<String>();
+		String kind = reference[0];
+		String owner = reference[1];
+		if (owner.startsWith("[") || !classes.containsKey(owner)) {
+			// arrays, and classes outside the jar
+			return result;
+		}
+		if (kind.equals(Reference.CLASS) || kind.equals(Reference.FIELD)) {
+			result.add(owner + "." + STATIC_STATE);
+			return result;
+		}
+		String method = reference[2] + reference[3];
+		String declared = findDeclaring(owner, method);
+		if (declared!=null) {
+			result.add(declared + "." + method);
+		}
+		if (kind.equals(Reference.VIRTUAL)) {
+			List<String> candidates = declaring.get(method);
+			if (candidates!=null) {
+				for (String candidate : candidates) {
+					if (!candidate.equals(owner) && getSupertypes(candidate).contains(owner)) {
+						result.add(candidate + "." + method);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Find the class within the jar declaring a method, searching the superclasses of a
+	 * class, then its interfaces, for default methods.
+	 */
+	private String findDeclaring(String owner, String method) {
+		String current = owner;
+		while (current!=null && classes.containsKey(current)) {
+			ClassInfo info = classes.get(current);
+			if (info.references.containsKey(method)) {
+				return current;
+			}
+			current = info.superName;
+		}
+		for (String supertype : getSupertypes(owner)) {
+			ClassInfo info = classes.get(supertype);
+			if (info!=null && info.isInterface && info.references.containsKey(method)) {
+				return supertype;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the class and all its supertypes within the jar.
+	 */
+	private Set<String> getSupertypes(String name) {
+		Set<String> result = supertypes.get(name);
+		if (result==null) {
+			result = new HashSet<String>();
+			Deque<String> pending = new ArrayDeque<String>();
+			pending.add(name);
+			while (!pending.isEmpty()) {
+				ClassInfo info = classes.get(pending.poll());
+				if (info!=null && result.add(info.name)) {
+					if (info.superName!=null) {
+						pending.add(info.superName);
+					}
+					pending.addAll(Arrays.asList(info.interfaces));
+				}
+			}
+			supertypes.put(name, result);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the hash of the body of a member, the empty string for a member not found.
+	 */
+	private String body(String member) {
+		int dot = member.indexOf('.');
+		String body = classes.get(member.substring(0, dot)).bodies.get(member.substring(dot + 1));
+		return body==null ? "" : body;
+	}
+
+	/**
+	 * @return true for an entry under META-INF/ that changes with every build of a jar.
+	 */
+	private static boolean isBuildMetadata(String name) {
+		String upper = name.toUpperCase(Locale.ROOT);
+		return upper.equals("META-INF/MANIFEST.MF") || upper.startsWith("META-INF/MAVEN/")
+				|| (upper.startsWith("META-INF/") && upper.indexOf('/', "META-INF/".length()) < 0
+						&& (upper.endsWith(".SF") || upper.endsWith(".RSA") || upper.endsWith(".DSA") || upper.endsWith(".EC")));
+	}
+
+	/**
+	 * @return the hex encoded hash of the content of a stream, which is closed.
+	 */
+	private static String hash(InputStream in) throws IOException {
+		MessageDigest digest = newDigest();
+		try {
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+		} finally {
+			in.close();
+		}
+		return toHex(digest.digest());
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			// required of every implementation of the java platform
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder result = new StringBuilder();
+		for (byte b : bytes) {
+			result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return result.toString();
+	}
+
+	private static String hash(CharSequence text) {
+		return toHex(newDigest().digest(text.toString().getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Kinds of reference from a method to a member of another class.
+	 */
+	private static final class Reference {
+		/** a static, special, or private call, resolved to one method */
+		static final String DIRECT = "direct";
+		/** a virtual or interface call, which may reach overriding methods */
+		static final String VIRTUAL = "virtual";
+		/** a field, which initializes its class */
+		static final String FIELD = "field";
+		/** a class used in a type instruction or constant, or a superclass, which initializes it */
+		static final String CLASS = "class";
+	}
+
+	/**
+	 * What is known of a class in the jar: its supertypes, the hash of the body of each
+	 * of its methods and of its static state, and the references made by each method.
+	 */
+	private static final class ClassInfo {
+		String name;
+		String superName;
+		String[] interfaces;
+		boolean isInterface;
+		/** Hash by method name and descriptor, and for STATIC_STATE. */
+		final Map<String,String> bodies = new HashMap<String,String>();
+		/** References by method name and descriptor, and for STATIC_STATE. */
+		final Map<String,List<String[]>> references = new HashMap<String,List<String[]>>();
+		/** Values of constant fields, part of the static state. */
+		final StringBuilder constants = new StringBuilder();
+	}
+
+	/**
+	 * Records each class visited, hashing its methods.
+	 */
+	private class HashingClassVisitor extends ClassVisitor {
+
+		private ClassInfo info;
+
+		HashingClassVisitor() {
+			super(Opcodes.ASM9);
+		}
+
+		@Override
+		public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+			info = new ClassInfo();
+			info.name = name;
+			info.superName = superName;
+			info.interfaces = interfaces==null ? new String[0] : interfaces;
+			info.isInterface = (access & Opcodes.ACC_INTERFACE) != 0;
+			classes.put(name, info);
+		}
+
+		@Override
+		public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+			if ((access & Opcodes.ACC_STATIC) != 0) {
+				info.constants.append(access).append(' ').append(name).append(' ').append(descriptor).append(' ').append(value).append('\n');
+			}
+			return null;
+		}
+
+		@Override
+		public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+			String method = name + descriptor;
+			List<String> owners = declaring.get(method);
+			if (owners==null) {
+				owners = new ArrayList<String>();
+				declaring.put(method, owners);
+			}
+			owners.add(info.name);
+			return new HashingMethodVisitor(info, method, access);
+		}
+
+		@Override
+		public void visitEnd() {
+			// class initialization runs the static initializer, after that of the superclass
+			List<String[]> references = new ArrayList<String[]>();
+			if (info.references.containsKey("<clinit>()V")) {
+				references.add(new String[] { Reference.DIRECT, info.name, "<clinit>", "()V" });
+			}
+			if (info.superName!=null) {
+				references.add(new String[] { Reference.CLASS, info.superName, null, null });
+			}
+			info.references.put(STATIC_STATE, references);
+			info.bodies.put(STATIC_STATE, hash(info.constants));
+		}
+	}
+
+	/**
+	 * Hashes the instructions, operands, and annotations of a method as text, with labels
+	 * numbered in the order met, and records the references it makes.
+	 */
+	private class HashingMethodVisitor extends MethodVisitor {
+
+		private final ClassInfo info;
+		private final String method;
+		private final StringBuilder text = new StringBuilder();
+		private final List<String[]> references = new ArrayList<String[]>();
+		private final Map<Label,Integer> labels = new HashMap<Label,Integer>();
+
+		HashingMethodVisitor(ClassInfo info, String method, int access) {
+			super(Opcodes.ASM9);
+			this.info = info;
+			this.method = method;
+			text.append(access).append('\n');
+		}
+
+		private String label(Label label) {
+			Integer index = labels.get(label);
+			if (index==null) {
+				index = Integer.valueOf(labels.size());
+				labels.put(label, index);
+			}
+			return "L" + index.toString();
+		}
+
+		private void constant(Object value) {
+			if (value instanceof Handle) {
+				handle((Handle)value);
+			} else if (value instanceof Type && ((Type)value).getSort()==Type.OBJECT) {
+				references.add(new String[] { Reference.CLASS, ((Type)value).getInternalName(), null, null });
+			}
+			text.append(value).append(' ');
+		}
+
+		private void handle(Handle handle) {
+			switch (handle.getTag()) {
+			case Opcodes.H_GETFIELD:
+			case Opcodes.H_GETSTATIC:
+			case Opcodes.H_PUTFIELD:
+			case Opcodes.H_PUTSTATIC:
+				references.add(new String[] { Reference.FIELD, handle.getOwner(), handle.getName(), handle.getDesc() });
+				break;
+			case Opcodes.H_INVOKEVIRTUAL:
+			case Opcodes.H_INVOKEINTERFACE:
+				references.add(new String[] { Reference.VIRTUAL, handle.getOwner(), handle.getName(), handle.getDesc() });
+				break;
+			default:
+				references.add(new String[] { Reference.DIRECT, handle.getOwner(), handle.getName(), handle.getDesc() });
+				break;
+			}
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+			text.append("@").append(descriptor).append(' ');
+			if (descriptor.equals(PROVIDES)) {
+				return new ProvidesVisitor(new HashingAnnotationVisitor(text), info.name + "." + method);
+			}
+			return new HashingAnnotationVisitor(text);
+		}
+
+		@Override
+		public AnnotationVisitor visitParameterAnnotation(int parameter, String descriptor, boolean visible) {
+			text.append("@").append(parameter).append(' ').append(descriptor).append(' ');
+			return new HashingAnnotationVisitor(text);
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotationDefault() {
+			text.append("default ");
+			return new HashingAnnotationVisitor(text);
+		}
+
+		@Override
+		public void visitInsn(int opcode) {
+			text.append(opcode).append('\n');
+		}
+
+		@Override
+		public void visitIntInsn(int opcode, int operand) {
+			text.append(opcode).append(' ').append(operand).append('\n');
+		}
+
+		@Override
+		public void visitVarInsn(int opcode, int var) {
+			text.append(opcode).append(' ').append(var).append('\n');
+		}
+
+		@Override
+		public void visitTypeInsn(int opcode, String type) {
+			references.add(new String[] { Reference.CLASS, type, null, null });
+			text.append(opcode).append(' ').append(type).append('\n');
+		}
+
+		@Override
+		public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+			references.add(new String[] { Reference.FIELD, owner, name, descriptor });
+			text.append(opcode).append(' ').append(owner).append('.').append(name).append(' ').append(descriptor).append('\n');
+		}
+
+		@Override
+		public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+			boolean virtual = opcode==Opcodes.INVOKEVIRTUAL || opcode==Opcodes.INVOKEINTERFACE;
+			references.add(new String[] { virtual ? Reference.VIRTUAL : Reference.DIRECT, owner, name, descriptor });
+			text.append(opcode).append(' ').append(owner).append('.').append(name).append(descriptor).append('\n');
+		}
+
+		@Override
+		public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
+			text.append(Opcodes.INVOKEDYNAMIC).append(' ').append(name).append(descriptor).append(' ');
+			constant(bootstrapMethodHandle);
+			for (Object argument : bootstrapMethodArguments) {
+				constant(argument);
+			}
+			text.append('\n');
+		}
+
+		@Override
+		public void visitJumpInsn(int opcode, Label label) {
+			text.append(opcode).append(' ').append(label(label)).append('\n');
+		}
+
+		@Override
+		public void visitLabel(Label label) {
+			text.append(label(label)).append(":\n");
+		}
+
+		@Override
+		public void visitLdcInsn(Object value) {
+			text.append(Opcodes.LDC).append(' ');
+			constant(value);
+			text.append('\n');
+		}
+
+		@Override
+		public void visitIincInsn(int var, int increment) {
+			text.append(Opcodes.IINC).append(' ').append(var).append(' ').append(increment).append('\n');
+		}
+
+		@Override
+		public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+			text.append(Opcodes.TABLESWITCH).append(' ').append(min).append(' ').append(max).append(' ').append(label(dflt));
+			for (Label label : labels) {
+				text.append(' ').append(label(label));
+			}
+			text.append('\n');
+		}
+
+		@Override
+		public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+			text.append(Opcodes.LOOKUPSWITCH).append(' ').append(label(dflt));
+			for (int i=0; i<keys.length; i++) {
+				text.append(' ').append(keys[i]).append('=').append(label(labels[i]));
+			}
+			text.append('\n');
+		}
+
+		@Override
+		public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+			text.append(Opcodes.MULTIANEWARRAY).append(' ').append(descriptor).append(' ').append(numDimensions).append('\n');
+		}
+
+		@Override
+		public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+			text.append("try ").append(label(start)).append(' ').append(label(end)).append(' ').append(label(handler)).append(' ').append(type).append('\n');
+		}
+
+		@Override
+		public void visitEnd() {
+			info.bodies.put(method, hash(text));
+			info.references.put(method, references);
+		}
+	}
+
+	/**
+	 * Appends the values of an annotation to the text of a method.
+	 */
+	private static class HashingAnnotationVisitor extends AnnotationVisitor {
+
+		private final StringBuilder text;
+
+		HashingAnnotationVisitor(StringBuilder text) {
+			super(Opcodes.ASM9);
+			this.text = text;
+		}
+
+		@Override
+		public void visit(String name, Object value) {
+			// wrapped, so arrays of primitives are written by value
+			text.append(name).append('=').append(Arrays.deepToString(new Object[] { value })).append(' ');
+		}
+
+		@Override
+		public void visitEnum(String name, String descriptor, String value) {
+			text.append(name).append('=').append(descriptor).append('.').append(value).append(' ');
+		}
+
+		@Override
+		public AnnotationVisitor visitAnnotation(String name, String descriptor) {
+			text.append(name).append("=@").append(descriptor).append(' ');
+			return this;
+		}
+
+		@Override
+		public AnnotationVisitor visitArray(String name) {
+			text.append(name).append("=[ ");
+			return this;
+		}
+
+		@Override
+		public void visitEnd() {
+			text.append("; ");
+		}
+	}
+
+	/**
+	 * Records the GUID given by a Provides annotation, passing its values on to be hashed.
+	 */
+	private class ProvidesVisitor extends AnnotationVisitor {
+
+		private final String member;
+
+		ProvidesVisitor(AnnotationVisitor hashing, String member) {
+			super(Opcodes.ASM9, hashing);
+			this.member = member;
+		}
+
+		@Override
+		public void visit(String name, Object value) {
+			if ("value".equals(name) && value instanceof String) {
+				String guid = stripUrn(((String)value).trim());
+				Set<String> methods = provides.get(guid);
+				if (methods==null) {
+					methods = new TreeSet<String>();
+					provides.put(guid, methods);
+				}
+				methods.add(member);
+			}
+			super.visit(name, value);
+		}
+	}
+
+	/**
+	 * Compare two versions of a library jar, writing the GUIDs of the tests whose
+	 * implementation changed, to be passed to a run with --changedTests.
+	 *
+	 * @param args see -h for options.
+	 */
+	public static void main(String[] args) {
+		Options options = new Options();
+		options.addOption("b","before",true,"Jar of the earlier version of the library of test implementations, required.");
+		options.addOption("a","after",true,"Jar of the later version of the library of test implementations, required.");
+		options.addOption("o","output",true,"File to which to write the GUIDs of the changed tests, one per line, required, must not exist.");
+		options.addOption("h","help",false,"Show help.");
+		try {
+			CommandLineParser parser = new DefaultParser();
+			CommandLine cmd = parser.parse(options, args);
+			if (cmd.hasOption("h") || !cmd.hasOption("b") || !cmd.hasOption("a") || !cmd.hasOption("o")) {
+				HelpFormatter formatter = new HelpFormatter();
+				formatter.printHelp("java -cp bdqtestrunner-{version}-{gitcommit}-executable.jar org.filteredpush.qc.bdqtestrunner.ChangeImpactAnalyzer", options);
+			} else {
+				File outputFile = new File(cmd.getOptionValue("o"));
+				if (outputFile.exists()) {
+					throw new IOException("Specified output file already exists, cannot overwrite");
+				}
+				Map<String,String> before = new ChangeImpactAnalyzer(new File(cmd.getOptionValue("b"))).getFingerprints();
+				Map<String,String> after = new ChangeImpactAnalyzer(new File(cmd.getOptionValue("a"))).getFingerprints();
+				Set<String> changed = changed(before, after);
+				writeTests(changed, outputFile);
+				System.out.println(Integer.toString(changed.size()) + " of " + Integer.toString(after.size()) + " tests changed, written to " + outputFile.getName());
+			}
+		} catch (Exception e) {
+			logger.error(e.getMessage(),e);
+			System.out.println(e.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,78 @@
+/**
+ * CompactBookkeeping.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Exact bookkeeping of dataIDs in compact tables of UTF-8 bytes, using a fraction
+ * of the memory of ExactBookkeeping, optionally off the heap.  Dataids not run are
+ * listed in table order rather than HashMap order.
+ *
+ */
+public class CompactBookkeeping implements DataIDBookkeeping {
+
+	private static final long serialVersionUID = 1L;
+
+	private final CompactStringTable dataIDsRun;
+
+	private final CompactStringTable dataIDsNotRun;
+
+	/**
+	 * @param expectedRows expected number of rows, a hint for the initial size of the
+	 *   tables, which start small and grow as dataIDs are added.
+	 * @param direct true to hold the dataIDs off the heap in direct buffers.
+	 */
+	public CompactBookkeeping(long expectedRows, boolean direct) {
+		int capacity = (int)Math.max(0L, Math.min(expectedRows, 1 << 24));
+		dataIDsRun = new CompactStringTable(capacity, direct);
+		dataIDsNotRun = new CompactStringTable(Math.max(16, capacity / 16), direct);
+	}
+
+	@Override
+	public boolean isRun(String dataID) {
+		return dataIDsRun.contains(dataID);
+	}
+
+	@Override
+	public void markRun(String dataID) {
+		dataIDsRun.add(dataID);
+	}
+
+	@Override
+	public void markNotRun(String dataID, String description) {
+		dataIDsNotRun.put(dataID, description);
+	}
+
+	@Override
+	public long getNotRunCount() {
+		return dataIDsNotRun.size();
+	}
+
+	@Override
+	public Iterator<Map.Entry<String,String>> notRunIterator() {
+		return dataIDsNotRun.iterator();
+	}
+
+	@Override
+	public void close() {
+		// buffers are released when the tables are collected
+	}
+
+}
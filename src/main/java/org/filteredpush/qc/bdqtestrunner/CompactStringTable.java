@@ -0,0 +1,299 @@
+/**
+ * CompactStringTable.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Hash table of strings, each optionally with a string value, stored as UTF-8 bytes
+ * in a single growable buffer, indexed by an open addressing table of int offsets,
+ * using a few bytes per entry more than the length of the strings, rather than the
+ * several objects per entry of a HashMap.  The buffer may be allocated off the heap.
+ *
+ * Entries are laid out in the buffer as the length of the key, the key, the length
+ * of the value (-1 for none), and the value.  Replacing a value appends a new entry,
+ * abandoning the old one.  Entries can't be removed.
+ *
+ */
+class CompactStringTable implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final float LOAD_FACTOR = 0.6f;
+
+	/** Most entries to allocate for up front, a larger table grows as entries are added. */
+	private static final int MAX_INITIAL_CAPACITY = 1 << 16;
+
+	private final boolean direct;
+
+	/** offset + 1 of the entry in the arena for each slot, 0 for an empty slot */
+	private int[] slots;
+
+	private int size;
+
+	private int arenaUsed;
+
+	private transient ByteBuffer arena;
+
+	/**
+	 * @param initialCapacity expected number of entries, a hint only, as the table starts
+	 *   with space for at most MAX_INITIAL_CAPACITY entries and grows as needed.
+	 * @param direct true to hold the strings in a direct buffer, off the heap.
+	 */
+	CompactStringTable(int initialCapacity, boolean direct) {
+		this.direct = direct;
+		initialCapacity = Math.max(0, Math.min(initialCapacity, MAX_INITIAL_CAPACITY));
+		int slotCount = Integer.highestOneBit(Math.max(16, (int)(initialCapacity / LOAD_FACTOR)) - 1) << 1;
+		slots = new int[slotCount];
+		arena = allocate(Math.max(1024, initialCapacity * 16));
+	}
+
+	private ByteBuffer allocate(int capacity) {
+		return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+	}
+
+	/**
+	 * @param key to find.
+	 * @return true if the table contains the key.
+	 */
+	boolean contains(String key) {
+		byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		return slots[find(keyBytes, hash(keyBytes))] != 0;
+	}
+
+	/**
+	 * Add a key with no value, if not present.
+	 *
+	 * @param key to add.
+	 * @return true if the key was added, false if it was already present.
+	 */
+	boolean add(String key) {
+		byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		int slot = find(keyBytes, hash(keyBytes));
+		if (slots[slot] != 0) {
+			return false;
+		}
+		slots[slot] = append(keyBytes, null) + 1;
+		grow();
+		return true;
+	}
+
+	/**
+	 * Add a key with a value, replacing the value of the key if present.
+	 *
+	 * @param key to add.
+	 * @param value for the key.
+	 */
+	void put(String key, String value) {
+		byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		int slot = find(keyBytes, hash(keyBytes));
+		boolean added = slots[slot] == 0;
+		slots[slot] = append(keyBytes, value.getBytes(StandardCharsets.UTF_8)) + 1;
+		if (added) {
+			grow();
+		}
+	}
+
+	/**
+	 * @return the number of keys in the table.
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return the bytes used by the table, on and off the heap.
+	 */
+	long getFootprint() {
+		return (long)slots.length * 4 + arena.capacity();
+	}
+
+	/**
+	 * Iterate over the entries, in table order.
+	 *
+	 * @return iterator over key, value pairs, value null for keys added without a value.
+	 */
+	Iterator<Map.Entry<String,String>> iterator() {
+		return new Iterator<Map.Entry<String,String>>() {
+			private int slot = advance(0);
+
+			private int advance(int from) {
+				int i = from;
+				while (i < slots.length && slots[i] == 0) {
+					i++;
+				}
+				return i;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return slot < slots.length;
+			}
+
+			@Override
+			public Map.Entry<String,String> next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				int offset = slots[slot] - 1;
+				int keyLength = arena.getInt(offset);
+				String key = decode(offset + 4, keyLength);
+				int valueLength = arena.getInt(offset + 4 + keyLength);
+				String value = valueLength < 0 ? null : decode(offset + 8 + keyLength, valueLength);
+				slot = advance(slot + 1);
+				return new AbstractMap.SimpleImmutableEntry<String,String>(key, value);
+			}
+		};
+	}
+
+	private String decode(int offset, int length) {
+		byte[] bytes = new byte[length];
+		for (int i=0; i<length; i++) {
+			bytes[i] = arena.get(offset + i);
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Find the slot holding a key, or the empty slot where it would be added.
+	 */
+	private int find(byte[] keyBytes, int hash) {
+		int mask = slots.length - 1;
+		int slot = hash & mask;
+		while (slots[slot] != 0 && !keyEquals(slots[slot] - 1, keyBytes)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private boolean keyEquals(int offset, byte[] keyBytes) {
+		if (arena.getInt(offset) != keyBytes.length) {
+			return false;
+		}
+		for (int i=0; i<keyBytes.length; i++) {
+			if (arena.get(offset + 4 + i) != keyBytes[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Append an entry to the arena, growing it if needed.
+	 *
+	 * @return the offset of the entry.
+	 */
+	private int append(byte[] keyBytes, byte[] valueBytes) {
+		int length = 8 + keyBytes.length + (valueBytes==null ? 0 : valueBytes.length);
+		if ((long)arenaUsed + length > Integer.MAX_VALUE) {
+			throw new IllegalStateException("Compact table is full, use probabilistic bookkeeping for this many rows.");
+		}
+		if (arenaUsed + length > arena.capacity()) {
+			int capacity = (int)Math.min(Integer.MAX_VALUE, Math.max((long)arena.capacity() * 2, (long)arenaUsed + length));
+			ByteBuffer larger = allocate(capacity);
+			ByteBuffer used = arena.duplicate();
+			used.position(0);
+			used.limit(arenaUsed);
+			larger.put(used);
+			arena = larger;
+		}
+		int offset = arenaUsed;
+		arena.position(offset);
+		arena.putInt(keyBytes.length);
+		arena.put(keyBytes);
+		if (valueBytes==null) {
+			arena.putInt(-1);
+		} else {
+			arena.putInt(valueBytes.length);
+			arena.put(valueBytes);
+		}
+		arenaUsed = arena.position();
+		return offset;
+	}
+
+	/**
+	 * Count an added key, rehashing into a larger table if over the load factor.
+	 */
+	private void grow() {
+		size++;
+		if (size > slots.length * LOAD_FACTOR) {
+			int[] old = slots;
+			slots = new int[old.length * 2];
+			int mask = slots.length - 1;
+			for (int i=0; i<old.length; i++) {
+				if (old[i] != 0) {
+					int offset = old[i] - 1;
+					int keyLength = arena.getInt(offset);
+					byte[] keyBytes = new byte[keyLength];
+					for (int j=0; j<keyLength; j++) {
+						keyBytes[j] = arena.get(offset + 4 + j);
+					}
+					int slot = hash(keyBytes) & mask;
+					while (slots[slot] != 0) {
+						slot = (slot + 1) & mask;
+					}
+					slots[slot] = old[i];
+				}
+			}
+		}
+	}
+
+	/**
+	 * FNV-1a over the bytes, with the murmur3 finalizer to spread the bits over the table.
+	 */
+	static int hash(byte[] bytes) {
+		int h = 0x811c9dc5;
+		for (int i=0; i<bytes.length; i++) {
+			h ^= bytes[i];
+			h *= 0x01000193;
+		}
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h;
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		byte[] used = new byte[arenaUsed];
+		ByteBuffer view = arena.duplicate();
+		view.position(0);
+		view.get(used);
+		out.write(used);
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		byte[] used = new byte[arenaUsed];
+		in.readFully(used);
+		arena = allocate((int)Math.min(Integer.MAX_VALUE, Math.max(1024L, arenaUsed * 2L)));
+		arena.put(used);
+	}
+
+}
@@ -0,0 +1,252 @@
+/**
+ * ConversionIndex.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Sidecar index of a conversion of a source spreadsheet into test validation data,
+ * written next to the test validation data with the suffix .index, holding a hash of
+ * the content of each source row keyed by dataID, from which a later conversion can
+ * copy the rows that haven't changed rather than converting them again, and report
+ * which dataIDs were added, removed, or modified.
+ *
+ * Stored as CSV with columns dataID, hash (of the source columns of the row), conversion
+ * (a fingerprint of the vocabulary and rules the row was converted with), errors (the
+ * number of violations found in the row), and inputTerms and outputTerms (space separated).
+ *
+ */
+public class ConversionIndex {
+
+	private static final Log logger = LogFactory.getLog(ConversionIndex.class);
+
+	/** Suffix added to the name of a test validation data file to name its index. */
+	public static final String SUFFIX = ".index";
+
+	/**
+	 * Version of the conversion of rows, to increment on any change to the conversion of a
+	 * row not captured by the vocabulary or the rules, so that rows are not reused across it.
+	 */
+	private static final int CONVERSION_VERSION = 1;
+
+	static final String[] HEADER = { "dataID", "hash", "conversion", "errors", "inputTerms", "outputTerms" };
+
+	/** Fingerprint of the current conversion. */
+	static final String CONVERSION = computeConversion();
+
+	private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> newDigest());
+
+	/** Hashes for each dataID, in the order of the source spreadsheet. */
+	private final Map<String,Set<String>> dataIDHashes = new LinkedHashMap<String,Set<String>>();
+
+	/** Rows of the test validation data without errors, converted with the current conversion, by hash. */
+	private final Map<String,String[]> reusableRows = new HashMap<String,String[]>();
+
+	/** Input and output terms of each reusable row, by hash. */
+	private final Map<String,String[][]> reusableTerms = new HashMap<String,String[][]>();
+
+	private final String name;
+
+	private ConversionIndex(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Read the index of a previous conversion, with the rows of the test validation data
+	 * that can be reused.
+	 *
+	 * @param output the test validation data written by the previous conversion.
+	 * @return the index, or null if output or its index doesn't exist.
+	 * @throws IOException on failure to read.
+	 */
+	public static ConversionIndex read(File output) throws IOException {
+		File indexFile = new File(output.getPath() + SUFFIX);
+		if (!output.isFile() || !indexFile.isFile()) {
+			logger.debug("No previous conversion with an index in " + output.getPath());
+			return null;
+		}
+		ConversionIndex result = new ConversionIndex(output.getPath());
+		// the index has a row for each row of the output, in the same order
+		Reader indexIn = new BufferedReader(new InputStreamReader(new FileInputStream(indexFile), StandardCharsets.UTF_8));
+		try {
+			Reader outputIn = new BufferedReader(new InputStreamReader(new FileInputStream(output), StandardCharsets.UTF_8));
+			try {
+				Iterator<CSVRecord> indexRecords = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(indexIn).iterator();
+				Iterator<CSVRecord> outputRecords = CSVFormat.DEFAULT.parse(outputIn).iterator();
+				boolean reusable = outputRecords.hasNext() && Arrays.asList(toArray(outputRecords.next())).equals(ConversionVocabulary.getColumns());
+				if (!reusable) {
+					logger.debug("Columns of " + output.getPath() + " differ from the current columns, no rows can be reused.");
+				}
+				while (indexRecords.hasNext()) {
+					CSVRecord record = indexRecords.next();
+					String[] row = outputRecords.hasNext() ? toArray(outputRecords.next()) : null;
+					String dataID = record.get("dataID");
+					String hash = record.get("hash");
+					result.addHash(dataID, hash);
+					if (reusable && row!=null && row.length==ConversionVocabulary.getColumns().size()
+							&& dataID.equals(row[ConversionVocabulary.DATA_ID])
+							&& CONVERSION.equals(record.get("conversion")) && "0".equals(record.get("errors"))) {
+						result.reusableRows.put(hash, row);
+						result.reusableTerms.put(hash, new String[][] { splitTerms(record.get("inputTerms")), splitTerms(record.get("outputTerms")) });
+					}
+				}
+			} finally {
+				outputIn.close();
+			}
+		} finally {
+			indexIn.close();
+		}
+		return result;
+	}
+
+	private void addHash(String dataID, String hash) {
+		Set<String> hashes = dataIDHashes.get(dataID);
+		if (hashes==null) {
+			hashes = new LinkedHashSet<String>();
+			dataIDHashes.put(dataID, hashes);
+		}
+		hashes.add(hash);
+	}
+
+	private static String[] toArray(CSVRecord record) {
+		String[] result = new String[record.size()];
+		for (int i=0; i<result.length; i++) {
+			result[i] = record.get(i);
+		}
+		return result;
+	}
+
+	private static String[] splitTerms(String terms) {
+		return terms.length()==0 ? new String[0] : terms.split(" ");
+	}
+
+	/**
+	 * @return the name of the test validation data indexed.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the hashes of the rows for each dataID, in the order of the source spreadsheet.
+	 */
+	Map<String,Set<String>> getDataIDHashes() {
+		return dataIDHashes;
+	}
+
+	/**
+	 * A copy of the row of test validation data converted from source content with a hash,
+	 * if it was converted with the current conversion and without errors.
+	 *
+	 * @param hash of the source row.
+	 * @return a copy of the converted row, null if there is none to reuse.
+	 */
+	String[] getReusableRow(String hash) {
+		String[] row = reusableRows.get(hash);
+		return row==null ? null : row.clone();
+	}
+
+	/**
+	 * @param hash of a source row with a reusable row.
+	 * @return the input terms and output terms found in the source row.
+	 */
+	String[][] getReusableTerms(String hash) {
+		return reusableTerms.get(hash);
+	}
+
+	/**
+	 * Hash of the source columns of a row of a source spreadsheet, the content from which
+	 * the row of test validation data is converted.
+	 *
+	 * @param record the row of the source spreadsheet.
+	 * @return hex encoded hash.
+	 */
+	static String hash(CSVRecord record) {
+		MessageDigest digest = DIGEST.get();
+		digest.reset();
+		for (String column : ConversionVocabulary.getSourceColumns()) {
+			String value = record.get(column);
+			// length prefix, so that values can't run into each other
+			update(digest, Integer.toString(value.length()));
+			digest.update((byte)':');
+			update(digest, value);
+		}
+		return hex(digest.digest(), 16);
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		digest.update(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String hex(byte[] bytes, int length) {
+		StringBuilder result = new StringBuilder(length * 2);
+		for (int i=0; i<length; i++) {
+			result.append(Character.forDigit((bytes[i] >> 4) & 0xf, 16));
+			result.append(Character.forDigit(bytes[i] & 0xf, 16));
+		}
+		return result.toString();
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			// required of every java platform
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String computeConversion() {
+		MessageDigest digest = newDigest();
+		update(digest, Integer.toString(CONVERSION_VERSION));
+		List<String> parts = new ArrayList<String>();
+		parts.addAll(ConversionVocabulary.getSourceColumns());
+		parts.addAll(ConversionVocabulary.getColumns());
+		for (ConversionRule rule : ConversionRule.values()) {
+			parts.add(rule.name());
+		}
+		for (String part : parts) {
+			digest.update((byte)0);
+			update(digest, part);
+		}
+		return hex(digest.digest(), 8);
+	}
+
+}
@@ -0,0 +1,136 @@
+/**
+ * ConversionRule.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.util.List;
+
+import org.filteredpush.qc.bdqtestrunner.ConversionVocabulary.OutputType;
+import org.filteredpush.qc.bdqtestrunner.ConversionVocabulary.ResponseStatus;
+import org.filteredpush.qc.bdqtestrunner.TermValueTokenizer.TermValue;
+
+/**
+ * Rules checked for each row of a source spreadsheet in converting it into test validation
+ * data.  Each rule adds a message to a list of violations for each violation found, rules
+ * are stateless and may check rows concurrently, and are checked in declaration order so
+ * that the violations for a row are always reported in the same order.
+ *
+ */
+enum ConversionRule {
+
+	/** The Output Type is a known output type. */
+	KNOWN_OUTPUT_TYPE {
+		@Override
+		void check(SourceRow row, List<String> violations) {
+			if (row.outputType==null) {
+				String hint = row.dataID==null || row.dataID.length()==0 ? " (unable to read dataID, is there a blank line?)" : "";
+				violations.add(row.errorIn() + " unrecognized test class: " + row.testType + hint);
+			}
+		}
+	},
+
+	/** Response.result matches Output.data, where Output.data is given. */
+	RESULT_MATCHES_OUTPUT_DATA {
+		@Override
+		void check(SourceRow row, List<String> violations) {
+			if (row.outputData.length()>0 && !row.responseResult.equals(row.outputData)) {
+				violations.add(row.errorIn() + " missmatch between Response.result ["+row.responseResult+"] and Output.data ["+ row.outputData +"] ");
+			}
+		}
+	},
+
+	/** Response.status is one allowed for the output type in the Label. */
+	STATUS_FOR_OUTPUT_TYPE {
+		@Override
+		void check(SourceRow row, List<String> violations) {
+			if (row.outputType!=null && !row.outputType.allows(row.status)) {
+				if (row.outputType==OutputType.AMENDMENT) {
+					violations.add("Error in line " + Integer.toString(row.line) + " unrecognized response.status [" + row.responseStatus + "] for " + row.testType);
+				} else {
+					violations.add("Error in " + Integer.toString(row.line) + " unrecognized response.status " + row.responseStatus + " for " + row.testType);
+				}
+			}
+		}
+	},
+
+	/** Input.data is a non-empty, well formed list of known terms and their values. */
+	KNOWN_INPUT_TERMS {
+		@Override
+		void check(SourceRow row, List<String> violations) {
+			if (row.inputTermValues.isEmpty() && row.inputMalformed.isEmpty()) {
+				violations.add("Error in " + Integer.toString(row.line) + " " + row.inputData);
+			}
+			for (String bit : row.inputMalformed) {
+				violations.add(row.errorIn() + " " + bit);
+			}
+			for (TermValue termValue : row.inputTermValues) {
+				if (termValue.term==null) {
+					violations.add(row.errorIn() + " " + termValue.value);
+				} else if (ConversionVocabulary.columnIndex(termValue.term) < 0) {
+					violations.add(row.errorIn() + " unrecognized input term " + termValue.term);
+				}
+			}
+		}
+	},
+
+	/**
+	 * Output.data is a well formed list of known terms and their values, or for a MEASURE
+	 * may be just the value.
+	 */
+	KNOWN_OUTPUT_TERMS {
+		@Override
+		void check(SourceRow row, List<String> violations) {
+			for (String bit : row.outputMalformed) {
+				violations.add("Error in Output " + row.dataID + " Line:" + Integer.toString(row.line) + " " + bit);
+			}
+			for (TermValue termValue : row.outputTermValues) {
+				if (termValue.term==null) {
+					if (row.outputType!=OutputType.MEASURE) {
+						violations.add("Error in Output " + row.dataID + " Line:" + Integer.toString(row.line) + " " + termValue.value);
+					}
+				} else if (ConversionVocabulary.columnIndex(termValue.term) < 0) {
+					violations.add(row.errorIn() + " unrecognized output term " + termValue.term);
+				}
+			}
+		}
+	},
+
+	/** Known terms and values are present in Output.data only when Response.status is AMENDED or FILLED_IN. */
+	RESULT_VALUES_ONLY_WHEN_AMENDED {
+		@Override
+		void check(SourceRow row, List<String> violations) {
+			if (row.status==ResponseStatus.AMENDED || row.status==ResponseStatus.FILLED_IN) {
+				return;
+			}
+			for (TermValue termValue : row.outputTermValues) {
+				if (termValue.term!=null && ConversionVocabulary.columnIndex(termValue.term) >= 0) {
+					violations.add("Error in Output " + row.dataID + " Line:" + Integer.toString(row.line) + " key:value pairs present when Response.status is not AMENDED or FILLED_IN");
+					return;
+				}
+			}
+		}
+	};
+
+	/**
+	 * Check a row against this rule.
+	 *
+	 * @param row the row to check.
+	 * @param violations to which to add a message for each violation found.
+	 */
+	abstract void check(SourceRow row, List<String> violations);
+
+}
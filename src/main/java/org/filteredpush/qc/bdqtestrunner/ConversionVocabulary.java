@@ -0,0 +1,282 @@
+/**
+ * ConversionVocabulary.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable vocabulary used in converting source spreadsheets into test validation data:
+ * the columns of the test validation data (including the supported information elements
+ * and parameters), the output types of tests, and the response statuses each output type
+ * may have, compiled once into lookup tables shared by all conversions.
+ *
+ */
+public final class ConversionVocabulary {
+
+	/**
+	 * Response statuses found in the source spreadsheets.
+	 */
+	public enum ResponseStatus {
+		RUN_HAS_RESULT,
+		INTERNAL_PREREQUISITES_NOT_MET,
+		EXTERNAL_PREREQUISITES_NOT_MET,
+		AMENDED,
+		NOT_AMENDED,
+		FILLED_IN;
+
+		private static final Map<String,ResponseStatus> LOOKUP = new HashMap<String,ResponseStatus>();
+		static {
+			for (ResponseStatus status : values()) {
+				LOOKUP.put(status.name(), status);
+			}
+		}
+
+		/**
+		 * @param value a response status.
+		 * @return the matching response status, null if value is not a response status.
+		 */
+		public static ResponseStatus lookup(String value) {
+			return LOOKUP.get(value);
+		}
+	}
+
+	/**
+	 * Output types of tests, with the response statuses allowed for each.
+	 */
+	public enum OutputType {
+		MEASURE(EnumSet.of(ResponseStatus.RUN_HAS_RESULT, ResponseStatus.INTERNAL_PREREQUISITES_NOT_MET, ResponseStatus.EXTERNAL_PREREQUISITES_NOT_MET)),
+		VALIDATION(EnumSet.of(ResponseStatus.RUN_HAS_RESULT, ResponseStatus.INTERNAL_PREREQUISITES_NOT_MET, ResponseStatus.EXTERNAL_PREREQUISITES_NOT_MET)),
+		AMENDMENT(EnumSet.of(ResponseStatus.AMENDED, ResponseStatus.NOT_AMENDED, ResponseStatus.FILLED_IN, ResponseStatus.INTERNAL_PREREQUISITES_NOT_MET, ResponseStatus.EXTERNAL_PREREQUISITES_NOT_MET)),
+		/** Response statuses of issues are not checked. */
+		ISSUE(EnumSet.allOf(ResponseStatus.class));
+
+		private static final Map<String,OutputType> LOOKUP = new HashMap<String,OutputType>();
+		static {
+			for (OutputType type : values()) {
+				LOOKUP.put(type.name(), type);
+			}
+		}
+
+		private final Set<ResponseStatus> statuses;
+
+		private OutputType(EnumSet<ResponseStatus> statuses) {
+			this.statuses = Collections.unmodifiableSet(statuses);
+		}
+
+		/**
+		 * @param status a response status, may be null.
+		 * @return true if a test of this output type may have the response status.
+		 */
+		public boolean allows(ResponseStatus status) {
+			return status!=null && statuses.contains(status);
+		}
+
+		/**
+		 * @param value an output type.
+		 * @return the matching output type, null if value is not an output type.
+		 */
+		public static OutputType lookup(String value) {
+			return LOOKUP.get(value);
+		}
+	}
+
+	/** Column of the test validation data holding the line number in the source spreadsheet. */
+	public static final int LINE_NUMBER = 0;
+	/** Column holding the dataID. */
+	public static final int DATA_ID = 1;
+	/** Column holding the line number in the source spreadsheet of the test. */
+	public static final int LINE_FOR_TEST = 2;
+	/** Column holding the GitHub issue number of the test. */
+	public static final int GITHUB_ISSUE_NO = 3;
+	/** Column holding the GUID of the test. */
+	public static final int GUID = 4;
+	/** Column holding the output type and label of the test. */
+	public static final int LABEL = 5;
+	/** Column holding the expected response status. */
+	public static final int RESPONSE_STATUS = 6;
+	/** Column holding the expected response result. */
+	public static final int RESPONSE_RESULT = 7;
+	/** Column holding the expected response comment. */
+	public static final int RESPONSE_COMMENT = 8;
+	/** Column holding notes on issues with the row. */
+	public static final int ISSUES_WITH_THIS_ROW = 9;
+
+	private static final List<String> SOURCE_COLUMNS = Collections.unmodifiableList(Arrays.asList(
+		"dataID", "LineForTest", "Number", "GUID", "Output Type", "Label", "Input.data", "Output.data",
+		"Response.status", "Response.result", "Response.comment", "ISSUE"));
+
+	private static final String[] FIXED_COLUMNS = {
+		"LineNumber",
+		"dataID",
+		"LineForTest",
+		"GitHubIssueNo",
+		"GUID",
+		"Label",
+		"Response.status",
+		"Response.result",
+		"Response.comment",
+		"IssuesWithThisRow"
+	};
+
+	private static final String[] INFORMATION_ELEMENTS = {
+		"bdq:annotation",
+		"bdq:annotationAlertif",
+		"bdq:sourceAuthority",
+		"dc:type",
+		"dcterms:license",
+		"dwc:acceptedNameUsageID",
+		"dwc:basisOfRecord",
+		"dwc:class",
+		"dwc:continent",
+		"dwc:coordinateUncertaintyInMeters",
+		"dwc:country",
+		"dwc:countryCode",
+		"dwc:county",
+		"dwc:dataGeneralizations",
+		"dwc:dateIdentified",
+		"dwc:day",
+		"dwc:decimalLatitude",
+		"dwc:decimalLongitude",
+		"dwc:endDayOfYear",
+		"dwc:establishmentMeans",
+		"dwc:eventDate",
+		"dwc:family",
+		"dwc:genus",
+		"dwc:geodeticDatum",
+		"dwc:higherClassification",
+		"dwc:higherGeography",
+		"dwc:higherGeographyID",
+		"dwc:infraspecificEpithet",
+		"dwc:island",
+		"dwc:islandGroup",
+		"dwc:kingdom",
+		"dwc:locality",
+		"dwc:locationID",
+		"dwc:maximumDepthInMeters",
+		"dwc:maximumElevationInMeters",
+		"dwc:minimumDepthInMeters",
+		"dwc:minimumElevationInMeters",
+		"dwc:month",
+		"dwc:municipality",
+		"dwc:occurrenceID",
+		"dwc:occurrenceStatus",
+		"dwc:order",
+		"dwc:originalNameUsageID",
+		"dwc:parentNameUsageID",
+		"dwc:phylum",
+		"dwc:scientificName",
+		"dwc:scientificNameAuthorship",
+		"dwc:scientificNameID",
+		"dwc:specificEpithet",
+		"dwc:startDayOfYear",
+		"dwc:stateProvince",
+		"dwc:subgenus",
+		"dwc:taxon",
+		"dwc:taxonConceptID",
+		"dwc:taxonID",
+		"dwc:taxonRank",
+		"dwc:verbatimCoordinateSystem",
+		"dwc:verbatimCoordinates",
+		"dwc:verbatimDepth",
+		"dwc:verbatimElevation",
+		"dwc:verbatimEventDate",
+		"dwc:verbatimLatitude",
+		"dwc:verbatimLocality",
+		"dwc:verbatimLongitude",
+		"dwc:verbatimSRS",
+		"dwc:vernacularName",
+		"dwc:waterBody",
+		"dwc:year",
+		"dwc:subfamily",
+		"dwc:superfamily",
+		"dwc:tribe",
+		"dwc:subtribe",
+		"dwc:genericName",
+		"dwc:infragenericEpithet",
+		"dwc:cultivarEpithet",
+		"dwc:individualCount",
+		"dwc:organismQuantity",
+		"dwc:footprintWKT",
+		"dwc:coordinatePrecision",
+		"dwc:namePublishedInYear",
+		"dwc:sex",
+		"dwc:typeStatus",
+		"dwc:pathway",
+		"dwc:degreeOfEstablishment",
+		"bdq:taxonIsMarine",
+		"bdq:geospatialLand",
+		"bdq:assumptionOnUnknownBiome",
+		"bdq:latestValidDate",
+		"bdq:earliestValidDate"
+	};
+
+	private static final List<String> COLUMNS;
+
+	private static final Map<String,Integer> COLUMN_INDEX;
+
+	static {
+		String[] columns = Arrays.copyOf(FIXED_COLUMNS, FIXED_COLUMNS.length + INFORMATION_ELEMENTS.length);
+		System.arraycopy(INFORMATION_ELEMENTS, 0, columns, FIXED_COLUMNS.length, INFORMATION_ELEMENTS.length);
+		COLUMNS = Collections.unmodifiableList(Arrays.asList(columns));
+		Map<String,Integer> index = new HashMap<String,Integer>(columns.length * 2);
+		for (int i=0; i<columns.length; i++) {
+			index.put(columns[i], Integer.valueOf(i));
+		}
+		COLUMN_INDEX = Collections.unmodifiableMap(index);
+	}
+
+	private ConversionVocabulary() {
+	}
+
+	/**
+	 * @return the columns that a source spreadsheet must have.
+	 */
+	public static List<String> getSourceColumns() {
+		return SOURCE_COLUMNS;
+	}
+
+	/**
+	 * @return the columns of the test validation data, in order.
+	 */
+	public static List<String> getColumns() {
+		return COLUMNS;
+	}
+
+	/**
+	 * @return the supported information elements (and parameters), in column order.
+	 */
+	public static List<String> getInformationElements() {
+		return COLUMNS.subList(FIXED_COLUMNS.length, COLUMNS.size());
+	}
+
+	/**
+	 * @param term a term from Input.data or Output.data.
+	 * @return the column of the test validation data for the term, -1 if the term is not known.
+	 */
+	public static int columnIndex(String term) {
+		Integer result = COLUMN_INDEX.get(term);
+		return result==null ? -1 : result.intValue();
+	}
+
+}
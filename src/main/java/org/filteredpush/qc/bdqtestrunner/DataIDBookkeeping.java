@@ -0,0 +1,77 @@
+/**
+ * DataIDBookkeeping.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Record of the dataIDs of the rows of validation data run in a run, used to detect
+ * duplicate dataIDs, and of the dataIDs for which no implementation was run, listed
+ * in the summary at the end of a run.
+ *
+ * Implementations trade exactness for memory: ExactBookkeeping uses java.util
+ * collections, CompactBookkeeping holds the dataIDs as bytes in a compact table on
+ * or off the heap, and ProbabilisticBookkeeping uses a fixed size Bloom filter and
+ * spills the list of dataIDs not run to disk, so memory does not grow with the
+ * number of rows.  Serializable so that bookkeeping can be checkpointed.
+ *
+ */
+public interface DataIDBookkeeping extends Serializable, Closeable {
+
+	/**
+	 * Test if a dataID has been run.
+	 *
+	 * @param dataID to test.
+	 * @return true if the dataID has been run, a probabilistic implementation may
+	 *   return true for a dataID that has not been run.
+	 */
+	boolean isRun(String dataID);
+
+	/**
+	 * Record that a dataID has been run.
+	 *
+	 * @param dataID that has been run.
+	 */
+	void markRun(String dataID);
+
+	/**
+	 * Record that no implementation was run for a dataID.
+	 *
+	 * @param dataID not run.
+	 * @param description of the test for the dataID, the issue number and label.
+	 */
+	void markNotRun(String dataID, String description);
+
+	/**
+	 * @return the number of distinct dataIDs recorded as not run.
+	 */
+	long getNotRunCount();
+
+	/**
+	 * Obtain the dataIDs recorded as not run.
+	 *
+	 * @return iterator over dataID, description pairs.
+	 * @throws IOException if unable to read dataIDs spilled to disk.
+	 */
+	Iterator<Map.Entry<String,String>> notRunIterator() throws IOException;
+
+}
@@ -0,0 +1,44 @@
+/**
+ * DataRecord.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+/**
+ * A row of validation data, values accessed by column name (e.g. GUID, dataID,
+ * dwc:eventDate, Response.status), independent of where the row was read from.
+ *
+ */
+public interface DataRecord {
+
+	/**
+	 * Obtain the value of a column.
+	 *
+	 * @param name of the column.
+	 * @return the value of the column, empty string if the column has no value.
+	 * @throws IllegalArgumentException if the record has no column with this name.
+	 */
+	String get(String name);
+
+	/**
+	 * Test if the record has a column.
+	 *
+	 * @param name of the column.
+	 * @return true if the record has a column with this name.
+	 */
+	boolean isMapped(String name);
+
+}
@@ -0,0 +1,69 @@
+/**
+ * ExactBookkeeping.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Exact bookkeeping of dataIDs in a HashSet and a HashMap, the default, suitable
+ * for inputs of up to a few million rows.
+ *
+ */
+public class ExactBookkeeping implements DataIDBookkeeping {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Set<String> dataIDsRun = new HashSet<String>();
+
+	private final Map<String,String> dataIDsNotRun = new HashMap<String,String>();
+
+	@Override
+	public boolean isRun(String dataID) {
+		return dataIDsRun.contains(dataID);
+	}
+
+	@Override
+	public void markRun(String dataID) {
+		dataIDsRun.add(dataID);
+	}
+
+	@Override
+	public void markNotRun(String dataID, String description) {
+		dataIDsNotRun.put(dataID, description);
+	}
+
+	@Override
+	public long getNotRunCount() {
+		return dataIDsNotRun.size();
+	}
+
+	@Override
+	public Iterator<Map.Entry<String,String>> notRunIterator() {
+		return dataIDsNotRun.entrySet().iterator();
+	}
+
+	@Override
+	public void close() {
+		// nothing to release
+	}
+
+}
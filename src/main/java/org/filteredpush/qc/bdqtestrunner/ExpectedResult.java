@@ -0,0 +1,194 @@
+/**
+ * ExpectedResult.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The expected Response.result of a row of validation data, parsed once as the row is
+ * read.  An expected amendment result in the form {"term":"value",...} (as written by
+ * TestOfTestSpreasheetUtility, with quotes in values escaped as \") is held in canonical
+ * form, its terms sorted, so that it can be compared with the map returned by an
+ * implementation regardless of the order of terms.  Any other expected result is held as
+ * found.
+ *
+ */
+public final class ExpectedResult {
+
+	private final String raw;
+
+	/** Terms of an expected amendment, sorted, null if the result is not a map of terms. */
+	private final String[] terms;
+
+	/** Values for each of terms. */
+	private final String[] values;
+
+	private ExpectedResult(String raw, String[] terms, String[] values) {
+		this.raw = raw;
+		this.terms = terms;
+		this.values = values;
+	}
+
+	/**
+	 * Parse an expected result.
+	 *
+	 * @param raw the expected Response.result as found in the validation data.
+	 * @return the expected result, in canonical form if raw is a map of terms to values.
+	 */
+	public static ExpectedResult parse(String raw) {
+		Map<String,String> map = parseMap(raw);
+		if (map==null) {
+			return new ExpectedResult(raw, null, null);
+		}
+		String[] terms = new String[map.size()];
+		String[] values = new String[map.size()];
+		int i = 0;
+		for (Map.Entry<String,String> entry : map.entrySet()) {
+			terms[i] = entry.getKey();
+			values[i] = entry.getValue();
+			i++;
+		}
+		return new ExpectedResult(raw, terms, values);
+	}
+
+	/**
+	 * Parse {"term":"value",...} into a sorted map.
+	 *
+	 * @return the map, or null if value is not in that form or repeats a term.
+	 */
+	private static TreeMap<String,String> parseMap(String value) {
+		if (value==null) {
+			return null;
+		}
+		int length = value.length();
+		int position = skipWhitespace(value, 0);
+		if (position >= length || value.charAt(position)!='{') {
+			return null;
+		}
+		TreeMap<String,String> result = new TreeMap<String,String>();
+		StringBuilder buffer = new StringBuilder();
+		position = skipWhitespace(value, position + 1);
+		if (position < length && value.charAt(position)=='}') {
+			return skipWhitespace(value, position + 1)==length ? result : null;
+		}
+		while (true) {
+			position = readString(value, position, buffer);
+			if (position < 0) {
+				return null;
+			}
+			String term = buffer.toString();
+			position = skipWhitespace(value, position);
+			if (position >= length || value.charAt(position)!=':') {
+				return null;
+			}
+			position = readString(value, skipWhitespace(value, position + 1), buffer);
+			if (position < 0 || result.put(term, buffer.toString())!=null) {
+				return null;
+			}
+			position = skipWhitespace(value, position);
+			if (position >= length) {
+				return null;
+			}
+			if (value.charAt(position)=='}') {
+				return skipWhitespace(value, position + 1)==length ? result : null;
+			}
+			if (value.charAt(position)!=',') {
+				return null;
+			}
+			position = skipWhitespace(value, position + 1);
+		}
+	}
+
+	/**
+	 * Read a quoted string, unescaping \", into buffer.  Backslashes are otherwise kept,
+	 * as TestOfTestSpreasheetUtility escapes only quotes.
+	 *
+	 * @return the position after the closing quote, or -1 if there is no quoted string at position.
+	 */
+	private static int readString(String value, int position, StringBuilder buffer) {
+		buffer.setLength(0);
+		if (position >= value.length() || value.charAt(position)!='"') {
+			return -1;
+		}
+		position++;
+		while (position < value.length()) {
+			char c = value.charAt(position);
+			if (c=='\\' && position + 1 < value.length() && value.charAt(position + 1)=='"') {
+				buffer.append('"');
+				position += 2;
+			} else if (c=='"') {
+				return position + 1;
+			} else {
+				buffer.append(c);
+				position++;
+			}
+		}
+		return -1;
+	}
+
+	private static int skipWhitespace(String value, int position) {
+		while (position < value.length() && Character.isWhitespace(value.charAt(position))) {
+			position++;
+		}
+		return position;
+	}
+
+	/**
+	 * @return the expected result as found in the validation data.
+	 */
+	public String getRaw() {
+		return raw;
+	}
+
+	/**
+	 * @return true if the expected result is a map of terms to values.
+	 */
+	public boolean isMap() {
+		return terms!=null;
+	}
+
+	/**
+	 * @return the number of terms in an expected map, 0 if not a map.
+	 */
+	public int size() {
+		return terms==null ? 0 : terms.length;
+	}
+
+	/**
+	 * @param i index of a term, from 0 to size()-1.
+	 * @return the term, in sorted order.
+	 */
+	public String getTerm(int i) {
+		return terms[i];
+	}
+
+	/**
+	 * @param i index of a term, from 0 to size()-1.
+	 * @return the value expected for the term.
+	 */
+	public String getValue(int i) {
+		return values[i];
+	}
+
+	@Override
+	public String toString() {
+		return raw;
+	}
+
+}
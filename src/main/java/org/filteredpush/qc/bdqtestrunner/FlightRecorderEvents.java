@@ -0,0 +1,139 @@
+/**
+ * FlightRecorderEvents.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event types behind TestEvents, the only classes of the test
+ * runner linked to jdk.jfr, which is present from JDK 11 and 8u262.  Only loaded by
+ * TestEvents once it has found jdk.jfr, so the runner still runs on earlier JREs.
+ *
+ * Events are only populated and committed when a recording with the event enabled
+ * is in progress, otherwise the cost is a check of shouldCommit().
+ *
+ */
+final class FlightRecorderEvents {
+
+	private FlightRecorderEvents() {
+	}
+
+	/**
+	 * Fields common to all of the test runner events.
+	 */
+	@Category("BDQ Test Runner")
+	@StackTrace(false)
+	abstract static class TestEvent extends Event implements TestEvents.Recorder {
+
+		@Label("GUID")
+		@Description("GUID of the test")
+		String guid;
+
+		@Label("Label")
+		@Description("Label of the test")
+		String testLabel;
+
+		@Label("GitHub Issue")
+		@Description("GitHub issue number of the test")
+		String gitHubIssueNo;
+
+		@Label("dataID")
+		@Description("dataID of the validation data row")
+		String dataID;
+
+		@Label("Implementation Class")
+		@Description("Class declaring the method implementing the test")
+		String implementationClass;
+
+		@Label("Outcome")
+		@Description("Outcome of this phase")
+		String outcome;
+
+		@Override
+		public void start() {
+			begin();
+		}
+
+		@Override
+		public void record(String guid, String testLabel, String gitHubIssueNo, String dataID, Class<?> implementation, String outcome) {
+			end();
+			if (shouldCommit()) {
+				this.guid = guid;
+				this.testLabel = testLabel;
+				this.gitHubIssueNo = gitHubIssueNo;
+				this.dataID = dataID;
+				if (implementation!=null) {
+					this.implementationClass = implementation.getName();
+				}
+				this.outcome = outcome;
+				commit();
+			}
+		}
+	}
+
+	@Name("org.filteredpush.qc.bdqtestrunner.Parse")
+	@Label("Parse Validation Row")
+	static final class Parse extends TestEvent {
+	}
+
+	@Name("org.filteredpush.qc.bdqtestrunner.Resolve")
+	@Label("Resolve Test Method")
+	static final class Resolve extends TestEvent {
+	}
+
+	@Name("org.filteredpush.qc.bdqtestrunner.Bind")
+	@Label("Bind Parameters")
+	static final class Bind extends TestEvent {
+	}
+
+	@Name("org.filteredpush.qc.bdqtestrunner.Invoke")
+	@Label("Invoke Test")
+	static final class Invoke extends TestEvent {
+	}
+
+	@Name("org.filteredpush.qc.bdqtestrunner.Compare")
+	@Label("Compare Response")
+	static final class Compare extends TestEvent {
+	}
+
+	static TestEvents.Recorder parse() {
+		return new Parse();
+	}
+
+	static TestEvents.Recorder resolve() {
+		return new Resolve();
+	}
+
+	static TestEvents.Recorder bind() {
+		return new Bind();
+	}
+
+	static TestEvents.Recorder invoke() {
+		return new Invoke();
+	}
+
+	static TestEvents.Recorder compare() {
+		return new Compare();
+	}
+
+}
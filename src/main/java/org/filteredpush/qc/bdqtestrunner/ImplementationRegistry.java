@@ -0,0 +1,384 @@
+/**
+ * ImplementationRegistry.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.datakurator.ffdq.annotations.ActedUpon;
+import org.datakurator.ffdq.annotations.Consulted;
+import org.datakurator.ffdq.annotations.Provides;
+import org.filteredpush.qc.sciname.SciNameSourceAuthority;
+import org.filteredpush.qc.sciname.SourceAuthorityException;
+
+/**
+ * Index of the methods implementing tests (annotated with Provides) in a set of
+ * classes, keyed by the GUID of the test.
+ *
+ * Classes are loaded without being initialized, so static data held by a test
+ * library (e.g. country shapes in geo_ref_qc) is only loaded when an implementation
+ * in that class is first instantiated to run a row of validation data.  The time
+ * taken for loading, discovery, and each first instantiation is recorded.
+ *
+ */
+public class ImplementationRegistry {
+
+	private static final Log logger = LogFactory.getLog(ImplementationRegistry.class);
+
+	private static final Map<String,String> supportedClasses;
+
+	static {
+		Map<String,String> classes = new LinkedHashMap<String,String>();
+		classes.put("DwCMetadataDQ","org.filteredpush.qc.metadata.DwCMetadataDQ");
+		classes.put("DwCMetadataDQDefaults","org.filteredpush.qc.metadata.DwCMetadataDQDefaults");
+		classes.put("DwCGeoRefDQ","org.filteredpush.qc.georeference.DwCGeoRefDQ");
+		classes.put("DwCGeoRefDQDefaults","org.filteredpush.qc.georeference.DwCGeoRefDQDefaults");
+		classes.put("DwCEventDQ","org.filteredpush.qc.date.DwCEventDQ");
+		classes.put("DwCEventDQDefaults","org.filteredpush.qc.date.DwCEventDQDefaults");
+		classes.put("DwCOtherDateDQ","org.filteredpush.qc.date.DwCOtherDateDQ");
+		classes.put("DwCOtherDateDQDefaults","org.filteredpush.qc.date.DwCOtherDateDQDefaults");
+		classes.put("DwCSciNameDQ","org.filteredpush.qc.sciname.DwCSciNameDQ");
+		classes.put("DwCSciNameDQDefaults","org.filteredpush.qc.sciname.DwCSciNameDQDefaults");
+		supportedClasses = Collections.unmodifiableMap(classes);
+	}
+
+	private final List<Class<?>> classes;
+
+	private final Map<String,List<Method>> methodsByGuid;
+
+	private final Map<Class<?>,Long> initializationNanos;
+
+	private final long loadNanos;
+
+	private final long discoveryNanos;
+
+	private ThreadSafetyClassification threadSafety;
+
+	private final Map<Class<?>,Object> sharedInstances = new ConcurrentHashMap<Class<?>,Object>();
+
+	private final ThreadLocal<Map<Class<?>,Object>> threadInstances = ThreadLocal.withInitial(HashMap::new);
+
+	private final Map<Class<?>,Lock> invocationLocks = new ConcurrentHashMap<Class<?>,Lock>();
+
+	/**
+	 * Obtain the classes that may be searched for implementations of tests.
+	 *
+	 * @return map of supported class names, without paths, to fully qualified class names.
+	 */
+	public static Map<String,String> getSupportedClasses() {
+		return supportedClasses;
+	}
+
+	/**
+	 * Load, without initializing, the specified classes and index the methods that
+	 * implement tests in them.
+	 *
+	 * @param classNames list of supported class names, without paths, in the order
+	 *   in which they are to be searched.
+	 * @throws ClassNotFoundException if a class is unsupported or can't be loaded.
+	 */
+	public ImplementationRegistry(List<String> classNames) throws ClassNotFoundException {
+		// arguments are evaluated in order, so the load is timed from the first
+		this(System.nanoTime(), load(classNames));
+	}
+
+	/**
+	 * Index the methods that implement tests in classes which have already been loaded,
+	 * e.g. implementations other than the supported classes in tests of the runner.
+	 *
+	 * @param classes to search for implementations, in search order.
+	 */
+	ImplementationRegistry(Class<?>... classes) {
+		this(System.nanoTime(), Arrays.asList(classes));
+	}
+
+	private ImplementationRegistry(long start, List<Class<?>> loaded) {
+		classes = Collections.unmodifiableList(new ArrayList<Class<?>>(loaded));
+		long loadedAt = System.nanoTime();
+		loadNanos = loadedAt - start;
+
+		Map<String,Set<Method>> found = new HashMap<String,Set<Method>>();
+		for (Class<?> cls : classes) {
+			for (Method javaMethod : cls.getMethods()) {
+				Provides provides = javaMethod.getAnnotation(Provides.class);
+				if (provides!=null) {
+					String foundGuid = provides.value();
+					if (!found.containsKey(foundGuid)) {
+						found.put(foundGuid, new LinkedHashSet<Method>());
+					}
+					found.get(foundGuid).add(javaMethod);
+				}
+			}
+		}
+		methodsByGuid = new HashMap<String,List<Method>>();
+		Iterator<String> ig = found.keySet().iterator();
+		while (ig.hasNext()) {
+			String key = ig.next();
+			methodsByGuid.put(key, Collections.unmodifiableList(new ArrayList<Method>(found.get(key))));
+		}
+		discoveryNanos = System.nanoTime() - loadedAt;
+		initializationNanos = new ConcurrentHashMap<Class<?>,Long>();
+		logger.debug("Found implementations of " + methodsByGuid.size() + " test GUIDs in " + classes.size() + " classes");
+	}
+
+	/**
+	 * Load, without initializing, the specified supported classes.
+	 *
+	 * @param classNames list of supported class names, without paths.
+	 * @return the loaded classes, in the same order.
+	 * @throws ClassNotFoundException if a class is unsupported or can't be loaded.
+	 */
+	private static List<Class<?>> load(List<String> classNames) throws ClassNotFoundException {
+		List<Class<?>> loaded = new ArrayList<Class<?>>();
+		Iterator<String> i = classNames.iterator();
+		while (i.hasNext()) {
+			String className = i.next();
+			String qualifiedName = supportedClasses.get(className);
+			if (qualifiedName==null) {
+				throw new ClassNotFoundException("Unsupported class: " + className);
+			}
+			loaded.add(Class.forName(qualifiedName, false, ImplementationRegistry.class.getClassLoader()));
+		}
+		return loaded;
+	}
+
+	/**
+	 * @return the classes searched for implementations, in search order.
+	 */
+	public List<Class<?>> getClasses() {
+		return classes;
+	}
+
+	/**
+	 * Find the methods that implement a test.
+	 *
+	 * @param guid the GUID of the test, with or without a urn:uuid: prefix.
+	 * @return list of methods with a Provides annotation for the GUID, empty if none.
+	 */
+	public List<Method> getMethods(String guid) {
+		if (guid==null) {
+			return Collections.emptyList();
+		}
+		List<Method> exact = methodsByGuid.get(guid);
+		List<Method> prefixed = methodsByGuid.get("urn:uuid:".concat(guid));
+		if (prefixed==null) {
+			return exact==null ? Collections.<Method>emptyList() : exact;
+		}
+		if (exact==null) {
+			return prefixed;
+		}
+		List<Method> result = new ArrayList<Method>(exact);
+		result.addAll(prefixed);
+		return result;
+	}
+
+	/**
+	 * @return the GUIDs of the tests for which implementations were found, as given in the
+	 *   Provides annotations.
+	 */
+	public Set<String> getGuids() {
+		return Collections.unmodifiableSet(methodsByGuid.keySet());
+	}
+
+	/**
+	 * Create an instance of a class containing test implementations, recording the time
+	 * taken the first time the class is instantiated, which includes static initialization
+	 * of the class.
+	 *
+	 * @param cls the class to instantiate.
+	 * @return a new instance of cls.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 * @throws IllegalArgumentException
+	 * @throws InvocationTargetException
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 */
+	public Object newInstance(Class<?> cls) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
+		if (initializationNanos.containsKey(cls)) {
+			return cls.getDeclaredConstructor().newInstance();
+		}
+		long start = System.nanoTime();
+		Object instance = cls.getDeclaredConstructor().newInstance();
+		initializationNanos.putIfAbsent(cls, System.nanoTime() - start);
+		return instance;
+	}
+
+	/**
+	 * Set the classification of the implementations by thread safety, from which 
+	 * getInstance and getInvocationLock choose how instances are shared between threads.
+	 *
+	 * @param threadSafety classification from a ThreadSafetyProbe, null to treat every class
+	 *   as SERIAL, creating a new instance for each invocation and never overlapping 
+	 *   invocations of a class, as nothing is known of the thread safety of the classes.
+	 */
+	public void setThreadSafety(ThreadSafetyClassification threadSafety) {
+		this.threadSafety = threadSafety;
+	}
+
+	/**
+	 * Obtain an instance of a class containing test implementations on which to invoke 
+	 * a test, shared between threads, one per thread, or new, according to the 
+	 * classification of the class by thread safety.
+	 *
+	 * @param cls the class to instantiate.
+	 * @return an instance of cls.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 * @throws IllegalArgumentException
+	 * @throws InvocationTargetException
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 */
+	public Object getInstance(Class<?> cls) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
+		ThreadSafetyClassification.Policy policy = getPolicy(cls);
+		Map<Class<?>,Object> instances;
+		if (policy==ThreadSafetyClassification.Policy.SHARED) {
+			instances = sharedInstances;
+		} else if (policy==ThreadSafetyClassification.Policy.PER_THREAD) {
+			instances = threadInstances.get();
+		} else {
+			return newInstance(cls);
+		}
+		Object instance = instances.get(cls);
+		if (instance==null) {
+			instance = newInstance(cls);
+			Object existing = instances.putIfAbsent(cls, instance);
+			if (existing!=null) {
+				instance = existing;
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * Obtain the lock to hold while invoking a test implementation in a class classified 
+	 * as unsafe to invoke concurrently even on separate instances, or in any class if no
+	 * classification has been set.
+	 *
+	 * @param cls the class containing the implementation.
+	 * @return the lock for the class, or null if invocations need not be serialized.
+	 */
+	public Lock getInvocationLock(Class<?> cls) {
+		if (getPolicy(cls)!=ThreadSafetyClassification.Policy.SERIAL) {
+			return null;
+		}
+		return invocationLocks.computeIfAbsent(cls, c -> new ReentrantLock());
+	}
+
+	/**
+	 * @return the policy for the class, SERIAL if no classification has been set.
+	 */
+	private ThreadSafetyClassification.Policy getPolicy(Class<?> cls) {
+		return threadSafety==null ? ThreadSafetyClassification.Policy.SERIAL : threadSafety.getClassPolicy(cls);
+	}
+
+	/**
+	 * Obtain the information element or parameter bound to each parameter of a method 
+	 * implementing a test, from the ActedUpon, Consulted, and Parameter annotations.
+	 * 
+	 * @param javaMethod the method implementing a test.
+	 * @return list with the term (e.g. dwc:eventDate, bdq:sourceAuthority) for each 
+	 *   parameter of the method, in order, null for any parameter lacking an annotation.
+	 */
+	public static List<String> getParameterTerms(Method javaMethod) { 
+		List<String> result = new ArrayList<String>();
+		for (Parameter parameter : javaMethod.getParameters()) {
+			String term = null;
+			for (Annotation parAnnotation : parameter.getAnnotations()) {
+				if (parAnnotation instanceof ActedUpon) {
+					term = ((ActedUpon)parAnnotation).value();
+				} else if (parAnnotation instanceof Consulted) {
+					term = ((Consulted)parAnnotation).value();
+				} else if (parAnnotation instanceof org.datakurator.ffdq.annotations.Parameter) { 
+					term = ((org.datakurator.ffdq.annotations.Parameter)parAnnotation).name();
+				}
+			}
+			result.add(term);
+		}
+		return result;
+	}
+	
+	/**
+	 * Convert string values bound to the parameters of a method into the arguments to 
+	 * invoke the method with, constructing a SciNameSourceAuthority for a parameter of that 
+	 * type, null selecting the default source authority when the value is empty.
+	 * 
+	 * @param javaMethod the method implementing a test.
+	 * @param values the value for each parameter, in order.
+	 * @return array of arguments for Method.invoke
+	 * @throws SourceAuthorityException if a source authority value is not recognized.
+	 */
+	public static Object[] toArguments(Method javaMethod, List<String> values) throws SourceAuthorityException { 
+		Class<?>[] types = javaMethod.getParameterTypes();
+		Object[] result = new Object[types.length];
+		for (int i=0; i<types.length && i<values.size(); i++) { 
+			String value = values.get(i);
+			if (types[i].equals(SciNameSourceAuthority.class)) { 
+				if (value==null || value.trim().length()==0) { 
+					result[i] = null;
+				} else { 
+					result[i] = new SciNameSourceAuthority(value);
+				}
+			} else { 
+				result[i] = value;
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * @return time taken to load the classes, in nanoseconds.
+	 */
+	public long getLoadNanos() {
+		return loadNanos;
+	}
+
+	/**
+	 * @return time taken to index the test implementations in the classes, in nanoseconds.
+	 */
+	public long getDiscoveryNanos() {
+		return discoveryNanos;
+	}
+
+	/**
+	 * @return map of the classes which have been instantiated to the time taken for their
+	 *   first instantiation, in nanoseconds.
+	 */
+	public Map<Class<?>,Long> getInitializationNanos() {
+		return Collections.unmodifiableMap(initializationNanos);
+	}
+
+}
@@ -0,0 +1,119 @@
+/**
+ * InvocationAccounting.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Reads the per thread allocated bytes and cpu time counters of the JVM so that
+ * the resources used by an invocation of a test implementation can be attributed
+ * to that test.
+ *
+ */
+public class InvocationAccounting {
+
+	private static final Log logger = LogFactory.getLog(InvocationAccounting.class);
+
+	private final com.sun.management.ThreadMXBean threadBean;
+
+	private final boolean allocationSupported;
+
+	private final boolean cpuTimeSupported;
+
+	/**
+	 * Construct, enabling the thread allocation and cpu time counters if they are
+	 * supported but not enabled.
+	 */
+	public InvocationAccounting() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			threadBean = (com.sun.management.ThreadMXBean) bean;
+			if (threadBean.isThreadAllocatedMemorySupported() && !threadBean.isThreadAllocatedMemoryEnabled()) {
+				threadBean.setThreadAllocatedMemoryEnabled(true);
+			}
+			allocationSupported = threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled();
+		} else {
+			threadBean = null;
+			allocationSupported = false;
+		}
+		if (bean.isCurrentThreadCpuTimeSupported() && !bean.isThreadCpuTimeEnabled()) {
+			bean.setThreadCpuTimeEnabled(true);
+		}
+		cpuTimeSupported = bean.isCurrentThreadCpuTimeSupported() && bean.isThreadCpuTimeEnabled();
+		if (!allocationSupported) {
+			logger.error("Per thread allocated bytes are not supported by this JVM, allocations will be reported as zero.");
+		}
+		if (!cpuTimeSupported) {
+			logger.error("Per thread cpu time is not supported by this JVM, cpu time will be reported as zero.");
+		}
+	}
+
+	/**
+	 * @return the bytes allocated so far by the current thread, or 0 if not supported.
+	 */
+	public long currentThreadAllocatedBytes() {
+		if (!allocationSupported) {
+			return 0L;
+		}
+		return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	/**
+	 * @return the cpu time used so far by the current thread in nanoseconds, or 0 if not supported.
+	 */
+	public long currentThreadCpuTime() {
+		if (!cpuTimeSupported) {
+			return 0L;
+		}
+		return ManagementFactory.getThreadMXBean().getCurrentThreadCpuTime();
+	}
+
+	/**
+	 * Obtain the keys of the reports with the largest bytes allocated.
+	 *
+	 * @param reports map of test GUID to report
+	 * @param limit maximum number of keys to return
+	 * @return up to limit keys ordered by descending bytes allocated
+	 */
+	public static List<String> topByAllocatedBytes(final Map<String,Report> reports, int limit) {
+		List<String> keys = new ArrayList<String>(reports.keySet());
+		Collections.sort(keys, (a, b) -> Long.compare(reports.get(b).getAllocatedBytes(), reports.get(a).getAllocatedBytes()));
+		return keys.subList(0, Math.min(limit, keys.size()));
+	}
+
+	/**
+	 * Obtain the keys of the reports with the largest cpu time.
+	 *
+	 * @param reports map of test GUID to report
+	 * @param limit maximum number of keys to return
+	 * @return up to limit keys ordered by descending cpu time
+	 */
+	public static List<String> topByCpuTime(final Map<String,Report> reports, int limit) {
+		List<String> keys = new ArrayList<String>(reports.keySet());
+		Collections.sort(keys, (a, b) -> Long.compare(reports.get(b).getCpuTime(), reports.get(a).getCpuTime()));
+		return keys.subList(0, Math.min(limit, keys.size()));
+	}
+
+}
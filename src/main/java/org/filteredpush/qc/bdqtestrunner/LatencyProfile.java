@@ -0,0 +1,190 @@
+/**
+ * LatencyProfile.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * Latency of the invocations of each test in previous runs, kept in a small local file
+ * and updated at the end of each run, from which the expected cost of running the rows
+ * for each test is estimated to schedule the tests across workers, longest first.
+ *
+ * Stored as CSV with columns GUID, GitHubIssueNo, label, invocations (in the most recent
+ * run that ran the test), and meanNanos (mean latency of an invocation).
+ *
+ */
+public class LatencyProfile {
+
+	private static final String[] HEADER = { "GUID", "GitHubIssueNo", "label", "invocations", "meanNanos" };
+
+	/** For each GUID: GitHubIssueNo, label. */
+	private final Map<String,String[]> tests = new TreeMap<String,String[]>();
+
+	/** For each GUID: invocations, mean nanoseconds. */
+	private final Map<String,long[]> latencies = new TreeMap<String,long[]>();
+
+	/**
+	 * Read a profile written by write.
+	 *
+	 * @param file to read.
+	 * @return the profile, empty if the file doesn't exist.
+	 * @throws IOException on failure to read, or an unparsable count.
+	 */
+	public static LatencyProfile read(File file) throws IOException {
+		LatencyProfile result = new LatencyProfile();
+		if (!file.exists()) {
+			return result;
+		}
+		Reader in = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8);
+		try {
+			CSVParser records = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(in);
+			for (CSVRecord record : records) {
+				try {
+					result.put(record.get("GUID").trim(), record.get("GitHubIssueNo"), record.get("label"),
+							Long.parseLong(record.get("invocations").trim()), Long.parseLong(record.get("meanNanos").trim()));
+				} catch (NumberFormatException e) {
+					throw new IOException("Unparsable latency on line " + records.getCurrentLineNumber() + " of " + file.getName());
+				}
+			}
+		} finally {
+			in.close();
+		}
+		return result;
+	}
+
+	/**
+	 * Write the profile.
+	 *
+	 * @param out to which to write CSV.
+	 * @throws IOException on failure to write.
+	 */
+	public void write(Writer out) throws IOException {
+		CSVPrinter printer = new CSVPrinter(out, CSVFormat.DEFAULT.withHeader(HEADER));
+		for (Map.Entry<String,long[]> entry : latencies.entrySet()) {
+			String[] test = tests.get(entry.getKey());
+			printer.printRecord(entry.getKey(), test[0], test[1], entry.getValue()[0], entry.getValue()[1]);
+		}
+		printer.flush();
+	}
+
+	/**
+	 * Write the profile to a file.
+	 *
+	 * @param file to write, replaced if it exists.
+	 * @throws IOException on failure to write.
+	 */
+	public void write(File file) throws IOException {
+		Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8);
+		try {
+			write(out);
+		} finally {
+			out.close();
+		}
+	}
+
+	private void put(String guid, String gitHubIssueNo, String label, long invocations, long meanNanos) {
+		tests.put(guid, new String[] { gitHubIssueNo, label });
+		latencies.put(guid, new long[] { invocations, meanNanos });
+	}
+
+	/**
+	 * Replace the latencies of the tests invoked in a run with those measured in the run,
+	 * keeping those of tests not invoked, e.g. in a run of only some issues.
+	 *
+	 * @param reports the reports of a run, by GUID.
+	 */
+	public void update(Map<String,Report> reports) {
+		for (Map.Entry<String,Report> entry : reports.entrySet()) {
+			Report report = entry.getValue();
+			synchronized (report) {
+				long invocations = report.getLatency().getTotalCount();
+				if (invocations > 0) {
+					put(entry.getKey(), report.getTestNumber(), report.getTestLabel(), invocations, Math.round(report.getLatency().getMean()));
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the number of tests in the profile.
+	 */
+	public int size() {
+		return latencies.size();
+	}
+
+	/**
+	 * Expected time to run all the rows for a test, as in its most recent run.
+	 *
+	 * @param guid of the test.
+	 * @return expected nanoseconds, -1 if the test is not in the profile.
+	 */
+	public long getExpectedNanos(String guid) {
+		long[] latency = latencies.get(guid);
+		return latency==null ? -1L : latency[0] * latency[1];
+	}
+
+	/**
+	 * Assign the tests in the profile to workers, longest expected first, each to the
+	 * worker with the least expected work so far, which bounds the longest worker to
+	 * within a third of the best possible.  Ties are broken by GUID, so the assignment
+	 * is the same for the same profile.
+	 *
+	 * @param workers number of workers.
+	 * @return the worker, from 0, for each GUID in the profile.
+	 */
+	public Map<String,Integer> schedule(int workers) {
+		List<String> guids = new ArrayList<String>(latencies.keySet());
+		Collections.sort(guids, (a, b) -> {
+			int byCost = Long.compare(getExpectedNanos(b), getExpectedNanos(a));
+			return byCost!=0 ? byCost : a.compareTo(b);
+		});
+		long[] loads = new long[workers];
+		Map<String,Integer> result = new HashMap<String,Integer>();
+		for (String guid : guids) {
+			int least = 0;
+			for (int i=1; i<workers; i++) {
+				if (loads[i] < loads[least]) {
+					least = i;
+				}
+			}
+			loads[least] += getExpectedNanos(guid);
+			result.put(guid, Integer.valueOf(least));
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,52 @@
+/**
+ * MapDataRecord.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.util.Map;
+
+/**
+ * A row of validation data held as a map of column name to value, for rows
+ * supplied by an application embedding the test runner rather than read from a file.
+ *
+ */
+public class MapDataRecord implements DataRecord {
+
+	private final Map<String,String> values;
+
+	/**
+	 * @param values map of column name to value, a null value is treated as empty.
+	 */
+	public MapDataRecord(Map<String,String> values) {
+		this.values = values;
+	}
+
+	@Override
+	public String get(String name) {
+		if (!values.containsKey(name)) {
+			throw new IllegalArgumentException("Mapping for " + name + " not found, expected one of " + values.keySet());
+		}
+		String value = values.get(name);
+		return value==null ? "" : value;
+	}
+
+	@Override
+	public boolean isMapped(String name) {
+		return values.containsKey(name);
+	}
+
+}
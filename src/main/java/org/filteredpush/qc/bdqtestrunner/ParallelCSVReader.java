@@ -0,0 +1,320 @@
+/**
+ * ParallelCSVReader.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.io.CharArrayReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Reads the rows of a CSV file with a header row, in order, parsing chunks of the file
+ * concurrently on several threads, for inputs large enough that a single parser thread
+ * limits the throughput of a run.
+ *
+ * The file is memory mapped and split into chunks at record boundaries: each region of
+ * the file is scanned concurrently for its count of quote characters and for its first
+ * line feeds after an even and an odd number of quotes, and the parity of the quotes
+ * before each region then picks the first line feed in it outside a quoted value, so a
+ * newline within a quoted value never splits a chunk.  This relies on quotes appearing
+ * only around quoted values, doubled within them, as RFC 4180 and commons-csv write them.
+ * Chunks are parsed on a thread pool, a bounded number ahead of the reader, and their
+ * rows returned in order of chunk sequence number.  The file is decoded as UTF-8.
+ *
+ * The rows have no meaningful character position or record number, so can't be used to
+ * checkpoint a run.
+ *
+ */
+public class ParallelCSVReader implements Iterator<CSVRecord>, Closeable {
+
+	private static final Log logger = LogFactory.getLog(ParallelCSVReader.class);
+
+	/** Default size of the regions the file is split at. */
+	public static final int DEFAULT_CHUNK_BYTES = 8 * 1024 * 1024;
+
+	private final FileChannel channel;
+
+	private final ExecutorService executor;
+
+	private final List<String> header;
+
+	/** Byte offsets of the start of each chunk, and of the end of the last chunk. */
+	private final List<Long> boundaries;
+
+	/** Chunks being parsed, in sequence. */
+	private final ArrayDeque<Future<List<CSVRecord>>> parsing = new ArrayDeque<Future<List<CSVRecord>>>();
+
+	private final int maxInFlight;
+
+	/** Sequence number of the next chunk to submit for parsing. */
+	private int nextChunk = 0;
+
+	/** Rows of the chunk being returned, and the index of the next to return. */
+	private List<CSVRecord> current = Collections.<CSVRecord>emptyList();
+
+	private int currentIndex = 0;
+
+	/**
+	 * Open a file and find its header and chunk boundaries.
+	 *
+	 * @param file the CSV file, with a header row.
+	 * @param threads number of threads to parse with.
+	 * @param chunkBytes approximate size of each chunk.
+	 * @throws IOException if unable to read the file or parse its header.
+	 */
+	public ParallelCSVReader(File file, int threads, int chunkBytes) throws IOException {
+		if (threads < 1 || chunkBytes < 1) {
+			throw new IllegalArgumentException("Threads and chunk size must be at least 1.");
+		}
+		long start = System.nanoTime();
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "csv-parser");
+			thread.setDaemon(true);
+			return thread;
+		});
+		maxInFlight = threads * 2;
+		try {
+			long size = channel.size();
+			List<Long> found = findBoundaries(size, chunkBytes);
+			// the first boundary ends the header
+			long headerEnd = found.isEmpty() ? size : found.get(0).longValue();
+			List<CSVRecord> headerRows = parse(0L, headerEnd, CSVFormat.DEFAULT);
+			if (headerRows.isEmpty()) {
+				throw new IOException("No header row in " + file.getPath());
+			}
+			List<String> names = new ArrayList<String>();
+			for (String name : headerRows.get(0)) {
+				names.add(name);
+			}
+			header = Collections.unmodifiableList(names);
+			boundaries = new ArrayList<Long>();
+			boundaries.add(Long.valueOf(headerEnd));
+			for (Long boundary : found) {
+				if (boundary.longValue() > boundaries.get(boundaries.size() - 1).longValue() && boundary.longValue() < size) {
+					boundaries.add(boundary);
+				}
+			}
+			if (boundaries.get(boundaries.size() - 1).longValue() < size) {
+				boundaries.add(Long.valueOf(size));
+			}
+		} catch (IOException | RuntimeException e) {
+			close();
+			throw e;
+		}
+		logger.debug(String.format("Split %s into %d chunks in %.3f ms", file.getPath(), boundaries.size() - 1, (System.nanoTime() - start)/1000000d));
+	}
+
+	/**
+	 * @return the column names from the header row.
+	 */
+	public List<String> getHeader() {
+		return header;
+	}
+
+	/**
+	 * @return the number of rows parsed and not yet returned, in the chunk being returned
+	 *   and in chunks that have finished parsing.
+	 */
+	public int getQueuedRows() {
+		int result = current.size() - currentIndex;
+		for (Future<List<CSVRecord>> chunk : parsing) {
+			if (chunk.isDone() && !chunk.isCancelled()) {
+				try {
+					result += chunk.get().size();
+				} catch (ExecutionException e) {
+					// reported when the chunk is read
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Scan each region of the file concurrently for its quotes and line feeds, then find
+	 * the first line feed outside a quoted value in each region.
+	 *
+	 * @return byte offsets just after the chosen line feeds, ascending.
+	 */
+	private List<Long> findBoundaries(long size, int chunkBytes) throws IOException {
+		List<Future<long[]>> scans = new ArrayList<Future<long[]>>();
+		for (long regionStart = 0L; regionStart < size; regionStart += chunkBytes) {
+			final long from = regionStart;
+			final long to = Math.min(size, regionStart + chunkBytes);
+			scans.add(executor.submit(() -> scan(from, to)));
+		}
+		List<Long> result = new ArrayList<Long>();
+		long quotes = 0L;
+		for (Future<long[]> scan : scans) {
+			long[] counts = await(scan);
+			// counts: quotes in the region, first line feed after an even, and after an odd, number of them
+			long lineFeed = (quotes % 2 == 0) ? counts[1] : counts[2];
+			if (lineFeed >= 0) {
+				result.add(Long.valueOf(lineFeed + 1));
+			}
+			quotes += counts[0];
+		}
+		return result;
+	}
+
+	private long[] scan(long from, long to) throws IOException {
+		ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+		long quotes = 0L;
+		long evenLineFeed = -1L;
+		long oddLineFeed = -1L;
+		int length = bytes.limit();
+		for (int i=0; i<length; i++) {
+			byte b = bytes.get(i);
+			if (b=='"') {
+				quotes++;
+			} else if (b=='\n') {
+				if ((quotes & 1L) == 0L) {
+					if (evenLineFeed < 0) {
+						evenLineFeed = from + i;
+					}
+				} else if (oddLineFeed < 0) {
+					oddLineFeed = from + i;
+				}
+			}
+		}
+		return new long[] { quotes, evenLineFeed, oddLineFeed };
+	}
+
+	/**
+	 * Parse the records in a range of the file.
+	 */
+	private List<CSVRecord> parse(long from, long to, CSVFormat format) throws IOException {
+		List<CSVRecord> result = new ArrayList<CSVRecord>();
+		if (to <= from) {
+			return result;
+		}
+		ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+		CharBuffer chars = StandardCharsets.UTF_8.decode(bytes);
+		CSVParser parser = new CSVParser(new CharArrayReader(chars.array(), chars.arrayOffset(), chars.remaining()), format);
+		try {
+			for (CSVRecord record : parser) {
+				result.add(record);
+			}
+		} finally {
+			parser.close();
+		}
+		return result;
+	}
+
+	/**
+	 * Parse a chunk, checking that its rows have the columns of the header, as a quote
+	 * outside a quoted value would split the file at the wrong place.
+	 */
+	private List<CSVRecord> parseChunk(int sequence, String[] names) throws IOException {
+		long from = boundaries.get(sequence).longValue();
+		long to = boundaries.get(sequence + 1).longValue();
+		List<CSVRecord> result = parse(from, to, CSVFormat.DEFAULT.withHeader(names));
+		for (CSVRecord record : result) {
+			if (record.size()!=names.length) {
+				throw new IOException("Row with " + record.size() + " columns, expected " + names.length
+						+ ", in chunk " + sequence + " at byte " + from + ", unable to split the file, read it with a single parser.");
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Submit chunks for parsing, up to the limit in flight.
+	 */
+	private void submit() {
+		final String[] names = header.toArray(new String[0]);
+		while (parsing.size() < maxInFlight && nextChunk < boundaries.size() - 1) {
+			final int sequence = nextChunk++;
+			parsing.add(executor.submit(() -> parseChunk(sequence, names)));
+		}
+	}
+
+	private static <T> T await(Future<T> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted reading input.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException)e.getCause();
+			}
+			throw new IOException(e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	/**
+	 * @throws UncheckedIOException if unable to read or parse a chunk.
+	 */
+	@Override
+	public boolean hasNext() {
+		while (currentIndex >= current.size()) {
+			submit();
+			Future<List<CSVRecord>> next = parsing.poll();
+			if (next==null) {
+				return false;
+			}
+			try {
+				current = await(next);
+				currentIndex = 0;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public CSVRecord next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return current.get(currentIndex++);
+	}
+
+	@Override
+	public void close() throws IOException {
+		executor.shutdownNow();
+		channel.close();
+	}
+
+}
@@ -0,0 +1,524 @@
+/**
+ * PerformanceFuzzer.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.csv.QuoteMode;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Search for inputs that are pathologically slow for test implementations, such as
+ * strings causing catastrophic backtracking in regular expressions or parsers.
+ *
+ * For each test GUID with an implementation, argument tuples are seeded from the rows
+ * of validation data for that test, then repeatedly mutated, preferring to mutate the
+ * slowest inputs found so far.  Each invocation is timed, and run with a timeout so that
+ * a hung implementation does not stop the search.  Any input slower than a threshold is
+ * written out as a row of validation data, without expected responses, which can be rerun
+ * with the TestRunner (e.g. with -s to profile it) as a reproducible test case.
+ *
+ * An invocation that times out can't be stopped if it ignores interruption, so its thread
+ * is abandoned, still running.  Fuzzing of a test stops at its first timeout, and slow
+ * inputs timed while an abandoned invocation is still running are noted as such, as the
+ * abandoned thread competes for the CPU.
+ *
+ */
+public class PerformanceFuzzer {
+
+	private static final Log logger = LogFactory.getLog(PerformanceFuzzer.class);
+
+	/** Columns of the expected response, left out of saved cases, which have none. */
+	private static final List<String> RESPONSE_COLUMNS = Arrays.asList("Response.status", "Response.result", "Response.comment");
+
+	/** Fragments inserted by mutations, chosen to stress date, number, and coordinate parsers. */
+	private static final String[] FRAGMENTS = { "-", "/", ":", ".", ",", " ", "T", "Z", "+", "0", "9", "1999", "12", "31",
+			"(", ")", "[", "]", "\"", "\\", "°", "'", "N", "W", "e", "E", "x", "aaaa", "\t", " ", "–" };
+
+	private final ImplementationRegistry registry;
+
+	private final List<String> header;
+
+	private final Map<String,List<CSVRecord>> rowsByGuid;
+
+	private final SplittableRandom random;
+
+	private int iterations = 200;
+
+	private long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private long timeoutMillis = 10000L;
+
+	private int maxLength = 100000;
+
+	private ExecutorService executor;
+
+	private int casesFound = 0;
+
+	/** Threads of invocations abandoned after timing out, which may still be running. */
+	private final List<Thread> abandoned = new ArrayList<Thread>();
+
+	/**
+	 * Construct a fuzzer.
+	 *
+	 * @param registry of test implementations to fuzz.
+	 * @param in reader for validation data with a header row, from which inputs are seeded.
+	 * @param seed for the random number generator.
+	 * @throws IOException if unable to read the validation data.
+	 */
+	public PerformanceFuzzer(ImplementationRegistry registry, Reader in, long seed) throws IOException {
+		this.registry = registry;
+		this.random = new SplittableRandom(seed);
+		CSVParser records = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(in);
+		header = new ArrayList<String>(records.getHeaderMap().keySet());
+		rowsByGuid = new HashMap<String,List<CSVRecord>>();
+		for (CSVRecord record : records) {
+			String guid = record.get("GUID").trim();
+			if (!rowsByGuid.containsKey(guid)) {
+				rowsByGuid.put(guid, new ArrayList<CSVRecord>());
+			}
+			rowsByGuid.get(guid).add(record);
+		}
+		records.close();
+	}
+
+	/**
+	 * @param iterations number of mutated inputs to try for each test implementation.
+	 */
+	public void setIterations(int iterations) {
+		this.iterations = iterations;
+	}
+
+	/**
+	 * @param thresholdMillis invocations slower than this are saved as test cases.
+	 */
+	public void setThresholdMillis(long thresholdMillis) {
+		this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+	}
+
+	/**
+	 * @param timeoutMillis invocations are abandoned after this time, and saved as test cases.
+	 */
+	public void setTimeoutMillis(long timeoutMillis) {
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * @param maxLength the longest value a mutation may produce.
+	 */
+	public void setMaxLength(int maxLength) {
+		this.maxLength = maxLength;
+	}
+
+	/**
+	 * Fuzz the implementations of the tests with validation data.
+	 *
+	 * @param targetIssueNumbers if not empty, only fuzz tests with these GitHub issue numbers.
+	 * @param out to which slow inputs are written as rows of validation data, with a header.
+	 * @return the number of slow inputs found.
+	 * @throws IOException on an error writing output.
+	 */
+	public int fuzz(List<String> targetIssueNumbers, Appendable out) throws IOException {
+		Set<String> targets = new HashSet<String>(targetIssueNumbers);
+		CSVPrinter printer = new CSVPrinter(out, CSVFormat.DEFAULT.withQuoteMode(QuoteMode.ALL));
+		List<String> outputHeader = new ArrayList<String>(header);
+		outputHeader.removeAll(RESPONSE_COLUMNS);
+		printer.printRecord(outputHeader);
+		executor = newExecutor();
+		try {
+			List<String> guids = new ArrayList<String>(rowsByGuid.keySet());
+			Collections.sort(guids);
+			Iterator<String> ig = guids.iterator();
+			while (ig.hasNext()) {
+				String guid = ig.next();
+				List<CSVRecord> seeds = rowsByGuid.get(guid);
+				if (!targets.isEmpty() && !targets.contains(seeds.get(0).get("GitHubIssueNo"))) {
+					continue;
+				}
+				for (Method javaMethod : registry.getMethods(guid)) {
+					if (!fuzzMethod(guid, javaMethod, seeds, printer)) {
+						// timed out, leaving a thread running, don't start more for this test
+						break;
+					}
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+			printer.flush();
+		}
+		return casesFound;
+	}
+
+	/**
+	 * Search for slow inputs to one method implementing a test, stopping at the first
+	 * invocation to time out.
+	 *
+	 * @return false if an invocation timed out.
+	 */
+	private boolean fuzzMethod(String guid, Method javaMethod, List<CSVRecord> seeds, CSVPrinter printer) throws IOException {
+		List<String> terms = ImplementationRegistry.getParameterTerms(javaMethod);
+		if (terms.contains(null)) {
+			logger.debug("Skipping " + javaMethod.toGenericString() + " with unannotated parameters.");
+			return true;
+		}
+		String label = seeds.get(0).get("Label");
+		logger.debug("Fuzzing " + guid + " " + label + " with " + javaMethod.toGenericString());
+		// corpus of inputs, kept sorted slowest first, seeded from the validation data
+		List<Candidate> corpus = new ArrayList<Candidate>();
+		for (CSVRecord seed : seeds) {
+			List<String> values = new ArrayList<String>();
+			for (String term : terms) {
+				values.add(seed.isMapped(term) ? seed.get(term) : "");
+			}
+			corpus.add(new Candidate(seed, values, 0L));
+		}
+		long slowest = 0L;
+		boolean timedOut = false;
+		for (int i=0; i<iterations && !timedOut; i++) {
+			// prefer mutating the slowest inputs found so far
+			Candidate parent = corpus.get(Math.min(corpus.size()-1, (int)(halfNormal() * corpus.size() / 4)));
+			List<String> values = mutate(parent.values);
+			int running = countAbandoned();
+			long duration = time(javaMethod, values);
+			timedOut = duration < 0L;
+			if (timedOut) {
+				duration = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+			}
+			if (duration > slowest) {
+				slowest = duration;
+			}
+			if (duration > parent.durationNanos || random.nextInt(10)==0) {
+				corpus.add(new Candidate(parent.seed, values, duration));
+				Collections.sort(corpus);
+				if (corpus.size() > 256) {
+					corpus.remove(corpus.size()-1);
+				}
+			}
+			if (duration >= thresholdNanos) {
+				saveCase(guid, javaMethod, terms, parent.seed, values, duration, timedOut, running, printer);
+			}
+		}
+		logger.info(String.format("%s %s slowest %.3f ms%s", guid, label, slowest/1000000d, timedOut ? ", stopped at a timeout" : ""));
+		return !timedOut;
+	}
+
+	/**
+	 * @return the absolute value of a standard normal deviate, by the Box-Muller transform.
+	 */
+	private double halfNormal() {
+		return Math.abs(Math.sqrt(-2d * Math.log(1d - random.nextDouble())) * Math.cos(2d * Math.PI * random.nextDouble()));
+	}
+
+	/**
+	 * @return the number of abandoned invocations still running.
+	 */
+	private int countAbandoned() {
+		Iterator<Thread> i = abandoned.iterator();
+		while (i.hasNext()) {
+			if (!i.next().isAlive()) {
+				i.remove();
+			}
+		}
+		return abandoned.size();
+	}
+
+	/**
+	 * Time one invocation with a timeout.
+	 *
+	 * @return elapsed time in nanoseconds, -1 if the invocation did not complete within the timeout.
+	 */
+	private long time(final Method javaMethod, final List<String> values) {
+		final long[] elapsed = new long[1];
+		final AtomicReference<Thread> worker = new AtomicReference<Thread>();
+		Future<?> future = executor.submit(() -> {
+			worker.set(Thread.currentThread());
+			try {
+				Object instance = registry.newInstance(javaMethod.getDeclaringClass());
+				Object[] arguments = ImplementationRegistry.toArguments(javaMethod, values);
+				long start = System.nanoTime();
+				try {
+					javaMethod.invoke(instance, arguments);
+				} finally {
+					elapsed[0] = System.nanoTime() - start;
+				}
+			} catch (Exception e) {
+				// exceptions are not of interest here, only the time taken
+				logger.debug(e.getMessage());
+			}
+			return null;
+		});
+		try {
+			future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+			return elapsed[0];
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			// the invocation may not respond to interruption, abandon its thread.
+			executor.shutdownNow();
+			executor = newExecutor();
+			if (worker.get()!=null) {
+				abandoned.add(worker.get());
+			}
+			return -1L;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return 0L;
+		} catch (ExecutionException e) {
+			logger.debug(e.getMessage());
+			return 0L;
+		}
+	}
+
+	private static ExecutorService newExecutor() {
+		return Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "bdq-fuzz");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Apply one random mutation to one of the values.
+	 */
+	private List<String> mutate(List<String> values) {
+		List<String> result = new ArrayList<String>(values);
+		if (result.isEmpty()) {
+			return result;
+		}
+		int index = random.nextInt(result.size());
+		String value = result.get(index);
+		StringBuilder mutated = new StringBuilder(value);
+		switch (random.nextInt(7)) {
+		case 0:
+			// repeat a substring many times, the classic trigger for backtracking
+			if (value.length()>0) {
+				int start = random.nextInt(value.length());
+				int end = start + 1 + random.nextInt(Math.min(8, value.length()-start));
+				String piece = value.substring(start, end);
+				int times = 1 << random.nextInt(12);
+				for (int i=0; i<times; i++) {
+					mutated.insert(start, piece);
+				}
+			} else {
+				mutated.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+			}
+			break;
+		case 1:
+			// insert a fragment
+			mutated.insert(random.nextInt(value.length()+1), FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+			break;
+		case 2:
+			// append a long run of one fragment, then a character that may fail a match
+			String fragment = FRAGMENTS[random.nextInt(FRAGMENTS.length)];
+			int times = 1 << random.nextInt(14);
+			for (int i=0; i<times; i++) {
+				mutated.append(fragment);
+			}
+			mutated.append('!');
+			break;
+		case 3:
+			// delete a span
+			if (value.length()>1) {
+				int start = random.nextInt(value.length());
+				mutated.delete(start, start + 1 + random.nextInt(value.length()-start));
+			}
+			break;
+		case 4:
+			// splice in the value of another parameter
+			mutated.append(result.get(random.nextInt(result.size())));
+			break;
+		case 5:
+			// double the value
+			mutated.append(value);
+			break;
+		default:
+			// change a character
+			if (value.length()>0) {
+				mutated.setCharAt(random.nextInt(value.length()), FRAGMENTS[random.nextInt(FRAGMENTS.length)].charAt(0));
+			}
+		}
+		if (mutated.length() > maxLength) {
+			mutated.setLength(maxLength);
+		}
+		result.set(index, mutated.toString());
+		return result;
+	}
+
+	/**
+	 * Write a slow input as a row of validation data, based on the row it was seeded from,
+	 * with the mutated values, and without the expected response columns, so rerunning it
+	 * reports the response without comparing it.
+	 *
+	 * @param timedOut true if the invocation did not complete.
+	 * @param running number of abandoned invocations running when the input was timed.
+	 */
+	private void saveCase(String guid, Method javaMethod, List<String> terms, CSVRecord seed, List<String> values, long duration, 
+			boolean timedOut, int running, CSVPrinter printer) throws IOException {
+		casesFound++;
+		Map<String,String> row = new HashMap<String,String>();
+		for (int i=0; i<terms.size(); i++) {
+			row.put(terms.get(i), values.get(i));
+		}
+		row.put("dataID", "fuzz" + Integer.toString(casesFound));
+		row.put("LineNumber", Integer.toString(casesFound + 1));
+		StringBuilder issues = new StringBuilder();
+		issues.append(String.format("Performance: %s%.3f ms in %s, mutated from dataID %s", timedOut ? "timed out after " : "",
+				duration/1000000d, javaMethod.getDeclaringClass().getName() + "." + javaMethod.getName(), seed.get("dataID")));
+		if (running > 0) {
+			issues.append(", timed while ").append(running).append(" abandoned invocations were still running");
+		}
+		row.put("IssuesWithThisRow", issues.toString());
+		List<String> output = new ArrayList<String>();
+		for (String column : header) {
+			if (row.containsKey(column)) {
+				output.add(row.get(column));
+			} else if (!RESPONSE_COLUMNS.contains(column)) {
+				output.add(seed.get(column));
+			}
+		}
+		printer.printRecord(output);
+		printer.flush();
+		logger.debug("Slow input for " + guid + " " + String.format("%.3f ms", duration/1000000d));
+	}
+
+	/**
+	 * An input tried against a test, ordered slowest first.
+	 */
+	private static class Candidate implements Comparable<Candidate> {
+		private final CSVRecord seed;
+		private final List<String> values;
+		private final long durationNanos;
+
+		Candidate(CSVRecord seed, List<String> values, long durationNanos) {
+			this.seed = seed;
+			this.values = values;
+			this.durationNanos = durationNanos;
+		}
+
+		@Override
+		public int compareTo(Candidate other) {
+			return Long.compare(other.durationNanos, durationNanos);
+		}
+	}
+
+	/**
+	 * Main method to fuzz test implementations from the command line.
+	 *
+	 * @param args command line arguments
+	 */
+	public static void main(String[] args) {
+		Options options = new Options();
+		options.addOption("i","input",true,"File containing validation data from which to seed inputs, required.");
+		options.addOption("o","output",true,"File to which to write slow inputs as validation data, required, must not exist.");
+		options.addOption("c","classes",true,"Comma separated list of classes containing test implementations to fuzz (default DwCMetadataDQDefaults,DwCGeoRefDQDefaults,DwCEventDQDefaults,DwCOtherDateDQDefaults,DwCSciNameDQDefaults)");
+		options.addOption("g","gitHubIssues", true, "Comma separated list of github issue numbers for tests to fuzz, if not specified all tests will be fuzzed.");
+		options.addOption("n","iterations",true,"Number of mutated inputs to try for each test implementation, default 200.");
+		options.addOption("t","threshold",true,"Invocations slower than this many milliseconds are saved, default 100.");
+		options.addOption("x","timeout",true,"Invocations are abandoned after this many milliseconds, default 10000.");
+		options.addOption("s","seed",true,"Seed for the random number generator, default 1.");
+		options.addOption("h","help",false,"Show help.");
+		try {
+			CommandLineParser parser = new DefaultParser();
+			CommandLine cmd = parser.parse(options, args);
+			if (cmd.hasOption("h") || !cmd.hasOption("i") || !cmd.hasOption("o")) {
+				HelpFormatter formatter = new HelpFormatter();
+				formatter.printHelp("java -cp bdqtestrunner-{version}-{gitcommit}-executable.jar org.filteredpush.qc.bdqtestrunner.PerformanceFuzzer", options);
+			} else {
+				File outputFile = new File(cmd.getOptionValue("o"));
+				if (outputFile.exists()) {
+					throw new IOException("Specified output file already exists, cannot overwrite");
+				}
+				List<String> classList = Arrays.asList("DwCMetadataDQDefaults","DwCGeoRefDQDefaults","DwCEventDQDefaults","DwCOtherDateDQDefaults","DwCSciNameDQDefaults");
+				if (cmd.hasOption("c")) {
+					classList = Arrays.asList(cmd.getOptionValue("c").split(","));
+					classList.replaceAll(String::trim);
+				}
+				List<String> issueList = new ArrayList<String>();
+				if (cmd.hasOption("g")) {
+					issueList = Arrays.asList(cmd.getOptionValue("g").split(","));
+					issueList.replaceAll(String::trim);
+				}
+				long seed = 1L;
+				if (cmd.hasOption("s")) {
+					seed = Long.parseLong(cmd.getOptionValue("s").trim());
+				}
+				ImplementationRegistry registry = new ImplementationRegistry(classList);
+				Reader in = new InputStreamReader(new FileInputStream(cmd.getOptionValue("i")), StandardCharsets.UTF_8);
+				PerformanceFuzzer fuzzer = new PerformanceFuzzer(registry, in, seed);
+				in.close();
+				if (cmd.hasOption("n")) {
+					fuzzer.setIterations(Integer.parseInt(cmd.getOptionValue("n").trim()));
+				}
+				if (cmd.hasOption("t")) {
+					fuzzer.setThresholdMillis(Long.parseLong(cmd.getOptionValue("t").trim()));
+				}
+				if (cmd.hasOption("x")) {
+					fuzzer.setTimeoutMillis(Long.parseLong(cmd.getOptionValue("x").trim()));
+				}
+				// mutations insert non-ASCII fragments, e.g. a degree sign
+				Writer out = new OutputStreamWriter(new FileOutputStream(outputFile), StandardCharsets.UTF_8);
+				int found;
+				try {
+					found = fuzzer.fuzz(issueList, out);
+				} finally {
+					out.close();
+				}
+				System.out.println("Found " + Integer.toString(found) + " slow inputs, written to " + outputFile.getName());
+			}
+		} catch (Exception e) {
+			logger.error(e.getMessage(),e);
+			System.out.println(e.getMessage());
+		}
+	}
+
+}
@@ -0,0 +1,192 @@
+/**
+ * ProbabilisticBookkeeping.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.ObjectOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Bookkeeping of dataIDs in constant memory, for inputs too large to hold every dataID,
+ * duplicate dataIDs are detected with a Bloom filter sized for an expected number of rows,
+ * and dataIDs with no implementation are spilled to a temporary CSV file as they are found,
+ * and read back for the summary.
+ *
+ * Approximate: with the configured probability a row whose dataID has not been seen before
+ * is reported as a duplicate and not run, and a dataID not run is left off the list of dataIDs
+ * not run if it is a false positive against the dataIDs already listed.  The false positive
+ * rate rises above the configured rate if the number of rows exceeds the expected number.
+ * Where rows with the same dataID are not run, the first description is listed, not the last.
+ *
+ */
+public class ProbabilisticBookkeeping implements DataIDBookkeeping {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final Log logger = LogFactory.getLog(ProbabilisticBookkeeping.class);
+
+	private final BloomFilter dataIDsRun;
+
+	private final BloomFilter dataIDsNotRun;
+
+	private File spillFile;
+
+	private long notRunCount = 0;
+
+	/** length of the spill file holding the dataIDs listed in notRunCount */
+	private long spillLength = 0;
+
+	private transient CSVPrinter spill;
+
+	/**
+	 * @param expectedRows expected number of rows, to size the Bloom filters.
+	 * @param falsePositiveRate acceptable rate of false duplicate detection.
+	 */
+	public ProbabilisticBookkeeping(long expectedRows, double falsePositiveRate) {
+		dataIDsRun = new BloomFilter(expectedRows, falsePositiveRate);
+		dataIDsNotRun = new BloomFilter(expectedRows, falsePositiveRate);
+	}
+
+	@Override
+	public boolean isRun(String dataID) {
+		return dataIDsRun.mightContain(dataID);
+	}
+
+	@Override
+	public void markRun(String dataID) {
+		dataIDsRun.put(dataID);
+	}
+
+	@Override
+	public void markNotRun(String dataID, String description) {
+		if (!dataIDsNotRun.mightContain(dataID)) {
+			dataIDsNotRun.put(dataID);
+			try {
+				spill().printRecord(dataID, description);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Unable to spill dataIDs not run to disk", e);
+			}
+			notRunCount++;
+		}
+	}
+
+	/**
+	 * Create the spill file on first use, or open it for append, truncating anything
+	 * written after the last checkpoint when resuming.
+	 */
+	private CSVPrinter spill() throws IOException {
+		if (spillFile == null) {
+			spillFile = File.createTempFile("bdqtestrunner_notrun_", ".csv");
+			logger.debug("Spilling dataIDs not run to " + spillFile.getPath());
+		}
+		if (spill == null) {
+			try (RandomAccessFile file = new RandomAccessFile(spillFile, "rw")) {
+				file.setLength(spillLength);
+			}
+			spill = new CSVPrinter(
+					new BufferedWriter(new OutputStreamWriter(new FileOutputStream(spillFile, true), StandardCharsets.UTF_8)),
+					CSVFormat.DEFAULT);
+		}
+		return spill;
+	}
+
+	@Override
+	public long getNotRunCount() {
+		return notRunCount;
+	}
+
+	@Override
+	public Iterator<Map.Entry<String,String>> notRunIterator() throws IOException {
+		if (spillFile == null) {
+			return Collections.<Map.Entry<String,String>>emptyList().iterator();
+		}
+		if (spill != null) {
+			spill.flush();
+		}
+		final CSVParser parser = new CSVParser(
+				new InputStreamReader(new FileInputStream(spillFile), StandardCharsets.UTF_8),
+				CSVFormat.DEFAULT);
+		final Iterator<CSVRecord> records = parser.iterator();
+		return new Iterator<Map.Entry<String,String>>() {
+			@Override
+			public boolean hasNext() {
+				boolean result = records.hasNext();
+				if (!result) {
+					try {
+						parser.close();
+					} catch (IOException e) {
+						logger.debug(e.getMessage(), e);
+					}
+				}
+				return result;
+			}
+
+			@Override
+			public Map.Entry<String,String> next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				CSVRecord record = records.next();
+				return new AbstractMap.SimpleImmutableEntry<String,String>(record.get(0), record.get(1));
+			}
+		};
+	}
+
+	/**
+	 * Close and delete the spill file.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (spill != null) {
+			spill.close();
+			spill = null;
+		}
+		if (spillFile != null && spillFile.exists() && !spillFile.delete()) {
+			logger.error("Unable to delete " + spillFile.getPath());
+		}
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		if (spill != null) {
+			spill.flush();
+		}
+		spillLength = spillFile == null ? 0L : spillFile.length();
+		out.defaultWriteObject();
+	}
+
+}
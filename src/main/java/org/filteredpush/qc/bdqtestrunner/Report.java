@@ -17,6 +17,10 @@
  */
 package org.filteredpush.qc.bdqtestrunner;
 
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -24,10 +28,13 @@ import org.apache.commons.logging.LogFactory;
  * @author mole
  *
  * Structure for reporting test results by test, summarizing over rows of
- * validation data.
+ * validation data.  Counters and latencies may be updated and read from 
+ * different threads.  Serializable so that the state of a run can be checkpointed.
  *
  */
-public class Report {
+public class Report implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private static final Log logger = LogFactory.getLog(Report.class);
 	
@@ -41,6 +48,16 @@ public class Report {
 	
 	private String testNumber;
 	
+	/**
+	 * Latency of invocations of the test implementation, in nanoseconds, 
+	 * auto-resizing, with two significant digits of precision.
+	 */
+	private Histogram latency;
+	
+	private long allocatedBytes;
+	
+	private long cpuTime;
+	
 	/**
 	 * Construct a report instance. 
 	 * 
@@ -53,6 +70,7 @@ public class Report {
 		fail = 0;
 		this.testLabel = testLabel;
 		this.testNumber = testNumber;
+		latency = new Histogram(2);
 	}
 
 	/**
@@ -72,7 +90,7 @@ public class Report {
 	/** 
 	 * increment the value of encountered by 1
 	 */
-	public void incrementEncountered() {
+	public synchronized void incrementEncountered() {
 		if (encountered==null) { 
 			encountered = 0;
 		}
@@ -90,7 +108,7 @@ public class Report {
 	 * increment the value of pass by 1
 	 * also increments encountered by 1
 	 */
-	public void incrementPass() {
+	public synchronized void incrementPass() {
 		if (pass==null) { 
 			pass = 0;
 		}
@@ -116,7 +134,7 @@ public class Report {
 	 * increment the value of fail by 1
 	 * also increments the value of encountered by 1
 	 */
-	public void incrementFail() {
+	public synchronized void incrementFail() {
 		if (fail==null) { 
 			fail = 0;
 		}
@@ -159,6 +177,94 @@ public class Report {
 		this.testNumber = testNumber;
 	}
 	
+	/**
+	 * Record the time taken for one invocation of the test implementation.
+	 * 
+	 * @param nanoseconds elapsed time of the invocation in nanoseconds.
+	 */
+	public synchronized void recordLatency(long nanoseconds) { 
+		if (nanoseconds < 0) { 
+			nanoseconds = 0;
+		}
+		latency.recordValue(nanoseconds);
+	}
+	
+	/**
+	 * Record the resources used by one invocation of the test implementation.
+	 * 
+	 * @param bytes allocated by the invocation 
+	 * @param cpuNanoseconds cpu time used by the invocation in nanoseconds 
+	 */
+	public synchronized void recordResources(long bytes, long cpuNanoseconds) { 
+		allocatedBytes = allocatedBytes + Math.max(0L, bytes);
+		cpuTime = cpuTime + Math.max(0L, cpuNanoseconds);
+	}
+	
+	/**
+	 * Add the counts, latencies, and resources of another report on the same test, 
+	 * e.g. from another shard of a run, to this report.
+	 * 
+	 * @param other report to add to this report.
+	 */
+	public synchronized void merge(Report other) { 
+		synchronized (other) { 
+			encountered = encountered + other.encountered;
+			pass = pass + other.pass;
+			fail = fail + other.fail;
+			latency.add(other.latency);
+			allocatedBytes = allocatedBytes + other.allocatedBytes;
+			cpuTime = cpuTime + other.cpuTime;
+		}
+	}
+	
+	/**
+	 * @return the total bytes allocated by invocations of this test
+	 */
+	public synchronized long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	/**
+	 * @return the total cpu time used by invocations of this test, in nanoseconds
+	 */
+	public synchronized long getCpuTime() {
+		return cpuTime;
+	}
+	
+	/**
+	 * @return the histogram of invocation latencies in nanoseconds
+	 */
+	public Histogram getLatency() {
+		return latency;
+	}
+	
+	/**
+	 * Obtain a latency percentile for the invocations of this test.
+	 * 
+	 * @param percentile the percentile to obtain, e.g. 99.0
+	 * @return the latency at the percentile in milliseconds, 0 if no invocations were timed.
+	 */
+	public synchronized double getLatencyPercentile(double percentile) { 
+		if (latency.getTotalCount()==0) { 
+			return 0d;
+		}
+		return toMilliseconds(latency.getValueAtPercentile(percentile));
+	}
+	
+	/**
+	 * @return the maximum latency of invocations of this test in milliseconds.
+	 */
+	public synchronized double getLatencyMax() { 
+		if (latency.getTotalCount()==0) { 
+			return 0d;
+		}
+		return toMilliseconds(latency.getMaxValue());
+	}
+	
+	private static double toMilliseconds(long nanoseconds) { 
+		return (double)nanoseconds / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+	
 	/**
 	 * @return the total number of tests reported on, pass plus fail.
 	 */
@@ -166,7 +272,7 @@ public class Report {
 		return pass + fail;
 	}
 	
-	public String toString() { 
+	public synchronized String toString() { 
 		StringBuilder result = new StringBuilder();
 		result.append(String.format("%2d",encountered)).append(" ");
 		if (pass+fail != encountered) { 
@@ -174,6 +280,12 @@ public class Report {
 		}
 		result.append("P:").append(String.format("%2d", pass)).append(" ");
 		result.append("F:").append(String.format("%2d", fail)).append(" ");
+		if (latency.getTotalCount()>0) { 
+			result.append("p50:").append(String.format("%.3f", getLatencyPercentile(50d))).append("ms ");
+			result.append("p90:").append(String.format("%.3f", getLatencyPercentile(90d))).append("ms ");
+			result.append("p99:").append(String.format("%.3f", getLatencyPercentile(99d))).append("ms ");
+			result.append("max:").append(String.format("%.3f", getLatencyMax())).append("ms ");
+		}
 		result.append(testLabel).append(" #").append(testNumber);
 		
 		return result.toString();
@@ -0,0 +1,126 @@
+/**
+ * ResultComparator.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares the result returned by a test implementation with the expected result.
+ * Amendment results are compared term by term with the canonical form of the expected
+ * result, regardless of the order of terms, optionally allowing a numeric tolerance in the
+ * values of particular terms (such as dwc:decimalLatitude and dwc:decimalLongitude); any
+ * other result must match the expected result exactly.
+ *
+ */
+public class ResultComparator {
+
+	private final Map<String,Double> tolerances = new TreeMap<String,Double>();
+
+	/**
+	 * Allow values of a term in amendment results to differ numerically from the expected
+	 * value by up to a tolerance.
+	 *
+	 * @param term the term, e.g. dwc:decimalLatitude.
+	 * @param tolerance the largest absolute difference allowed, not negative.
+	 */
+	public void setTolerance(String term, double tolerance) {
+		if (tolerance < 0d || Double.isNaN(tolerance)) {
+			throw new IllegalArgumentException("Tolerance for " + term + " must not be negative.");
+		}
+		tolerances.put(term, tolerance);
+	}
+
+	/**
+	 * Parse tolerances in the form term=tolerance,term=tolerance, as produced by
+	 * getTolerances().
+	 *
+	 * @param specification the tolerances, may be empty.
+	 * @return a comparator with the tolerances.
+	 * @throws IllegalArgumentException if the specification can't be parsed.
+	 */
+	public static ResultComparator parse(String specification) {
+		ResultComparator result = new ResultComparator();
+		for (String part : specification.split(",")) {
+			if (part.trim().length()==0) {
+				continue;
+			}
+			int equals = part.lastIndexOf('=');
+			if (equals < 1) {
+				throw new IllegalArgumentException("Unable to parse tolerance " + part + ", expected term=tolerance");
+			}
+			result.setTolerance(part.substring(0, equals).trim(), Double.parseDouble(part.substring(equals + 1).trim()));
+		}
+		return result;
+	}
+
+	/**
+	 * @return the tolerances in the form term=tolerance,term=tolerance, empty if none.
+	 */
+	public String getTolerances() {
+		StringBuilder result = new StringBuilder();
+		for (Map.Entry<String,Double> entry : tolerances.entrySet()) {
+			if (result.length() > 0) {
+				result.append(',');
+			}
+			result.append(entry.getKey()).append('=').append(entry.getValue());
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Compare a result with the expected result.
+	 *
+	 * @param expected the expected result.
+	 * @param result the result returned, as a string.
+	 * @param amendment the map of terms to values returned by an amendment, null if the
+	 *   result is not from an amendment.
+	 * @return true if the result matches the expected result.
+	 */
+	public boolean matches(ExpectedResult expected, String result, Map<String,String> amendment) {
+		if (amendment==null || !expected.isMap()) {
+			return expected.getRaw().equals(result);
+		}
+		if (amendment.size()!=expected.size()) {
+			return false;
+		}
+		for (int i=0; i<expected.size(); i++) {
+			String value = amendment.get(expected.getTerm(i));
+			if (value==null || !valueMatches(expected.getTerm(i), expected.getValue(i), value)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean valueMatches(String term, String expected, String value) {
+		if (expected.equals(value)) {
+			return true;
+		}
+		Double tolerance = tolerances.get(term);
+		if (tolerance==null) {
+			return false;
+		}
+		try {
+			return Math.abs(Double.parseDouble(expected.trim()) - Double.parseDouble(value.trim())) <= tolerance.doubleValue();
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+}
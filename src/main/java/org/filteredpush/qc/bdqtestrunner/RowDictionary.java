@@ -0,0 +1,199 @@
+/**
+ * RowDictionary.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Dictionary of column names and values shared by the SparseDataRecords of rows of
+ * validation data held in memory.  Each row has around a hundred columns, almost all of
+ * them empty for any one test, so a row is stored as the (column id, value id) pairs of
+ * its non-empty cells only, and each distinct value is held once, however many rows and
+ * data sets it appears in.
+ *
+ * Rows may be added from one thread at a time, records may be read concurrently.
+ *
+ */
+public class RowDictionary {
+
+	private static final Log logger = LogFactory.getLog(RowDictionary.class);
+
+	private final Map<String,Integer> columnIds = new ConcurrentHashMap<String,Integer>();
+
+	private final List<String> columns = new ArrayList<String>();
+
+	private final Map<String,Integer> valueIds = new ConcurrentHashMap<String,Integer>();
+
+	/** Values by id, replaced by a larger copy as values are added. */
+	private volatile String[] values = new String[1024];
+
+	private int valueCount;
+
+	/** Column ids present in each distinct header, shared by all rows with that header. */
+	private final Map<List<String>,BitSet> headers = new HashMap<List<String>,BitSet>();
+
+	/**
+	 * Read all the rows of validation data, with a header row, into sparse records.
+	 *
+	 * @param in the validation data.
+	 * @return the rows, in the order read.
+	 * @throws IOException on failure to read or parse the validation data.
+	 */
+	public List<DataRecord> read(Reader in) throws IOException {
+		CSVParser records = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(in);
+		try {
+			List<String> header = new ArrayList<String>(records.getHeaderMap().keySet());
+			int[] headerIds = new int[header.size()];
+			for (int i=0; i<headerIds.length; i++) {
+				headerIds[i] = columnId(header.get(i));
+			}
+			BitSet mapped = mapped(header);
+			List<DataRecord> result = new ArrayList<DataRecord>();
+			int[] cells = new int[headerIds.length * 2];
+			for (CSVRecord record : records) {
+				int count = 0;
+				for (int i=0; i<headerIds.length && i<record.size(); i++) {
+					String value = record.get(i);
+					if (value.length() > 0) {
+						cells[count++] = headerIds[i];
+						cells[count++] = valueId(value);
+					}
+				}
+				result.add(new SparseDataRecord(this, mapped, sort(Arrays.copyOf(cells, count))));
+			}
+			logger.debug("Read " + result.size() + " rows, dictionary holds " + columns.size() + " columns, " + valueCount + " values.");
+			return result;
+		} finally {
+			records.close();
+		}
+	}
+
+	/**
+	 * Encode a row held as a map of column name to value.
+	 *
+	 * @param row map of column name to value, a null value is treated as empty.
+	 * @return the row as a sparse record.
+	 */
+	public SparseDataRecord encode(Map<String,String> row) {
+		List<String> header = new ArrayList<String>(row.keySet());
+		int[] cells = new int[header.size() * 2];
+		int count = 0;
+		for (String column : header) {
+			int columnId = columnId(column);
+			String value = row.get(column);
+			if (value!=null && value.length() > 0) {
+				cells[count++] = columnId;
+				cells[count++] = valueId(value);
+			}
+		}
+		return new SparseDataRecord(this, mapped(header), sort(Arrays.copyOf(cells, count)));
+	}
+
+	/**
+	 * @return the number of distinct values held.
+	 */
+	public int getValueCount() {
+		return valueCount;
+	}
+
+	/**
+	 * @param name of a column.
+	 * @return the id of the column, -1 if no row has the column.
+	 */
+	int findColumnId(String name) {
+		Integer id = columnIds.get(name);
+		return id==null ? -1 : id.intValue();
+	}
+
+	/**
+	 * @param id of a value.
+	 * @return the value.
+	 */
+	String value(int id) {
+		return values[id];
+	}
+
+	private int columnId(String name) {
+		Integer id = columnIds.get(name);
+		if (id==null) {
+			id = Integer.valueOf(columns.size());
+			columns.add(name);
+			columnIds.put(name, id);
+		}
+		return id.intValue();
+	}
+
+	private int valueId(String value) {
+		Integer id = valueIds.get(value);
+		if (id==null) {
+			if (valueCount==values.length) {
+				values = Arrays.copyOf(values, valueCount * 2);
+			}
+			values[valueCount] = value;
+			id = Integer.valueOf(valueCount++);
+			valueIds.put(value, id);
+		}
+		return id.intValue();
+	}
+
+	private BitSet mapped(List<String> header) {
+		BitSet result = headers.get(header);
+		if (result==null) {
+			result = new BitSet();
+			for (String column : header) {
+				result.set(columnId(column));
+			}
+			headers.put(header, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Sort (column id, value id) pairs by column id, a header may list columns in any order.
+	 */
+	private static int[] sort(int[] cells) {
+		for (int i=2; i<cells.length; i+=2) {
+			int columnId = cells[i];
+			int valueId = cells[i + 1];
+			int j = i - 2;
+			while (j >= 0 && cells[j] > columnId) {
+				cells[j + 2] = cells[j];
+				cells[j + 3] = cells[j + 1];
+				j -= 2;
+			}
+			cells[j + 2] = columnId;
+			cells[j + 3] = valueId;
+		}
+		return cells;
+	}
+
+}
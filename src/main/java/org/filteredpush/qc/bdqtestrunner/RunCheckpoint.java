@@ -0,0 +1,268 @@
+/**
+ * RunCheckpoint.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * The state of a run of the test runner at the start of a row of the input, from
+ * which the run can be resumed: where the row starts in the input, the bookkeeping
+ * of dataIDs run and not run, the reports by test, the failures counted against
+ * failure budgets, and the length of the output written so far.
+ *
+ * Checkpoints are written to a temporary file which is then moved over the
+ * checkpoint file, so a run killed while writing a checkpoint leaves the previous
+ * checkpoint intact.
+ *
+ */
+public class RunCheckpoint implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final Log logger = LogFactory.getLog(RunCheckpoint.class);
+
+	private final String source;
+	private final List<String> header;
+	private final long characterPosition;
+	private final long recordNumber;
+	private final int dataIDCounter;
+	private final DataIDBookkeeping bookkeeping;
+	private final Map<String,Report> reports;
+	private final List<SlowInvocationTracker.SlowInvocation> slowest;
+	private final long outputLength;
+	private final int failures;
+	/** null in a checkpoint written before failure budgets were checkpointed */
+	private final Map<String,Integer> testFailures;
+	/** null in a checkpoint written before failure budgets were checkpointed */
+	private final Map<String,Integer> stoppedTests;
+	private final int reusedResults;
+
+	/**
+	 * @param source of the validation data
+	 * @param header column names of the input
+	 * @param characterPosition in the input of the start of the next row to run
+	 * @param recordNumber of the next row to run, counting from 1 for the first record after the header
+	 * @param dataIDCounter count of rows read so far
+	 * @param bookkeeping of dataIDs run and with no implementation so far, serialized by write
+	 * @param reports by test GUID
+	 * @param slowest retained slowest invocations, empty if not profiling
+	 * @param outputLength bytes of output written and flushed before the next row
+	 */
+	public RunCheckpoint(String source, List<String> header, long characterPosition, long recordNumber, int dataIDCounter,
+			DataIDBookkeeping bookkeeping, Map<String,Report> reports,
+			List<SlowInvocationTracker.SlowInvocation> slowest, long outputLength) {
+		this(source, header, characterPosition, recordNumber, dataIDCounter, bookkeeping, reports, slowest, outputLength,
+				0, new HashMap<String,Integer>(), new HashMap<String,Integer>(), 0);
+	}
+
+	/**
+	 * @param source of the validation data
+	 * @param header column names of the input
+	 * @param characterPosition in the input of the start of the next row to run
+	 * @param recordNumber of the next row to run, counting from 1 for the first record after the header
+	 * @param dataIDCounter count of rows read so far
+	 * @param bookkeeping of dataIDs run and with no implementation so far, serialized by write
+	 * @param reports by test GUID
+	 * @param slowest retained slowest invocations, empty if not profiling
+	 * @param outputLength bytes of output written and flushed before the next row
+	 * @param failures counted against the failure budget of the run
+	 * @param testFailures failures of the rows run for each test, by GUID, counted against
+	 *   the failure budget of each test
+	 * @param stoppedTests rows not run for each test stopped by its failure budget, by GUID
+	 * @param reusedResults count of results reused from a previous run
+	 */
+	public RunCheckpoint(String source, List<String> header, long characterPosition, long recordNumber, int dataIDCounter,
+			DataIDBookkeeping bookkeeping, Map<String,Report> reports,
+			List<SlowInvocationTracker.SlowInvocation> slowest, long outputLength,
+			int failures, Map<String,Integer> testFailures, Map<String,Integer> stoppedTests, int reusedResults) {
+		this.source = source;
+		this.header = new ArrayList<String>(header);
+		this.characterPosition = characterPosition;
+		this.recordNumber = recordNumber;
+		this.dataIDCounter = dataIDCounter;
+		this.bookkeeping = bookkeeping;
+		this.reports = new ConcurrentHashMap<String,Report>(reports);
+		this.slowest = new ArrayList<SlowInvocationTracker.SlowInvocation>(slowest);
+		this.outputLength = outputLength;
+		this.failures = failures;
+		this.testFailures = new HashMap<String,Integer>(testFailures);
+		this.stoppedTests = new HashMap<String,Integer>(stoppedTests);
+		this.reusedResults = reusedResults;
+	}
+
+	/**
+	 * Write this checkpoint, replacing any previous checkpoint in the file atomically.
+	 *
+	 * @param checkpointFile the file to write.
+	 * @throws IOException if unable to write the checkpoint.
+	 */
+	public void write(File checkpointFile) throws IOException {
+		File directory = checkpointFile.getAbsoluteFile().getParentFile();
+		File temporary = File.createTempFile(checkpointFile.getName(), ".tmp", directory);
+		try {
+			FileOutputStream fileOut = new FileOutputStream(temporary);
+			try {
+				ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(fileOut));
+				out.writeObject(this);
+				out.flush();
+				// on disk before it replaces the previous checkpoint
+				fileOut.getFD().sync();
+			} finally {
+				fileOut.close();
+			}
+			try {
+				Files.move(temporary.toPath(), checkpointFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				logger.debug(e.getMessage());
+				Files.move(temporary.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temporary.toPath());
+		}
+	}
+
+	/**
+	 * Read a checkpoint.
+	 *
+	 * @param checkpointFile the file to read.
+	 * @return the checkpoint.
+	 * @throws IOException if unable to read the file, or it does not contain a checkpoint.
+	 */
+	public static RunCheckpoint read(File checkpointFile) throws IOException {
+		ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(checkpointFile)));
+		try {
+			return (RunCheckpoint) in.readObject();
+		} catch (ClassNotFoundException | ClassCastException e) {
+			throw new IOException("Not a checkpoint: " + checkpointFile.getName(), e);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * @return the source of the validation data
+	 */
+	public String getSource() {
+		return source;
+	}
+
+	/**
+	 * @return the column names of the input
+	 */
+	public List<String> getHeader() {
+		return header;
+	}
+
+	/**
+	 * @return the character position in the input of the start of the next row to run
+	 */
+	public long getCharacterPosition() {
+		return characterPosition;
+	}
+
+	/**
+	 * @return the record number of the next row to run
+	 */
+	public long getRecordNumber() {
+		return recordNumber;
+	}
+
+	/**
+	 * @return the count of rows read before the next row
+	 */
+	public int getDataIDCounter() {
+		return dataIDCounter;
+	}
+
+	/**
+	 * @return the bookkeeping of dataIDs run and with no implementation
+	 */
+	public DataIDBookkeeping getBookkeeping() {
+		return bookkeeping;
+	}
+
+	/**
+	 * @return the reports by test GUID
+	 */
+	public Map<String,Report> getReports() {
+		return reports;
+	}
+
+	/**
+	 * @return the retained slowest invocations
+	 */
+	public List<SlowInvocationTracker.SlowInvocation> getSlowest() {
+		return slowest;
+	}
+
+	/**
+	 * @return the length in bytes of the output written before the next row
+	 */
+	public long getOutputLength() {
+		return outputLength;
+	}
+
+	/**
+	 * @return the failures counted against the failure budget of the run
+	 */
+	public int getFailures() {
+		return failures;
+	}
+
+	/**
+	 * @return the failures of the rows run for each test, by GUID
+	 */
+	public Map<String,Integer> getTestFailures() {
+		return testFailures==null ? Collections.<String,Integer>emptyMap() : testFailures;
+	}
+
+	/**
+	 * @return the rows not run for each test stopped by its failure budget, by GUID
+	 */
+	public Map<String,Integer> getStoppedTests() {
+		return stoppedTests==null ? Collections.<String,Integer>emptyMap() : stoppedTests;
+	}
+
+	/**
+	 * @return the count of results reused from a previous run
+	 */
+	public int getReusedResults() {
+		return reusedResults;
+	}
+
+}
@@ -55,6 +55,28 @@ public class Runner {
 		options.addOption("o","output",true,"File to which to write output, if specified must not exist.  Default if not specified is test_run_output.txt which will be overwritten if it exists.");
 		options.addOption("c","classes",true,"Comma separated list of classes containing test implementations to validate against the test data (default DwCMetadataDQDefaults,DwCGeoRefDQDefaults,DwCEventDQDefaults,DwCOtherDateDQDefaults,DwCSciNameDQDefaults)");
 		options.addOption("g","gitHubIssues", true, "Comma separated list of github issue numbers for tests to run, if not specified all tests will run, if specified only the listed tests will be run.");
+		options.addOption("l","latencyLog",true,"File to which to write per test invocation latency histograms in HdrHistogram log format, if specified must not exist.");
+		options.addOption("a","accounting",true,"Measure bytes allocated and cpu time used by each test invocation, and list the specified number of tests using the most of each at the end of the output.");
+		options.addOption("s","slowest",true,"Profile individual invocations, listing the specified number of slowest invocations, with their input values, at the end of the output.");
+		options.addOption("p","port",true,"Run as a server listening on the specified port on localhost, accepting validation data POSTed to /validate and returning results as lines of JSON, the input file, if specified, is run at startup to warm up the implementations.");
+		options.addOption("t","threads",true,"In server mode, the number of requests to run concurrently, default the number of processors.");
+		options.addOption("k","checkpoint",true,"File to which to periodically write a checkpoint of the run, from which an interrupted run can be resumed with -r, removed when the run completes.");
+		options.addOption(Option.builder().longOpt("checkpointEvery").hasArg().argName("rows").desc("Number of rows of input between checkpoints, default 100000.").build());
+		options.addOption("r","resume",false,"Resume an interrupted run from the checkpoint file given with -k, continuing its output file (-o), requires an input file (-i).");
+		options.addOption(Option.builder().longOpt("bookkeeping").hasArg().argName("strategy").desc("How to record dataIDs run, to detect duplicates, and not run, to list at the end: exact (default), compact or offheap to hold them in compact tables on or off the heap, or probabilistic to detect duplicates with a Bloom filter and spill those not run to disk, using constant memory on very large inputs.").build());
+		options.addOption(Option.builder().longOpt("expectedRows").hasArg().argName("rows").desc("Expected number of rows of input, used to size compact and probabilistic bookkeeping, default 10000000.").build());
+		options.addOption(Option.builder().longOpt("falsePositiveRate").hasArg().argName("rate").desc("For probabilistic bookkeeping, acceptable rate of rows falsely reported as duplicates, default 0.000001.").build());
+		options.addOption(Option.builder().longOpt("shards").hasArg().argName("n").desc("Run the validation data in n worker JVMs on this machine, partitioning the rows between them, for test implementations that are not thread safe, merging their results into a single output in the order of the input.  Can't be combined with -k or -s.").build());
+		options.addOption(Option.builder().longOpt("shardBy").hasArg().argName("column").desc("Column whose value assigns rows to shards, dataID (default) or GUID.").build());
+		options.addOption(Option.builder().longOpt("threadSafety").hasArg().argName("file").desc("Classification of the test implementations by thread safety, written by the ThreadSafetyProbe, used to share instances of their classes between invocations, and in server mode between concurrent requests, and to serialize invocations of classes unsafe to run concurrently.").build());
+		options.addOption(Option.builder().longOpt("failFast").desc("Stop the run at the first failing row, writing the summary of the rows run.").build());
+		options.addOption(Option.builder().longOpt("maxFailures").hasArg().argName("n").desc("Stop the run after n failing rows, writing the summary of the rows run.").build());
+		options.addOption(Option.builder().longOpt("maxFailuresPerTest").hasArg().argName("k").desc("Stop running the rows for a test after k of them fail, skipping its remaining rows.").build());
+		options.addOption(Option.builder().longOpt("latencyProfile").hasArg().argName("file").desc("File in which to keep the latency of each test, updated at the end of each run, used by runs with --shardBy GUID to assign the slowest tests to shards first.").build());
+		options.addOption(Option.builder().longOpt("parseThreads").hasArg().argName("n").desc("Parse the input file on n threads, splitting it into chunks at record boundaries, for very large inputs.  Can't be combined with -k.").build());
+		options.addOption(Option.builder().longOpt("tolerance").hasArg().argName("tolerances").desc("Comma separated list of terms whose amended values may differ numerically from the expected value by up to the given tolerance and still pass, e.g. dwc:decimalLatitude=0.000001,dwc:decimalLongitude=0.000001.").build());
+		options.addOption(Option.builder().longOpt("changedTests").hasArg().argName("file").desc("File listing the GUIDs of the tests whose implementation changed, one per line, as written by ChangeImpactAnalyzer, only the rows of these tests are run, the results of other tests are taken from --previousOutput.  Can't be combined with --shards.").build());
+		options.addOption(Option.builder().longOpt("previousOutput").hasArg().argName("file").desc("Output of a previous run, from which to report the results of tests not listed in --changedTests.").build());
 		options.addOption("h","help",false,"Show help.");
 
 		try { 
@@ -66,6 +88,29 @@ public class Runner {
 				HelpFormatter formatter = new HelpFormatter();
 				formatter.printHelp( "java -jar bdqtestrunner-{version}-{gitcommit}-executable.jar", options);
 				System.exit(0);
+			} else if (cmd.hasOption("p")) {
+				// resident server, keeping implementations warm between jobs
+				List<String> classList = TestRunnerServer.DEFAULT_CLASSES;
+				if (cmd.hasOption("c")) {
+					classList = Arrays.asList(cmd.getOptionValue("c").split(","));
+					classList.replaceAll(String::trim);
+				}
+				int threads = Runtime.getRuntime().availableProcessors();
+				if (cmd.hasOption("t")) {
+					threads = Integer.parseInt(cmd.getOptionValue("t").trim());
+				}
+				File warmupFile = null;
+				if (cmd.hasOption("i")) {
+					warmupFile = new File(cmd.getOptionValue("i"));
+				}
+				ThreadSafetyClassification threadSafety = null;
+				if (cmd.hasOption("threadSafety")) {
+					threadSafety = ThreadSafetyClassification.read(new File(cmd.getOptionValue("threadSafety")));
+				}
+				TestRunnerServer server = TestRunnerServer.start(classList, Integer.parseInt(cmd.getOptionValue("p").trim()), threads, warmupFile, threadSafety);
+				System.out.println("Listening on http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/validate");
+				// serve until the process is stopped
+				Thread.currentThread().join();
 			} else {
 				String outfile = "test_run_output.txt";
 				String infile = null;
@@ -85,10 +130,92 @@ public class Runner {
 					testRunner = new TestRunner();
 				}
 				// set optional conditions
+				if (cmd.hasOption("k")) {
+					int everyRows = 100000;
+					if (cmd.hasOption("checkpointEvery")) {
+						everyRows = Integer.parseInt(cmd.getOptionValue("checkpointEvery").trim());
+					}
+					testRunner.setCheckpoint(cmd.getOptionValue("k"), everyRows);
+				}
+				if (cmd.hasOption("bookkeeping")) {
+					long expectedRows = 10000000L;
+					if (cmd.hasOption("expectedRows")) {
+						expectedRows = Long.parseLong(cmd.getOptionValue("expectedRows").trim());
+					}
+					double falsePositiveRate = 0.000001d;
+					if (cmd.hasOption("falsePositiveRate")) {
+						falsePositiveRate = Double.parseDouble(cmd.getOptionValue("falsePositiveRate").trim());
+					}
+					testRunner.setBookkeeping(cmd.getOptionValue("bookkeeping").trim(), expectedRows, falsePositiveRate);
+				}
+				if (cmd.hasOption("threadSafety")) {
+					testRunner.setThreadSafety(ThreadSafetyClassification.read(new File(cmd.getOptionValue("threadSafety"))));
+				}
+				if (cmd.hasOption("failFast") || cmd.hasOption("maxFailures") || cmd.hasOption("maxFailuresPerTest")) {
+					if (cmd.hasOption("shards")) {
+						throw new Exception("Failure budgets (--failFast, --maxFailures, --maxFailuresPerTest) can't be applied to sharded runs (--shards).");
+					}
+					int maxFailures = 0;
+					if (cmd.hasOption("maxFailures")) {
+						maxFailures = Integer.parseInt(cmd.getOptionValue("maxFailures").trim());
+					}
+					int maxFailuresPerTest = 0;
+					if (cmd.hasOption("maxFailuresPerTest")) {
+						maxFailuresPerTest = Integer.parseInt(cmd.getOptionValue("maxFailuresPerTest").trim());
+					}
+					testRunner.setFailurePolicy(cmd.hasOption("failFast"), maxFailures, maxFailuresPerTest);
+				}
+				if (cmd.hasOption("latencyProfile")) {
+					testRunner.setLatencyProfile(new File(cmd.getOptionValue("latencyProfile")));
+				}
+				if (cmd.hasOption("parseThreads")) {
+					if (cmd.hasOption("k") || !cmd.hasOption("i")) {
+						throw new Exception("Parsing on several threads (--parseThreads) requires an input file (-i) and can't be checkpointed (-k).");
+					}
+					testRunner.setParseThreads(Integer.parseInt(cmd.getOptionValue("parseThreads").trim()));
+				}
+				if (cmd.hasOption("changedTests") || cmd.hasOption("previousOutput")) {
+					if (!cmd.hasOption("changedTests") || !cmd.hasOption("previousOutput") || cmd.hasOption("shards")) {
+						throw new Exception("Change impact selection requires both --changedTests and --previousOutput, and can't be applied to sharded runs (--shards).");
+					}
+					File previousOutput = new File(cmd.getOptionValue("previousOutput"));
+					if (!previousOutput.canRead()) {
+						throw new Exception("Unable to read specified previous output [" + previousOutput.getPath() + "].");
+					}
+					testRunner.setChangeImpact(ChangeImpactAnalyzer.readTests(new File(cmd.getOptionValue("changedTests"))), previousOutput);
+				}
+				if (cmd.hasOption("tolerance")) {
+					testRunner.setResultComparator(ResultComparator.parse(cmd.getOptionValue("tolerance")));
+				}
+				if (cmd.hasOption("shards")) {
+					if (cmd.hasOption("k") || cmd.hasOption("s")) {
+						throw new Exception("Sharded runs (--shards) can't be checkpointed (-k) or profiled (-s).");
+					}
+					String shardBy = ShardedRun.SHARD_BY_DATAID;
+					if (cmd.hasOption("shardBy")) {
+						shardBy = cmd.getOptionValue("shardBy").trim();
+					}
+					testRunner.setShards(Integer.parseInt(cmd.getOptionValue("shards").trim()), shardBy);
+				}
+				if (cmd.hasOption("r")) {
+					if (!cmd.hasOption("k") || !cmd.hasOption("i")) {
+						throw new Exception("Resuming (-r) requires a checkpoint file (-k) and an input file (-i).");
+					}
+					testRunner.setResume(true);
+				}
 				if (cmd.hasOption("o")) {
 					outfile = cmd.getOptionValue("o");
 					testRunner.setOutputFile(outfile);
 				}
+				if (cmd.hasOption("l")) {
+					testRunner.setLatencyLogFile(cmd.getOptionValue("l"));
+				}
+				if (cmd.hasOption("a")) {
+					testRunner.setAccounting(Integer.parseInt(cmd.getOptionValue("a").trim()));
+				}
+				if (cmd.hasOption("s")) {
+					testRunner.setSlowestToReport(Integer.parseInt(cmd.getOptionValue("s").trim()));
+				}
 				if (cmd.hasOption("c")) {
 					String[] classes = cmd.getOptionValues("c");
 					if (classes !=null && classes.length==1 && classes[0].contains(",")) { 
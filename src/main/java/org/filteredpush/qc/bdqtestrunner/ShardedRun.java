@@ -0,0 +1,429 @@
+/**
+ * ShardedRun.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Runs validation data in several worker JVMs on the local machine, so that test
+ * implementations holding static state need not be thread safe, and no single heap
+ * holds the whole run.
+ *
+ * The rows are partitioned into shard files by a hash of their dataID or GUID, keeping
+ * rows with the same key in the same shard, and the shard of each row is recorded.  So
+ * that duplicate dataIDs are found by the worker that ran the first of them, when
+ * partitioning by GUID each dataID is pinned to the shard of its first row, and a later
+ * row with the same dataID goes to that shard whatever its GUID.  One worker JVM per
+ * shard, launched with the classpath of this JVM, runs its shard and writes the
+ * TestResult of each row, then its Reports, to a results file.  The results are then read back interleaved in the order of the rows of
+ * the input, so the merged output matches that of a single process run.
+ *
+ * When partitioning by GUID with a LatencyProfile from previous runs, the tests in the
+ * profile are assigned to shards longest expected first, each to the shard with the least
+ * expected work, so that a few slow tests don't all land in one shard and stretch the run,
+ * and only tests not in the profile are assigned by hash.
+ *
+ */
+public class ShardedRun {
+
+	private static final Log logger = LogFactory.getLog(ShardedRun.class);
+
+	public static final String SHARD_BY_DATAID = "dataID";
+	public static final String SHARD_BY_GUID = "GUID";
+
+	private final int shards;
+	private final String shardBy;
+	private final List<String> targetClasses;
+	private final List<String> targetIssueNumbers;
+	private final int accountingTopN;
+	private final String bookkeepingStrategy;
+	private final long expectedRows;
+	private final double falsePositiveRate;
+	private final String tolerances;
+
+	/** Shard for each GUID in a latency profile, null to assign all by hash. */
+	private Map<String,Integer> schedule;
+
+	private File directory;
+	private File assignmentFile;
+	private long rowCount;
+	private long[] shardRowCounts;
+
+	/**
+	 * @param shards number of worker JVMs to run.
+	 * @param shardBy SHARD_BY_DATAID or SHARD_BY_GUID, the column to partition rows on.
+	 * @param targetClasses names of classes to run, without paths.
+	 * @param targetIssueNumbers issue numbers to run, empty for all.
+	 * @param accountingTopN if greater than zero, measure resources used by each invocation.
+	 * @param bookkeepingStrategy for each worker's record of the dataIDs it has run.
+	 * @param expectedRows for compact and probabilistic bookkeeping, each worker is sized
+	 *   for the smaller of this and the number of rows in its shard.
+	 * @param falsePositiveRate for probabilistic bookkeeping.
+	 * @param tolerances for comparison of amendment results, as ResultComparator.getTolerances().
+	 */
+	public ShardedRun(int shards, String shardBy, List<String> targetClasses, List<String> targetIssueNumbers,
+			int accountingTopN, String bookkeepingStrategy, long expectedRows, double falsePositiveRate,
+			String tolerances) {
+		if (shards < 2 || shards > Byte.MAX_VALUE) {
+			throw new IllegalArgumentException("Number of shards must be between 2 and " + Byte.MAX_VALUE);
+		}
+		if (!SHARD_BY_DATAID.equals(shardBy) && !SHARD_BY_GUID.equals(shardBy)) {
+			throw new IllegalArgumentException("Shard by must be " + SHARD_BY_DATAID + " or " + SHARD_BY_GUID + ", not " + shardBy);
+		}
+		this.shards = shards;
+		this.shardBy = shardBy;
+		this.targetClasses = new ArrayList<String>(targetClasses);
+		this.targetIssueNumbers = new ArrayList<String>(targetIssueNumbers);
+		this.accountingTopN = accountingTopN;
+		this.bookkeepingStrategy = bookkeepingStrategy;
+		this.expectedRows = expectedRows;
+		this.falsePositiveRate = falsePositiveRate;
+		this.tolerances = tolerances;
+	}
+
+	/**
+	 * Assign the tests in a profile of their latency in previous runs to shards, longest
+	 * expected first, when partitioning by GUID.  Has no effect when partitioning by
+	 * dataID, which spreads the rows of each test across all the shards.
+	 *
+	 * @param profile latencies from previous runs, may be null or empty to assign by hash.
+	 */
+	public void setLatencyProfile(LatencyProfile profile) {
+		if (profile!=null && profile.size() > 0 && SHARD_BY_GUID.equals(shardBy)) {
+			schedule = profile.schedule(shards);
+			if (logger.isDebugEnabled()) {
+				long[] loads = new long[shards];
+				for (Map.Entry<String,Integer> entry : schedule.entrySet()) {
+					loads[entry.getValue().intValue()] += profile.getExpectedNanos(entry.getKey());
+				}
+				logger.debug("Expected nanoseconds by shard " + Arrays.toString(loads));
+			}
+		} else {
+			schedule = null;
+		}
+	}
+
+	File shardFile(int shard) {
+		return new File(directory, "shard_" + shard + ".csv");
+	}
+
+	private File resultsFile(int shard) {
+		return new File(directory, "shard_" + shard + ".results");
+	}
+
+	private File logFile(int shard) {
+		return new File(directory, "shard_" + shard + ".log");
+	}
+
+	/**
+	 * Partition the remaining rows of the input into shard files in a temporary directory.
+	 * When partitioning by GUID, the dataID of each row is held until partitioning is 
+	 * complete, to send rows repeating a dataID to the shard of its first row.
+	 *
+	 * @param records rows of the input.
+	 * @param header column names of the input.
+	 * @throws IOException if unable to write the shard files.
+	 */
+	public void partition(Iterator<CSVRecord> records, List<String> header) throws IOException {
+		directory = Files.createTempDirectory("bdqtestrunner_shards_").toFile();
+		assignmentFile = new File(directory, "assignment.bin");
+		shardRowCounts = new long[shards];
+		// shard of the first row of each dataID, when partitioning by GUID
+		Map<String,Integer> dataIDShards = shardBy.equals(SHARD_BY_GUID) ? new HashMap<String,Integer>() : null;
+		CSVFormat format = CSVFormat.DEFAULT.withHeader(header.toArray(new String[0]));
+		List<CSVPrinter> printers = new ArrayList<CSVPrinter>();
+		OutputStream assignment = new BufferedOutputStream(new FileOutputStream(assignmentFile));
+		try {
+			for (int i=0; i<shards; i++) {
+				printers.add(new CSVPrinter(new BufferedWriter(new OutputStreamWriter(
+						new FileOutputStream(shardFile(i)), StandardCharsets.UTF_8)), format));
+			}
+			while (records.hasNext()) {
+				CSVRecord record = records.next();
+				String key = record.isMapped(shardBy) && record.isSet(shardBy) ? record.get(shardBy) : "";
+				if (shardBy.equals(SHARD_BY_GUID)) {
+					key = key.trim();
+				}
+				Integer scheduled = schedule==null ? null : schedule.get(key);
+				int shard = scheduled!=null ? scheduled.intValue() : Math.floorMod(key.hashCode(), shards);
+				if (dataIDShards!=null) {
+					String dataID = record.isMapped(SHARD_BY_DATAID) && record.isSet(SHARD_BY_DATAID) ? record.get(SHARD_BY_DATAID) : "";
+					Integer first = dataIDShards.putIfAbsent(dataID, Integer.valueOf(shard));
+					if (first!=null) {
+						// a duplicate dataID, to be found by the worker that ran the first
+						shard = first.intValue();
+					}
+				}
+				printers.get(shard).printRecord(record);
+				assignment.write(shard);
+				shardRowCounts[shard]++;
+				rowCount++;
+			}
+		} finally {
+			assignment.close();
+			for (CSVPrinter printer : printers) {
+				printer.close();
+			}
+		}
+		logger.debug("Partitioned " + rowCount + " rows into " + shards + " shards in " + directory.getPath());
+	}
+
+	/**
+	 * @return the number of rows partitioned into the shards.
+	 */
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Run a worker JVM on each shard and wait for them all to complete.
+	 *
+	 * @throws IOException if a worker can't be started or fails.
+	 * @throws InterruptedException if interrupted while waiting for the workers.
+	 */
+	public void runWorkers() throws IOException, InterruptedException {
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		List<String> jvmOptions = new ArrayList<String>();
+		for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+			// carry over heap, stack, and system properties, but not agents, debuggers, or recordings
+			if (argument.startsWith("-Xmx") || argument.startsWith("-Xms") || argument.startsWith("-Xss") || argument.startsWith("-D")) {
+				jvmOptions.add(argument);
+			}
+		}
+		List<Process> processes = new ArrayList<Process>();
+		try {
+			for (int i=0; i<shards; i++) {
+				List<String> command = new ArrayList<String>();
+				command.add(java);
+				command.addAll(jvmOptions);
+				command.add("-cp");
+				command.add(System.getProperty("java.class.path"));
+				command.add(ShardedRun.class.getName());
+				command.add(shardFile(i).getPath());
+				command.add(resultsFile(i).getPath());
+				command.add(String.join(",", targetClasses));
+				command.add(String.join(",", targetIssueNumbers));
+				command.add(Integer.toString(accountingTopN));
+				command.add(bookkeepingStrategy);
+				// each worker sizes its bookkeeping for the rows of its own shard
+				command.add(Long.toString(Math.max(1L, Math.min(expectedRows, shardRowCounts[i]))));
+				command.add(Double.toString(falsePositiveRate));
+				command.add(tolerances);
+				ProcessBuilder builder = new ProcessBuilder(command);
+				builder.redirectErrorStream(true);
+				builder.redirectOutput(logFile(i));
+				processes.add(builder.start());
+			}
+			for (int i=0; i<shards; i++) {
+				int exitValue = processes.get(i).waitFor();
+				if (exitValue!=0) {
+					throw new IOException("Worker for shard " + i + " failed with exit value " + exitValue
+							+ ", see " + logFile(i).getPath());
+				}
+			}
+		} finally {
+			for (Process process : processes) {
+				if (process.isAlive()) {
+					process.destroyForcibly();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Obtain the results of all the workers, in the order of the rows of the input.
+	 *
+	 * @return iterator over the results, reading them from the workers' results files.
+	 * @throws IOException if unable to open the results files.
+	 */
+	public Iterator<TestResult> results() throws IOException {
+		final InputStream assignment = new BufferedInputStream(new FileInputStream(assignmentFile));
+		final List<ObjectInputStream> inputs = new ArrayList<ObjectInputStream>();
+		for (int i=0; i<shards; i++) {
+			inputs.add(new ObjectInputStream(new BufferedInputStream(new FileInputStream(resultsFile(i)))));
+		}
+		return new Iterator<TestResult>() {
+			private long returned = 0;
+
+			@Override
+			public boolean hasNext() {
+				return returned < rowCount;
+			}
+
+			@Override
+			public TestResult next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				try {
+					ObjectInputStream input = inputs.get(assignment.read());
+					if (!input.readBoolean()) {
+						throw new IOException("Results of a shard ended before its rows.");
+					}
+					TestResult result = (TestResult)input.readObject();
+					returned++;
+					if (returned==rowCount) {
+						assignment.close();
+					}
+					return result;
+				} catch (IOException | ClassNotFoundException e) {
+					throw new IllegalStateException("Unable to read shard results: " + e.getMessage(), e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Obtain the Reports of all the workers, merged by test GUID, once all results
+	 * have been read.
+	 *
+	 * @return merged reports by test GUID.
+	 * @throws IOException if unable to read the results files.
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String,Report> getReports() throws IOException {
+		Map<String,Report> merged = new LinkedHashMap<String,Report>();
+		for (int i=0; i<shards; i++) {
+			ObjectInputStream input = new ObjectInputStream(new BufferedInputStream(new FileInputStream(resultsFile(i))));
+			try {
+				// skip to the end of the results
+				while (input.readBoolean()) {
+					input.readObject();
+				}
+				Map<String,Report> reports = (Map<String,Report>)input.readObject();
+				for (Map.Entry<String,Report> entry : reports.entrySet()) {
+					Report report = merged.get(entry.getKey());
+					if (report==null) {
+						merged.put(entry.getKey(), entry.getValue());
+					} else {
+						report.merge(entry.getValue());
+					}
+				}
+			} catch (ClassNotFoundException e) {
+				throw new IOException("Unable to read reports of shard " + i, e);
+			} finally {
+				input.close();
+			}
+		}
+		return merged;
+	}
+
+	/**
+	 * Delete the shard files, results, and worker logs.
+	 */
+	public void close() {
+		if (directory!=null) {
+			File[] files = directory.listFiles();
+			if (files!=null) {
+				for (File file : files) {
+					if (!file.delete()) {
+						logger.error("Unable to delete " + file.getPath());
+					}
+				}
+			}
+			if (!directory.delete()) {
+				logger.error("Unable to delete " + directory.getPath());
+			}
+		}
+	}
+
+	/**
+	 * Run one shard in a worker JVM.
+	 *
+	 * @param args shard file, results file, comma separated classes, comma separated issues
+	 *   (empty for all), accounting top N, bookkeeping strategy, expected rows, false positive rate, tolerances.
+	 */
+	public static void main(String[] args) {
+		if (args.length != 9) {
+			System.err.println("Usage: ShardedRun shardFile resultsFile classes issues accountingTopN bookkeeping expectedRows falsePositiveRate tolerances");
+			System.exit(2);
+		}
+		try {
+			TestRunner runner = new TestRunner(args[0]);
+			runner.setListToRun(Arrays.asList(args[2].split(",")));
+			if (args[3].length() > 0) {
+				runner.setIssuesToRun(Arrays.asList(args[3].split(",")));
+			}
+			int accountingTopN = Integer.parseInt(args[4]);
+			if (accountingTopN > 0) {
+				runner.setAccounting(accountingTopN);
+			}
+			runner.setBookkeeping(args[5], Long.parseLong(args[6]), Double.parseDouble(args[7]));
+			runner.setResultComparator(ResultComparator.parse(args[8]));
+			runner.startRun();
+			Reader in = new InputStreamReader(new FileInputStream(args[0]), StandardCharsets.UTF_8);
+			ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(args[1])));
+			try {
+				CSVParser records = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(in);
+				int written = 0;
+				for (CSVRecord record : records) {
+					TestEvents.Parse parseEvent = new TestEvents.Parse();
+					parseEvent.begin();
+					TestResult result = runner.runTest(new CSVDataRecord(record), parseEvent);
+					out.writeBoolean(true);
+					out.writeObject(result);
+					if (++written % 1000 == 0) {
+						// don't retain references to every result written
+						out.reset();
+					}
+				}
+				out.writeBoolean(false);
+				out.writeObject(new HashMap<String,Report>(runner.getReports()));
+			} finally {
+				out.close();
+				in.close();
+			}
+			System.exit(0);
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			System.exit(1);
+		}
+	}
+
+}
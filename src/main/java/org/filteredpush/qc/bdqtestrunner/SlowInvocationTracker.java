@@ -0,0 +1,198 @@
+/**
+ * SlowInvocationTracker.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the slowest individual invocations of test implementations seen in a run,
+ * bounded to a fixed number, with the values bound to the parameters of each, so
+ * that a slow input can be reported to the library implementing the test with a
+ * reproducer.
+ *
+ */
+public class SlowInvocationTracker {
+
+	/**
+	 * One invocation of a test implementation.
+	 */
+	public static class SlowInvocation implements Comparable<SlowInvocation>, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String guid;
+		private final String label;
+		private final String gitHubIssueNo;
+		private final String dataID;
+		private final List<String> arguments;
+		private final long durationNanos;
+		private final String outcome;
+
+		/**
+		 * @param guid of the test
+		 * @param label of the test
+		 * @param gitHubIssueNo of the test
+		 * @param dataID of the row of validation data
+		 * @param arguments term=value for each parameter bound from the row
+		 * @param durationNanos elapsed time of the invocation in nanoseconds
+		 * @param outcome response status, or a description of the exception thrown
+		 */
+		public SlowInvocation(String guid, String label, String gitHubIssueNo, String dataID, List<String> arguments, long durationNanos, String outcome) {
+			this.guid = guid;
+			this.label = label;
+			this.gitHubIssueNo = gitHubIssueNo;
+			this.dataID = dataID;
+			this.arguments = Collections.unmodifiableList(new ArrayList<String>(arguments));
+			this.durationNanos = durationNanos;
+			this.outcome = outcome;
+		}
+
+		/**
+		 * @return the guid
+		 */
+		public String getGuid() {
+			return guid;
+		}
+
+		/**
+		 * @return the label
+		 */
+		public String getLabel() {
+			return label;
+		}
+
+		/**
+		 * @return the gitHubIssueNo
+		 */
+		public String getGitHubIssueNo() {
+			return gitHubIssueNo;
+		}
+
+		/**
+		 * @return the dataID
+		 */
+		public String getDataID() {
+			return dataID;
+		}
+
+		/**
+		 * @return the arguments as term=value
+		 */
+		public List<String> getArguments() {
+			return arguments;
+		}
+
+		/**
+		 * @return the duration in nanoseconds
+		 */
+		public long getDurationNanos() {
+			return durationNanos;
+		}
+
+		/**
+		 * @return the outcome
+		 */
+		public String getOutcome() {
+			return outcome;
+		}
+
+		@Override
+		public int compareTo(SlowInvocation other) {
+			return Long.compare(durationNanos, other.durationNanos);
+		}
+
+		public String toString() {
+			StringBuilder result = new StringBuilder();
+			result.append(String.format("%.3f", durationNanos/1000000d)).append(" ms ");
+			result.append(guid).append(" ").append(label).append(" #").append(gitHubIssueNo);
+			result.append(" dataID=").append(dataID);
+			result.append(" outcome=").append(outcome);
+			Iterator<String> i = arguments.iterator();
+			while (i.hasNext()) {
+				result.append("\n\t").append(i.next().replace("\n", "\\n").replace("\r", "\\r"));
+			}
+			return result.toString();
+		}
+	}
+
+	private final int limit;
+
+	/** min heap, the fastest of the retained invocations at the head */
+	private final PriorityQueue<SlowInvocation> slowest;
+
+	/**
+	 * @param limit the number of slowest invocations to retain.
+	 */
+	public SlowInvocationTracker(int limit) {
+		this.limit = limit;
+		this.slowest = new PriorityQueue<SlowInvocation>(Math.max(1, limit));
+	}
+
+	/**
+	 * Check, without allocating, if an invocation of a given duration would be retained,
+	 * so that callers only need to assemble the details of slow invocations.
+	 *
+	 * @param durationNanos duration of the invocation
+	 * @return true if an invocation of this duration would be retained
+	 */
+	public synchronized boolean isSlowEnough(long durationNanos) {
+		if (limit<1) {
+			return false;
+		}
+		return slowest.size() < limit || slowest.peek().getDurationNanos() < durationNanos;
+	}
+
+	/**
+	 * Offer an invocation, retaining it if it is among the slowest seen.
+	 *
+	 * @param invocation to offer
+	 */
+	public synchronized void offer(SlowInvocation invocation) {
+		if (limit<1) {
+			return;
+		}
+		if (slowest.size() < limit) {
+			slowest.add(invocation);
+		} else if (slowest.peek().getDurationNanos() < invocation.getDurationNanos()) {
+			slowest.poll();
+			slowest.add(invocation);
+		}
+	}
+
+	/**
+	 * @return the retained invocations, slowest first.
+	 */
+	public synchronized List<SlowInvocation> getSlowest() {
+		List<SlowInvocation> result = new ArrayList<SlowInvocation>(slowest);
+		Collections.sort(result, Collections.reverseOrder());
+		return result;
+	}
+
+	/**
+	 * @return the number of invocations retained.
+	 */
+	public int getLimit() {
+		return limit;
+	}
+
+}
@@ -0,0 +1,83 @@
+/**
+ * SourceRow.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.csv.CSVRecord;
+import org.filteredpush.qc.bdqtestrunner.ConversionVocabulary.OutputType;
+import org.filteredpush.qc.bdqtestrunner.ConversionVocabulary.ResponseStatus;
+import org.filteredpush.qc.bdqtestrunner.TermValueTokenizer.TermValue;
+
+/**
+ * A row of a source spreadsheet, with its Input.data and Output.data tokenized and its
+ * output type and response status looked up in the ConversionVocabulary, immutable once
+ * constructed, so that rows can be checked and converted concurrently.
+ *
+ */
+final class SourceRow {
+
+	/** Line of the row in the source spreadsheet, the header is line 1. */
+	final int line;
+	final CSVRecord record;
+	final String dataID;
+	/** Output Type as found in the row. */
+	final String testType;
+	/** The output type, null if testType is not an output type. */
+	final OutputType outputType;
+	/** Response.status as found in the row, trimmed. */
+	final String responseStatus;
+	/** The response status, null if responseStatus is not a response status. */
+	final ResponseStatus status;
+	final String responseResult;
+	final String outputData;
+	/** Input.data, with alternative quote characters replaced. */
+	final String inputData;
+	final List<TermValue> inputTermValues;
+	final List<String> inputMalformed = new ArrayList<String>();
+	final List<TermValue> outputTermValues;
+	final List<String> outputMalformed = new ArrayList<String>();
+
+	/**
+	 * @param record the row of the source spreadsheet.
+	 * @param line the line of the row in the source spreadsheet.
+	 */
+	SourceRow(CSVRecord record, int line) {
+		this.line = line;
+		this.record = record;
+		dataID = record.get("dataID");
+		testType = record.get("Output Type");
+		outputType = OutputType.lookup(testType);
+		responseStatus = record.get("Response.status").trim();
+		status = ResponseStatus.lookup(responseStatus);
+		responseResult = record.get("Response.result");
+		outputData = record.get("Output.data");
+		inputData = record.get("Input.data").replace('”', '"');  // handle alternative quote characters
+		inputTermValues = TermValueTokenizer.tokenize(inputData, inputMalformed);
+		outputTermValues = TermValueTokenizer.tokenize(outputData, outputMalformed);
+	}
+
+	/**
+	 * @return the start of a message about an error in this row.
+	 */
+	String errorIn() {
+		return "Error in " + dataID + " Line:" + Integer.toString(line);
+	}
+
+}
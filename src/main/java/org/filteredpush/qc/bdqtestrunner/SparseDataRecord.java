@@ -0,0 +1,72 @@
+/**
+ * SparseDataRecord.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.util.BitSet;
+
+/**
+ * A row of validation data held in memory as only its non-empty cells, each a pair of
+ * a column id and a value id in a RowDictionary shared with other rows, for runs that
+ * hold many rows at once.  Created by RowDictionary.
+ *
+ */
+public final class SparseDataRecord implements DataRecord {
+
+	private final RowDictionary dictionary;
+
+	/** Column ids of the header of the row. */
+	private final BitSet mapped;
+
+	/** Pairs of column id and value id of the non-empty cells, sorted by column id. */
+	private final int[] cells;
+
+	SparseDataRecord(RowDictionary dictionary, BitSet mapped, int[] cells) {
+		this.dictionary = dictionary;
+		this.mapped = mapped;
+		this.cells = cells;
+	}
+
+	@Override
+	public String get(String name) {
+		int columnId = dictionary.findColumnId(name);
+		if (columnId < 0 || !mapped.get(columnId)) {
+			throw new IllegalArgumentException("Mapping for " + name + " not found");
+		}
+		int low = 0;
+		int high = cells.length / 2 - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int found = cells[middle * 2];
+			if (found < columnId) {
+				low = middle + 1;
+			} else if (found > columnId) {
+				high = middle - 1;
+			} else {
+				return dictionary.value(cells[middle * 2 + 1]);
+			}
+		}
+		return "";
+	}
+
+	@Override
+	public boolean isMapped(String name) {
+		int columnId = dictionary.findColumnId(name);
+		return columnId >= 0 && mapped.get(columnId);
+	}
+
+}
@@ -0,0 +1,235 @@
+/**
+ * StreamingTestRunner.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Runs rows of validation data supplied by an application embedding the test runner,
+ * as maps of column name to value, delivering a TestResult for each row, without
+ * reading or writing files.
+ *
+ * Results are either pushed to a callback as each row is run, or pulled through a lazy
+ * iterator, in which case a row is only read from the source and run when the next
+ * result is requested, so a slow consumer holds back the source.
+ *
+ * Usage:
+ * <pre>
+ * StreamingTestRunner runner = new StreamingTestRunner(Arrays.asList("DwCEventDQDefaults"));
+ * runner.run(rows.stream(), result -&gt; store(result.getDataID(), result.getStatus(), result.getValue()));
+ * </pre>
+ *
+ */
+public class StreamingTestRunner {
+
+	private static final Log logger = LogFactory.getLog(StreamingTestRunner.class);
+
+	private final TestRunner runner;
+
+	/**
+	 * Construct a runner searching the default classes for implementations.
+	 */
+	public StreamingTestRunner() {
+		runner = new TestRunner("stream");
+	}
+
+	/**
+	 * Construct a runner searching specified classes for implementations.
+	 *
+	 * @param namesOfClassesToRun list of class names, without paths.
+	 * @throws Exception if a class is unsupported.
+	 * @see TestRunner#getSupportedClasses()
+	 */
+	public StreamingTestRunner(List<String> namesOfClassesToRun) throws Exception {
+		runner = new TestRunner("stream");
+		runner.setListToRun(namesOfClassesToRun);
+	}
+
+	/**
+	 * Construct a runner using an already loaded registry of implementations, which
+	 * may be shared by several runners, e.g. one for each concurrent request to a server.
+	 *
+	 * @param registry of the implementations to run.
+	 */
+	public StreamingTestRunner(ImplementationRegistry registry) {
+		runner = new TestRunner("stream", registry);
+	}
+
+	/**
+	 * Set the list of issues to be run, rows for other tests have an outcome of NOT_SELECTED.
+	 *
+	 * @param namesOfIssueNumbersToRun list of issue numbers to evaluate.
+	 */
+	public void setIssuesToRun(List<String> namesOfIssueNumbersToRun) {
+		runner.setIssuesToRun(namesOfIssueNumbersToRun);
+	}
+
+	/**
+	 * Stop running rows once the failure budget is reached, rows after that, and rows of
+	 * a test which has reached its own budget, have an outcome of STOPPED.
+	 *
+	 * @param failFast true to stop at the first failure.
+	 * @param maxFailures stop after this many failures, 0 for no limit.
+	 * @param maxFailuresPerTest stop running the rows for a test after this many failures
+	 *   of the test, 0 for no limit.
+	 * @see TestRunner#setFailurePolicy(boolean, int, int)
+	 */
+	public void setFailurePolicy(boolean failFast, int maxFailures, int maxFailuresPerTest) {
+		runner.setFailurePolicy(failFast, maxFailures, maxFailuresPerTest);
+	}
+
+	/**
+	 * Run rows, passing the result of each to a consumer as it completes.
+	 *
+	 * @param records rows of validation data, each a map of column name (GUID, dataID,
+	 *   LineNumber, GitHubIssueNo, Label, and the terms acted upon or consulted by the
+	 *   test, optionally Response.status, to compare the response with, and with it
+	 *   Response.result, without which only the status is compared) to value.
+	 * @param consumer to receive the result of each row, in the order of the rows.
+	 * @throws ClassNotFoundException if a class to run can't be loaded.
+	 */
+	public void run(Iterator<? extends Map<String,String>> records, Consumer<TestResult> consumer) throws ClassNotFoundException {
+		runner.startRun();
+		runner.getMonitor().start();
+		try {
+			while (records.hasNext()) {
+				consumer.accept(runRecord(new MapDataRecord(records.next())));
+			}
+		} finally {
+			runner.getMonitor().stop();
+		}
+	}
+
+	/**
+	 * Run rows, passing the result of each to a consumer as it completes.
+	 *
+	 * @param records rows of validation data, e.g. CSVDataRecords parsed from a request.
+	 * @param consumer to receive the result of each row, in the order of the rows.
+	 * @throws ClassNotFoundException if a class to run can't be loaded.
+	 * @see #run(Iterator, Consumer)
+	 */
+	public void runRecords(Iterator<? extends DataRecord> records, Consumer<TestResult> consumer) throws ClassNotFoundException {
+		runner.startRun();
+		runner.getMonitor().start();
+		try {
+			while (records.hasNext()) {
+				consumer.accept(runRecord(records.next()));
+			}
+		} finally {
+			runner.getMonitor().stop();
+		}
+	}
+
+	/**
+	 * Run a stream of rows, passing the result of each to a consumer as it completes.
+	 *
+	 * @param records rows of validation data as maps of column name to value.
+	 * @param consumer to receive the result of each row, in the order of the rows.
+	 * @throws ClassNotFoundException if a class to run can't be loaded.
+	 * @see #run(Iterator, Consumer)
+	 */
+	public void run(Stream<? extends Map<String,String>> records, Consumer<TestResult> consumer) throws ClassNotFoundException {
+		run(records.iterator(), consumer);
+	}
+
+	/**
+	 * Obtain an iterator over the results of running rows, which reads and runs each row
+	 * only when its result is requested.
+	 *
+	 * @param records rows of validation data as maps of column name to value.
+	 * @return lazy iterator over the results, in the order of the rows.
+	 * @throws ClassNotFoundException if a class to run can't be loaded.
+	 */
+	public Iterator<TestResult> results(final Iterator<? extends Map<String,String>> records) throws ClassNotFoundException {
+		runner.startRun();
+		runner.getMonitor().start();
+		return new Iterator<TestResult>() {
+			private boolean running = true;
+
+			@Override
+			public boolean hasNext() {
+				boolean result = records.hasNext();
+				if (!result && running) {
+					running = false;
+					runner.getMonitor().stop();
+				}
+				return result;
+			}
+
+			@Override
+			public TestResult next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return runRecord(new MapDataRecord(records.next()));
+			}
+		};
+	}
+
+	/**
+	 * Run one row, reporting a failure to instantiate or invoke an implementation, or a
+	 * malformed row, as a result with an outcome of ERROR, rather than stopping the run.
+	 */
+	private TestResult runRecord(DataRecord record) {
+		TestEvents.Parse parseEvent = new TestEvents.Parse();
+		parseEvent.begin();
+		try {
+			return runner.runTest(record, parseEvent);
+		} catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException | RuntimeException e) {
+			return errorResult(record, e);
+		}
+	}
+
+	private static TestResult errorResult(DataRecord record, Exception e) {
+		logger.error(e.getMessage(), e);
+		TestResult result = new TestResult(valueOf(record, "GUID"), valueOf(record, "Label"), valueOf(record, "GitHubIssueNo"), valueOf(record, "dataID"), valueOf(record, "LineNumber"));
+		result.setOutcome(TestResult.Outcome.ERROR);
+		result.setComment(e.getMessage()==null ? e.toString() : e.getMessage());
+		return result;
+	}
+
+	private static String valueOf(DataRecord record, String name) {
+		return record.isMapped(name) ? record.get(name) : null;
+	}
+
+	/**
+	 * Obtain the reports of the tests run so far, accumulated over all runs by this runner.
+	 *
+	 * @return map of test GUID to report.
+	 */
+	public Map<String,Report> getReports() {
+		return runner.getReports();
+	}
+
+	/**
+	 * @return the monitor exposing the progress of this runner, registered over JMX while running.
+	 */
+	public TestRunnerMonitor getMonitor() {
+		return runner.getMonitor();
+	}
+
+}
@@ -0,0 +1,147 @@
+/**
+ * TermValueTokenizer.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single pass tokenizer for the term="value", term="value" lists found in the Input.data
+ * and Output.data columns of the test data spreadsheets.
+ *
+ * Values are quoted, and may contain commas, equals signs, and quotes.  A quote closes
+ * a value only when it is followed, after any whitespace, by a comma or the end of the
+ * list; a quote preceded by a backslash never closes a value and is unescaped.  A term
+ * runs to the first equals sign, and may not contain a quote or a comma.  A quoted or
+ * unquoted value without a term (as in the Output.data of a MEASURE) is returned with a
+ * null term.  Malformed entries are reported and skipped, tokenizing resumes after the
+ * next comma.
+ *
+ */
+final class TermValueTokenizer {
+
+	/**
+	 * A term and its value from a list.
+	 */
+	static final class TermValue {
+		/** The term, trimmed, null for a value without a term. */
+		final String term;
+		/** The value, without its enclosing quotes, escaped quotes unescaped. */
+		final String value;
+
+		TermValue(String term, String value) {
+			this.term = term;
+			this.value = value;
+		}
+	}
+
+	private TermValueTokenizer() {
+	}
+
+	/**
+	 * Tokenize a list of term="value" pairs.
+	 *
+	 * @param text the list to tokenize.
+	 * @param malformed to which the text of each malformed entry is added.
+	 * @return the well formed entries in the order they appear in text.
+	 */
+	static List<TermValue> tokenize(String text, List<String> malformed) {
+		List<TermValue> result = new ArrayList<TermValue>();
+		StringBuilder value = new StringBuilder();
+		int length = text.length();
+		int position = skipWhitespace(text, 0);
+		while (position < length) {
+			int start = position;
+			while (position < length && text.charAt(position)!='=' && text.charAt(position)!='"' && text.charAt(position)!=',') {
+				position++;
+			}
+			String term = text.substring(start, position).trim();
+			if (position < length && text.charAt(position)=='=') {
+				if (term.length()==0) {
+					position = recover(text, start, position, malformed);
+					continue;
+				}
+				position = skipWhitespace(text, position + 1);
+			} else if (term.length()>0) {
+				// unquoted value without a term, or a term followed directly by a quote
+				if (position < length && text.charAt(position)=='"') {
+					position = recover(text, start, position, malformed);
+				} else {
+					result.add(new TermValue(null, term));
+					position = skipWhitespace(text, position + 1);
+				}
+				continue;
+			} else {
+				term = null;
+			}
+			if (position >= length || text.charAt(position)!='"') {
+				position = recover(text, start, position, malformed);
+				continue;
+			}
+			value.setLength(0);
+			int close = -1;
+			position++;
+			while (position < length && close < 0) {
+				char c = text.charAt(position);
+				if (c=='\\' && position + 1 < length && text.charAt(position + 1)=='"') {
+					value.append('"');
+					position += 2;
+				} else if (c=='"') {
+					int next = skipWhitespace(text, position + 1);
+					if (next >= length || text.charAt(next)==',') {
+						close = next;
+					} else {
+						value.append(c);
+						position++;
+					}
+				} else {
+					value.append(c);
+					position++;
+				}
+			}
+			if (close < 0) {
+				// unterminated quote
+				malformed.add(text.substring(start));
+				break;
+			}
+			result.add(new TermValue(term, value.toString()));
+			position = skipWhitespace(text, close + 1);
+		}
+		return result;
+	}
+
+	/**
+	 * Record a malformed entry from start to the next comma at or after position.
+	 *
+	 * @return the position from which to continue tokenizing.
+	 */
+	private static int recover(String text, int start, int position, List<String> malformed) {
+		int comma = text.indexOf(',', position);
+		int end = comma < 0 ? text.length() : comma;
+		malformed.add(text.substring(start, end));
+		return skipWhitespace(text, end + 1);
+	}
+
+	private static int skipWhitespace(String text, int position) {
+		while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+			position++;
+		}
+		return position;
+	}
+
+}
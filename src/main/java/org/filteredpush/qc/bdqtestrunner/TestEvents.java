@@ -0,0 +1,150 @@
+/**
+ * TestEvents.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Java Flight Recorder events emitted around each phase of running a test against
+ * a row of validation data, so that CPU, allocation, and I/O samples in a recording
+ * can be grouped by test GUID and dataID (e.g. in JDK Mission Control).
+ *
+ * The event types are in FlightRecorderEvents, which is only loaded if jdk.jfr is
+ * present in the running JRE, so the hot path has no link to jdk.jfr.  On a JRE
+ * without it (before 8u262) each phase is a no-op.
+ *
+ */
+final class TestEvents {
+
+	private static final Log logger = LogFactory.getLog(TestEvents.class);
+
+	/** True if jdk.jfr is present and the event types loaded. */
+	private static final boolean AVAILABLE = isAvailable();
+
+	private TestEvents() {
+	}
+
+	private static boolean isAvailable() {
+		try {
+			Class.forName("jdk.jfr.Event", false, TestEvents.class.getClassLoader());
+			FlightRecorderEvents.parse();
+			return true;
+		} catch (ClassNotFoundException | LinkageError e) {
+			logger.debug("Flight recorder events not available: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * A flight recorder event for a phase.
+	 */
+	interface Recorder {
+
+		/** Begin timing the phase. */
+		void start();
+
+		/**
+		 * End the event and, if it is to be recorded, populate and commit it.
+		 *
+		 * @param guid of the test
+		 * @param testLabel of the test
+		 * @param gitHubIssueNo of the test
+		 * @param dataID of the validation data row
+		 * @param implementation class declaring the method implementing the test, may be null
+		 * @param outcome of the phase
+		 */
+		void record(String guid, String testLabel, String gitHubIssueNo, String dataID, Class<?> implementation, String outcome);
+	}
+
+	/**
+	 * A phase of running a row, recorded as an event if flight recorder events are available.
+	 */
+	abstract static class TestEvent {
+
+		/** Null if flight recorder events are not available. */
+		private final Recorder recorder;
+
+		TestEvent(Recorder recorder) {
+			this.recorder = recorder;
+		}
+
+		void begin() {
+			if (recorder!=null) {
+				recorder.start();
+			}
+		}
+
+		/**
+		 * End the phase and, if it is to be recorded, record it.
+		 *
+		 * @see Recorder#record(String, String, String, String, Class, String)
+		 */
+		void record(String guid, String testLabel, String gitHubIssueNo, String dataID, Class<?> implementation, String outcome) {
+			if (recorder!=null) {
+				recorder.record(guid, testLabel, gitHubIssueNo, dataID, implementation, outcome);
+			}
+		}
+	}
+
+	/**
+	 * Parsing of a row of validation data from the input.
+	 */
+	static final class Parse extends TestEvent {
+		Parse() {
+			super(AVAILABLE ? FlightRecorderEvents.parse() : null);
+		}
+	}
+
+	/**
+	 * Finding the method that implements the test for a row.
+	 */
+	static final class Resolve extends TestEvent {
+		Resolve() {
+			super(AVAILABLE ? FlightRecorderEvents.resolve() : null);
+		}
+	}
+
+	/**
+	 * Binding values from a row to the parameters of a method.
+	 */
+	static final class Bind extends TestEvent {
+		Bind() {
+			super(AVAILABLE ? FlightRecorderEvents.bind() : null);
+		}
+	}
+
+	/**
+	 * Invocation of the method that implements the test.
+	 */
+	static final class Invoke extends TestEvent {
+		Invoke() {
+			super(AVAILABLE ? FlightRecorderEvents.invoke() : null);
+		}
+	}
+
+	/**
+	 * Comparison of the response from a test with the expected response.
+	 */
+	static final class Compare extends TestEvent {
+		Compare() {
+			super(AVAILABLE ? FlightRecorderEvents.compare() : null);
+		}
+	}
+
+}
@@ -3,25 +3,50 @@
  */
 package org.filteredpush.qc.bdqtestrunner;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
 import java.io.Reader;
-import java.net.URISyntaxException;
-import java.net.URL;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
@@ -30,6 +55,7 @@ import org.apache.commons.csv.CSVRecord;
 import org.apache.commons.csv.QuoteMode;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.filteredpush.qc.bdqtestrunner.TermValueTokenizer.TermValue;
 
 /**
  * @author mole
@@ -39,6 +65,21 @@ public class TestOfTestSpreasheetUtility {
 
 	private static final Log logger = LogFactory.getLog(TestOfTestSpreasheetUtility.class);
 	
+	/** 
+	 * The current source spreadsheet, bundled as a resource, converted when no source 
+	 * spreadsheets are given.  Versions before Test_data_14_2022-03-14.csv have a previous
+	 * header structure and can't be converted.
+	 */
+	public static final String DEFAULT_SOURCE = "/Test_data_98_2025_03_05.csv";
+	
+	/** Name of the file into which DEFAULT_SOURCE is converted. */
+	public static final String DEFAULT_OUTPUT = "TG2_test_validation_data.csv";
+	
+	/** Rows of a source spreadsheet checked and converted in parallel at a time. */
+	private static final int ROW_BLOCK_SIZE = 4096;
+	
+	private static final Set<ConversionRule> RULES = Collections.unmodifiableSet(EnumSet.allOf(ConversionRule.class));
+	
 	/**
 	 * Get a map of the supported information elements (and Parameters) with each entry 
 	 * in the form "dwc:county","dwc:county".
@@ -47,96 +88,9 @@ public class TestOfTestSpreasheetUtility {
 	 */
 	public static Map<String,String> getInformationElements() { 
 		Map<String,String> result = new LinkedHashMap<String,String>();
-		result.put("bdq:annotation","bdq:annotation");
-		result.put("bdq:annotationAlertif","bdq:annotationAlertif");
-		result.put("bdq:sourceAuthority","bdq:sourceAuthority");
-		result.put("dc:type","dc:type");
-		result.put("dcterms:license","dcterms:license");
-		result.put("dwc:acceptedNameUsageID","dwc:acceptedNameUsageID");
-		result.put("dwc:basisOfRecord","dwc:basisOfRecord");
-		result.put("dwc:class","dwc:class");
-		result.put("dwc:continent","dwc:continent");
-		result.put("dwc:coordinateUncertaintyInMeters","dwc:coordinateUncertaintyInMeters");
-		result.put("dwc:country","dwc:country");
-		result.put("dwc:countryCode","dwc:countryCode");
-		result.put("dwc:county","dwc:county");
-		result.put("dwc:dataGeneralizations","dwc:dataGeneralizations");
-		result.put("dwc:dateIdentified","dwc:dateIdentified");
-		result.put("dwc:day","dwc:day");
-		result.put("dwc:decimalLatitude","dwc:decimalLatitude");
-		result.put("dwc:decimalLongitude","dwc:decimalLongitude");
-		result.put("dwc:endDayOfYear","dwc:endDayOfYear");
-		result.put("dwc:establishmentMeans","dwc:establishmentMeans");
-		result.put("dwc:eventDate","dwc:eventDate");
-		result.put("dwc:family","dwc:family");
-		result.put("dwc:genus","dwc:genus");
-		result.put("dwc:geodeticDatum","dwc:geodeticDatum");
-		result.put("dwc:higherClassification","dwc:higherClassification");
-		result.put("dwc:higherGeography","dwc:higherGeography");
-		result.put("dwc:higherGeographyID","dwc:higherGeographyID");
-		result.put("dwc:infraspecificEpithet","dwc:infraspecificEpithet");
-		result.put("dwc:island","dwc:island");
-		result.put("dwc:islandGroup","dwc:islandGroup");
-		result.put("dwc:kingdom","dwc:kingdom");
-		result.put("dwc:locality","dwc:locality");
-		result.put("dwc:locationID","dwc:locationID");
-		result.put("dwc:maximumDepthInMeters","dwc:maximumDepthInMeters");
-		result.put("dwc:maximumElevationInMeters","dwc:maximumElevationInMeters");
-		result.put("dwc:minimumDepthInMeters","dwc:minimumDepthInMeters");
-		result.put("dwc:minimumElevationInMeters","dwc:minimumElevationInMeters");
-		result.put("dwc:month","dwc:month");
-		result.put("dwc:municipality","dwc:municipality");
-		result.put("dwc:occurrenceID","dwc:occurrenceID");
-		result.put("dwc:occurrenceStatus","dwc:occurrenceStatus");
-		result.put("dwc:order","dwc:order");
-		result.put("dwc:originalNameUsageID","dwc:originalNameUsageID");
-		result.put("dwc:parentNameUsageID","dwc:parentNameUsageID");
-		result.put("dwc:phylum","dwc:phylum");
-		result.put("dwc:scientificName","dwc:scientificName");
-		result.put("dwc:scientificNameAuthorship","dwc:scientificNameAuthorship");
-		result.put("dwc:scientificNameID","dwc:scientificNameID");
-		result.put("dwc:specificEpithet","dwc:specificEpithet");
-		result.put("dwc:startDayOfYear","dwc:startDayOfYear");
-		result.put("dwc:stateProvince","dwc:stateProvince");
-		result.put("dwc:subgenus","dwc:subgenus");
-		result.put("dwc:taxon","dwc:taxon");
-		result.put("dwc:taxonConceptID","dwc:taxonConceptID");
-		result.put("dwc:taxonID","dwc:taxonID");
-		result.put("dwc:taxonRank","dwc:taxonRank");
-		result.put("dwc:verbatimCoordinateSystem","dwc:verbatimCoordinateSystem");
-		result.put("dwc:verbatimCoordinates","dwc:verbatimCoordinates");
-		result.put("dwc:verbatimDepth","dwc:verbatimDepth");
-		result.put("dwc:verbatimElevation","dwc:verbatimElevation");
-		result.put("dwc:verbatimEventDate","dwc:verbatimEventDate");
-		result.put("dwc:verbatimLatitude","dwc:verbatimLatitude");
-		result.put("dwc:verbatimLocality","dwc:verbatimLocality");
-		result.put("dwc:verbatimLongitude","dwc:verbatimLongitude");
-		result.put("dwc:verbatimSRS","dwc:verbatimSRS");
-		result.put("dwc:vernacularName","dwc:vernacularName");
-		result.put("dwc:waterBody","dwc:waterBody");
-		result.put("dwc:year","dwc:year");
-		result.put("dwc:subfamily","dwc:subfamily");
-		result.put("dwc:superfamily","dwc:superfamily");
-		result.put("dwc:tribe","dwc:tribe");
-		result.put("dwc:subtribe","dwc:subtribe");
-		result.put("dwc:genericName","dwc:genericName");
-		result.put("dwc:infragenericEpithet","dwc:infragenericEpithet");
-		result.put("dwc:cultivarEpithet","dwc:cultivarEpithet");
-		result.put("dwc:individualCount","dwc:individualCount");
-		result.put("dwc:organismQuantity","dwc:organismQuantity");
-		result.put("dwc:footprintWKT","dwc:footprintWKT");
-		result.put("dwc:coordinatePrecision","dwc:coordinatePrecision");
-		result.put("dwc:namePublishedInYear","dwc:namePublishedInYear");
-		result.put("dwc:sex","dwc:sex");
-		result.put("dwc:typeStatus","dwc:typeStatus");
-		result.put("dwc:pathway","dwc:pathway");
-		result.put("dwc:degreeOfEstablishment","dwc:degreeOfEstablishment");
-		result.put("bdq:taxonIsMarine","bdq:taxonIsMarine");
-		result.put("bdq:geospatialLand","bdq:geospatialLand");
-		result.put("bdq:assumptionOnUnknownBiome","bdq:assumptionOnUnknownBiome");
-		result.put("bdq:latestValidDate","bdq:latestValidDate");
-		result.put("bdq:earliestValidDate","bdq:earliestValidDate");
-		
+		for (String informationElement : ConversionVocabulary.getInformationElements()) { 
+			result.put(informationElement, informationElement);
+		}
 		return result;
 	}
 	
@@ -148,355 +102,640 @@ public class TestOfTestSpreasheetUtility {
 	}
 	
 	/**
-	 * Parse an (internally specified) spreadsheet of test specification data.
+	 * Convert a source spreadsheet of test specification data into test validation data,
+	 * checking each row against each ConversionRule, checking and converting blocks of rows
+	 * in parallel and writing them in order.
 	 * 
-	 * @throws IOException if unable to read file
-	 * @throws URISyntaxException if filename is not correctly hardcoded.
+	 * @param source name of the source spreadsheet, for the report.
+	 * @param in the source spreadsheet, exported as csv, not closed.
+	 * @param out to which to write the test validation data, not closed.
+	 * @return report of the errors found in the source spreadsheet.
+	 * @throws IOException if unable to read or write, or the source spreadsheet is missing columns.
 	 */
-	private static void parseSourceSpreadsheet() throws IOException, URISyntaxException { 
-		
-		List<String> classList = new ArrayList<String>();
-		classList.add("MEASURE");
-		classList.add("VALIDATION");
-		classList.add("AMENDMENT");
-		classList.add("ISSUE");
-		List<String> validationResponseStatusTerms = new ArrayList<String>();
-		validationResponseStatusTerms.add("RUN_HAS_RESULT");
-		validationResponseStatusTerms.add("INTERNAL_PREREQUISITES_NOT_MET");
-		validationResponseStatusTerms.add("EXTERNAL_PREREQUISITES_NOT_MET");
-		List<String> validationResponseResultTerms = new ArrayList<String>();
-		validationResponseResultTerms.add("COMPLIANT");
-		validationResponseResultTerms.add("NOT_COMPLIANT");
-		List<String> amendmentResponseStatusTerms = new ArrayList<String>();
-		amendmentResponseStatusTerms.add("AMENDED");
-		amendmentResponseStatusTerms.add("NOT_AMENDED");
-		amendmentResponseStatusTerms.add("FILLED_IN");
-		amendmentResponseStatusTerms.add("INTERNAL_PREREQUISITES_NOT_MET");
-		amendmentResponseStatusTerms.add("EXTERNAL_PREREQUISITES_NOT_MET");
-		
-		Map<String,String> outputRow = new LinkedHashMap<String,String>();
-		outputRow.put("LineNumber", "");
-		outputRow.put("dataID", "");
-		outputRow.put("LineForTest", "");
-		outputRow.put("GitHubIssueNo", "");
-		outputRow.put("GUID", "");
-		outputRow.put("Label", "");
-		outputRow.put("Response.status", "");
-		outputRow.put("Response.result", "");
-		outputRow.put("Response.comment", "");
-		//outputRow.put("Explanation", "");
-		outputRow.put("IssuesWithThisRow", "");
+	public static ConversionReport convert(String source, Reader in, Writer out) throws IOException { 
+		return convert(source, in, out, null, null);
+	}
+	
+	/**
+	 * Convert a source spreadsheet of test specification data into test validation data,
+	 * copying the rows of a previous conversion for source rows that haven't changed, and 
+	 * checking and converting only new and changed rows.
+	 * 
+	 * @param source name of the source spreadsheet, for the report.
+	 * @param in the source spreadsheet, exported as csv, not closed.
+	 * @param out to which to write the test validation data, not closed.
+	 * @param previous index of a previous conversion from which to copy unchanged rows, 
+	 *   and against which to report changes, null to convert every row.
+	 * @param index to which to write the index of this conversion, not closed, null for none.
+	 * @return report of the errors found in the source spreadsheet, and of the changes from previous.
+	 * @throws IOException if unable to read or write, or the source spreadsheet is missing columns.
+	 */
+	public static ConversionReport convert(String source, Reader in, Writer out, final ConversionIndex previous, Writer index) throws IOException { 
 		
-		Map<String,String> terms = new HashMap<String,String>();
-		Map<String,String> outterms = new HashMap<String,String>();
-	    String filename = "";
-	    // previous header structure.
-//	    filename = "/Test_data_7_2022-02-26.csv";
-//	    filename = "/Test_data_9_2022-03-04.csv";
-//	    filename = "/Test_data_10_2022-03-06.csv";
-//	    filename = "/Test_data_11_2022-03-09.csv";
-//	    filename = "/Test_data_12_2022-03-09.csv";
-//	    filename = "/Test_data_13_2022-03-10.csv";
-	    // new header structure with v14
-	    filename = "/Test_data_14_2022-03-14.csv";
-	    filename = "/Test_data_15_2022-03-14.csv";
-	    filename = "/Test_data_16_2022-03-16.csv";
-	    filename = "/Test_data_17_2022-03-17.csv";
-	    filename = "/Test_data_18_2022-03-19.csv";
-	    filename = "/Test_data_19_2022-03-21.csv";
-	    filename = "/Test_data_22_2022-06-02.csv";
-	    filename = "/Test_data_23_2022-08-22.csv";
-	    filename = "/Test_data_24_2022-08-24.csv";
-	    filename = "/Test_data_26_2022-08-30.csv";
-	    filename = "/Test_data_28_2022-09-06.csv";
-	    filename = "/Test_data_29_2022-09-07.csv";
-	    filename = "/Test_data_32_2022-09-11.csv";
-	    filename = "/Test_data_33_2022-09-12.csv";
-	    filename = "/Test_data_35_2022-11-11.csv";
-	    filename = "/Test_data_42_2023-03-30.csv";
-	    filename = "/Test_data_45_2023-06-11.csv";
-	    filename = "/Test_data_46_2023-06-12.csv";
-	    filename = "/Test_data_50_2023-06-27.csv";
-	    filename = "/Test_data_52_2023-07-02.csv";
-	    filename = "/Test_data_53_2023-07-03.csv";
-	    filename = "/Test_data_54_2023-07-10.csv";
-	    filename = "/Test_data_57_2023-07-19.csv";
-	    filename = "/Test_data_63_2023-12-15.csv";
-	    filename = "/Test_data_67_2024_07_20.csv";
-	    filename = "/Test_data_68_2024_07_22.csv";
-	    filename = "/Test_data_69_2024_07_22.csv";
-	    filename = "/Test_data_70_2024_07_22.csv";
-	    filename = "/Test_data_71_2024_07_22.csv";
-	    filename = "/Test_data_72_2024_07_25.csv";
-	    filename = "/Test_data_73_2024_07_30.csv";
-	    filename = "/Test_data_74_2024_07_30.csv";
-	    filename = "/Test_data_75_2024_07_31.csv";
-	    filename = "/Test_data_77_2024_08_02.csv";
-	    filename = "/Test_data_79_2024_08_04.csv";
-	    filename = "/Test_data_81_2024_08_20.csv";
-	    filename = "/Test_data_82_2024_08_20.csv";
-	    filename = "/Test_data_84_2024_08_21.csv";
-	    filename = "/Test_data_86_2024_08_23.csv";
-	    filename = "/Test_data_87_2024_08_26.csv";
-	    filename = "/Test_data_91_2024_09_19.csv";
-	    filename = "/Test_data_93_2024_09_27.csv";
-	    filename = "/Test_data_94_2024_11_10.csv";
-	    filename = "/Test_data_95_2024_11_12.csv";
-	    filename = "/Test_data_97_2025_03_03.csv";
-	    filename = "/Test_data_98_2025_03_05.csv";
-	    //URL urlinfile = TestOfTestSpreasheetUtility.class.getResource(filename);
-	    //File inputfile = new File(urlinfile.toURI());
-	    //Reader in = new FileReader(inputfile);
-	    InputStream is = TestOfTestSpreasheetUtility.class.getResourceAsStream(filename);
-	    Reader in = new InputStreamReader(is);
-	    String outputFileName = "TG2_test_validation_data.csv";
-	    CSVPrinter printer = new CSVPrinter(new FileWriter(outputFileName), CSVFormat.DEFAULT.withQuoteMode(QuoteMode.ALL));
+	    ConversionReport report = new ConversionReport(source);
+	    CSVPrinter printer = new CSVPrinter(out, CSVFormat.DEFAULT.withQuoteMode(QuoteMode.ALL));
+	    CSVPrinter indexPrinter = index==null ? null : new CSVPrinter(index, CSVFormat.DEFAULT.withHeader(ConversionIndex.HEADER));
+	    Map<String,Set<String>> dataIDHashes = new LinkedHashMap<String,Set<String>>();
 	    CSVParser records = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(in);
-	    Map<String,Integer> header = records.getHeaderMap();
+	    List<String> missing = new ArrayList<String>();
+	    for (String column : ConversionVocabulary.getSourceColumns()) { 
+	    	if (!records.getHeaderMap().containsKey(column)) { 
+	    		missing.add(column);
+	    	}
+	    }
+	    if (!missing.isEmpty()) { 
+	    	throw new IOException("Missing columns " + missing + ", found " + records.getHeaderMap().keySet());
+	    }
+	    Iterator<CSVRecord> recordIterator = records.iterator();
+	    List<CSVRecord> block = new ArrayList<CSVRecord>(ROW_BLOCK_SIZE);
 	    int line = 2; // first line in spreadsheet, header is 1.
 	    int errors = 0;
-	    for (CSVRecord record : records) {
-	    	outputRow.put("LineNumber",Integer.toString(line));
-	    	//outputRow.put("LineForTest",record.get("InTestLine #"));
-	    	outputRow.put("LineForTest",record.get("LineForTest"));
-	    	String dataID = record.get("dataID");
-	    	outputRow.put("dataID",dataID);
-	    	outputRow.put("GitHubIssueNo",record.get("Number"));
-	    	outputRow.put("GUID",record.get("GUID").trim());
-	    	String testType = record.get("Output Type"); 
-	    	if (!classList.contains(testType)) { 
-	    		errors ++;
-	    		if (dataID==null || dataID.length()==0) { 
-	    			System.out.println("Unable to read dataID, is there a blank line?");
-	    		}
-	    		System.out.println(dataID);
-	    		System.out.println("Error in " + dataID + " Line:" + Integer.toString(line) + " unrecognized test class: " + testType);
-	    	}
-	    	outputRow.put("Label",testType + "_" + record.get("Label"));
-	    	String responseStatus =  record.get("Response.status").trim();
-	    	outputRow.put("Response.status", responseStatus);
-	    	String responseResultValue = record.get("Response.result");
-	    	String outputDataValue = record.get("Output.data");
-	    	if (outputDataValue.length()>0 && !responseResultValue.equals(outputDataValue)) { 
-	    		errors ++;
-	    		System.out.println("Error in " + dataID + " Line:" + Integer.toString(line) + " missmatch between Response.result ["+responseResultValue+"] and Output.data ["+ outputDataValue +"] ");
-	    	}
-	    	if (responseResultValue.matches("^\"[0-9.]+\"$")) { 
-	    		responseResultValue = responseResultValue.replace("\"", "");
-	    	}
-	    	outputRow.put("Response.result", responseResultValue);
-	    	outputRow.put("Response.comment", record.get("Response.comment"));
-	    	//outputRow.put("Explanation", record.get("Explanation"));
-	    	outputRow.put("IssuesWithThisRow", record.get("ISSUE"));
-	    	Iterator<String> iin = getInformationElements().keySet().iterator();
-	    	while (iin.hasNext()) { 
-	    		outputRow.put(iin.next(),"");
-	    	}
-	    	Map<String,String> resultTermValues = new HashMap<String,String>();
-	    	
-	    	if (testType.equals("VALIDATION") && !validationResponseStatusTerms.contains(responseStatus)) { 
-	    		System.out.println("Error in " + Integer.toString(line) + " unrecognized response.status " +responseStatus + " for " + testType);
-	    		errors++;
+	    while (recordIterator.hasNext()) { 
+	    	// check and convert a block of rows in parallel, then write them in order
+	    	block.clear();
+	    	while (recordIterator.hasNext() && block.size() < ROW_BLOCK_SIZE) { 
+	    		block.add(recordIterator.next());
 	    	}
-	    	if (testType.equals("MEASURE") && !validationResponseStatusTerms.contains(responseStatus)) { 
-	    		System.out.println("Error in " + Integer.toString(line) + " unrecognized response.status " +responseStatus + " for " + testType);
-	    		errors++;
-	    	}
-	    	if (testType.equals("AMENDMENT") && !amendmentResponseStatusTerms.contains(responseStatus)) { 
-	    		System.out.println("Error in line " + Integer.toString(line) + " unrecognized response.status [" +responseStatus + "] for " + testType);
-	    		errors++;
-	    	}
-	    	
-	    	
-	    	// {GitHub Issue=0, Number=1, GUID=2, Output Type=3, Label=4, Dimension=5, 
-	    	// Line #=6, Input.data=7, Output.data=8, Response.status=9, Response.result=10, 
-	    	// Response.comment=11, Explanation=12}
-	    	//System.out.print(Integer.toString(line) + " " + record.get("GUID") + " ");
-	    	String inputfields = record.get("Input.data");
-	    	inputfields = inputfields.replace('”', '"');  // handle alternative quote characters
-	    	// handle a couple of special cases for splitting on comma: 
-	    	inputfields = inputfields.replace("Desmarest, 1804", "Desmarest| 1804");
-	    	inputfields = inputfields.replace("Perry, 1811", "Perry| 1811");
-	    	inputfields = inputfields.replace("Adanson, 1763", "Adanson| 1763");
-	    	inputfields = inputfields.replace("Adans., 1763", "Adans.| 1763");
-	    	inputfields = inputfields.replace("Jeffreys, 1867", "Jeffreys| 1867");
-	    	inputfields = inputfields.replace("Barker, 1996", "Barker| 1996");
-	    	inputfields = inputfields.replace("Györfi, 1952", "Györfi| 1952");
-	    	inputfields = inputfields.replace("Millet, 1813", "Millet| 1813");
-	    	inputfields = inputfields.replace(", 1822", "| 1822");
-	    	inputfields = inputfields.replace("139.92,", "139.92|");
-	    	inputfields = inputfields.replace("degrees, x degrees", "degrees| x degrees");
-	    	inputfields = inputfields.replace(" 10m, ", " 10m| ");
-	    	inputfields = inputfields.replace("maxElevation=100", "maxElevation@100");
-	    	inputfields = inputfields.replace("maxdepth=100", "maxdepth@100");
-	    	inputfields = inputfields.replace("?name=Puma", "?name@Puma");
-	    	inputfields = inputfields.replace("check?dataset=APNI", "check?dataset@APNI");
-	    	inputfields = inputfields.replace("taxon_profile.cfm?taxon_id=62947", "taxon_profile.cfm?taxon_id@62947");
-	    	inputfields = inputfields.replace("POLYGON ((10 20, 11 20, 11 21, 10 21, 10 20))", "POLYGON ((10 20| 11 20| 11 21| 10 21| 10 20))");
-	    	List<String> bits = Arrays.asList(inputfields.split(","));
-	    	if (bits.isEmpty()) { 
-	    		System.out.println("Error in " + Integer.toString(line) + " " +inputfields);
-	    		errors++;
-	    	}
-	    	Iterator<String> i = bits.iterator();
-	    	while (i.hasNext()) {
-	    		String bit = i.next();
-	    		List<String> subbits = Arrays.asList(bit.split("="));
-	    		if (subbits.size()!=2) { 
-	    			System.out.println("Error in " + dataID + " Line:" + Integer.toString(line) + " " + bit );
-	    			errors++;
+	    	final int firstLine = line;
+	    	final String[] hashes = new String[block.size()];
+	    	final String[][] converted = new String[block.size()][];
+	    	final String[][][] terms = new String[block.size()][][];
+	    	final boolean[] reused = new boolean[block.size()];
+	    	// each element set by one task only, visible once all the tasks complete
+	    	final List<List<String>> violations = new ArrayList<List<String>>(Collections.<List<String>>nCopies(block.size(), null));
+	    	IntStream.range(0, block.size()).parallel().forEach(k -> { 
+	    		hashes[k] = ConversionIndex.hash(block.get(k));
+	    		String[] copy = previous==null ? null : previous.getReusableRow(hashes[k]);
+	    		if (copy!=null) { 
+	    			// unchanged, converted without errors, only its line may have moved
+	    			copy[ConversionVocabulary.LINE_NUMBER] = Integer.toString(firstLine + k);
+	    			converted[k] = copy;
+	    			reused[k] = true;
+	    			terms[k] = previous.getReusableTerms(hashes[k]);
+	    			violations.set(k, Collections.<String>emptyList());
 	    		} else { 
-	    			// System.out.print(subbits.get(0) + " " + subbits.get(1));
-	    			String term = subbits.get(0).trim();
-	    			terms.put(term, term);
-	    			String value = subbits.get(1).trim();
-	    			if (!value.startsWith("\"") || !value.endsWith("\"")) { 
-	    				System.out.println("Error in " + dataID + " Line:" + Integer.toString(line) + " " + bit);
-	    				errors++;
-	    			} else { 
-	    				// output
-	    				if (outputRow.containsKey(term)) { 
-	    					String cleanedValue = value;
-	    					// handle the special cases for splitting on comma: 
-	    					cleanedValue = cleanedValue.replace("Desmarest| 1804", "Desmarest, 1804");
-	    					cleanedValue = cleanedValue.replace("Perry| 1811", "Perry, 1811");
-	    					cleanedValue = cleanedValue.replace("Adanson| 1763", "Adanson, 1763");
-	    					cleanedValue = cleanedValue.replace("Adans.| 1763", "Adans., 1763");
-	    					cleanedValue = cleanedValue.replace("Jeffreys| 1867", "Jeffreys, 1867");
-	    					cleanedValue = cleanedValue.replace("Györfi| 1952", "Györfi, 1952");
-	    					cleanedValue = cleanedValue.replace("Millet| 1813", "Millet, 1813");
-	    					cleanedValue = cleanedValue.replace("139.92|", "139.92,");
-	    					cleanedValue = cleanedValue.replace("degrees| x degrees", "degrees, x degrees");
-	    					cleanedValue = cleanedValue.replace("| 1822", ", 1822");
-	    					cleanedValue = cleanedValue.replace(" 10m| ", " 10m, ");
-	    					cleanedValue = cleanedValue.replace("maxElevation@100", "maxElevation=100");
-	    					cleanedValue = cleanedValue.replace("maxdepth@100", "maxdepth=100");
-	    					cleanedValue = cleanedValue.replace("?name@Puma", "?name=Puma");
-	    					cleanedValue = cleanedValue.replace("check?dataset@APNI", "check?dataset=APNI");
-	    					cleanedValue = cleanedValue.replace("taxon_profile.cfm?taxon_id@62947", "taxon_profile.cfm?taxon_id=62947");
-	    					cleanedValue = cleanedValue.replace("POLYGON ((10 20| 11 20| 11 21| 10 21| 10 20))", "POLYGON ((10 20, 11 20, 11 21, 10 21, 10 20))");
-	    					// trim off leading/trailing quotes.
-	    					if (cleanedValue.charAt(0)=='"') { 
-	    						cleanedValue = cleanedValue.substring(1);
-	    					}
-	    					if (cleanedValue.charAt(cleanedValue.length()-1)=='"') { 
-	    						cleanedValue = cleanedValue.substring(0,cleanedValue.length()-1);
-	    					}
-	    					outputRow.put(term, cleanedValue);
-	    				} else {
-	    					errors++;
-	    					System.out.println("Error in " + dataID + " Line:" + Integer.toString(line) + " unrecognized input term " + term);
-	    				}
+	    			SourceRow row = new SourceRow(block.get(k), firstLine + k);
+	    			List<String> rowViolations = new ArrayList<String>();
+	    			for (ConversionRule rule : RULES) { 
+	    				rule.check(row, rowViolations);
 	    			}
+	    			violations.set(k, rowViolations);
+	    			converted[k] = convertRow(row);
+	    			terms[k] = new String[][] { termsOf(row.inputTermValues), termsOf(row.outputTermValues) };
 	    		}
-	    	}
-	    	String outfields = record.get("Output.data");
-	    	List<String> outbits = Arrays.asList(outfields.split(","));
-	    	i = outbits.iterator();
-	    	while (i.hasNext()) {
-	    		String bit = i.next();
-	    		List<String> subbits = Arrays.asList(bit.split("="));
-	    		if (bit.trim().length()>0  &&  subbits.size()!=2 && !testType.equals("MEASURE")) { 
-	    			System.out.println("Error in Output " + dataID + " Line:" + Integer.toString(line) + " " + bit );
-	    			errors++;
-	    		} else if (subbits.size()==1 && testType.equals("MEASURE")) { 
-	    			// skip, ok.
-	    		} else if (bit.trim().length() > 0) { 
-	    			// System.out.print(subbits.get(0) + " " + subbits.get(1));
-	    			String term = subbits.get(0).trim();
-	    			outterms.put(term, term);
-	    			String value = subbits.get(1).trim();
-	    			if (!value.startsWith("\"") || !value.endsWith("\"")) { 
-	    				System.out.println("Error in Output " + dataID + " Line:" + Integer.toString(line) + " " + bit);
-	    				errors++;
-	    			} else { 
-	    				// output
-	    				if (outputRow.containsKey(term)) { 
-	    					String cleanedValue = value;
-	    					// handle a couple of special cases for splitting on comma: 
-	    					cleanedValue = cleanedValue.replace("Desmarest| 1804", "Desmarest, 1804)");
-	    					cleanedValue = cleanedValue.replace(" 10m| ", " 10m, ");
-	    					cleanedValue = cleanedValue.replace("Millet| 1813", "Millet, 1813");
-	    					cleanedValue = cleanedValue.replace("139.92|", "139.92,");
-	    					cleanedValue = cleanedValue.replace("degrees| x degrees", "degrees, x degrees");
-	    					// trim off leading/trailing quotes.
-	    					if (cleanedValue.charAt(0)=='"') { 
-	    						cleanedValue = cleanedValue.substring(1);
-	    					}
-	    					if (cleanedValue.charAt(cleanedValue.length()-1)=='"') { 
-	    						cleanedValue = cleanedValue.substring(0,cleanedValue.length()-1);
-	    					}
-	    					resultTermValues.put(term, cleanedValue);
-	    				} else { 
-	    					errors++;
-	    					System.out.println("Error in " + dataID + " Line:" + Integer.toString(line) + " unrecognized output term " + term);
-	    				}
-	    			}
+	    	});
+	    	for (int k=0; k<converted.length; k++) { 
+	    		if (line==2) { 
+	    			printer.printRecord(ConversionVocabulary.getColumns());
 	    		}
-	    	}
-	    	
-	    	if (line==2) { 
-	    		printer.printRecord(outputRow.keySet());
-	    	}
-	    	if (resultTermValues.size()>0) { 
-	    		// convert 
-	    		String resultVals = "{";
-	    		Iterator<String> iout = resultTermValues.keySet().iterator();
-	    		String separator = "";
-	    		while (iout.hasNext()) { 
-	    			String key = iout.next();
-	    			resultVals = resultVals + separator + '"' + key + '"'+':'+'"'+ resultTermValues.get(key).replace("\"", "\\"+"\"") + '"';
-	    			separator = ",";
+	    		printer.printRecord((Object[])converted[k]);
+	    		report.messages.addAll(violations.get(k));
+	    		errors += violations.get(k).size();
+	    		report.inputTerms.addAll(Arrays.asList(terms[k][0]));
+	    		report.outputTerms.addAll(Arrays.asList(terms[k][1]));
+	    		String dataID = converted[k][ConversionVocabulary.DATA_ID];
+	    		if (reused[k]) { 
+	    			report.reused++;
 	    		}
-	    		resultVals = resultVals.concat("}");
-	    		outputRow.put("Response.result", resultVals);
-	    	}
-	    	if (resultTermValues.size()>0 && !(outputRow.get("Response.status").equals("AMENDED") || outputRow.get("Response.status").equals("FILLED_IN")) ) {
-	    		System.out.println("Error in Output " + dataID + " Line:" + Integer.toString(line) + " key:value pairs present when Response.status is not AMENDED or FILLED_IN");
-	    		errors++;
+	    		Set<String> rowHashes = dataIDHashes.get(dataID);
+	    		if (rowHashes==null) { 
+	    			rowHashes = new LinkedHashSet<String>();
+	    			dataIDHashes.put(dataID, rowHashes);
+	    		}
+	    		rowHashes.add(hashes[k]);
+	    		if (indexPrinter!=null) { 
+	    			indexPrinter.printRecord(dataID, hashes[k], ConversionIndex.CONVERSION, violations.get(k).size(), 
+	    					String.join(" ", terms[k][0]), String.join(" ", terms[k][1]));
+	    		}
+	    		line++;
 	    	}
-	    	printer.printRecord(outputRow.values());
-	    	line++;
 	    }
 	    
-	    printer.close();
-	    
-	    Set<String> keyset = terms.keySet();
-	    SortedSet<String> keys = new TreeSet<String>();
-	    keys.addAll(keyset);
-	    Iterator<String> i = keys.iterator();
-	    System.out.println("Terms matched in InputFields");
-	    while (i.hasNext()) { 
-	    	System.out.println(i.next());
+	    if (indexPrinter!=null) { 
+	    	indexPrinter.flush();
 	    }
-	    Set<String> outkeyset = outterms.keySet();
-	    SortedSet<String> outkeys = new TreeSet<String>();
-	    outkeys.addAll(outkeyset);
-	    i = keys.iterator();
-	    System.out.println("Terms matched in OutputFields");
-	    while (i.hasNext()) { 
-	    	System.out.println(i.next());
+	    if (previous!=null) { 
+	    	report.previous = previous.getName();
+	    	for (Map.Entry<String,Set<String>> entry : dataIDHashes.entrySet()) { 
+	    		Set<String> previousHashes = previous.getDataIDHashes().get(entry.getKey());
+	    		if (previousHashes==null) { 
+	    			report.added.add(entry.getKey());
+	    		} else if (!previousHashes.equals(entry.getValue())) { 
+	    			report.modified.add(entry.getKey());
+	    		}
+	    	}
+	    	for (String dataID : previous.getDataIDHashes().keySet()) { 
+	    		if (!dataIDHashes.containsKey(dataID)) { 
+	    			report.removed.add(dataID);
+	    		}
+	    	}
 	    }
-	    System.out.println("Errors: " + Integer.toString(errors));
+	    printer.flush();
 	    
+	    report.rows = line - 2;
+	    report.errors = errors;
+	    return report;
+	}
+
+	private static String[] termsOf(List<TermValue> termValues) { 
+		List<String> result = new ArrayList<String>(termValues.size());
+		for (TermValue termValue : termValues) { 
+			if (termValue.term!=null) { 
+				result.add(termValue.term);
+			}
+		}
+		return result.toArray(new String[result.size()]);
+	}
+	
+	/**
+	 * Convert a row of a source spreadsheet into a row of test validation data, 
+	 * placing the values of the known terms in Input.data in their columns, and 
+	 * the known terms and values in Output.data in Response.result.
+	 * 
+	 * @param row the row to convert.
+	 * @return the values for each of the columns of the test validation data.
+	 */
+	private static String[] convertRow(SourceRow row) { 
+		CSVRecord record = row.record;
+		String[] result = new String[ConversionVocabulary.getColumns().size()];
+		Arrays.fill(result, "");
+		result[ConversionVocabulary.LINE_NUMBER] = Integer.toString(row.line);
+		result[ConversionVocabulary.DATA_ID] = row.dataID;
+		result[ConversionVocabulary.LINE_FOR_TEST] = record.get("LineForTest");
+		result[ConversionVocabulary.GITHUB_ISSUE_NO] = record.get("Number");
+		result[ConversionVocabulary.GUID] = record.get("GUID").trim();
+		result[ConversionVocabulary.LABEL] = row.testType + "_" + record.get("Label");
+		result[ConversionVocabulary.RESPONSE_STATUS] = row.responseStatus;
+		String responseResultValue = row.responseResult;
+		if (responseResultValue.matches("^\"[0-9.]+\"$")) { 
+			responseResultValue = responseResultValue.replace("\"", "");
+		}
+		result[ConversionVocabulary.RESPONSE_RESULT] = responseResultValue;
+		result[ConversionVocabulary.RESPONSE_COMMENT] = record.get("Response.comment");
+		result[ConversionVocabulary.ISSUES_WITH_THIS_ROW] = record.get("ISSUE");
+		for (TermValue termValue : row.inputTermValues) { 
+			if (termValue.term!=null) { 
+				int column = ConversionVocabulary.columnIndex(termValue.term);
+				if (column >= 0) { 
+					result[column] = termValue.value;
+				}
+			}
+		}
+		Map<String,String> resultTermValues = new HashMap<String,String>();
+		for (TermValue termValue : row.outputTermValues) { 
+			if (termValue.term!=null && ConversionVocabulary.columnIndex(termValue.term) >= 0) { 
+				resultTermValues.put(termValue.term, termValue.value);
+			}
+		}
+		if (resultTermValues.size()>0) { 
+			// convert 
+			StringBuilder resultVals = new StringBuilder("{");
+			Iterator<String> iout = resultTermValues.keySet().iterator();
+			String separator = "";
+			while (iout.hasNext()) { 
+				String key = iout.next();
+				resultVals.append(separator).append('"').append(key).append('"').append(':').append('"');
+				String value = resultTermValues.get(key);
+				for (int j=0; j<value.length(); j++) { 
+					if (value.charAt(j)=='"') { 
+						resultVals.append('\\');
+					}
+					resultVals.append(value.charAt(j));
+				}
+				resultVals.append('"');
+				separator = ",";
+			}
+			resultVals.append('}');
+			result[ConversionVocabulary.RESPONSE_RESULT] = resultVals.toString();
+		}
+		return result;
+	}
+	
+	/**
+	 * Convert a source spreadsheet file into a test validation data file.
+	 * 
+	 * @param source the source spreadsheet, exported as csv.
+	 * @param output the file to write, replaced if it exists.
+	 * @return report of the errors found in the source spreadsheet.
+	 * @throws IOException if unable to read or write, in which case output is removed.
+	 */
+	public static ConversionReport convert(File source, File output) throws IOException { 
+		return convert(source, output, null);
+	}
+	
+	/**
+	 * Convert a source spreadsheet file into a test validation data file, with its index, 
+	 * copying unchanged rows from a previous conversion.
+	 * 
+	 * @param source the source spreadsheet, exported as csv.
+	 * @param output the file to write, replaced if it exists, its index is written alongside.
+	 * @param previous test validation data of a previous conversion, with its index, from which 
+	 *   to copy unchanged rows, may be output, null or without an index to convert every row.
+	 * @return report of the errors found in the source spreadsheet, and of the changes from previous.
+	 * @throws IOException if unable to read or write, in which case output is removed.
+	 */
+	public static ConversionReport convert(File source, File output, File previous) throws IOException { 
+		Reader in = new BufferedReader(new InputStreamReader(new FileInputStream(source), StandardCharsets.UTF_8), 1 << 16);
+		try { 
+			return convert(source.getPath(), in, output, previous);
+		} finally { 
+			in.close();
+		}
+	}
+	
+	private static ConversionReport convert(String source, Reader in, File output, File previous) throws IOException { 
+		// read the previous conversion before output, which may be the same file, is replaced
+		ConversionIndex previousIndex = previous==null ? null : ConversionIndex.read(previous);
+		File indexFile = new File(output.getPath() + ConversionIndex.SUFFIX);
+		Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(output), StandardCharsets.UTF_8), 1 << 16);
+		boolean converted = false;
+		try { 
+			Writer index = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(indexFile), StandardCharsets.UTF_8), 1 << 16);
+			try { 
+				ConversionReport report = convert(source, in, out, previousIndex, index);
+				report.output = output.getPath();
+				converted = true;
+				return report;
+			} finally { 
+				index.close();
+			}
+		} finally { 
+			out.close();
+			if (!converted) { 
+				// don't leave a partial conversion
+				output.delete();
+				indexFile.delete();
+			}
+		}
+	}
+	
+	/**
+	 * Expand command line arguments into the source spreadsheets they name.  Each argument
+	 * may be a file, a directory (all of its .csv files), or a glob pattern such as 
+	 * src/main/resources/Test_data_9*.csv or data/**.csv, expanded here so that it need not
+	 * be expanded by the shell.
+	 * 
+	 * @param args the file, directory, and glob arguments.
+	 * @return the files, in argument order, each directory and glob sorted by name, without duplicates.
+	 * @throws IOException if an argument names no files or can't be read.
+	 */
+	public static List<File> expandSources(List<String> args) throws IOException { 
+		Set<File> result = new LinkedHashSet<File>();
+		for (String arg : args) { 
+			File file = new File(arg);
+			SortedSet<File> matches = new TreeSet<File>();
+			if (file.isDirectory()) { 
+				File[] children = file.listFiles();
+				if (children!=null) { 
+					for (File child : children) { 
+						if (child.isFile() && child.getName().toLowerCase().endsWith(".csv")) { 
+							matches.add(child);
+						}
+					}
+				}
+			} else if (file.isFile()) { 
+				matches.add(file);
+			} else if (isGlob(arg)) { 
+				// walk from the longest leading path without glob characters
+				Path pattern = Paths.get(arg).normalize();
+				Path base = pattern.getRoot();
+				int depth = pattern.getNameCount();
+				for (int j=0; j<pattern.getNameCount()-1 && !isGlob(pattern.getName(j).toString()); j++) { 
+					base = base==null ? pattern.getName(j) : base.resolve(pattern.getName(j));
+					depth--;
+				}
+				if (arg.contains("**")) { 
+					depth = Integer.MAX_VALUE;
+				}
+				PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern.toString());
+				if (base==null) { 
+					base = Paths.get(".");
+				}
+				if (Files.isDirectory(base)) { 
+					Stream<Path> paths = Files.walk(base, depth);
+					try { 
+						Iterator<Path> i = paths.iterator();
+						while (i.hasNext()) { 
+							Path path = i.next().normalize();
+							if (matcher.matches(path) && Files.isRegularFile(path)) { 
+								matches.add(path.toFile());
+							}
+						}
+					} finally { 
+						paths.close();
+					}
+				}
+			}
+			if (matches.isEmpty()) { 
+				throw new IOException("No source spreadsheets found for " + arg);
+			}
+			result.addAll(matches);
+		}
+		return new ArrayList<File>(result);
 	}
 
+	private static boolean isGlob(String value) { 
+		return value.indexOf('*')>=0 || value.indexOf('?')>=0 || value.indexOf('[')>=0 || value.indexOf('{')>=0;
+	}
+
+	/**
+	 * The name of the test validation data file converted from a source spreadsheet, 
+	 * e.g. TG2_test_validation_data_98_2025_03_05.csv for Test_data_98_2025_03_05.csv.
+	 * 
+	 * @param source the source spreadsheet.
+	 * @return the name of the output file, without a directory.
+	 */
+	public static String outputName(File source) { 
+		String name = source.getName();
+		if (name.toLowerCase().endsWith(".csv")) { 
+			name = name.substring(0, name.length() - 4);
+		}
+		if (name.startsWith("Test_data_")) { 
+			name = name.substring("Test_data_".length());
+		}
+		return DEFAULT_OUTPUT.substring(0, DEFAULT_OUTPUT.length() - 4) + "_" + name + ".csv";
+	}
+	
 	/**
-	 * Main method to launch parsing of a source spreadsheet from the command line.
+	 * Main method to convert source spreadsheets from the command line, converting the 
+	 * current source spreadsheet bundled as a resource if no source spreadsheets are given.
 	 * 
 	 * @param args command line arguments
 	 */
 	public static void main(String[] args) {
-		// TODO Auto-generated method stub
-
+		Options options = new Options();
+		options.addOption("o","outputDirectory",true,"Directory into which to write the test validation data converted from each source spreadsheet, default the current directory.");
+		options.addOption("t","threads",true,"Number of source spreadsheets to convert concurrently, default the number of available processors.");
+		options.addOption("e","errorReport",true,"File to which to write a consolidated csv report of the errors found in each source spreadsheet.");
+		options.addOption("i","incremental",false,"Copy the rows of each source spreadsheet that haven't changed since it was last converted into the output directory from that conversion, using its index, and report the dataIDs added, removed, and modified.");
+		options.addOption("p","previous",true,"Test validation data of a previous conversion (with its index) from which to copy the rows that haven't changed, e.g. the conversion of the previous version of the source spreadsheet, and against which to report the dataIDs added, removed, and modified.");
+		options.addOption("m","terms",false,"List the terms matched in Input.data and Output.data of each source spreadsheet.");
+		options.addOption("h","help",false,"Show help.");
 		try {
-			parseSourceSpreadsheet();
-		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		} catch (URISyntaxException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+			CommandLineParser parser = new DefaultParser();
+			final CommandLine cmd = parser.parse(options, args);
+			if (cmd.hasOption("h")) {
+				HelpFormatter formatter = new HelpFormatter();
+				formatter.printHelp("java -cp bdqtestrunner-{version}-{gitcommit}-executable.jar org.filteredpush.qc.bdqtestrunner.TestOfTestSpreasheetUtility [options] [file|directory|glob ...]", options);
+				return;
+			}
+			File outputDirectory = new File(cmd.hasOption("o") ? cmd.getOptionValue("o") : ".");
+			if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) { 
+				throw new IOException("Unable to create output directory " + outputDirectory.getPath());
+			}
+			final File previous = cmd.hasOption("p") ? new File(cmd.getOptionValue("p")) : null;
+			if (previous!=null && !previous.isFile()) { 
+				throw new IOException("Previous test validation data " + previous.getPath() + " not found");
+			}
+			List<ConversionReport> reports = new ArrayList<ConversionReport>();
+			if (cmd.getArgList().isEmpty()) { 
+				// the current source spreadsheet, as before batch conversion was supported
+				InputStream is = TestOfTestSpreasheetUtility.class.getResourceAsStream(DEFAULT_SOURCE);
+				if (is==null) { 
+					throw new IOException("Unable to find resource " + DEFAULT_SOURCE);
+				}
+				Reader in = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+				File output = new File(outputDirectory, DEFAULT_OUTPUT);
+				try { 
+					reports.add(convert(DEFAULT_SOURCE, in, output, previous==null && cmd.hasOption("i") ? output : previous));
+				} finally { 
+					in.close();
+				}
+			} else { 
+				List<File> sources = expandSources(cmd.getArgList());
+				Set<String> outputNames = new HashSet<String>();
+				for (File source : sources) { 
+					if (!outputNames.add(outputName(source))) { 
+						throw new IOException("More than one source spreadsheet would be converted into " + outputName(source));
+					}
+				}
+				int threads = Runtime.getRuntime().availableProcessors();
+				if (cmd.hasOption("t")) { 
+					threads = Integer.parseInt(cmd.getOptionValue("t").trim());
+				}
+				ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, sources.size())));
+				try { 
+					List<Future<ConversionReport>> futures = new ArrayList<Future<ConversionReport>>();
+					for (final File source : sources) { 
+						final File output = new File(outputDirectory, outputName(source));
+						futures.add(executor.submit(new Callable<ConversionReport>() {
+							@Override
+							public ConversionReport call() throws Exception {
+								try { 
+									return convert(source, output, previous==null && cmd.hasOption("i") ? output : previous);
+								} catch (Exception e) { 
+									// e.g. a source spreadsheet with the previous header structure
+									logger.debug(e.getMessage(), e);
+									ConversionReport report = new ConversionReport(source.getPath());
+									report.output = output.getPath();
+									report.failure = e.getMessage()==null ? e.getClass().getName() : e.getMessage();
+									return report;
+								}
+							}
+						}));
+					}
+					// report in argument order, each as soon as it and those before it complete
+					for (Future<ConversionReport> future : futures) { 
+						ConversionReport report = future.get();
+						reports.add(report);
+						report.print(System.out, cmd.hasOption("m"));
+					}
+				} finally { 
+					executor.shutdownNow();
+				}
+			}
+			if (cmd.getArgList().isEmpty()) { 
+				reports.get(0).print(System.out, true);
+			} else if (reports.size()>1) { 
+				int errors = 0;
+				int failures = 0;
+				for (ConversionReport report : reports) { 
+					errors += report.errors;
+					if (report.failure!=null) { 
+						failures++;
+					}
+				}
+				System.out.println("Converted " + Integer.toString(reports.size() - failures) + " of " + Integer.toString(reports.size()) + " source spreadsheets, Errors: " + Integer.toString(errors));
+			}
+			if (cmd.hasOption("e")) { 
+				Writer out = new OutputStreamWriter(new FileOutputStream(cmd.getOptionValue("e")), StandardCharsets.UTF_8);
+				try { 
+					CSVPrinter printer = new CSVPrinter(out, CSVFormat.DEFAULT.withHeader("source", "output", "rows", "errors", "message"));
+					for (ConversionReport report : reports) { 
+						if (report.failure!=null) { 
+							printer.printRecord(report.source, report.output, "", "", report.failure);
+						} else if (report.messages.isEmpty()) { 
+							printer.printRecord(report.source, report.output, report.rows, report.errors, "");
+						}
+						for (String message : report.messages) { 
+							printer.printRecord(report.source, report.output, report.rows, report.errors, message);
+						}
+					}
+					printer.flush();
+				} finally { 
+					out.close();
+				}
+			}
+		} catch (Exception e) {
+			logger.error(e.getMessage(),e);
+			System.out.println(e.getMessage());
+		}
+	}
+
+	/**
+	 * Errors found in converting a source spreadsheet.
+	 */
+	public static class ConversionReport { 
+		
+		private final String source;
+		private String output;
+		private int rows = 0;
+		private int errors = 0;
+		private String failure = null;
+		private String previous = null;
+		private int reused = 0;
+		private final List<String> added = new ArrayList<String>();
+		private final List<String> removed = new ArrayList<String>();
+		private final List<String> modified = new ArrayList<String>();
+		private final List<String> messages = new ArrayList<String>();
+		private final SortedSet<String> inputTerms = new TreeSet<String>();
+		private final SortedSet<String> outputTerms = new TreeSet<String>();
+		
+		ConversionReport(String source) { 
+			this.source = source;
+		}
+
+		/**
+		 * @return the name of the source spreadsheet.
+		 */
+		public String getSource() {
+			return source;
+		}
+
+		/**
+		 * @return the name of the test validation data file written, null if not written to a file.
+		 */
+		public String getOutput() {
+			return output;
+		}
+
+		/**
+		 * @return the number of rows converted.
+		 */
+		public int getRows() {
+			return rows;
+		}
+
+		/**
+		 * @return the number of errors found in the source spreadsheet.
+		 */
+		public int getErrors() {
+			return errors;
+		}
+
+		/**
+		 * @return the reason the source spreadsheet could not be converted, null if it was.
+		 */
+		public String getFailure() {
+			return failure;
+		}
+
+		/**
+		 * @return the name of the previous conversion compared with, null if none.
+		 */
+		public String getPrevious() {
+			return previous;
+		}
+
+		/**
+		 * @return the number of rows copied unchanged from the previous conversion.
+		 */
+		public int getReused() {
+			return reused;
+		}
+
+		/**
+		 * @return the dataIDs not in the previous conversion.
+		 */
+		public List<String> getAdded() {
+			return added;
+		}
+
+		/**
+		 * @return the dataIDs of the previous conversion no longer present.
+		 */
+		public List<String> getRemoved() {
+			return removed;
+		}
+
+		/**
+		 * @return the dataIDs present in both conversions with changed content.
+		 */
+		public List<String> getModified() {
+			return modified;
+		}
+
+		/**
+		 * @return a description of each error, in the order found.
+		 */
+		public List<String> getMessages() {
+			return messages;
+		}
+
+		/**
+		 * @return the terms found in Input.data.
+		 */
+		public SortedSet<String> getInputTerms() {
+			return inputTerms;
+		}
+
+		/**
+		 * @return the terms found in Output.data.
+		 */
+		public SortedSet<String> getOutputTerms() {
+			return outputTerms;
+		}
+		
+		/**
+		 * Print the report.
+		 * 
+		 * @param out to print to.
+		 * @param listTerms true to list the terms matched in Input.data and Output.data.
+		 */
+		public void print(PrintStream out, boolean listTerms) { 
+			if (failure!=null) { 
+				out.println("Unable to convert " + source + ": " + failure);
+				return;
+			}
+			out.println("Converted " + source + " into " + output + ", rows: " + Integer.toString(rows));
+			if (previous!=null) { 
+				out.println("Changes from " + previous + ", added: " + Integer.toString(added.size()) 
+						+ ", removed: " + Integer.toString(removed.size()) + ", modified: " + Integer.toString(modified.size()) 
+						+ ", rows reused: " + Integer.toString(reused));
+				printDataIDs(out, "Added", added);
+				printDataIDs(out, "Removed", removed);
+				printDataIDs(out, "Modified", modified);
+			}
+			for (String message : messages) { 
+				out.println(message);
+			}
+			if (listTerms) { 
+				out.println("Terms matched in InputFields");
+				for (String term : inputTerms) { 
+					out.println(term);
+				}
+				out.println("Terms matched in OutputFields");
+				for (String term : outputTerms) { 
+					out.println(term);
+				}
+			}
+			out.println("Errors: " + Integer.toString(errors));
+		}
+		
+		private static void printDataIDs(PrintStream out, String change, List<String> dataIDs) { 
+			if (!dataIDs.isEmpty()) { 
+				out.println(change + " dataIDs: " + String.join(", ", dataIDs));
+			}
 		}
 	}
 
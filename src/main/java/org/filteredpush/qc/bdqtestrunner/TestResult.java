@@ -0,0 +1,318 @@
+/**
+ * TestResult.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.io.Serializable;
+
+/**
+ * The result of running one row of validation data against the implementation of
+ * a test: the response of the implementation, how it compared with the expected
+ * response, and the time taken.
+ *
+ */
+public class TestResult implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * What happened to a row of validation data.
+	 */
+	public enum Outcome {
+		/** the response matched the expected response */
+		PASS,
+		/** the response did not match the expected response */
+		FAIL,
+		/** the row has no expected response, the response was not compared */
+		NOT_COMPARED,
+		/** the implementation threw an exception */
+		EXCEPTION,
+		/** the implementation could not be invoked with the values in the row */
+		ERROR,
+		/** an implementation was found, but did not return a response for this type of test */
+		SKIPPED,
+		/** no implementation of the test was found */
+		NOT_RUN,
+		/** the dataID of the row has already been run */
+		DUPLICATE,
+		/** the test is not in the list of issues to run */
+		NOT_SELECTED,
+		/** the run, or the test, was stopped after reaching its budget of failures */
+		STOPPED
+	}
+
+	private final String guid;
+	private final String label;
+	private final String gitHubIssueNo;
+	private final String dataID;
+	private final String lineNumber;
+
+	private Outcome outcome;
+	private String status;
+	private String value;
+	private String comment;
+	private String expectedStatus;
+	private String expectedResult;
+	private String implementation;
+	private long durationNanos;
+	private String message;
+
+	/**
+	 * Construct a result for a row, with an outcome of NOT_RUN until set otherwise.
+	 *
+	 * @param guid of the test
+	 * @param label of the test
+	 * @param gitHubIssueNo of the test
+	 * @param dataID of the row of validation data
+	 * @param lineNumber of the row of validation data
+	 */
+	public TestResult(String guid, String label, String gitHubIssueNo, String dataID, String lineNumber) {
+		this.guid = guid;
+		this.label = label;
+		this.gitHubIssueNo = gitHubIssueNo;
+		this.dataID = dataID;
+		this.lineNumber = lineNumber;
+		this.outcome = Outcome.NOT_RUN;
+	}
+
+	/**
+	 * @return the guid of the test
+	 */
+	public String getGuid() {
+		return guid;
+	}
+
+	/**
+	 * @return the label of the test
+	 */
+	public String getLabel() {
+		return label;
+	}
+
+	/**
+	 * @return the gitHubIssueNo of the test
+	 */
+	public String getGitHubIssueNo() {
+		return gitHubIssueNo;
+	}
+
+	/**
+	 * @return the dataID of the row
+	 */
+	public String getDataID() {
+		return dataID;
+	}
+
+	/**
+	 * @return the lineNumber of the row
+	 */
+	public String getLineNumber() {
+		return lineNumber;
+	}
+
+	/**
+	 * @return the outcome
+	 */
+	public Outcome getOutcome() {
+		return outcome;
+	}
+
+	/**
+	 * @param outcome the outcome to set
+	 */
+	public void setOutcome(Outcome outcome) {
+		this.outcome = outcome;
+	}
+
+	/**
+	 * @return the status of the response (e.g. RUN_HAS_RESULT), null if no response.
+	 */
+	public String getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return the value of the response, null if no response.
+	 */
+	public String getValue() {
+		return value;
+	}
+
+	/**
+	 * @return the comment of the response, or the message of an exception.
+	 */
+	public String getComment() {
+		return comment;
+	}
+
+	/**
+	 * @param comment the comment to set
+	 */
+	public void setComment(String comment) {
+		this.comment = comment;
+	}
+
+	/**
+	 * Set the response returned by the implementation.
+	 *
+	 * @param status the status of the response
+	 * @param value the value of the response
+	 * @param comment the comment of the response
+	 */
+	public void setResponse(String status, String value, String comment) {
+		this.status = status;
+		this.value = value;
+		this.comment = comment;
+	}
+
+	/**
+	 * @return the expected status, null if the row has none.
+	 */
+	public String getExpectedStatus() {
+		return expectedStatus;
+	}
+
+	/**
+	 * @return the expected result, null if the row has none.
+	 */
+	public String getExpectedResult() {
+		return expectedResult;
+	}
+
+	/**
+	 * Set the response expected for the row.
+	 *
+	 * @param expectedStatus the expected status
+	 * @param expectedResult the expected result
+	 */
+	public void setExpected(String expectedStatus, String expectedResult) {
+		this.expectedStatus = expectedStatus;
+		this.expectedResult = expectedResult;
+	}
+
+	/**
+	 * @return the fully qualified name of the class of the implementation run, null if none.
+	 */
+	public String getImplementation() {
+		return implementation;
+	}
+
+	/**
+	 * @param implementation the implementation to set
+	 */
+	public void setImplementation(String implementation) {
+		this.implementation = implementation;
+	}
+
+	/**
+	 * @return the elapsed time of the invocation in nanoseconds, 0 if not invoked.
+	 */
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	/**
+	 * @param durationNanos the durationNanos to set
+	 */
+	public void setDurationNanos(long durationNanos) {
+		this.durationNanos = durationNanos;
+	}
+
+	/**
+	 * @return the line reporting this result in the output of the test runner, null if
+	 *   the result is not reported on its own line.
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * @param message the message to set
+	 */
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+	/**
+	 * Serialize this result as a single line JSON object.
+	 *
+	 * @return JSON object with the identity, outcome, response, expected response, and duration of this result.
+	 */
+	public String toJson() {
+		StringBuilder result = new StringBuilder("{");
+		appendJson(result, "guid", guid).append(",");
+		appendJson(result, "label", label).append(",");
+		appendJson(result, "gitHubIssueNo", gitHubIssueNo).append(",");
+		appendJson(result, "dataID", dataID).append(",");
+		appendJson(result, "lineNumber", lineNumber).append(",");
+		appendJson(result, "outcome", outcome.name()).append(",");
+		appendJson(result, "status", status).append(",");
+		appendJson(result, "value", value).append(",");
+		appendJson(result, "comment", comment).append(",");
+		appendJson(result, "expectedStatus", expectedStatus).append(",");
+		appendJson(result, "expectedResult", expectedResult).append(",");
+		appendJson(result, "implementation", implementation).append(",");
+		result.append("\"durationNanos\":").append(durationNanos);
+		result.append("}");
+		return result.toString();
+	}
+
+	private static StringBuilder appendJson(StringBuilder json, String key, String value) {
+		json.append("\"").append(key).append("\":");
+		if (value==null) {
+			return json.append("null");
+		}
+		json.append("\"");
+		for (int i=0; i<value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				json.append("\\\"");
+				break;
+			case '\\':
+				json.append("\\\\");
+				break;
+			case '\n':
+				json.append("\\n");
+				break;
+			case '\r':
+				json.append("\\r");
+				break;
+			case '\t':
+				json.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					json.append(String.format("\\u%04x", (int)c));
+				} else {
+					json.append(c);
+				}
+			}
+		}
+		return json.append("\"");
+	}
+
+	public String toString() {
+		StringBuilder result = new StringBuilder();
+		result.append(dataID).append(" #").append(gitHubIssueNo).append(" ").append(outcome);
+		if (status!=null) {
+			result.append(" ").append(status).append(" ").append(value);
+		}
+		return result.toString();
+	}
+
+}
@@ -25,23 +25,37 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
 import java.io.Reader;
 import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Files;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
@@ -56,19 +70,7 @@ import org.datakurator.ffdq.api.result.AmendmentValue;
 import org.datakurator.ffdq.api.result.ComplianceValue;
 import org.datakurator.ffdq.api.result.IssueValue;
 import org.datakurator.ffdq.api.result.NumericalValue;
-import org.filteredpush.qc.date.DwCEventDQ;
-import org.filteredpush.qc.date.DwCEventDQDefaults;
-import org.filteredpush.qc.date.DwCOtherDateDQ;
-import org.filteredpush.qc.date.DwCOtherDateDQDefaults;
-import org.filteredpush.qc.date.util.DateUtils;
-import org.filteredpush.qc.georeference.DwCGeoRefDQ;
-import org.filteredpush.qc.georeference.DwCGeoRefDQDefaults;
-import org.filteredpush.qc.metadata.DwCMetadataDQ;
-import org.filteredpush.qc.metadata.DwCMetadataDQDefaults;
-import org.filteredpush.qc.sciname.DwCSciNameDQ;
-import org.filteredpush.qc.sciname.DwCSciNameDQDefaults;
 import org.filteredpush.qc.sciname.SciNameSourceAuthority;
-import org.filteredpush.qc.sciname.SciNameUtils;
 import org.filteredpush.qc.sciname.SourceAuthorityException;
 
 /**
@@ -79,18 +81,105 @@ public class TestRunner {
 
 	private static final Log logger = LogFactory.getLog(TestRunner.class);
 	
+	/** Record every dataID in a HashSet and HashMap, the default. */
+	public static final String BOOKKEEPING_EXACT = "exact";
+	/** Record every dataID as bytes in compact hash tables on the heap. */
+	public static final String BOOKKEEPING_COMPACT = "compact";
+	/** Record every dataID as bytes in compact hash tables off the heap. */
+	public static final String BOOKKEEPING_OFFHEAP = "offheap";
+	/** Detect duplicates with a Bloom filter and spill dataIDs not run to disk. */
+	public static final String BOOKKEEPING_PROBABILISTIC = "probabilistic";
+	
+	public static final List<String> BOOKKEEPING_STRATEGIES = Collections.unmodifiableList(
+			Arrays.asList(BOOKKEEPING_EXACT, BOOKKEEPING_COMPACT, BOOKKEEPING_OFFHEAP, BOOKKEEPING_PROBABILISTIC));
+
+	/** A result line in the output of a run: dataID, issue number, and outcome. */
+	private static final Pattern RESULT_LINE = Pattern.compile("^(\\S+) #(\\S+?)(?: (Pass|Fail|Response|Skipped)|(Exception):)");
+	
 	private Reader in;
 	
-	private FileWriter outFileWriter;
+	private Writer outFileWriter;
 	
 	private String source;
 	
 	private List<String> targetClasses;
 	
-	private List<String> targetIssueNumbers;
+	private Set<String> targetIssueNumbers;
 	
 	private Map<String,Report> encounteredTests;
 	
+	private String latencyLogFile;
+	
+	private TestRunnerMonitor monitor;
+	
+	private InvocationAccounting accounting;
+	
+	private ImplementationRegistry registry;
+	
+	private SlowInvocationTracker slowInvocations;
+	
+	private long openInputNanos;
+	
+	private int accountingTopN;
+	
+	private DataIDBookkeeping bookkeeping;
+	
+	private String bookkeepingStrategy = BOOKKEEPING_EXACT;
+	
+	private long expectedRows;
+	
+	private double falsePositiveRate;
+	
+	private int dataIDCounter;
+	
+	private File inputFile;
+	
+	private File outputFile;
+	
+	private File checkpointFile;
+	
+	private int checkpointRows;
+	
+	private boolean resume;
+	
+	private int shards = 1;
+	
+	private ThreadSafetyClassification threadSafety;
+	
+	private String shardBy = ShardedRun.SHARD_BY_DATAID;
+	
+	private ResultComparator resultComparator = new ResultComparator();
+	
+	private int parseThreads = 0;
+	
+	private File latencyProfileFile;
+	
+	private boolean failFast = false;
+	
+	private int maxFailures = 0;
+	
+	private int maxFailuresPerTest = 0;
+	
+	private int failures = 0;
+	
+	private volatile boolean stopped = false;
+	
+	/** Rows not run for each test stopped after reaching maxFailuresPerTest, by GUID. */
+	private Map<String,Integer> stoppedTests = new ConcurrentHashMap<String,Integer>();
+	
+	/** Failures of the rows run for each test, by GUID, excluding reused results. */
+	private Map<String,Integer> testFailures = new ConcurrentHashMap<String,Integer>();
+	
+	/** GUIDs of the tests whose implementation changed, without urn:uuid:, the rows of other tests reuse previous results. */
+	private Set<String> changedTests;
+	
+	private File previousOutputFile;
+	
+	/** Result lines of the previous run by dataID: outcome, and the lines written for the row. */
+	private Map<String,String[]> previousResults;
+	
+	private int reusedResults = 0;
+	
 	/**
 	 * Default constructor, references test validation data file at expected location on tdwg github.
 	 * 
@@ -98,6 +187,7 @@ public class TestRunner {
 	 * 
 	 */
 	public TestRunner() throws IOException {
+		long start = System.nanoTime();
 		source = "https://raw.githubusercontent.com/tdwg/bdq/master/tg2/_review/docs/guide/implementers/TG2_test_validation_data.csv";
 		URL sourceUrl = new URL(source);
 		String sourceNp = "https://raw.githubusercontent.com/tdwg/bdq/master/tg2/_review/docs/guide/implementers/TG2_test_validation_data_nonprintingchars.csv";
@@ -106,6 +196,7 @@ public class TestRunner {
 		InputStreamReader inputStream = new InputStreamReader(streams);
 		//InputStreamReader inputStream = new InputStreamReader(sour`ceUrl.openStream());
 		in = new BufferedReader(inputStream);
+		openInputNanos = System.nanoTime() - start;
 		init();
 		
 	}
@@ -117,16 +208,55 @@ public class TestRunner {
 	 * @throws IOException if unable to read inputFile
 	 */
 	public TestRunner(File inputFile) throws IOException { 
+		long start = System.nanoTime();
 		in = new FileReader(inputFile);
+		openInputNanos = System.nanoTime() - start;
+		this.inputFile = inputFile;
 		source = inputFile.getName();
 		init();
 	}
+	
+	/**
+	 * Constructor specifying a reader supplying test validation data, a CSV with a 
+	 * header row, e.g. from a request body, without a round trip through a file.
+	 * 
+	 * @param in reader for test validation data.
+	 * @param source description of the source of the data, for the output.
+	 */
+	public TestRunner(Reader in, String source) { 
+		this.in = in;
+		this.source = source;
+		init();
+	}
+	
+	/**
+	 * Constructor for running rows supplied one at a time, with no input to read.
+	 * 
+	 * @param source description of the source of the rows.
+	 * @see StreamingTestRunner
+	 */
+	TestRunner(String source) { 
+		this.source = source;
+		init();
+	}
+	
+	/**
+	 * Constructor for running rows supplied one at a time, with implementations from 
+	 * a registry which may be shared with other test runners.
+	 * 
+	 * @param source description of the source of the rows.
+	 * @param registry of the implementations to run.
+	 */
+	TestRunner(String source, ImplementationRegistry registry) { 
+		this.source = source;
+		init();
+		this.registry = registry;
+	}
 
 	/**
 	 * setup actions common to all constructors;
 	 */
-	private void init() throws IOException { 
-	    outFileWriter = new FileWriter("test_run_output.txt");
+	private void init() { 
 	    targetClasses = new ArrayList<String>();
 	    //targetClasses.add("DwCMetadataDQ");
 	    targetClasses.add("DwCMetadataDQDefaults");
@@ -137,22 +267,324 @@ public class TestRunner {
 	    targetClasses.add("DwCOtherDateDQDefaults");
 	    //  targetClasses.add("DwCSciNameDQ");  // @Parameter sourceAuthority default gbif not implemented here. 
 	    targetClasses.add("DwCSciNameDQDefaults");
-	    targetIssueNumbers = new ArrayList<String>();  // empty=run all tests.
-	    encounteredTests = new HashMap<String,Report>();
+	    targetIssueNumbers = new LinkedHashSet<String>();  // empty=run all tests, hashed as checked for every row.
+	    encounteredTests = new ConcurrentHashMap<String,Report>();
+	    monitor = new TestRunnerMonitor(source, encounteredTests);
 	}
 	
 	/**
-	 * Set the file into which output is to be written.
+	 * Set the file into which output is to be written, opened when runTests starts.
 	 * 
-	 * @param filename into which to write output, must not exist.
+	 * @param filename into which to write output, must not exist, unless resuming 
+	 *   a run, in which case the output of the run is continued.
 	 * @throws IOException if filename exists.
+	 * @see #setResume(boolean)
 	 */
 	public void setOutputFile(String filename) throws IOException {
 		File testOutput = new File(filename);
-		if (testOutput.exists()) { 
+		if (testOutput.exists() && !resume) { 
 			throw new IOException("Specified output file already exists, cannot overwrite");
 		}
-	    outFileWriter = new FileWriter(filename);
+		outputFile = testOutput;
+	}
+	
+	/**
+	 * Write a checkpoint of the state of the run periodically, from which the run can 
+	 * be resumed if it does not complete.  The checkpoint is removed when the run completes.
+	 * 
+	 * @param filename of the checkpoint file, replaced with each checkpoint.
+	 * @param everyRows number of rows of input between checkpoints.
+	 */
+	public void setCheckpoint(String filename, int everyRows) { 
+		checkpointFile = new File(filename);
+		checkpointRows = everyRows;
+	}
+	
+	/**
+	 * Select how the dataIDs run and not run are recorded, trading exactness for memory 
+	 * on very large inputs.
+	 * 
+	 * @param strategy one of BOOKKEEPING_EXACT, BOOKKEEPING_COMPACT, BOOKKEEPING_OFFHEAP, 
+	 *   or BOOKKEEPING_PROBABILISTIC.
+	 * @param expectedRows expected number of rows, used to size compact and probabilistic 
+	 *   bookkeeping.
+	 * @param falsePositiveRate acceptable rate of rows falsely reported as duplicates, for 
+	 *   probabilistic bookkeeping.
+	 * @throws IllegalArgumentException if the strategy is not recognized or the rate is out of range.
+	 */
+	public void setBookkeeping(String strategy, long expectedRows, double falsePositiveRate) { 
+		if (!BOOKKEEPING_STRATEGIES.contains(strategy)) { 
+			throw new IllegalArgumentException("Unknown bookkeeping strategy: " + strategy + ", expected one of " + BOOKKEEPING_STRATEGIES);
+		}
+		if (strategy.equals(BOOKKEEPING_PROBABILISTIC) && (falsePositiveRate <= 0d || falsePositiveRate >= 1d)) { 
+			throw new IllegalArgumentException("False positive rate must be between 0 and 1, exclusive.");
+		}
+		this.bookkeepingStrategy = strategy;
+		this.expectedRows = expectedRows;
+		this.falsePositiveRate = falsePositiveRate;
+	}
+	
+	private DataIDBookkeeping newBookkeeping() { 
+		if (bookkeepingStrategy.equals(BOOKKEEPING_COMPACT)) { 
+			return new CompactBookkeeping(expectedRows, false);
+		} else if (bookkeepingStrategy.equals(BOOKKEEPING_OFFHEAP)) { 
+			return new CompactBookkeeping(expectedRows, true);
+		} else if (bookkeepingStrategy.equals(BOOKKEEPING_PROBABILISTIC)) { 
+			return new ProbabilisticBookkeeping(expectedRows, falsePositiveRate);
+		}
+		return new ExactBookkeeping();
+	}
+	
+	private void closeBookkeeping() { 
+		try {
+			bookkeeping.close();
+		} catch (IOException e) {
+			logger.error(e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * Share instances of the classes containing implementations between invocations, 
+	 * and serialize invocations, according to a classification of the implementations 
+	 * by thread safety, rather than creating a new instance for each invocation.
+	 * 
+	 * @param threadSafety classification written by the ThreadSafetyProbe.
+	 */
+	public void setThreadSafety(ThreadSafetyClassification threadSafety) { 
+		this.threadSafety = threadSafety;
+	}
+	
+	/**
+	 * Run the implementations in a registry, which may be shared with other test runners, 
+	 * rather than loading the classes to run when the run starts.
+	 * 
+	 * @param registry of the implementations to run.
+	 */
+	void setRegistry(ImplementationRegistry registry) { 
+		this.registry = registry;
+	}
+	
+	/**
+	 * Compare results returned by implementations with the expected results using a 
+	 * comparator, for example one allowing a numeric tolerance in amended coordinates.
+	 * 
+	 * @param resultComparator the comparator to use.
+	 */
+	public void setResultComparator(ResultComparator resultComparator) { 
+		this.resultComparator = resultComparator;
+	}
+	
+	/**
+	 * Run the validation data in several worker JVMs, rather than in this JVM, partitioning 
+	 * the rows between them.  Can't be combined with checkpoints or profiling of the slowest 
+	 * invocations.
+	 * 
+	 * @param shards number of worker JVMs, 1 to run in this JVM.
+	 * @param shardBy ShardedRun.SHARD_BY_DATAID or ShardedRun.SHARD_BY_GUID, the column 
+	 *   whose value assigns each row to a shard.
+	 * @throws IllegalArgumentException if shardBy is not recognized.
+	 * @throws IllegalStateException if a failure policy or change impact selection is set.
+	 */
+	public void setShards(int shards, String shardBy) { 
+		if (!ShardedRun.SHARD_BY_DATAID.equals(shardBy) && !ShardedRun.SHARD_BY_GUID.equals(shardBy)) { 
+			throw new IllegalArgumentException("Shard by must be " + ShardedRun.SHARD_BY_DATAID + " or " + ShardedRun.SHARD_BY_GUID + ", not " + shardBy);
+		}
+		if (shards > 1 && (failFast || maxFailures > 0 || maxFailuresPerTest > 0)) { 
+			throw new IllegalStateException("Failure budgets can't be applied to runs in shards.");
+		}
+		if (shards > 1 && previousResults!=null) { 
+			throw new IllegalStateException("Change impact selection can't be applied to runs in shards.");
+		}
+		this.shards = shards;
+		this.shardBy = shardBy;
+	}
+	
+	/**
+	 * Stop the run, or a test, early once it has failed, so that a broken build of the 
+	 * test implementations is rejected without running all the validation data.  Failures 
+	 * are rows with an outcome of FAIL or EXCEPTION.  Once the run is stopped the remaining 
+	 * rows are not run, and rows of a stopped test have an outcome of STOPPED, the summary 
+	 * is written for the rows run.  Can't be combined with shards.
+	 * 
+	 * @param failFast true to stop the run at the first failure.
+	 * @param maxFailures stop the run after this many failures, 0 for no limit.
+	 * @param maxFailuresPerTest stop running the rows for a test after this many failures 
+	 *   of the test, 0 for no limit.
+	 * @throws IllegalStateException if a budget is set for a run in shards.
+	 */
+	public void setFailurePolicy(boolean failFast, int maxFailures, int maxFailuresPerTest) { 
+		if (shards > 1 && (failFast || maxFailures > 0 || maxFailuresPerTest > 0)) { 
+			throw new IllegalStateException("Failure budgets can't be applied to runs in shards.");
+		}
+		this.failFast = failFast;
+		this.maxFailures = maxFailures;
+		this.maxFailuresPerTest = maxFailuresPerTest;
+	}
+	
+	/**
+	 * @return true if the run has been stopped by the failure policy, remaining rows 
+	 *   have an outcome of STOPPED.
+	 * @see #setFailurePolicy(boolean, int, int)
+	 */
+	public boolean isStopped() { 
+		return stopped;
+	}
+	
+	/**
+	 * Keep the latency of each test in a profile file, updated at the end of each completed 
+	 * run, from which sharded runs by GUID assign the slowest tests to shards first.
+	 * 
+	 * @param latencyProfileFile the profile, created if it doesn't exist.
+	 * @see LatencyProfile
+	 */
+	public void setLatencyProfile(File latencyProfileFile) { 
+		this.latencyProfileFile = latencyProfileFile;
+	}
+	
+	/**
+	 * Run only the rows of the tests whose implementation has changed, reporting for the 
+	 * rows of all other tests the result written for their dataID in the output of a 
+	 * previous run, and counting it in the summary as if run.  Rows with no result in the 
+	 * previous output, such as rows added since, are run.  Reused failures are not counted 
+	 * against failure budgets.  Can't be combined with shards.
+	 * 
+	 * @param changedTests GUIDs of the tests to run, as found by ChangeImpactAnalyzer.
+	 * @param previousOutput output of the previous run, read now, so may be the output file.
+	 * @throws IOException if unable to read the previous output.
+	 * @throws IllegalStateException if the run is in shards.
+	 * @see ChangeImpactAnalyzer
+	 */
+	public void setChangeImpact(Set<String> changedTests, File previousOutput) throws IOException { 
+		if (shards > 1) { 
+			throw new IllegalStateException("Change impact selection can't be applied to runs in shards.");
+		}
+		this.changedTests = new HashSet<String>();
+		for (String guid : changedTests) { 
+			this.changedTests.add(ChangeImpactAnalyzer.stripUrn(guid.trim()));
+		}
+		previousOutputFile = previousOutput;
+		previousResults = readPreviousResults(previousOutput);
+	}
+	
+	/**
+	 * Read the result lines for each dataID from the output of a run, with any lines 
+	 * continuing a result, up to the summary.
+	 * 
+	 * @param file output of a run.
+	 * @return outcome and lines by dataID.
+	 * @throws IOException if unable to read the file.
+	 */
+	private static Map<String,String[]> readPreviousResults(File file) throws IOException { 
+		Map<String,String[]> result = new HashMap<String,String[]>();
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		try { 
+			String line;
+			String dataID = null;
+			while ((line = reader.readLine()) != null) { 
+				if (line.startsWith("Ran ") && line.endsWith(" tests against the validation data.")) { 
+					break;
+				}
+				Matcher matcher = RESULT_LINE.matcher(line);
+				if (matcher.find()) { 
+					dataID = matcher.group(1);
+					String outcome = matcher.group(3)!=null ? matcher.group(3) : matcher.group(4);
+					result.put(dataID, new String[] { outcome, line });
+				} else if (line.startsWith("Test already run ") || line.startsWith("Resumed ") || line.startsWith("Stopped after ")) { 
+					dataID = null;
+				} else if (dataID!=null) { 
+					// a comment or exception message containing a line break
+					String[] previous = result.get(dataID);
+					previous[1] = previous[1] + "\n" + line;
+				}
+			}
+		} finally { 
+			reader.close();
+		}
+		logger.debug("Read " + result.size() + " results from " + file.getName());
+		return result;
+	}
+	
+	/**
+	 * Parse validation data read from a file on several threads, splitting the file into 
+	 * chunks at record boundaries, rather than on a single thread.  Can't be combined with 
+	 * checkpoints.
+	 * 
+	 * @param parseThreads number of threads to parse with, 0 to parse on the thread running the tests.
+	 * @see ParallelCSVReader
+	 */
+	public void setParseThreads(int parseThreads) { 
+		this.parseThreads = parseThreads;
+	}
+	
+	/**
+	 * Resume the run from the checkpoint file, if it exists, continuing the output, 
+	 * rather than starting from the beginning of the input.  Resuming requires the 
+	 * validation data to be read from a file.  Must be set before setOutputFile.
+	 * 
+	 * @param resume true to resume from the checkpoint.
+	 * @see #setCheckpoint(String, int)
+	 */
+	public void setResume(boolean resume) { 
+		this.resume = resume;
+	}
+	
+	/**
+	 * Set a writer to which output is to be written, in place of a file, closed 
+	 * when runTests completes.
+	 * 
+	 * @param out to which to write output.
+	 */
+	public void setOutput(Writer out) { 
+		outFileWriter = out;
+	}
+	
+	/**
+	 * Set a file into which the per test latency histograms are to be written
+	 * in HdrHistogram log format, one interval histogram per test tagged with 
+	 * the GUID of the test, for offline comparison of runs (e.g. with HistogramLogAnalyzer).
+	 * 
+	 * @param filename into which to write the latency log, must not exist.
+	 * @throws IOException if filename exists.
+	 */
+	public void setLatencyLogFile(String filename) throws IOException {
+		File latencyLog = new File(filename);
+		if (latencyLog.exists()) { 
+			throw new IOException("Specified latency log file already exists, cannot overwrite");
+		}
+		latencyLogFile = filename;
+	}
+	
+	/**
+	 * Turn on accounting of the bytes allocated and the cpu time used by each invocation 
+	 * of a test implementation, listing the tests which use the most of each in the 
+	 * summary at the end of the output.
+	 * 
+	 * @param topN the number of tests to list by bytes allocated and by cpu time.
+	 */
+	public void setAccounting(int topN) { 
+		accounting = new InvocationAccounting();
+		accountingTopN = topN;
+	}
+	
+	/**
+	 * Turn on profiling of individual invocations, keeping the slowest invocations 
+	 * with the values bound to their parameters, and listing them slowest first at 
+	 * the end of the output.
+	 * 
+	 * @param limit the number of slowest invocations to report.
+	 */
+	public void setSlowestToReport(int limit) { 
+		slowInvocations = new SlowInvocationTracker(limit);
+	}
+	
+	/**
+	 * Obtain the monitor exposing the progress of this test runner, which is registered 
+	 * over JMX while runTests is running.
+	 * 
+	 * @return the monitor for this test runner.
+	 */
+	public TestRunnerMonitor getMonitor() { 
+		return monitor;
 	}
 	
 	/**
@@ -190,154 +622,200 @@ public class TestRunner {
 	 * @return set of strings of supported class names, without paths.
 	 */
 	public Set<String> getSupportedClasses() { 
-		Set<String> supportedClasses = new HashSet<String>();
-		supportedClasses.add("DwCMetadataDQ");
-		supportedClasses.add("DwCMetadataDQDefaults");
-		supportedClasses.add("DwCGeoRefDQ");
-		supportedClasses.add("DwCGeoRefDQDefaults");
-		supportedClasses.add("DwCEventDQ");
-		supportedClasses.add("DwCEventDQDefaults");
-		supportedClasses.add("DwCOtherDateDQ");
-		supportedClasses.add("DwCOtherDateDQDefaults");
-		supportedClasses.add("DwCSciNameDQ");
-		supportedClasses.add("DwCSciNameDQDefaults");
-		return supportedClasses;
+		return new HashSet<String>(ImplementationRegistry.getSupportedClasses().keySet());
 	}
 	
 	/**
-	 * Run the specified tests against the validation data.
+	 * Obtain the classes to search for implementations, in search order, from the 
+	 * list of classes to run, choosing between parameterized and defaults classes.
 	 * 
-	 * @return false
+	 * @param targetClasses list of class names to run, without paths.
+	 * @return list of class names without paths.
 	 */
-	public boolean runTests() {
-		boolean result = false;
-
-		@SuppressWarnings("rawtypes")
-		List<Class> listToRun = new ArrayList<Class>(); 
+	static List<String> getListToRun(List<String> targetClasses) { 
+		List<String> listToRun = new ArrayList<String>(); 
 		if (targetClasses.contains("DwCMetadataDQ")) {
-			listToRun.add(DwCMetadataDQ.class);
+			listToRun.add("DwCMetadataDQ");
 		}
 		if (targetClasses.contains("DwCMetadataDQDefaults")) {
-			listToRun.add(DwCMetadataDQDefaults.class);
+			listToRun.add("DwCMetadataDQDefaults");
 		}
 		if (targetClasses.contains("DwCGeoRefDQ")) {
-			listToRun.add(DwCGeoRefDQ.class);
+			listToRun.add("DwCGeoRefDQ");
 		} else if (targetClasses.contains("DwCGeoRefDQDefaults")) {
-			listToRun.add(DwCGeoRefDQDefaults.class);
+			listToRun.add("DwCGeoRefDQDefaults");
 		}
 		if (targetClasses.contains("DwCEventDQDefaults")) {
-			listToRun.add(DwCEventDQDefaults.class);
+			listToRun.add("DwCEventDQDefaults");
 		} else if (targetClasses.contains("DwCEventDQ")) { 
-			listToRun.add(DwCEventDQ.class);
+			listToRun.add("DwCEventDQ");
 		}
 		if (targetClasses.contains("DwCOtherDateDQ")) {
-			listToRun.add(DwCOtherDateDQ.class);
+			listToRun.add("DwCOtherDateDQ");
 		}
 		if (targetClasses.contains("DwCOtherDateDQDefaults")) {
-			listToRun.add(DwCOtherDateDQDefaults.class);
+			listToRun.add("DwCOtherDateDQDefaults");
 		}		
 		if (targetClasses.contains("DwCSciNameDQDefaults")) {
-			listToRun.add(DwCSciNameDQDefaults.class);
+			listToRun.add("DwCSciNameDQDefaults");
 		} else if (targetClasses.contains("DwCSciNameDQ")) {
-			listToRun.add(DwCSciNameDQ.class);
+			listToRun.add("DwCSciNameDQ");
 		} 
+		return listToRun;
+	}
+	
+	/**
+	 * Prepare to run rows: load and index the test implementations if not already done, 
+	 * deferring class initialization until first use, and clear the record of dataIDs run.
+	 * 
+	 * @throws ClassNotFoundException if a class to run can't be loaded.
+	 */
+	void startRun() throws ClassNotFoundException { 
+		if (registry==null) { 
+			registry = new ImplementationRegistry(getListToRun(targetClasses));
+			registry.setThreadSafety(threadSafety);
+		}
+		if (bookkeeping!=null) { 
+			closeBookkeeping();
+		}
+		bookkeeping = newBookkeeping();
+		dataIDCounter = 0;
+	}
+	
+	/**
+	 * Run the specified tests against the validation data.
+	 * 
+	 * @return false
+	 */
+	public boolean runTests() {
+		boolean result = false;
+		boolean completed = false;
 
-		Set<String> dataIDsRun = new HashSet<String>();
-		Map<String,String> dataIDsNotRun = new HashMap<String,String>();
-		int dataIDCounter = 0;
-
+		monitor.start();
+		ParallelCSVReader parallelReader = null;
 		try {
-
-			outFileWriter.write("Validation Test Data From: " + source);
-			outFileWriter.write("\n");
-			outFileWriter.write(java.time.LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-			outFileWriter.write("\n");
-			outFileWriter.write("Validating Test Implementations In:");
-			outFileWriter.write("\n");
-			Iterator<Class> i = listToRun.iterator();
-			while (i.hasNext()) { 
-				outFileWriter.write(i.next().getName());
-				outFileWriter.write("\n");
+			RunCheckpoint checkpoint = null;
+			if (resume && checkpointFile!=null && checkpointFile.exists()) { 
+				if (inputFile==null) { 
+					throw new IOException("Resuming a run requires validation data from a file.");
+				}
+				checkpoint = RunCheckpoint.read(checkpointFile);
 			}
-			CSVParser records = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(in);
-			Map<String,Integer> header = records.getHeaderMap();
-			for (CSVRecord record : records) {
-				// get a line from the validation spreadsheet
-				dataIDCounter ++;
-				String GUID = record.get("GUID");
-				if (GUID!=null) { 
-					GUID = GUID.trim();
+			if (outFileWriter==null) { 
+				if (outputFile==null) { 
+					outputFile = new File("test_run_output.txt");
 				}
-				String lineNumber = record.get("LineNumber");
-				String dataID = record.get("dataID");
-				String lineForTest = record.get("LineForTest");
-				String gitHubIssueNo = record.get("GitHubIssueNo");
-				String label = record.get("Label");
-				String expectedStatus = record.get("Response.status");
-				String expectedResult = record.get("Response.result");
-				StringBuilder logMessage = new StringBuilder();
-				logMessage.append("Record, dataID=").append(dataID).append(" Issue: ").append(gitHubIssueNo).append(" ").append(label);
-				logger.debug(logMessage);
-
-				boolean runMe = true;
-				if (targetIssueNumbers.size()>0) {
-					if (!targetIssueNumbers.contains(gitHubIssueNo)) { 
-						runMe = false;
-						logger.debug("Skipping #" + gitHubIssueNo +" not in list of target issue numbers");
+				if (checkpoint!=null) { 
+					// discard any output written after the checkpoint, and continue from there
+					RandomAccessFile output = new RandomAccessFile(outputFile, "rw");
+					try { 
+						output.setLength(checkpoint.getOutputLength());
+					} finally { 
+						output.close();
 					}
+					outFileWriter = new FileWriter(outputFile, true);
+				} else { 
+					outFileWriter = new FileWriter(outputFile);
 				}
-				if (dataIDsRun.contains(dataID)) {
-					// if duplicate dataID values exist in the spreadsheet.
-					runMe=false;
-					logger.debug("Test already run (? duplicate dataID in input spreadsheet ?) for "  + dataID + " #" + gitHubIssueNo +  " on line number " + lineNumber );
-					outFileWriter.write("Test already run (? duplicate dataID in input spreadsheet ?) for "  + dataID + " #" + gitHubIssueNo +  " on line number " + lineNumber  + "\n");
+			}
+			startRun();
+			if (checkpoint==null) { 
+				outFileWriter.write("Validation Test Data From: " + source);
+				outFileWriter.write("\n");
+				outFileWriter.write(java.time.LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+				outFileWriter.write("\n");
+				outFileWriter.write("Validating Test Implementations In:");
+				outFileWriter.write("\n");
+				Iterator<Class<?>> i = registry.getClasses().iterator();
+				while (i.hasNext()) { 
+					outFileWriter.write(i.next().getName());
+					outFileWriter.write("\n");
 				}
-				if (runMe) { 
-					// find if a method exists to run the specified test
-					// find the method with the largest number of matched parameters to the validation data
-					Method javaMethod = findBestMethod(listToRun, GUID, record);
-					logger.debug(javaMethod);
-					// run the selected method
-					if (javaMethod!=null) { 
-						dataIDsRun = runMethod(javaMethod, GUID, label, gitHubIssueNo, dataID, record, expectedStatus, expectedResult, dataIDsRun, outFileWriter);
-					}
+			} else { 
+				outFileWriter.write("Resumed " + java.time.LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) 
+						+ " from checkpoint before row " + Long.toString(checkpoint.getRecordNumber()));
+				outFileWriter.write("\n");
+			}
+			long headerStart = System.nanoTime();
+			CSVParser records = null;
+			List<String> header;
+			if (parseThreads > 0) { 
+				if (inputFile==null || checkpointFile!=null) { 
+					throw new IOException("Parsing on several threads requires validation data from a file, and can't be checkpointed.");
 				}
-				if (runMe==true) { 
-					if (! dataIDsRun.contains(dataID)) { 
-						dataIDsNotRun.put(dataID, gitHubIssueNo + " " + label);
+				parallelReader = new ParallelCSVReader(inputFile, parseThreads, ParallelCSVReader.DEFAULT_CHUNK_BYTES);
+			} else if (checkpoint==null) { 
+				records = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(in);
+			} else { 
+				// skip, without parsing, the rows already run
+				long toSkip = checkpoint.getCharacterPosition();
+				while (toSkip > 0) { 
+					long skipped = in.skip(toSkip);
+					if (skipped<=0) { 
+						throw new IOException("Input is shorter than the checkpoint, unable to resume.");
 					}
+					toSkip = toSkip - skipped;
 				}
+				records = new CSVParser(in, CSVFormat.DEFAULT.withHeader(checkpoint.getHeader().toArray(new String[0])), 
+						checkpoint.getCharacterPosition(), checkpoint.getRecordNumber());
+				restore(checkpoint);
 			}
-			Set<String> encKeys = encounteredTests.keySet();
-			outFileWriter.write("Ran " + Integer.toString(encounteredTests.size()) + " tests against the validation data.\n" );
-			Iterator<String> ik = encKeys.iterator();
-			Integer totalCount = 0;
-			while (ik.hasNext()) { 
-				String key = ik.next();
-				//outFileWriter.write(key + " " + Integer.toString(encounteredTests.get(key).getEncountered()) + "\n");
-				outFileWriter.write(key + " " + encounteredTests.get(key).toString() + "\n");
-				totalCount = totalCount + encounteredTests.get(key).getEncountered();
+			if (parallelReader!=null) { 
+				header = parallelReader.getHeader();
+			} else { 
+				header = new ArrayList<String>(records.getHeaderMap().keySet());
 			}
-			outFileWriter.write("Test cases: " + Integer.toString(totalCount) + "\n");
-			Iterator<String> inr = dataIDsNotRun.keySet().iterator();
-			int headersEncountered = 0;
-			while (inr.hasNext()) { 
-				String notRun = inr.next();
-				if (notRun.equals("dataID")) {
-					headersEncountered++;
-					logger.debug("No test found, probably header line: " + notRun + " " + dataIDsNotRun.get(notRun).toString() + "\n");
-				} else { 
-					outFileWriter.write("No test found: " + notRun + " " + dataIDsNotRun.get(notRun).toString() + "\n");
+			long headerNanos = System.nanoTime() - headerStart;
+			outFileWriter.write(String.format("Startup: open input %.3f ms, load classes %.3f ms, discover tests %.3f ms, read header %.3f ms", 
+					openInputNanos/1000000d, registry.getLoadNanos()/1000000d, registry.getDiscoveryNanos()/1000000d, headerNanos/1000000d));
+			outFileWriter.write("\n");
+			Iterator<CSVRecord> recordIterator = parallelReader!=null ? parallelReader : records.iterator();
+			if (shards > 1) { 
+				// failure budgets and change impact selection are rejected by their setters
+				runShards(recordIterator, header);
+			}
+			int rowsSinceCheckpoint = 0;
+			TestEvents.Parse parseEvent = new TestEvents.Parse();
+			parseEvent.begin();
+			while (!stopped && recordIterator.hasNext()) {
+				CSVRecord record = recordIterator.next();
+				if (parallelReader!=null) { 
+					monitor.setQueueDepth(parallelReader.getQueuedRows());
+				}
+				if (checkpointFile!=null && rowsSinceCheckpoint >= checkpointRows) { 
+					writeCheckpoint(header, record);
+					rowsSinceCheckpoint = 0;
+				}
+				rowsSinceCheckpoint++;
+				TestResult testResult = runTest(new CSVDataRecord(record), parseEvent);
+				if (testResult.getMessage()!=null) { 
+					outFileWriter.write(testResult.getMessage());
+					outFileWriter.write("\n");
 				}
+				parseEvent = new TestEvents.Parse();
+				parseEvent.begin();
+			}
+			if (stopped) { 
+				outFileWriter.write("Stopped after " + Integer.toString(failures) + " failures, remaining rows not run.\n");
+			}
+			writeSummary();
+			if (latencyLogFile!=null) { 
+				writeLatencyLog(latencyLogFile);
+			}
+			if (latencyProfileFile!=null) { 
+				LatencyProfile profile = LatencyProfile.read(latencyProfileFile);
+				profile.update(encounteredTests);
+				profile.write(latencyProfileFile);
 			}
-			outFileWriter.write("Total cases with no implementation: " + Integer.toString(dataIDsNotRun.size() - headersEncountered) + "\n");
-			outFileWriter.write("Total dataID validation rows: " + Integer.toString(dataIDCounter) + "\n");
-			outFileWriter.write("Header Lines Skipped: " + Integer.toString(headersEncountered) + "\n");
+			completed = true;
 
 		} catch (FileNotFoundException e) {
 			logger.debug(e.getMessage(), e);
 		} catch (IOException e) {
 			logger.debug(e.getMessage(), e);
+		} catch (UncheckedIOException e) {
+			// from parsing on several threads
+			logger.error(e.getMessage(), e);
 		} catch (InstantiationException e1) {
 			// TODO Auto-generated catch block
 			e1.printStackTrace();
@@ -355,9 +833,32 @@ public class TestRunner {
 		} catch (SecurityException e1) {
 			// TODO Auto-generated catch block
 			e1.printStackTrace();
+		} catch (ClassNotFoundException e1) {
+			logger.error(e1.getMessage(),e1);
+		} catch (InterruptedException e) {
+			logger.error(e.getMessage(),e);
+			Thread.currentThread().interrupt();
 		} 
+		monitor.stop();
+		if (parallelReader!=null) { 
+			try {
+				parallelReader.close();
+			} catch (IOException e) {
+				logger.error(e.getMessage(), e);
+			}
+		}
+		if (bookkeeping!=null && (completed || checkpointFile==null)) { 
+			// keep any spilled bookkeeping that an unfinished run can be resumed from
+			closeBookkeeping();
+		}
 		try {
-			outFileWriter.close();
+			if (outFileWriter!=null) { 
+				outFileWriter.close();
+			}
+			if (completed && checkpointFile!=null) { 
+				// nothing left to resume
+				Files.deleteIfExists(checkpointFile.toPath());
+			}
 		} catch (IOException e) {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
@@ -365,6 +866,527 @@ public class TestRunner {
 		return result;
 	}
 	
+	/**
+	 * Write a checkpoint of the state of the run before a row is run.
+	 * 
+	 * @param header column names of the input.
+	 * @param next the row about to be run.
+	 * @throws IOException if unable to write the checkpoint.
+	 */
+	private void writeCheckpoint(List<String> header, CSVRecord next) throws IOException { 
+		long start = System.nanoTime();
+		outFileWriter.flush();
+		long outputLength = outputFile==null ? -1L : outputFile.length();
+		List<SlowInvocationTracker.SlowInvocation> slowest = new ArrayList<SlowInvocationTracker.SlowInvocation>();
+		if (slowInvocations!=null) { 
+			slowest = slowInvocations.getSlowest();
+		}
+		RunCheckpoint checkpoint = new RunCheckpoint(source, header, next.getCharacterPosition(), next.getRecordNumber(), 
+				dataIDCounter, bookkeeping, encounteredTests, slowest, outputLength, failures, testFailures, stoppedTests, reusedResults);
+		checkpoint.write(checkpointFile);
+		logger.debug(String.format("Checkpoint before row %d in %.3f ms", next.getRecordNumber(), (System.nanoTime()-start)/1000000d));
+	}
+	
+	/**
+	 * Run the remaining rows in worker JVMs, one per shard, writing their results to the 
+	 * output in the order of the input, and merging their reports into this run.
+	 * 
+	 * @param records the rows of the input.
+	 * @param header column names of the input.
+	 * @throws IOException if unable to partition the input, run the workers, or read their results.
+	 * @throws InterruptedException if interrupted waiting for the workers.
+	 */
+	private void runShards(Iterator<CSVRecord> records, List<String> header) throws IOException, InterruptedException { 
+		ShardedRun sharded = new ShardedRun(shards, shardBy, targetClasses, new ArrayList<String>(targetIssueNumbers), 
+				accounting==null ? 0 : accountingTopN, bookkeepingStrategy, expectedRows, falsePositiveRate, 
+				resultComparator.getTolerances());
+		if (latencyProfileFile!=null) { 
+			sharded.setLatencyProfile(LatencyProfile.read(latencyProfileFile));
+		}
+		try { 
+			sharded.partition(records, header);
+			// rows handed to the workers, waiting until their results are merged
+			long queued = sharded.getRowCount();
+			monitor.setQueueDepth((int)Math.min(Integer.MAX_VALUE, queued));
+			sharded.runWorkers();
+			Iterator<TestResult> results = sharded.results();
+			while (results.hasNext()) { 
+				TestResult testResult = results.next();
+				dataIDCounter++;
+				monitor.rowRead();
+				monitor.setQueueDepth((int)Math.min(Integer.MAX_VALUE, --queued));
+				if (testResult.getMessage()!=null) { 
+					outFileWriter.write(testResult.getMessage());
+					outFileWriter.write("\n");
+				}
+				// count the row on the monitor as runTest would have in process
+				switch (testResult.getOutcome()) { 
+				case PASS:
+					monitor.rowExecuted();
+					monitor.pass();
+					break;
+				case FAIL:
+					monitor.rowExecuted();
+					monitor.fail();
+					break;
+				case NOT_COMPARED:
+					monitor.rowExecuted();
+					break;
+				case EXCEPTION:
+					monitor.rowExecuted();
+					monitor.fail();
+					monitor.rowSkipped();
+					break;
+				case SKIPPED:
+				case ERROR:
+					monitor.rowExecuted();
+					monitor.rowSkipped();
+					break;
+				default:
+					monitor.rowSkipped();
+					break;
+				}
+				switch (testResult.getOutcome()) { 
+				case NOT_RUN:
+				case SKIPPED:
+				case EXCEPTION:
+				case ERROR:
+					// as in runTest, rows selected to run for which no implementation completed
+					bookkeeping.markNotRun(testResult.getDataID(), testResult.getGitHubIssueNo() + " " + testResult.getLabel());
+					break;
+				default:
+					break;
+				}
+			}
+			for (Map.Entry<String,Report> entry : sharded.getReports().entrySet()) { 
+				encounteredTests.put(entry.getKey(), entry.getValue());
+			}
+		} finally { 
+			sharded.close();
+		}
+	}
+	
+	/**
+	 * Restore the state of the run from a checkpoint.
+	 * 
+	 * @param checkpoint to restore.
+	 */
+	private void restore(RunCheckpoint checkpoint) { 
+		dataIDCounter = checkpoint.getDataIDCounter();
+		closeBookkeeping();
+		bookkeeping = checkpoint.getBookkeeping();
+		encounteredTests.putAll(checkpoint.getReports());
+		failures = checkpoint.getFailures();
+		testFailures.putAll(checkpoint.getTestFailures());
+		stoppedTests.putAll(checkpoint.getStoppedTests());
+		reusedResults = checkpoint.getReusedResults();
+		if (slowInvocations!=null) { 
+			for (SlowInvocationTracker.SlowInvocation invocation : checkpoint.getSlowest()) { 
+				slowInvocations.offer(invocation);
+			}
+		}
+	}
+	
+	/**
+	 * Run a row of validation data against the implementation of its test, if the test is 
+	 * selected, the dataID has not already been run, and an implementation is found.
+	 * 
+	 * @param record the row of validation data.
+	 * @param parseEvent begun before the row was read, recorded once the row is parsed.
+	 * @return the result of running the row.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 * @throws IllegalArgumentException
+	 * @throws InvocationTargetException
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 */
+	TestResult runTest(DataRecord record, TestEvents.Parse parseEvent) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException { 
+		// get a line from the validation spreadsheet
+		dataIDCounter ++;
+		monitor.rowRead();
+		// select the row on its issue number alone, before reading any other column
+		String gitHubIssueNo = record.get("GitHubIssueNo");
+		boolean runMe = targetIssueNumbers.isEmpty() || targetIssueNumbers.contains(gitHubIssueNo);
+		String GUID = record.get("GUID");
+		if (GUID!=null) { 
+			GUID = GUID.trim();
+		}
+		String lineNumber = record.get("LineNumber");
+		String dataID = record.get("dataID");
+		String label = record.get("Label");
+		// rows supplied by an embedding application may have no expected response
+		String expectedStatus = record.isMapped("Response.status") ? record.get("Response.status") : null;
+		String expectedResult = record.isMapped("Response.result") ? record.get("Response.result") : null;
+		if (logger.isDebugEnabled()) { 
+			StringBuilder logMessage = new StringBuilder();
+			logMessage.append("Record, dataID=").append(dataID).append(" Issue: ").append(gitHubIssueNo).append(" ").append(label);
+			logger.debug(logMessage);
+		}
+		parseEvent.record(GUID, label, gitHubIssueNo, dataID, null, null);
+		TestResult testResult = new TestResult(GUID, label, gitHubIssueNo, dataID, lineNumber);
+		testResult.setExpected(expectedStatus, expectedResult);
+
+		if (!runMe) {
+			testResult.setOutcome(TestResult.Outcome.NOT_SELECTED);
+			if (logger.isDebugEnabled()) { 
+				logger.debug("Skipping #" + gitHubIssueNo +" not in list of target issue numbers");
+			}
+		} else if (stopped || isTestStopped(GUID)) { 
+			runMe = false;
+			testResult.setOutcome(TestResult.Outcome.STOPPED);
+			if (!stopped) { 
+				stoppedTests.merge(GUID, Integer.valueOf(1), Integer::sum);
+			}
+		}
+		if (bookkeeping.isRun(dataID)) {
+			// if duplicate dataID values exist in the spreadsheet.
+			runMe=false;
+			String message = "Test already run (? duplicate dataID in input spreadsheet ?) for "  + dataID + " #" + gitHubIssueNo +  " on line number " + lineNumber;
+			logger.debug(message);
+			testResult.setOutcome(TestResult.Outcome.DUPLICATE);
+			testResult.setMessage(message);
+		}
+		String[] previousResult = null;
+		if (runMe && previousResults!=null && !changedTests.contains(ChangeImpactAnalyzer.stripUrn(GUID))) { 
+			previousResult = previousResults.get(dataID);
+		}
+		if (previousResult!=null) { 
+			// implementation unchanged since the previous run
+			reuseResult(previousResult, GUID, label, gitHubIssueNo, dataID, testResult);
+		} else if (runMe) { 
+			// find if a method exists to run the specified test
+			// find the method with the largest number of matched parameters to the validation data
+			TestEvents.Resolve resolveEvent = new TestEvents.Resolve();
+			resolveEvent.begin();
+			Method javaMethod = findBestMethod(GUID, record);
+			logger.debug(javaMethod);
+			if (javaMethod==null) { 
+				resolveEvent.record(GUID, label, gitHubIssueNo, dataID, null, "NOT_FOUND");
+			} else { 
+				resolveEvent.record(GUID, label, gitHubIssueNo, dataID, javaMethod.getDeclaringClass(), "FOUND");
+			}
+			// run the selected method
+			if (javaMethod!=null) { 
+				monitor.rowExecuted();
+				// parsed once, into canonical form for comparison with amendment results
+				ExpectedResult expected = expectedResult==null ? null : ExpectedResult.parse(expectedResult);
+				runMethod(javaMethod, GUID, label, gitHubIssueNo, dataID, record, expectedStatus, expected, testResult);
+				countFailure(testResult);
+			}
+		}
+		if (runMe==true) { 
+			if (! bookkeeping.isRun(dataID)) { 
+				bookkeeping.markNotRun(dataID, gitHubIssueNo + " " + label);
+				monitor.rowSkipped();
+			}
+		} else { 
+			monitor.rowSkipped();
+		}
+		return testResult;
+	}
+	
+	/**
+	 * @return true if the test has reached its budget of failures, of the rows run.
+	 */
+	private boolean isTestStopped(String GUID) { 
+		if (maxFailuresPerTest <= 0 || GUID==null) { 
+			return false;
+		}
+		Integer testFailureCount = testFailures.get(GUID);
+		return testFailureCount!=null && testFailureCount.intValue() >= maxFailuresPerTest;
+	}
+	
+	/**
+	 * Report the result of a row from the previous run, counting it as runMethod would have.
+	 * 
+	 * @param previousResult outcome and lines of the previous result.
+	 */
+	private void reuseResult(String[] previousResult, String GUID, String label, String gitHubIssueNo, String dataID, TestResult testResult) { 
+		if (!encounteredTests.containsKey(GUID)) { 
+			encounteredTests.put(GUID, new Report(label, gitHubIssueNo));
+		}
+		Report report = encounteredTests.get(GUID);
+		testResult.setMessage(previousResult[1]);
+		String outcome = previousResult[0];
+		if (outcome.equals("Pass")) { 
+			testResult.setOutcome(TestResult.Outcome.PASS);
+			bookkeeping.markRun(dataID);
+			report.incrementPass();
+			monitor.pass();
+		} else if (outcome.equals("Fail")) { 
+			testResult.setOutcome(TestResult.Outcome.FAIL);
+			bookkeeping.markRun(dataID);
+			report.incrementFail();
+			monitor.fail();
+		} else if (outcome.equals("Response")) { 
+			testResult.setOutcome(TestResult.Outcome.NOT_COMPARED);
+			bookkeeping.markRun(dataID);
+			report.incrementEncountered();
+		} else if (outcome.equals("Exception")) { 
+			testResult.setOutcome(TestResult.Outcome.EXCEPTION);
+			report.incrementFail();
+			monitor.fail();
+		} else { 
+			testResult.setOutcome(TestResult.Outcome.SKIPPED);
+			report.incrementEncountered();
+		}
+		reusedResults++;
+	}
+	
+	/**
+	 * Count a failure against the budget of the run, stopping the run if it is reached.
+	 */
+	private synchronized void countFailure(TestResult testResult) { 
+		if (testResult.getOutcome()==TestResult.Outcome.FAIL || testResult.getOutcome()==TestResult.Outcome.EXCEPTION) { 
+			failures++;
+			if (testResult.getGuid()!=null) { 
+				testFailures.merge(testResult.getGuid(), Integer.valueOf(1), Integer::sum);
+			}
+			if (failFast || (maxFailures > 0 && failures >= maxFailures)) { 
+				stopped = true;
+			}
+		}
+	}
+	
+	/**
+	 * Write the counts of results by test, the rows not run, and, if enabled, the 
+	 * accounting and slowest invocations, to the output.
+	 * 
+	 * @throws IOException if unable to write to the output.
+	 */
+	private void writeSummary() throws IOException { 
+		Set<String> encKeys = encounteredTests.keySet();
+		outFileWriter.write("Ran " + Integer.toString(encounteredTests.size()) + " tests against the validation data.\n" );
+		Iterator<String> ik = encKeys.iterator();
+		Integer totalCount = 0;
+		while (ik.hasNext()) { 
+			String key = ik.next();
+			//outFileWriter.write(key + " " + Integer.toString(encounteredTests.get(key).getEncountered()) + "\n");
+			outFileWriter.write(key + " " + encounteredTests.get(key).toString() + "\n");
+			totalCount = totalCount + encounteredTests.get(key).getEncountered();
+		}
+		outFileWriter.write("Test cases: " + Integer.toString(totalCount) + "\n");
+		if (previousResults!=null) { 
+			outFileWriter.write("Reused results of unchanged tests from " + previousOutputFile.getName() + ": " + Integer.toString(reusedResults) + "\n");
+		}
+		for (Map.Entry<String,Integer> entry : stoppedTests.entrySet()) { 
+			Report report = encounteredTests.get(entry.getKey());
+			outFileWriter.write("Stopped after " + Integer.toString(maxFailuresPerTest) + " failures: " + entry.getKey() + " " 
+					+ report.getTestNumber() + " " + report.getTestLabel() + ", rows not run " + entry.getValue().toString() + "\n");
+		}
+		Iterator<Map.Entry<String,String>> inr = bookkeeping.notRunIterator();
+		int headersEncountered = 0;
+		while (inr.hasNext()) { 
+			Map.Entry<String,String> notRun = inr.next();
+			if (notRun.getKey().equals("dataID")) {
+				headersEncountered++;
+				logger.debug("No test found, probably header line: " + notRun.getKey() + " " + notRun.getValue() + "\n");
+			} else { 
+				outFileWriter.write("No test found: " + notRun.getKey() + " " + notRun.getValue() + "\n");
+			}
+		}
+		outFileWriter.write("Total cases with no implementation: " + Long.toString(bookkeeping.getNotRunCount() - headersEncountered) + "\n");
+		outFileWriter.write("Total dataID validation rows: " + Integer.toString(dataIDCounter) + "\n");
+		outFileWriter.write("Header Lines Skipped: " + Integer.toString(headersEncountered) + "\n");
+		Iterator<Map.Entry<Class<?>,Long>> ie = registry.getInitializationNanos().entrySet().iterator();
+		while (ie.hasNext()) { 
+			Map.Entry<Class<?>,Long> entry = ie.next();
+			outFileWriter.write(String.format("Initialized on first use: %s %.3f ms", entry.getKey().getName(), entry.getValue()/1000000d));
+			outFileWriter.write("\n");
+		}
+		if (accounting!=null) { 
+			writeAccountingSummary();
+		}
+		if (slowInvocations!=null) { 
+			outFileWriter.write("Slowest " + Integer.toString(slowInvocations.getLimit()) + " invocations:\n");
+			Iterator<SlowInvocationTracker.SlowInvocation> is = slowInvocations.getSlowest().iterator();
+			int rank = 1;
+			while (is.hasNext()) { 
+				outFileWriter.write(Integer.toString(rank) + ". " + is.next().toString() + "\n");
+				rank++;
+			}
+		}
+	}
+	
+	/**
+	 * Obtain the reports of the tests run so far.
+	 * 
+	 * @return map of test GUID to report.
+	 */
+	public Map<String,Report> getReports() { 
+		return encounteredTests;
+	}
+	
+	/**
+	 * Record the latency, and if accounting or profiling, the resources used and the 
+	 * arguments, of an invocation of a test implementation which has just completed.
+	 * 
+	 * @param GUID of the test
+	 * @param label of the test
+	 * @param gitHubIssueNo of the test
+	 * @param dataID of the row of validation data
+	 * @param paramNames the terms bound to the parameters of the method
+	 * @param paramValues the values bound to the parameters of the method
+	 * @param cost of the invocation, ended here if not ended when the implementation returned
+	 * @param outcome the response status, or a description of an exception
+	 * @return the elapsed time of the invocation in nanoseconds
+	 */
+	private long recordInvocation(String GUID, String label, String gitHubIssueNo, String dataID, 
+			List<String> paramNames, List<String> paramValues, InvocationCost cost, String outcome) { 
+		cost.end();
+		long invocationNanos = cost.getNanos();
+		Report report = encounteredTests.get(GUID);
+		if (accounting!=null) { 
+			report.recordResources(cost.getAllocatedBytes(), cost.getCpuTime());
+		}
+		report.recordLatency(invocationNanos);
+		if (slowInvocations!=null && slowInvocations.isSlowEnough(invocationNanos)) { 
+			List<String> arguments = new ArrayList<String>();
+			for (int i=0; i<paramNames.size() && i<paramValues.size(); i++) { 
+				arguments.add(paramNames.get(i) + "=\"" + paramValues.get(i) + "\"");
+			}
+			slowInvocations.offer(new SlowInvocationTracker.SlowInvocation(GUID, label, gitHubIssueNo, dataID, arguments, invocationNanos, outcome));
+		}
+		return invocationNanos;
+	}
+	
+	/**
+	 * Elapsed time, and if accounting, bytes allocated and cpu time of the current thread, 
+	 * from the start of an invocation of a test implementation to its end, which is taken 
+	 * as soon as the implementation returns, before the runner formats the response, so 
+	 * that the runner's own work isn't counted against the implementation.
+	 */
+	static final class InvocationCost { 
+		private final InvocationAccounting accounting;
+		private final long start;
+		private final long startAllocatedBytes;
+		private final long startCpuTime;
+		private boolean ended = false;
+		private long nanos;
+		private long allocatedBytes;
+		private long cpuTime;
+		
+		/**
+		 * Start an invocation.
+		 * 
+		 * @param accounting from which to take bytes allocated and cpu time, null if not accounting.
+		 */
+		InvocationCost(InvocationAccounting accounting) { 
+			this.accounting = accounting;
+			if (accounting!=null) { 
+				startAllocatedBytes = accounting.currentThreadAllocatedBytes();
+				startCpuTime = accounting.currentThreadCpuTime();
+			} else { 
+				startAllocatedBytes = 0L;
+				startCpuTime = 0L;
+			}
+			start = System.nanoTime();
+		}
+		
+		/**
+		 * End the invocation, if not already ended.
+		 */
+		void end() { 
+			if (!ended) { 
+				nanos = System.nanoTime() - start;
+				if (accounting!=null) { 
+					cpuTime = accounting.currentThreadCpuTime() - startCpuTime;
+					allocatedBytes = accounting.currentThreadAllocatedBytes() - startAllocatedBytes;
+				}
+				ended = true;
+			}
+		}
+		
+		/**
+		 * @return the elapsed time of the invocation in nanoseconds, 0 if not ended.
+		 */
+		long getNanos() { 
+			return nanos;
+		}
+		
+		/**
+		 * @return the bytes allocated by the invocation, 0 if not ended or not accounting.
+		 */
+		long getAllocatedBytes() { 
+			return allocatedBytes;
+		}
+		
+		/**
+		 * @return the cpu time of the invocation in nanoseconds, 0 if not ended or not accounting.
+		 */
+		long getCpuTime() { 
+			return cpuTime;
+		}
+	}
+	
+	/**
+	 * Test if a string is null or contains only whitespace, equivalent to the isEmpty() 
+	 * utility methods of the test libraries, without requiring those libraries to be loaded.
+	 * 
+	 * @param value to test
+	 * @return true if value is null or blank.
+	 */
+	private static boolean isEmpty(String value) { 
+		return value==null || value.trim().length()==0;
+	}
+	
+	/**
+	 * Write the tests with the largest bytes allocated and cpu time to the output.
+	 * 
+	 * @throws IOException if unable to write to the output.
+	 */
+	private void writeAccountingSummary() throws IOException { 
+		outFileWriter.write("Top " + Integer.toString(accountingTopN) + " tests by bytes allocated:\n");
+		Iterator<String> ik = InvocationAccounting.topByAllocatedBytes(encounteredTests, accountingTopN).iterator();
+		while (ik.hasNext()) { 
+			String key = ik.next();
+			Report report = encounteredTests.get(key);
+			long invocations = Math.max(1L, report.getLatency().getTotalCount());
+			outFileWriter.write(String.format("%,16d bytes %,12d bytes/invocation ", report.getAllocatedBytes(), report.getAllocatedBytes()/invocations));
+			outFileWriter.write(key + " " + report.getTestLabel() + " #" + report.getTestNumber() + "\n");
+		}
+		outFileWriter.write("Top " + Integer.toString(accountingTopN) + " tests by cpu time:\n");
+		ik = InvocationAccounting.topByCpuTime(encounteredTests, accountingTopN).iterator();
+		while (ik.hasNext()) { 
+			String key = ik.next();
+			Report report = encounteredTests.get(key);
+			long invocations = Math.max(1L, report.getLatency().getTotalCount());
+			outFileWriter.write(String.format("%,12.3f ms %,10.3f ms/invocation ", report.getCpuTime()/1000000d, report.getCpuTime()/1000000d/invocations));
+			outFileWriter.write(key + " " + report.getTestLabel() + " #" + report.getTestNumber() + "\n");
+		}
+	}
+	
+	/**
+	 * Write the latency histograms of each encountered test to a file in HdrHistogram log format.
+	 * 
+	 * @param filename the file to write.
+	 * @throws IOException if unable to write the file.
+	 */
+	private void writeLatencyLog(String filename) throws IOException { 
+		PrintStream logStream = new PrintStream(new File(filename), "UTF-8");
+		try { 
+			HistogramLogWriter logWriter = new HistogramLogWriter(logStream);
+			long now = System.currentTimeMillis();
+			logWriter.outputLogFormatVersion();
+			logWriter.outputComment("bdqtestrunner invocation latency in nanoseconds, validation data from: " + source);
+			logWriter.outputStartTime(now);
+			logWriter.setBaseTime(now);
+			logWriter.outputLegend();
+			Iterator<String> ik = encounteredTests.keySet().iterator();
+			while (ik.hasNext()) { 
+				String key = ik.next();
+				Histogram latency = encounteredTests.get(key).getLatency().copy();
+				latency.setTag(key);
+				latency.setStartTimeStamp(now);
+				latency.setEndTimeStamp(now);
+				logWriter.outputIntervalHistogram(latency);
+			}
+		} finally { 
+			logStream.close();
+		}
+	}
+	
 	/**
 	 * Given a GUID for a test a list of classes that may contain an implementation, and 
 	 * a data record, return the most appropriate implementation (parameterized, or using 
@@ -372,8 +1394,6 @@ public class TestRunner {
 	 * If the record contains a bdq parameter (e.g. bdq:sourceAuthority) with a value, return
 	 * a method with method parameter with a Provides annotation for that bdq parameter.  
 	 * 
-	 * @param listToRun classes that may contain one or more implementations of the test to 
-	 *   be run.
 	 * @param GUID of the test to be run
 	 * @param record containing data to be run against the test.
 	 * @return the choice of the best implementation of the test to run given the data record.
@@ -384,71 +1404,72 @@ public class TestRunner {
 	 * @throws NoSuchMethodException
 	 * @throws SecurityException
 	 */
-	private Method findBestMethod(List<Class> listToRun, String GUID, CSVRecord record) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
+	private Method findBestMethod(String GUID, DataRecord record) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException {
 		Method match = null;
-		logger.debug("Looking For: [" + GUID + "]");
+		if (logger.isDebugEnabled()) { 
+			logger.debug("Looking For: [" + GUID + "]");
+		}
 		Map<Method,Boolean> potentialMethods = new HashMap<Method,Boolean>();  // method, hasBDQParameterWithData
-		for (Class cls : listToRun) { 
-			logger.debug(cls.getSimpleName());
-			Object instance = cls.getDeclaredConstructor().newInstance();
-			for (Method javaMethod : cls.getMethods()) {
-				int parametersInMethod = 0;
-				int parametersInData = 0;
-				boolean hasBdqParameterWithValue = false;
-				for (Annotation annotation : javaMethod.getAnnotations()) {
-					if (annotation instanceof Provides) {
-						String foundGuid = ((Provides) annotation).value();
-						logger.debug(foundGuid);
-						if (foundGuid.equals(GUID) || "urn:uuid:".concat(GUID).equals(foundGuid)) {
+		// only methods with a Provides annotation for the GUID, from the registry built once per run
+		for (Method javaMethod : registry.getMethods(GUID)) {
+			int parametersInMethod = 0;
+			int parametersInData = 0;
+			boolean hasBdqParameterWithValue = false;
+			for (Annotation annotation : javaMethod.getAnnotations()) {
+				if (annotation instanceof Provides) {
+					String foundGuid = ((Provides) annotation).value();
+					logger.debug(foundGuid);
+					if (foundGuid.equals(GUID) || "urn:uuid:".concat(GUID).equals(foundGuid)) {
+						if (logger.isDebugEnabled()) { 
 							logger.debug("Found implementation for: " + GUID);
 							logger.debug(javaMethod.getDeclaringClass());
 							logger.debug(javaMethod.toGenericString());
-							for (Parameter parameter : javaMethod.getParameters()) {
-								for (Annotation parAnnotation : parameter.getAnnotations()) {
-									if (parAnnotation instanceof ActedUpon ||
-										parAnnotation instanceof Consulted ||
-										parAnnotation instanceof org.datakurator.ffdq.annotations.ActedUpon ||
-										parAnnotation instanceof org.datakurator.ffdq.annotations.Parameter
-									) {
-										parametersInMethod ++;
-									} else { 
-										logger.debug("Unrecognized type: " + parAnnotation.annotationType());
-									}
-									try { 
-										String parValue;
-										if (parAnnotation instanceof ActedUpon) {
-											logger.debug(parAnnotation.toString());
-											parValue = record.get( ((ActedUpon)parAnnotation).value() );
-											parametersInData++;
-											logger.debug(parValue);
-										} else if (parAnnotation instanceof Consulted) {
-											logger.debug(parAnnotation.toString());
-											parValue = record.get( ((Consulted)parAnnotation).value() );
-											parametersInData++;
-										} else if (parAnnotation instanceof org.datakurator.ffdq.annotations.Parameter) { 
-											logger.debug(parAnnotation.toString());
-											try { 
-												parValue = record.get( ((org.datakurator.ffdq.annotations.Parameter)parAnnotation).name() );
-											} catch (IllegalArgumentException exe) {
-												// not all parameters may be in input.  log and assume empty.
-												logger.debug(exe);
-												parValue = "";
-											}
-											parametersInData++;
-											if (!SciNameUtils.isEmpty(parValue)) { 
-												hasBdqParameterWithValue = true;
-											}
+						}
+						for (Parameter parameter : javaMethod.getParameters()) {
+							for (Annotation parAnnotation : parameter.getAnnotations()) {
+								if (parAnnotation instanceof ActedUpon ||
+									parAnnotation instanceof Consulted ||
+									parAnnotation instanceof org.datakurator.ffdq.annotations.ActedUpon ||
+									parAnnotation instanceof org.datakurator.ffdq.annotations.Parameter
+								) {
+									parametersInMethod ++;
+								} else { 
+									logger.debug("Unrecognized type: " + parAnnotation.annotationType());
+								}
+								try { 
+									String parValue;
+									if (parAnnotation instanceof ActedUpon) {
+										logger.debug(parAnnotation.toString());
+										parValue = record.get( ((ActedUpon)parAnnotation).value() );
+										parametersInData++;
+										logger.debug(parValue);
+									} else if (parAnnotation instanceof Consulted) {
+										logger.debug(parAnnotation.toString());
+										parValue = record.get( ((Consulted)parAnnotation).value() );
+										parametersInData++;
+									} else if (parAnnotation instanceof org.datakurator.ffdq.annotations.Parameter) { 
+										logger.debug(parAnnotation.toString());
+										try { 
+											parValue = record.get( ((org.datakurator.ffdq.annotations.Parameter)parAnnotation).name() );
+										} catch (IllegalArgumentException exe) {
+											// not all parameters may be in input.  log and assume empty.
+											logger.debug(exe);
+											parValue = "";
+										}
+										parametersInData++;
+										if (!isEmpty(parValue)) { 
+											hasBdqParameterWithValue = true;
 										}
-									} catch (IllegalArgumentException ex) { 
-										logger.error(ex.getMessage(),ex);
 									}
+								} catch (IllegalArgumentException ex) { 
+									logger.error(ex.getMessage(),ex);
 								}
 							}
-							if (parametersInMethod>0 && parametersInData==parametersInMethod) { 
-								potentialMethods.put(javaMethod, hasBdqParameterWithValue);
-							} else { 
-								logger.debug("Parameter count missmatch");
-							}
+						}
+						if (parametersInMethod>0 && parametersInData==parametersInMethod) { 
+							potentialMethods.put(javaMethod, hasBdqParameterWithValue);
+						} else { 
+							logger.debug("Parameter count missmatch");
 						}
 					}
 				}
@@ -479,37 +1500,43 @@ public class TestRunner {
 	 * @param gitHubIssueNo
 	 * @param dataID
 	 * @param record
-	 * @param expectedStatus
-	 * @param expectedResult
-	 * @param dataIDsRun
-	 * @param outFileWriter
-	 * @return results as a set of string values
+	 * @param expectedStatus null if the row has no expected response
+	 * @param expectedResult parsed expected Response.result, null if the row has an expected 
+	 *   status but no expected result, in which case only the status is compared
+	 * @param testResult to which the response and outcome are added
 	 * @throws InstantiationException
 	 * @throws IllegalAccessException
 	 * @throws IllegalArgumentException
 	 * @throws InvocationTargetException
 	 * @throws NoSuchMethodException
 	 * @throws SecurityException
-	 * @throws IOException
 	 */
-	private Set<String> runMethod (Method javaMethod, String GUID, String label, String gitHubIssueNo, String dataID, CSVRecord record, String expectedStatus, String expectedResult, Set<String> dataIDsRun, FileWriter outFileWriter) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException, IOException { 
+	private void runMethod (Method javaMethod, String GUID, String label, String gitHubIssueNo, String dataID, DataRecord record, String expectedStatus, ExpectedResult expectedResult, TestResult testResult) throws InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, NoSuchMethodException, SecurityException { 
 		Class cls = javaMethod.getDeclaringClass();
-		logger.debug("Running method from: " + cls.getSimpleName());
-		Object instance = cls.getDeclaredConstructor().newInstance();
+		if (logger.isDebugEnabled()) { 
+			logger.debug("Running method from: " + cls.getSimpleName());
+		}
+		Object instance = registry.getInstance(cls);
 		for (Annotation annotation : javaMethod.getAnnotations()) {
 			if (annotation instanceof Provides) {
 				String foundGuid = ((Provides) annotation).value();
 				if (foundGuid.equals(GUID) || "urn:uuid:".concat(GUID).equals(foundGuid)) {
-					logger.debug("Running implementation for: " + GUID);
-					logger.debug(javaMethod.getDeclaringClass());
-					logger.debug(javaMethod.toGenericString());
+					if (logger.isDebugEnabled()) { 
+						logger.debug("Running implementation for: " + GUID);
+						logger.debug(javaMethod.getDeclaringClass());
+						logger.debug(javaMethod.toGenericString());
+					}
+					testResult.setImplementation(cls.getName());
 					// count how many times this test has been run
 					if (!encounteredTests.containsKey(GUID)) { 
 						Report testReport = new Report(label,gitHubIssueNo);
 						encounteredTests.put(GUID, testReport);
 					}
 					// count how many parameters this method takes that also have matches in the input data
+					TestEvents.Bind bindEvent = new TestEvents.Bind();
+					bindEvent.begin();
 					List<String> paramValues = new ArrayList<String>();
+					List<String> paramNames = new ArrayList<String>();
 					for (Parameter parameter : javaMethod.getParameters()) {
 
 						for (Annotation parAnnotation : parameter.getAnnotations()) {
@@ -526,6 +1553,7 @@ public class TestRunner {
 										parValue=new String(Character.toChars('\0'));
 									}														
 									paramValues.add(parValue);
+									paramNames.add(((ActedUpon)parAnnotation).value());
 								} else if (parAnnotation instanceof Consulted) {
 									logger.debug(parAnnotation.toString());
 									parValue = record.get( ((Consulted)parAnnotation).value() );
@@ -538,6 +1566,7 @@ public class TestRunner {
 										parValue=new String(Character.toChars('\0'));
 									}														
 									paramValues.add(parValue);
+									paramNames.add(((Consulted)parAnnotation).value());
 								} else if (parAnnotation instanceof org.datakurator.ffdq.annotations.Parameter) { 
 									logger.debug(parAnnotation.toString());
 									try {
@@ -548,33 +1577,46 @@ public class TestRunner {
 										logger.debug("Set " + ((org.datakurator.ffdq.annotations.Parameter)parAnnotation).name()  + " to Empty.");
 									}
 									logger.debug(parValue);
-									if (SciNameUtils.isEmpty(parValue)) { 
+									if (isEmpty(parValue)) { 
 										parValue=null;
 									}
 									paramValues.add(parValue);
+									paramNames.add(((org.datakurator.ffdq.annotations.Parameter)parAnnotation).name());
 								}
 							} catch (IllegalArgumentException ex) { 
 								logger.error(ex.getMessage(),ex);
 							}
 						}
 					}
+					bindEvent.record(GUID, label, gitHubIssueNo, dataID, cls, Integer.toString(paramValues.size()));
+					TestEvents.Invoke invokeEvent = new TestEvents.Invoke();
+					invokeEvent.begin();
+					Lock invocationLock = registry.getInvocationLock(cls);
+					if (invocationLock!=null) { 
+						invocationLock.lock();
+					}
+					InvocationCost cost = new InvocationCost(accounting);
 					try {
 						String resultStatus = "";
 						String resultValue = "";
+						// terms and values returned by an amendment, compared without regard to order
+						Map<String,String> resultMap = null;
 						String resultComment = "";
 						boolean doComparison = false;
 						if (label.startsWith("VALIDATION_")) { 
 							DQResponse<ComplianceValue> retval = null;
-							logger.debug(paramValues.size());
-							logger.debug(instance.getClass().getSimpleName());
-							logger.debug(javaMethod.toGenericString());
-							logger.debug(javaMethod.getParameterCount());
+							if (logger.isDebugEnabled()) { 
+								logger.debug(paramValues.size());
+								logger.debug(instance.getClass().getSimpleName());
+								logger.debug(javaMethod.toGenericString());
+								logger.debug(javaMethod.getParameterCount());
+							}
 							if (paramValues.size()==1 && javaMethod.getParameterCount()==1) { 
 								retval = (DQResponse<ComplianceValue>)javaMethod.invoke(instance, paramValues.get(0));
 							} else if (paramValues.size()==2 && javaMethod.getParameterCount()==2) { 
 								if (javaMethod.getParameters()[1].getType().equals(SciNameSourceAuthority.class)) {
 									SciNameSourceAuthority replacementParam = new SciNameSourceAuthority();
-									if (DateUtils.isEmpty(paramValues.get(1))) { 
+									if (isEmpty(paramValues.get(1))) { 
 										// pass null as parameter to select default source authority.
 										replacementParam = null;
 									} else {
@@ -648,7 +1690,7 @@ public class TestRunner {
 							} else if (paramValues.size()==11 && javaMethod.getParameterCount()==11) { 
 								if (javaMethod.getParameters()[10].getType().equals(SciNameSourceAuthority.class)) {
 									SciNameSourceAuthority replacementParam = new SciNameSourceAuthority();
-									if (DateUtils.isEmpty(paramValues.get(10))) { 
+									if (isEmpty(paramValues.get(10))) { 
 										// pass null as parameter to select default source authority.
 										replacementParam = null;
 									} else {
@@ -858,6 +1900,7 @@ public class TestRunner {
 							} else { 
 								logger.error("No implementation of invocation with needed number of parameters " + Integer.toString(paramValues.size()) + " for " + GUID );
 							}
+							cost.end();
 							if (retval!=null) { 
 								logger.debug(retval.getResultState().getLabel());
 								resultStatus = retval.getResultState().getLabel();
@@ -871,10 +1914,12 @@ public class TestRunner {
 							}
 						} else if (label.startsWith("ISSUE_")) { 
 							DQResponse<IssueValue> retval = null;
-							logger.debug(paramValues.size());
-							logger.debug(instance.getClass().getSimpleName());
-							logger.debug(javaMethod.toGenericString());
-							logger.debug(javaMethod.getParameterCount());
+							if (logger.isDebugEnabled()) { 
+								logger.debug(paramValues.size());
+								logger.debug(instance.getClass().getSimpleName());
+								logger.debug(javaMethod.toGenericString());
+								logger.debug(javaMethod.getParameterCount());
+							}
 							if (paramValues.size()==1 && javaMethod.getParameterCount()==1) { 
 								retval = (DQResponse<IssueValue>)javaMethod.invoke(instance, paramValues.get(0));
 							} else if (paramValues.size()==2 && javaMethod.getParameterCount()==2) { 
@@ -901,6 +1946,7 @@ public class TestRunner {
 							} else { 
 								logger.error("No implementation of invocation with needed number of parameters " + Integer.toString(paramValues.size()) + " for " + GUID );
 							}
+							cost.end();
 							if (retval!=null) { 
 								logger.debug(retval.getResultState().getLabel());
 								resultStatus = retval.getResultState().getLabel();
@@ -915,10 +1961,12 @@ public class TestRunner {
 						} else if (label.startsWith("AMENDMENT_")) { 
 							try { 
 								DQResponse<AmendmentValue> retval = null;
-								logger.debug(paramValues.size());
-								logger.debug(javaMethod.getDeclaringClass().getSimpleName());
-								logger.debug(javaMethod.toGenericString());
-								logger.debug(javaMethod.getParameterCount());
+								if (logger.isDebugEnabled()) { 
+									logger.debug(paramValues.size());
+									logger.debug(javaMethod.getDeclaringClass().getSimpleName());
+									logger.debug(javaMethod.toGenericString());
+									logger.debug(javaMethod.getParameterCount());
+								}
 								if (paramValues.size()==1 && javaMethod.getParameterCount()==1) { 
 									retval = (DQResponse<AmendmentValue>)javaMethod.invoke(instance, paramValues.get(0));
 								} else if (paramValues.size()==2 && javaMethod.getParameterCount()==2) { 
@@ -926,7 +1974,7 @@ public class TestRunner {
 								} else if (paramValues.size()==3 && javaMethod.getParameterCount()==3) { 
 									if (javaMethod.getParameters()[2].getType().equals(SciNameSourceAuthority.class)) {
 										SciNameSourceAuthority replacementParam = new SciNameSourceAuthority();
-										if (DateUtils.isEmpty(paramValues.get(2))) { 
+										if (isEmpty(paramValues.get(2))) { 
 											// pass null as parameter to select default source authority.
 											replacementParam = null;
 										} else {
@@ -1024,7 +2072,7 @@ public class TestRunner {
 								} else if (paramValues.size()==25 && javaMethod.getParameterCount()==25) { 
 									if (javaMethod.getParameters()[24].getType().equals(SciNameSourceAuthority.class)) {
 										SciNameSourceAuthority replacementParam = new SciNameSourceAuthority();
-										if (DateUtils.isEmpty(paramValues.get(24))) { 
+										if (isEmpty(paramValues.get(24))) { 
 											// pass null as parameter to select default source authority.
 											replacementParam = null;
 										} else {
@@ -1087,7 +2135,7 @@ public class TestRunner {
 								} else if (paramValues.size()==26 && javaMethod.getParameterCount()==26) { 
 									if (javaMethod.getParameters()[25].getType().equals(SciNameSourceAuthority.class)) {
 										SciNameSourceAuthority replacementParam = new SciNameSourceAuthority();
-										if (DateUtils.isEmpty(paramValues.get(25))) { 
+										if (isEmpty(paramValues.get(25))) { 
 											// pass null as parameter to select default source authority.
 											replacementParam = null;
 										} else {
@@ -1152,10 +2200,12 @@ public class TestRunner {
 								} else { 
 									logger.error("No implementation of invocation with needed number of parameters " + Integer.toString(paramValues.size()));
 								}
+								cost.end();
 								if (retval!=null) { 
 									resultStatus = retval.getResultState().getLabel();
 									if (retval.getValue()!=null) { 
 										Map<String,String> obj = retval.getValue().getObject();
+										resultMap = obj;
 										StringBuilder strretval = new StringBuilder("");
 										if (obj.size() > 0) { 
 											strretval.append("{");
@@ -1182,10 +2232,12 @@ public class TestRunner {
 							}
 						} else if (label.startsWith("MEASURE_")) { 
 							// TODO: Handle CompletenessValue and NumericalValue
-							logger.debug(paramValues.size());
-							logger.debug(javaMethod.getDeclaringClass().getSimpleName());
-							logger.debug(javaMethod.toGenericString());
-							logger.debug(javaMethod.getParameterCount());
+							if (logger.isDebugEnabled()) { 
+								logger.debug(paramValues.size());
+								logger.debug(javaMethod.getDeclaringClass().getSimpleName());
+								logger.debug(javaMethod.toGenericString());
+								logger.debug(javaMethod.getParameterCount());
+							}
 							DQResponse<ResultValue> retval = null;
 							if (paramValues.size()==1 && javaMethod.getParameterCount()==1) { 
 								retval = (DQResponse<ResultValue>)javaMethod.invoke(instance, paramValues.get(0));
@@ -1194,6 +2246,7 @@ public class TestRunner {
 							} else { 
 								logger.error("No implementation of invocation with needed number of parameters " + Integer.toString(paramValues.size()));
 							}
+							cost.end();
 							if (retval!=null) { 	
 								resultStatus = retval.getResultState().getLabel();
 								if (retval.getValue()==null) { 
@@ -1209,18 +2262,38 @@ public class TestRunner {
 								doComparison = true;
 							} 
 						}
-						if (dataIDsRun.contains(dataID)) { 
+						if (doComparison) { 
+							// an implementation was invoked and returned a response
+							testResult.setDurationNanos(recordInvocation(GUID, label, gitHubIssueNo, dataID, paramNames, paramValues, cost, resultStatus));
+							testResult.setResponse(resultStatus, resultValue, resultComment);
+							invokeEvent.record(GUID, label, gitHubIssueNo, dataID, cls, resultStatus);
+						} else { 
+							invokeEvent.record(GUID, label, gitHubIssueNo, dataID, cls, "NO_RESPONSE");
+						}
+						if (bookkeeping.isRun(dataID)) { 
 							doComparison=false;
 						}
-						if (doComparison) { 
-							boolean sameResultValue = false;
-							if (!expectedResult.equals(resultValue))  {
+						TestEvents.Compare compareEvent = new TestEvents.Compare();
+						compareEvent.begin();
+						if (doComparison && expectedStatus==null) { 
+							StringBuilder message = new StringBuilder()
+									.append(dataID)
+									.append(" #").append(gitHubIssueNo)
+									.append(" Response ").append(resultStatus)
+									.append(" ").append(resultValue)
+									.append(" ").append(resultComment);
+							logger.debug(message);
+							testResult.setMessage(message.toString());
+							testResult.setOutcome(TestResult.Outcome.NOT_COMPARED);
+							bookkeeping.markRun(dataID);
+							encounteredTests.get(GUID).incrementEncountered();
+							compareEvent.record(GUID, label, gitHubIssueNo, dataID, cls, "NOT_COMPARED");
+						} else if (doComparison) { 
+							// a row supplied without Response.result is compared on its status alone
+							boolean sameResultValue = expectedResult==null || resultComparator.matches(expectedResult, resultValue, resultMap);
+							if (!sameResultValue)  {
 								logger.debug(expectedResult);
 								logger.debug(resultValue);
-								// TODO: Handle different order of terms in amendment results.
-								// split and compare list
-							} else { 
-								sameResultValue=true;
 							}
 							if (expectedStatus.equals(resultStatus) && (
 									expectedStatus.equals("INTERNAL_PREREQUISITES_NOT_MET") || 
@@ -1232,10 +2305,12 @@ public class TestRunner {
 										.append(" #").append(gitHubIssueNo)
 										.append(" Pass");
 								logger.debug(message);
-								outFileWriter.write(message.toString());
-								outFileWriter.write("\n");
-								dataIDsRun.add(dataID);
+								testResult.setMessage(message.toString());
+								testResult.setOutcome(TestResult.Outcome.PASS);
+								bookkeeping.markRun(dataID);
 								encounteredTests.get(GUID).incrementPass();
+								monitor.pass();
+								compareEvent.record(GUID, label, gitHubIssueNo, dataID, cls, "PASS");
 							} else { 
 								StringBuilder message = new StringBuilder()
 										.append(dataID)
@@ -1252,10 +2327,12 @@ public class TestRunner {
 								logger.debug(resultValue);
 								logger.debug(resultComment);
 								logger.debug(message);
-								outFileWriter.write(message.toString());
-								outFileWriter.write("\n");
-								dataIDsRun.add(dataID);
+								testResult.setMessage(message.toString());
+								testResult.setOutcome(TestResult.Outcome.FAIL);
+								bookkeeping.markRun(dataID);
 								encounteredTests.get(GUID).incrementFail();
+								monitor.fail();
+								compareEvent.record(GUID, label, gitHubIssueNo, dataID, cls, "FAIL");
 							}
 						} else { 
 							StringBuilder message = new StringBuilder()
@@ -1263,15 +2340,18 @@ public class TestRunner {
 									.append(" #").append(gitHubIssueNo)
 									.append(" Skipped ").append("Type not found.").append("[").append(label).append("]:");
 							logger.debug(message);
-							if (dataIDsRun.contains(dataID)) {  
+							if (bookkeeping.isRun(dataID)) {  
 								logger.debug("An implementation already run.");
 							} else {
-								outFileWriter.write(message.toString());
-								outFileWriter.write("\n");
+								testResult.setMessage(message.toString());
+								testResult.setOutcome(TestResult.Outcome.SKIPPED);
 								encounteredTests.get(GUID).incrementEncountered();;
 							}
+							compareEvent.record(GUID, label, gitHubIssueNo, dataID, cls, "SKIPPED");
 						}
 					} catch ( InvocationTargetException ex) { 
+						testResult.setDurationNanos(recordInvocation(GUID, label, gitHubIssueNo, dataID, paramNames, paramValues, cost, "EXCEPTION " + ex.getCause()));
+						invokeEvent.record(GUID, label, gitHubIssueNo, dataID, cls, "EXCEPTION");
 						// such as same number of parameters, but different data types.
 						logger.debug(ex);
 						logger.debug(ex.getMessage());
@@ -1284,18 +2364,27 @@ public class TestRunner {
 								.append(dataID)
 								.append(" #").append(gitHubIssueNo)
 								.append("Exception: ").append(errorMessage);
-						outFileWriter.write(message.toString());
-						outFileWriter.write("\n");
+						testResult.setMessage(message.toString());
+						testResult.setOutcome(TestResult.Outcome.EXCEPTION);
+						testResult.setComment(errorMessage);
 						encounteredTests.get(GUID).incrementFail();
+						monitor.fail();
 					} catch ( IllegalAccessException | IllegalArgumentException e) { 
 						logger.error(e.getMessage(), e);
+						testResult.setOutcome(TestResult.Outcome.ERROR);
+						testResult.setComment(e.getMessage());
 					} catch (SourceAuthorityException e) {
 						logger.error(e.getMessage(),e);
+						testResult.setOutcome(TestResult.Outcome.ERROR);
+						testResult.setComment(e.getMessage());
+					} finally { 
+						if (invocationLock!=null) { 
+							invocationLock.unlock();
+						}
 					}
 				}
 			}
 		}
-		return dataIDsRun;
 	}
 	
 }
@@ -0,0 +1,223 @@
+/**
+ * TestRunnerMonitor.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.lang.management.ManagementFactory;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Counters for the progress of a test run, registered as an MXBean with the 
+ * platform MBean server under org.filteredpush.qc.bdqtestrunner:type=TestRunner 
+ * while the run is in progress.
+ *
+ */
+public class TestRunnerMonitor implements TestRunnerMonitorMXBean {
+
+	private static final Log logger = LogFactory.getLog(TestRunnerMonitor.class);
+	
+	private static final AtomicInteger instanceCounter = new AtomicInteger(0);
+	
+	/** Minimum interval over which the current rate of rows read is sampled. */
+	private static final long RATE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+	
+	private final String source;
+	
+	private final Map<String,Report> reports;
+	
+	private final AtomicLong rowsRead = new AtomicLong();
+	private final AtomicLong rowsExecuted = new AtomicLong();
+	private final AtomicLong rowsSkipped = new AtomicLong();
+	private final AtomicLong passTotal = new AtomicLong();
+	private final AtomicLong failTotal = new AtomicLong();
+	private final AtomicInteger queueDepth = new AtomicInteger();
+	
+	private volatile boolean running;
+	private volatile double rowsPerSecond;
+	private long rateWindowStart;
+	private long rateWindowRows;
+	
+	private ObjectName objectName;
+	
+	/**
+	 * Construct a monitor for a run.
+	 * 
+	 * @param source the source of the validation data
+	 * @param reports the reports by test GUID maintained by the run, must be safe for 
+	 *   concurrent reads while the run adds to it.
+	 */
+	public TestRunnerMonitor(String source, Map<String,Report> reports) { 
+		this.source = source;
+		this.reports = reports;
+	}
+	
+	/**
+	 * Mark the run as started and register this monitor with the platform MBean server, 
+	 * failure to register is logged and does not stop the run.
+	 */
+	public void start() { 
+		running = true;
+		rateWindowStart = System.nanoTime();
+		rateWindowRows = 0;
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			objectName = new ObjectName("org.filteredpush.qc.bdqtestrunner:type=TestRunner,id=" + instanceCounter.incrementAndGet());
+			server.registerMBean(this, objectName);
+			logger.debug("Registered " + objectName);
+		} catch (JMException | SecurityException e) {
+			logger.debug(e.getMessage(), e);
+			objectName = null;
+		}
+	}
+	
+	/**
+	 * Mark the run as finished and unregister this monitor.
+	 */
+	public void stop() { 
+		running = false;
+		if (objectName!=null) { 
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+			} catch (JMException | SecurityException e) {
+				logger.debug(e.getMessage(), e);
+			}
+			objectName = null;
+		}
+	}
+	
+	/**
+	 * Count a row read from the input and update the current rate.
+	 */
+	public void rowRead() { 
+		long rows = rowsRead.incrementAndGet();
+		long now = System.nanoTime();
+		if (now - rateWindowStart >= RATE_INTERVAL_NANOS) { 
+			rowsPerSecond = (rows - rateWindowRows) * (double)TimeUnit.SECONDS.toNanos(1) / (now - rateWindowStart);
+			rateWindowStart = now;
+			rateWindowRows = rows;
+		}
+	}
+	
+	/**
+	 * Count a row for which an implementation was run.
+	 */
+	public void rowExecuted() { 
+		rowsExecuted.incrementAndGet();
+	}
+	
+	/**
+	 * Count a row which was not run.
+	 */
+	public void rowSkipped() { 
+		rowsSkipped.incrementAndGet();
+	}
+	
+	/**
+	 * Count a passing test.
+	 */
+	public void pass() { 
+		passTotal.incrementAndGet();
+	}
+	
+	/**
+	 * Count a failing test.
+	 */
+	public void fail() { 
+		failTotal.incrementAndGet();
+	}
+	
+	/**
+	 * @param depth the number of rows read ahead and waiting to be run, parsed ahead with 
+	 *   several parser threads or handed to shard workers, or in server mode, the number 
+	 *   of requests waiting for a thread.
+	 */
+	public void setQueueDepth(int depth) { 
+		queueDepth.set(depth);
+	}
+
+	@Override
+	public String getSource() {
+		return source;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	@Override
+	public long getRowsRead() {
+		return rowsRead.get();
+	}
+
+	@Override
+	public long getRowsExecuted() {
+		return rowsExecuted.get();
+	}
+
+	@Override
+	public long getRowsSkipped() {
+		return rowsSkipped.get();
+	}
+
+	@Override
+	public long getPassTotal() {
+		return passTotal.get();
+	}
+
+	@Override
+	public long getFailTotal() {
+		return failTotal.get();
+	}
+
+	@Override
+	public double getRowsPerSecond() {
+		return rowsPerSecond;
+	}
+
+	@Override
+	public int getQueueDepth() {
+		return queueDepth.get();
+	}
+
+	@Override
+	public Map<String, String> getReports() {
+		Map<String,String> result = new TreeMap<String,String>();
+		Iterator<String> i = reports.keySet().iterator();
+		while (i.hasNext()) { 
+			String key = i.next();
+			Report report = reports.get(key);
+			if (report!=null) { 
+				result.put(key, report.toString());
+			}
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,82 @@
+/**
+ * TestRunnerMonitorMXBean.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.util.Map;
+
+/**
+ * Management interface exposing the progress of a test run over JMX, for 
+ * watching long running validation jobs with JConsole, VisualVM, or a JMX scraper.
+ *
+ */
+public interface TestRunnerMonitorMXBean {
+
+	/**
+	 * @return the source of the validation data being run.
+	 */
+	public String getSource();
+	
+	/**
+	 * @return true while the run is in progress.
+	 */
+	public boolean isRunning();
+	
+	/**
+	 * @return the number of rows read from the input.
+	 */
+	public long getRowsRead();
+	
+	/**
+	 * @return the number of rows for which an implementation of the test was run.
+	 */
+	public long getRowsExecuted();
+	
+	/**
+	 * @return the number of rows not run, either excluded from the run, duplicates, or 
+	 * lacking an implementation.
+	 */
+	public long getRowsSkipped();
+	
+	/**
+	 * @return the total number of rows where the test passed.
+	 */
+	public long getPassTotal();
+	
+	/**
+	 * @return the total number of rows where the test failed.
+	 */
+	public long getFailTotal();
+	
+	/**
+	 * @return the rate at which rows have been read over the most recent sampling interval.
+	 */
+	public double getRowsPerSecond();
+	
+	/**
+	 * @return the number of rows parsed ahead on several threads (--parseThreads) or handed 
+	 *   to shard workers (--shards) and not yet run, or in server mode the number of requests 
+	 *   waiting for a thread, zero otherwise.
+	 */
+	public int getQueueDepth();
+	
+	/**
+	 * @return a snapshot of the report for each test encountered so far, keyed by test GUID.
+	 */
+	public Map<String,String> getReports();
+	
+}
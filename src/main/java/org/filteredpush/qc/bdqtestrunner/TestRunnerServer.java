@@ -0,0 +1,273 @@
+/**
+ * TestRunnerServer.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Long running local HTTP server keeping the test implementations loaded, initialized,
+ * and compiled between validation jobs, so that each job runs on warmed code rather
+ * than paying for class loading, library static data, and JIT compilation in a new JVM.
+ *
+ * POST a validation CSV, with a header row, to /validate, optionally with a
+ * gitHubIssues=61,76 query parameter to select tests, and the result of each row is
+ * streamed back as a line of JSON (application/x-ndjson) as it completes.  Concurrent
+ * requests are run on a pool of threads, each with its own bookkeeping of dataIDs,
+ * sharing one registry of implementations.  Unless the registry has a classification
+ * of the implementations by thread safety, invocations of each class are serialized,
+ * so requests only run tests of the same class concurrently once classified.
+ *
+ * The server only listens on the loopback interface.
+ *
+ */
+public class TestRunnerServer {
+
+	private static final Log logger = LogFactory.getLog(TestRunnerServer.class);
+
+	/**
+	 * Default classes containing implementations, as used by TestRunner.
+	 */
+	public static final List<String> DEFAULT_CLASSES = Arrays.asList("DwCMetadataDQDefaults","DwCGeoRefDQDefaults","DwCEventDQDefaults","DwCOtherDateDQDefaults","DwCSciNameDQDefaults");
+
+	private final ImplementationRegistry registry;
+
+	private final HttpServer server;
+
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * Construct a server, not yet started.
+	 *
+	 * @param registry of the implementations to run, shared by all requests.
+	 * @param port on which to listen on the loopback interface.
+	 * @param threads the number of requests to run concurrently.
+	 * @throws IOException if unable to bind to the port.
+	 */
+	public TestRunnerServer(ImplementationRegistry registry, int port, int threads) throws IOException {
+		this.registry = registry;
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		server.createContext("/validate", new ValidateHandler());
+		executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>());
+		server.setExecutor(executor);
+	}
+
+	/**
+	 * Run the rows in a validation data file, discarding the results, to initialize the
+	 * test libraries and give the JIT compiler a workload before serving requests.
+	 *
+	 * @param warmupFile validation data file.
+	 * @param iterations number of times to run the file.
+	 * @throws IOException if unable to read the file.
+	 * @throws ClassNotFoundException if a class to run can't be loaded.
+	 */
+	public void warmUp(File warmupFile, int iterations) throws IOException, ClassNotFoundException {
+		// read once, holding only the non-empty cells of each row, and run from memory
+		List<DataRecord> records;
+		Reader in = new BufferedReader(new InputStreamReader(new FileInputStream(warmupFile), StandardCharsets.UTF_8));
+		try {
+			records = new RowDictionary().read(in);
+		} finally {
+			in.close();
+		}
+		for (int i=0; i<iterations; i++) {
+			long start = System.nanoTime();
+			StreamingTestRunner runner = new StreamingTestRunner(registry);
+			final int[] count = new int[1];
+			runner.runRecords(records.iterator(), result -> count[0]++);
+			logger.info(String.format("Warm up %d: %d rows in %.3f ms", i+1, count[0], (System.nanoTime()-start)/1000000d));
+		}
+	}
+
+	/**
+	 * Start accepting requests.
+	 */
+	public void start() {
+		server.start();
+		logger.info("Listening on " + server.getAddress());
+	}
+
+	/**
+	 * Stop accepting requests, allowing requests in progress up to delaySeconds to complete.
+	 *
+	 * @param delaySeconds maximum time to wait for requests in progress.
+	 */
+	public void stop(int delaySeconds) {
+		server.stop(delaySeconds);
+		executor.shutdown();
+	}
+
+	/**
+	 * @return the address the server is listening on.
+	 */
+	public InetSocketAddress getAddress() {
+		return server.getAddress();
+	}
+
+	/**
+	 * Runs the rows of a posted validation CSV, streaming a JSON line for each result.
+	 */
+	private class ValidateHandler implements HttpHandler {
+
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			try {
+				if (!"POST".equals(exchange.getRequestMethod())) {
+					exchange.getResponseHeaders().add("Allow", "POST");
+					exchange.sendResponseHeaders(405, -1);
+					return;
+				}
+				StreamingTestRunner runner = new StreamingTestRunner(registry);
+				List<String> issues = getIssues(exchange.getRequestURI().getRawQuery());
+				if (!issues.isEmpty()) {
+					runner.setIssuesToRun(issues);
+				}
+				Reader in = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8));
+				CSVParser records = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(in);
+				exchange.getResponseHeaders().add("Content-Type", "application/x-ndjson; charset=utf-8");
+				// length 0, chunked, so each result is sent as it completes
+				exchange.sendResponseHeaders(200, 0);
+				final Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8));
+				try {
+					runner.runRecords(new CSVDataRecordIterator(records.iterator()), result -> {
+						try {
+							out.write(result.toJson());
+							out.write("\n");
+							runner.getMonitor().setQueueDepth(executor.getQueue().size());
+						} catch (IOException e) {
+							throw new UncheckedIOException(e);
+						}
+					});
+				} catch (UncheckedIOException e) {
+					// client went away, stop running its rows
+					logger.debug(e.getMessage(), e);
+				} finally {
+					out.close();
+				}
+			} catch (ClassNotFoundException | RuntimeException e) {
+				logger.error(e.getMessage(), e);
+				if (exchange.getResponseCode()==-1) {
+					// response not yet started
+					exchange.sendResponseHeaders(500, -1);
+				}
+			} finally {
+				exchange.close();
+			}
+		}
+	}
+
+	/**
+	 * Obtain the issue numbers from a gitHubIssues=61,76 query parameter.
+	 *
+	 * @param rawQuery query string of a request, may be null.
+	 * @return list of issue numbers, empty if none specified.
+	 */
+	static List<String> getIssues(String rawQuery) throws IOException {
+		List<String> result = new ArrayList<String>();
+		if (rawQuery!=null) {
+			for (String pair : rawQuery.split("&")) {
+				if (pair.startsWith("gitHubIssues=")) {
+					String value = URLDecoder.decode(pair.substring("gitHubIssues=".length()), "UTF-8");
+					for (String issue : value.split(",")) {
+						if (issue.trim().length()>0) {
+							result.add(issue.trim());
+						}
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Adapts an iterator over parsed CSV records to DataRecords.
+	 */
+	private static class CSVDataRecordIterator implements Iterator<DataRecord> {
+		private final Iterator<CSVRecord> records;
+
+		CSVDataRecordIterator(Iterator<CSVRecord> records) {
+			this.records = records;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return records.hasNext();
+		}
+
+		@Override
+		public DataRecord next() {
+			return new CSVDataRecord(records.next());
+		}
+	}
+
+	/**
+	 * Start a server for the specified classes.
+	 *
+	 * @param classNames list of supported class names, without paths, of which, as for 
+	 *   TestRunner, a parameterized or defaults class is chosen where both are listed.
+	 * @param port on which to listen on the loopback interface.
+	 * @param threads the number of requests to run concurrently.
+	 * @param warmupFile validation data to run before serving requests, may be null.
+	 * @param threadSafety classification of the implementations by thread safety, used to 
+	 *   share instances between concurrent requests, may be null to use a new instance for 
+	 *   each invocation and serialize the invocations of each class.
+	 * @return the started server.
+	 * @throws IOException if unable to bind to the port or read the warm up file.
+	 * @throws ClassNotFoundException if a class is unsupported or can't be loaded.
+	 */
+	public static TestRunnerServer start(List<String> classNames, int port, int threads, File warmupFile, ThreadSafetyClassification threadSafety) throws IOException, ClassNotFoundException {
+		ImplementationRegistry registry = new ImplementationRegistry(TestRunner.getListToRun(classNames));
+		registry.setThreadSafety(threadSafety);
+		TestRunnerServer result = new TestRunnerServer(registry, port, threads);
+		if (warmupFile!=null) {
+			result.warmUp(warmupFile, 3);
+		}
+		result.start();
+		return result;
+	}
+
+}
@@ -0,0 +1,250 @@
+/**
+ * ThreadSafetyClassification.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * Classification of test implementations by how they may be invoked concurrently,
+ * for each class containing implementations and for each test GUID, as found by the
+ * ThreadSafetyProbe, from which concurrent runs choose how to share instances.
+ *
+ * The classification of a class is the most restrictive of its tests, except that a
+ * class is SERIAL if any of its tests was classified PER_CALL, having no repeatable
+ * results from which to judge its safety, or if any of its implementations was not
+ * probed, as the probe can't speak for implementations it didn't invoke.  A class with
+ * no classification at all is likewise SERIAL.
+ *
+ * Stored as CSV with columns class, GUID (empty for the classification of the class as
+ * a whole), policy, invocations, sharedMismatches, and separateMismatches.
+ *
+ */
+public class ThreadSafetyClassification {
+
+	/**
+	 * How instances of a class containing implementations may be used concurrently,
+	 * from least to most restrictive.
+	 */
+	public enum Policy {
+		/** One instance may be invoked from all threads at once. */
+		SHARED,
+		/** Each thread needs its own instance. */
+		PER_THREAD,
+		/** A new instance for each invocation. */
+		PER_CALL,
+		/** Invocations must not overlap at all, e.g. the implementation uses static state. */
+		SERIAL;
+
+		/**
+		 * @param other policy to compare with.
+		 * @return the more restrictive of this policy and other.
+		 */
+		public Policy max(Policy other) {
+			return other.ordinal() > ordinal() ? other : this;
+		}
+	}
+
+	private static final String[] HEADER = { "class", "GUID", "policy", "invocations", "sharedMismatches", "separateMismatches" };
+
+	private final Map<String,Policy> classPolicies = new TreeMap<String,Policy>();
+
+	private final Map<String,Policy> guidPolicies = new TreeMap<String,Policy>();
+
+	private final Map<String,String> guidClasses = new TreeMap<String,String>();
+
+	private final Map<String,long[]> guidCounts = new TreeMap<String,long[]>();
+
+	/** Number of implementations of each GUID in each class, and of those probed. */
+	private final Map<String,Map<String,int[]>> implementations = new HashMap<String,Map<String,int[]>>();
+
+	/**
+	 * Record an implementation of a test in a class, which must be probed, with put, for
+	 * the class to be classified as anything less restrictive than SERIAL.
+	 *
+	 * @param className name of the class containing the implementation.
+	 * @param guid of the test, as given in the Provides annotation.
+	 */
+	public void addImplementation(String className, String guid) {
+		implementationCounts(className, guid)[0]++;
+	}
+
+	private int[] implementationCounts(String className, String guid) {
+		Map<String,int[]> counts = implementations.get(className);
+		if (counts==null) {
+			counts = new HashMap<String,int[]>();
+			implementations.put(className, counts);
+		}
+		String key = ChangeImpactAnalyzer.stripUrn(guid);
+		int[] result = counts.get(key);
+		if (result==null) {
+			result = new int[2];
+			counts.put(key, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Record the classification of a probed implementation of a test, also making the
+	 * classification of its class at least as restrictive.
+	 *
+	 * @param className name of the class containing the implementation.
+	 * @param guid of the test.
+	 * @param policy found for the test.
+	 * @param invocations number of concurrent invocations compared.
+	 * @param sharedMismatches invocations on a shared instance differing from the sequential result.
+	 * @param separateMismatches invocations on separate instances differing from the sequential result.
+	 */
+	public void put(String className, String guid, Policy policy, long invocations, long sharedMismatches, long separateMismatches) {
+		Policy guidPolicy = guidPolicies.get(guid);
+		guidPolicies.put(guid, guidPolicy==null ? policy : guidPolicy.max(policy));
+		guidClasses.put(guid, className);
+		long[] counts = guidCounts.get(guid);
+		if (counts==null) {
+			guidCounts.put(guid, new long[] { invocations, sharedMismatches, separateMismatches });
+		} else {
+			counts[0] += invocations;
+			counts[1] += sharedMismatches;
+			counts[2] += separateMismatches;
+		}
+		implementationCounts(className, guid)[1]++;
+		// a new instance for each call is no protection against static state
+		Policy restriction = policy==Policy.PER_CALL ? Policy.SERIAL : policy;
+		Policy classPolicy = classPolicies.get(className);
+		classPolicies.put(className, classPolicy==null ? restriction : classPolicy.max(restriction));
+	}
+
+	/**
+	 * @param cls class containing implementations.
+	 * @return the policy for instances of the class, SERIAL if not classified.
+	 */
+	public Policy getClassPolicy(Class<?> cls) {
+		Policy result = getClassPolicy(cls.getName());
+		return result==null ? Policy.SERIAL : result;
+	}
+
+	/**
+	 * @return the policy for the class, SERIAL if any implementation recorded for it was
+	 *   not probed, including a class none of whose implementations were probed, null if 
+	 *   not classified.
+	 */
+	private Policy getClassPolicy(String className) {
+		Policy result = classPolicies.get(className);
+		if (implementations.containsKey(className)) {
+			for (int[] counts : implementations.get(className).values()) {
+				if (counts[1] < counts[0]) {
+					return Policy.SERIAL;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Write the classification as CSV.
+	 *
+	 * @param out to write to, not closed.
+	 * @throws IOException on failure to write.
+	 */
+	public void write(Writer out) throws IOException {
+		CSVPrinter printer = new CSVPrinter(out, CSVFormat.DEFAULT.withHeader(HEADER));
+		Set<String> classNames = new TreeSet<String>(classPolicies.keySet());
+		classNames.addAll(implementations.keySet());
+		for (String className : classNames) {
+			printer.printRecord(className, "", getClassPolicy(className).name(), "", "", "");
+		}
+		for (Map.Entry<String,Policy> entry : guidPolicies.entrySet()) {
+			long[] counts = guidCounts.get(entry.getKey());
+			printer.printRecord(guidClasses.get(entry.getKey()), entry.getKey(), entry.getValue().name(),
+					counts[0], counts[1], counts[2]);
+		}
+		printer.flush();
+	}
+
+	/**
+	 * Write the classification to a file.
+	 *
+	 * @param file to write, replaced if it exists.
+	 * @throws IOException on failure to write.
+	 */
+	public void write(File file) throws IOException {
+		Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8);
+		try {
+			write(out);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Read a classification written by write.
+	 *
+	 * @param file to read.
+	 * @return the classification.
+	 * @throws IOException on failure to read, or an unrecognized policy.
+	 */
+	public static ThreadSafetyClassification read(File file) throws IOException {
+		ThreadSafetyClassification result = new ThreadSafetyClassification();
+		Reader in = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8);
+		try {
+			CSVParser records = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(in);
+			for (CSVRecord record : records) {
+				Policy policy;
+				try {
+					policy = Policy.valueOf(record.get("policy").trim());
+				} catch (IllegalArgumentException e) {
+					throw new IOException("Unrecognized policy " + record.get("policy") + " on line " + records.getCurrentLineNumber() + " of " + file.getName());
+				}
+				String className = record.get("class").trim();
+				String guid = record.get("GUID").trim();
+				if (guid.length()==0) {
+					Policy classPolicy = result.classPolicies.get(className);
+					result.classPolicies.put(className, classPolicy==null ? policy : classPolicy.max(policy));
+				} else {
+					result.put(className, guid, policy,
+							parseCount(record.get("invocations")), parseCount(record.get("sharedMismatches")), parseCount(record.get("separateMismatches")));
+				}
+			}
+		} finally {
+			in.close();
+		}
+		return result;
+	}
+
+	private static long parseCount(String value) {
+		return value==null || value.trim().length()==0 ? 0L : Long.parseLong(value.trim());
+	}
+
+}
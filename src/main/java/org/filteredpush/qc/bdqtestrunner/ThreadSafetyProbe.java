@@ -0,0 +1,394 @@
+/**
+ * ThreadSafetyProbe.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.datakurator.ffdq.annotations.Provides;
+import org.datakurator.ffdq.api.DQResponse;
+import org.datakurator.ffdq.api.ResultValue;
+
+/**
+ * Probes test implementations for thread safety, before they are run concurrently.
+ *
+ * For each test GUID with an implementation, the rows of validation data for the test
+ * are first invoked sequentially, twice, on new instances, to obtain the expected result
+ * of each, setting aside any row whose result differs between the two passes.  The rows
+ * are then invoked from many threads at once, each thread in its own random order, first
+ * with all threads sharing one instance, then with each thread using its own instance,
+ * and every result compared with the sequential result.  A test is classified SHARED if
+ * no result differed on a shared instance, PER_THREAD if results only differed on a shared
+ * instance, and SERIAL if results differed even on separate instances (such as from static
+ * state), or the concurrent invocations did not complete within the timeout.  Tests with
+ * no rows giving a repeatable result are classified PER_CALL.  A class is classified
+ * SERIAL if it has a PER_CALL test, or an implementation that wasn't probed, for lack
+ * of validation data or of annotations on its parameters, or for not being a target.
+ *
+ * A probe can show an implementation is unsafe, but can't prove it safe, a race may not
+ * occur in the rounds run.  The classification is written to a file which concurrent
+ * runs can read to choose how to share instances.
+ *
+ */
+public class ThreadSafetyProbe {
+
+	private static final Log logger = LogFactory.getLog(ThreadSafetyProbe.class);
+
+	private final ImplementationRegistry registry;
+
+	private final Map<String,List<DataRecord>> rowsByGuid;
+
+	private int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+	private int rounds = 20;
+
+	private int rowsPerTest = 50;
+
+	private long timeoutMillis = 60000L;
+
+	/**
+	 * Construct a probe.
+	 *
+	 * @param registry of test implementations to probe.
+	 * @param in reader for validation data with a header row, supplying inputs for each test.
+	 * @throws IOException if unable to read the validation data.
+	 */
+	public ThreadSafetyProbe(ImplementationRegistry registry, Reader in) throws IOException {
+		this.registry = registry;
+		rowsByGuid = new HashMap<String,List<DataRecord>>();
+		// held for the whole probe, so only the non-empty cells of each row are kept
+		for (DataRecord record : new RowDictionary().read(in)) {
+			String guid = record.get("GUID").trim();
+			if (!rowsByGuid.containsKey(guid)) {
+				rowsByGuid.put(guid, new ArrayList<DataRecord>());
+			}
+			rowsByGuid.get(guid).add(record);
+		}
+	}
+
+	/**
+	 * @param threads number of threads invoking each implementation at once.
+	 */
+	public void setThreads(int threads) {
+		this.threads = Math.max(2, threads);
+	}
+
+	/**
+	 * @param rounds number of times each thread invokes each row.
+	 */
+	public void setRounds(int rounds) {
+		this.rounds = rounds;
+	}
+
+	/**
+	 * @param rowsPerTest maximum number of rows of validation data used for each test.
+	 */
+	public void setRowsPerTest(int rowsPerTest) {
+		this.rowsPerTest = rowsPerTest;
+	}
+
+	/**
+	 * @param timeoutMillis time allowed for the concurrent invocations of a test.
+	 */
+	public void setTimeoutMillis(long timeoutMillis) {
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * Probe the test implementations.
+	 *
+	 * @param targets github issue numbers of the tests to probe, empty for all.
+	 * @return the classification of the tests probed, and their classes.
+	 */
+	public ThreadSafetyClassification probe(List<String> targets) {
+		ThreadSafetyClassification classification = new ThreadSafetyClassification();
+		Set<Method> implementations = new LinkedHashSet<Method>();
+		for (String guid : registry.getGuids()) {
+			implementations.addAll(registry.getMethods(guid));
+		}
+		for (Method javaMethod : implementations) {
+			classification.addImplementation(javaMethod.getDeclaringClass().getName(), javaMethod.getAnnotation(Provides.class).value());
+		}
+		Map<String,List<DataRecord>> sorted = new TreeMap<String,List<DataRecord>>(rowsByGuid);
+		for (Map.Entry<String,List<DataRecord>> entry : sorted.entrySet()) {
+			List<DataRecord> rows = entry.getValue();
+			if (!targets.isEmpty() && !targets.contains(rows.get(0).get("GitHubIssueNo"))) {
+				continue;
+			}
+			for (Method javaMethod : registry.getMethods(entry.getKey())) {
+				probeMethod(entry.getKey(), javaMethod, rows, classification);
+			}
+		}
+		return classification;
+	}
+
+	/**
+	 * Probe one method implementing a test.
+	 */
+	private void probeMethod(String guid, Method javaMethod, List<DataRecord> rows, ThreadSafetyClassification classification) {
+		List<String> terms = ImplementationRegistry.getParameterTerms(javaMethod);
+		if (terms.contains(null)) {
+			logger.debug("Skipping " + javaMethod.toGenericString() + " with unannotated parameters.");
+			return;
+		}
+		String label = rows.get(0).get("Label");
+		List<List<String>> inputs = new ArrayList<List<String>>();
+		for (DataRecord row : rows.subList(0, Math.min(rows.size(), rowsPerTest))) {
+			List<String> values = new ArrayList<String>();
+			for (String term : terms) {
+				values.add(row.isMapped(term) ? row.get(term) : "");
+			}
+			inputs.add(values);
+		}
+		// expected results, from two sequential passes, keeping the rows with repeatable results
+		List<List<String>> repeatable = new ArrayList<List<String>>();
+		List<String> expected = new ArrayList<String>();
+		for (List<String> values : inputs) {
+			String first = invoke(null, javaMethod, values);
+			String second = invoke(null, javaMethod, values);
+			if (first.equals(second)) {
+				repeatable.add(values);
+				expected.add(first);
+			} else {
+				logger.debug("Result not repeatable for " + guid + " " + values + ": " + first + " then " + second);
+			}
+		}
+		ThreadSafetyClassification.Policy policy;
+		long invocations = (long)repeatable.size() * rounds * threads;
+		long sharedMismatches = 0L;
+		long separateMismatches = 0L;
+		if (repeatable.isEmpty()) {
+			policy = ThreadSafetyClassification.Policy.PER_CALL;
+			invocations = 0L;
+		} else {
+			sharedMismatches = concurrentMismatches(javaMethod, repeatable, expected, true);
+			separateMismatches = concurrentMismatches(javaMethod, repeatable, expected, false);
+			if (sharedMismatches==0L) {
+				policy = ThreadSafetyClassification.Policy.SHARED;
+			} else if (separateMismatches==0L) {
+				policy = ThreadSafetyClassification.Policy.PER_THREAD;
+			} else {
+				policy = ThreadSafetyClassification.Policy.SERIAL;
+			}
+		}
+		classification.put(javaMethod.getDeclaringClass().getName(), guid, policy, invocations, sharedMismatches, separateMismatches);
+		logger.info(String.format("%s %s %s shared mismatches %d, separate mismatches %d, of %d invocations",
+				guid, label, policy.name(), sharedMismatches, separateMismatches, invocations));
+	}
+
+	/**
+	 * Invoke the rows from all threads at once, each thread invoking every row in its own
+	 * random order, for each round.
+	 *
+	 * @param shared true for all threads to use one instance, false for an instance per thread.
+	 * @return number of results differing from the expected result, including all invocations
+	 *   not run if the threads did not complete within the timeout.
+	 */
+	private long concurrentMismatches(final Method javaMethod, final List<List<String>> inputs, final List<String> expected, boolean shared) {
+		ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "bdq-probe");
+			thread.setDaemon(true);
+			return thread;
+		});
+		final CountDownLatch start = new CountDownLatch(1);
+		final Object sharedInstance = shared ? instance(javaMethod) : null;
+		List<Future<Long>> futures = new ArrayList<Future<Long>>();
+		for (int t=0; t<threads; t++) {
+			final Random random = new Random(t);
+			futures.add(executor.submit(new Callable<Long>() {
+				@Override
+				public Long call() throws Exception {
+					Object instance = sharedInstance==null ? instance(javaMethod) : sharedInstance;
+					List<Integer> order = new ArrayList<Integer>();
+					for (int i=0; i<inputs.size(); i++) {
+						order.add(i);
+					}
+					long mismatches = 0L;
+					start.await();
+					for (int round=0; round<rounds; round++) {
+						Collections.shuffle(order, random);
+						for (Integer i : order) {
+							if (!expected.get(i).equals(invoke(instance, javaMethod, inputs.get(i)))) {
+								mismatches++;
+							}
+						}
+					}
+					return mismatches;
+				}
+			}));
+		}
+		start.countDown();
+		long result = 0L;
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		try {
+			for (Future<Long> future : futures) {
+				result = result + future.get(Math.max(1L, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			result = (long)inputs.size() * rounds * threads;
+		} catch (ExecutionException | java.util.concurrent.TimeoutException e) {
+			// a deadlock or a hang under contention is as unsafe as a wrong result
+			logger.debug(e.getMessage(), e);
+			result = (long)inputs.size() * rounds * threads;
+		} finally {
+			executor.shutdownNow();
+		}
+		return result;
+	}
+
+	private Object instance(Method javaMethod) {
+		try {
+			return registry.newInstance(javaMethod.getDeclaringClass());
+		} catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+			throw new IllegalStateException("Unable to instantiate " + javaMethod.getDeclaringClass().getName(), e);
+		}
+	}
+
+	/**
+	 * Invoke a method, rendering the response, or the exception thrown, as a string for comparison.
+	 *
+	 * @param instance to invoke the method on, null for a new instance.
+	 */
+	private String invoke(Object instance, Method javaMethod, List<String> values) {
+		try {
+			Object target = instance==null ? instance(javaMethod) : instance;
+			Object response = javaMethod.invoke(target, ImplementationRegistry.toArguments(javaMethod, values));
+			return render(response);
+		} catch (InvocationTargetException e) {
+			Throwable cause = e.getCause()==null ? e : e.getCause();
+			return "EXCEPTION " + cause.getClass().getName() + " " + cause.getMessage();
+		} catch (Exception e) {
+			return "EXCEPTION " + e.getClass().getName() + " " + e.getMessage();
+		}
+	}
+
+	private static String render(Object response) {
+		if (!(response instanceof DQResponse)) {
+			return String.valueOf(response);
+		}
+		DQResponse<?> dqResponse = (DQResponse<?>)response;
+		StringBuilder result = new StringBuilder();
+		result.append(dqResponse.getResultState()==null ? "" : dqResponse.getResultState().getLabel()).append("|");
+		ResultValue value = dqResponse.getValue();
+		if (value!=null) {
+			Object object = value.getObject();
+			if (object instanceof Map) {
+				result.append(new TreeMap<Object,Object>((Map<?,?>)object).toString());
+			} else {
+				result.append(value.getLabel());
+			}
+		}
+		result.append("|").append(dqResponse.getComment());
+		return result.toString();
+	}
+
+	/**
+	 * Main method to probe test implementations from the command line.
+	 *
+	 * @param args command line arguments
+	 */
+	public static void main(String[] args) {
+		Options options = new Options();
+		options.addOption("i","input",true,"File containing validation data supplying inputs for each test, required.");
+		options.addOption("o","output",true,"File to which to write the classification of each class and test, required, must not exist.");
+		options.addOption("c","classes",true,"Comma separated list of classes containing test implementations to probe (default DwCMetadataDQDefaults,DwCGeoRefDQDefaults,DwCEventDQDefaults,DwCOtherDateDQDefaults,DwCSciNameDQDefaults)");
+		options.addOption("g","gitHubIssues", true, "Comma separated list of github issue numbers for tests to probe, if not specified all tests will be probed.");
+		options.addOption("t","threads",true,"Number of threads invoking each test at once, default the number of processors, at least 2.");
+		options.addOption("n","rounds",true,"Number of times each thread invokes each row, default 20.");
+		options.addOption("r","rows",true,"Maximum number of rows of validation data used for each test, default 50.");
+		options.addOption("x","timeout",true,"Concurrent invocations of a test not complete after this many milliseconds are classified SERIAL, default 60000.");
+		options.addOption("h","help",false,"Show help.");
+		try {
+			CommandLineParser parser = new DefaultParser();
+			CommandLine cmd = parser.parse(options, args);
+			if (cmd.hasOption("h") || !cmd.hasOption("i") || !cmd.hasOption("o")) {
+				HelpFormatter formatter = new HelpFormatter();
+				formatter.printHelp("java -cp bdqtestrunner-{version}-{gitcommit}-executable.jar org.filteredpush.qc.bdqtestrunner.ThreadSafetyProbe", options);
+			} else {
+				File outputFile = new File(cmd.getOptionValue("o"));
+				if (outputFile.exists()) {
+					throw new IOException("Specified output file already exists, cannot overwrite");
+				}
+				List<String> classList = Arrays.asList("DwCMetadataDQDefaults","DwCGeoRefDQDefaults","DwCEventDQDefaults","DwCOtherDateDQDefaults","DwCSciNameDQDefaults");
+				if (cmd.hasOption("c")) {
+					classList = Arrays.asList(cmd.getOptionValue("c").split(","));
+					classList.replaceAll(String::trim);
+				}
+				List<String> issueList = new ArrayList<String>();
+				if (cmd.hasOption("g")) {
+					issueList = Arrays.asList(cmd.getOptionValue("g").split(","));
+					issueList.replaceAll(String::trim);
+				}
+				ImplementationRegistry registry = new ImplementationRegistry(classList);
+				Reader in = new InputStreamReader(new FileInputStream(cmd.getOptionValue("i")), StandardCharsets.UTF_8);
+				ThreadSafetyProbe probe = new ThreadSafetyProbe(registry, in);
+				in.close();
+				if (cmd.hasOption("t")) {
+					probe.setThreads(Integer.parseInt(cmd.getOptionValue("t").trim()));
+				}
+				if (cmd.hasOption("n")) {
+					probe.setRounds(Integer.parseInt(cmd.getOptionValue("n").trim()));
+				}
+				if (cmd.hasOption("r")) {
+					probe.setRowsPerTest(Integer.parseInt(cmd.getOptionValue("r").trim()));
+				}
+				if (cmd.hasOption("x")) {
+					probe.setTimeoutMillis(Long.parseLong(cmd.getOptionValue("x").trim()));
+				}
+				ThreadSafetyClassification classification = probe.probe(issueList);
+				classification.write(outputFile);
+				System.out.println("Classification written to " + outputFile.getName());
+			}
+		} catch (Exception e) {
+			logger.error(e.getMessage(),e);
+			System.out.println(e.getMessage());
+		}
+	}
+
+}
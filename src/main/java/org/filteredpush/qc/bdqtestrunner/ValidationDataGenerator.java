@@ -0,0 +1,388 @@
+/**
+ * ValidationDataGenerator.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.csv.QuoteMode;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Generate large synthetic validation data sets for throughput and memory benchmarks
+ * of TestRunner, by sampling rows of an existing validation data file (as produced by
+ * TestOfTestSpreasheetUtility) and applying controlled, seeded, mutations to them.
+ *
+ * Output is streamed, so the number of rows generated is not limited by memory.  The
+ * same input, seed, and ratios always produce the same output.  Mutated rows keep the
+ * expected responses of the row they were sampled from, so generated data sets measure
+ * throughput, not correctness.
+ *
+ */
+public class ValidationDataGenerator {
+
+	private static final Log logger = LogFactory.getLog(ValidationDataGenerator.class);
+
+	private final List<String> header;
+
+	private final List<String[]> baseRows;
+
+	/** index of the first information element column in each row */
+	private final int firstTermColumn;
+
+	private final int dataIDColumn;
+
+	private final int lineNumberColumn;
+
+	private final int guidColumn;
+
+	private final int issueColumn;
+
+	private double duplicateRatio = 0d;
+
+	private double emptyRatio = 0d;
+
+	private double perturbRatio = 0.1d;
+
+	private Map<String,Double> guidMix;
+
+	/**
+	 * Construct a generator from a file of validation data.
+	 *
+	 * @param in reader for validation data with a header row.
+	 * @throws IOException if unable to read the validation data.
+	 */
+	public ValidationDataGenerator(Reader in) throws IOException {
+		CSVParser records = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(in);
+		header = new ArrayList<String>(records.getHeaderMap().keySet());
+		baseRows = new ArrayList<String[]>();
+		for (CSVRecord record : records) {
+			String[] row = new String[header.size()];
+			for (int i=0; i<row.length && i<record.size(); i++) {
+				row[i] = record.get(i);
+			}
+			for (int i=record.size(); i<row.length; i++) {
+				row[i] = "";
+			}
+			baseRows.add(row);
+		}
+		records.close();
+		if (baseRows.isEmpty()) {
+			throw new IOException("No rows of validation data to generate from.");
+		}
+		dataIDColumn = columnOf("dataID");
+		lineNumberColumn = columnOf("LineNumber");
+		guidColumn = columnOf("GUID");
+		issueColumn = columnOf("GitHubIssueNo");
+		// information elements follow the fixed columns, and are all namespaced e.g. dwc:, bdq:
+		int first = header.size();
+		for (int i=0; i<header.size(); i++) {
+			if (header.get(i).contains(":")) {
+				first = i;
+				break;
+			}
+		}
+		firstTermColumn = first;
+		logger.debug("Loaded " + baseRows.size() + " rows to generate from.");
+	}
+
+	private int columnOf(String name) throws IOException {
+		int index = header.indexOf(name);
+		if (index<0) {
+			throw new IOException("Validation data lacks expected column " + name);
+		}
+		return index;
+	}
+
+	/**
+	 * @param duplicateRatio fraction of generated rows that repeat the dataID of an earlier generated row.
+	 */
+	public void setDuplicateRatio(double duplicateRatio) {
+		this.duplicateRatio = duplicateRatio;
+	}
+
+	/**
+	 * @param emptyRatio fraction of non-empty information element values to replace with empty values.
+	 */
+	public void setEmptyRatio(double emptyRatio) {
+		this.emptyRatio = emptyRatio;
+	}
+
+	/**
+	 * @param perturbRatio fraction of non-empty information element values to perturb.
+	 */
+	public void setPerturbRatio(double perturbRatio) {
+		this.perturbRatio = perturbRatio;
+	}
+
+	/**
+	 * Set the relative frequency with which rows for each test are generated, tests not
+	 * in the mix are not generated.  If not set, rows are sampled uniformly from the input,
+	 * so tests are generated in proportion to their rows in the input.
+	 *
+	 * @param guidMix map of test GUID or GitHub issue number to relative weight.
+	 */
+	public void setGuidMix(Map<String,Double> guidMix) {
+		this.guidMix = guidMix;
+	}
+
+	/**
+	 * Generate rows of validation data.
+	 *
+	 * @param rowCount number of rows to generate
+	 * @param seed for the random number generator
+	 * @param out to which to write the rows, including a header.
+	 * @throws IOException on an error writing output.
+	 */
+	public void generate(long rowCount, long seed, Appendable out) throws IOException {
+		SplittableRandom random = new SplittableRandom(seed);
+		double[] cumulativeWeights = buildCumulativeWeights();
+		CSVPrinter printer = new CSVPrinter(out, CSVFormat.DEFAULT.withQuoteMode(QuoteMode.ALL));
+		printer.printRecord(header);
+		String[] row = new String[header.size()];
+		for (long i=0; i<rowCount; i++) {
+			String[] base = baseRows.get(sample(cumulativeWeights, random.nextDouble()));
+			System.arraycopy(base, 0, row, 0, row.length);
+			row[lineNumberColumn] = Long.toString(i + 2L);
+			if (i>0 && random.nextDouble() < duplicateRatio) {
+				row[dataIDColumn] = "syn" + Long.toString(random.nextLong(i));
+			} else {
+				row[dataIDColumn] = "syn" + Long.toString(i);
+			}
+			for (int column=firstTermColumn; column<row.length; column++) {
+				if (row[column].length()>0) {
+					double draw = random.nextDouble();
+					if (draw < emptyRatio) {
+						row[column] = "";
+					} else if (draw < emptyRatio + perturbRatio) {
+						row[column] = perturb(row[column], random);
+					}
+				}
+			}
+			printer.printRecord((Object[])row);
+			if ((i+1) % 1000000L == 0) {
+				printer.flush();
+				logger.debug("Generated " + Long.toString(i+1) + " rows.");
+			}
+		}
+		printer.flush();
+	}
+
+	/**
+	 * Build an array of cumulative weights over the base rows from the guid mix.
+	 *
+	 * @return cumulative weights, the last element being the total weight.
+	 * @throws IOException if the mix selects no rows.
+	 */
+	private double[] buildCumulativeWeights() throws IOException {
+		Map<String,Integer> rowsPerKey = new HashMap<String,Integer>();
+		if (guidMix!=null) {
+			for (String[] row : baseRows) {
+				String key = mixKey(row);
+				if (key!=null) {
+					rowsPerKey.merge(key, 1, Integer::sum);
+				}
+			}
+		}
+		double[] cumulative = new double[baseRows.size()];
+		double total = 0d;
+		for (int i=0; i<baseRows.size(); i++) {
+			if (guidMix==null) {
+				total = total + 1d;
+			} else {
+				String key = mixKey(baseRows.get(i));
+				if (key!=null) {
+					// spread the weight for a test evenly over its rows
+					total = total + guidMix.get(key) / rowsPerKey.get(key);
+				}
+			}
+			cumulative[i] = total;
+		}
+		if (total <= 0d) {
+			throw new IOException("GUID mix does not match any rows in the input.");
+		}
+		return cumulative;
+	}
+
+	private String mixKey(String[] row) {
+		String guid = row[guidColumn].trim();
+		if (guidMix.containsKey(guid)) {
+			return guid;
+		}
+		String issue = row[issueColumn].trim();
+		if (guidMix.containsKey(issue)) {
+			return issue;
+		}
+		return null;
+	}
+
+	private static int sample(double[] cumulativeWeights, double draw) {
+		double target = draw * cumulativeWeights[cumulativeWeights.length-1];
+		int index = Arrays.binarySearch(cumulativeWeights, target);
+		if (index < 0) {
+			index = -index - 1;
+		}
+		// skip any zero weight rows sharing the cumulative value
+		while (index < cumulativeWeights.length-1 && (index==0 ? cumulativeWeights[0] : cumulativeWeights[index]-cumulativeWeights[index-1]) <= 0d) {
+			index++;
+		}
+		return Math.min(index, cumulativeWeights.length-1);
+	}
+
+	/**
+	 * Apply a small random change to a value: numbers are shifted slightly, retaining their
+	 * number of decimal places, other strings have a character changed, case flipped, or
+	 * whitespace added.
+	 *
+	 * @param value to perturb, not empty
+	 * @param random source of randomness
+	 * @return the perturbed value
+	 */
+	static String perturb(String value, SplittableRandom random) {
+		if (value.matches("^-?[0-9]+(\\.[0-9]+)?$")) {
+			int decimals = value.contains(".") ? value.length() - value.indexOf('.') - 1 : 0;
+			double number = Double.parseDouble(value);
+			double shift = (random.nextDouble() - 0.5d) * Math.max(1d, Math.abs(number) * 0.01d);
+			if (decimals==0) {
+				return Long.toString(Math.round(number + shift));
+			}
+			// not the default locale, which may write a decimal comma
+			return String.format(Locale.ROOT, "%." + decimals + "f", number + shift);
+		}
+		StringBuilder result = new StringBuilder(value);
+		int position = random.nextInt(result.length());
+		char c = result.charAt(position);
+		switch (random.nextInt(4)) {
+		case 0:
+			if (Character.isDigit(c)) {
+				result.setCharAt(position, (char)('0' + random.nextInt(10)));
+			} else {
+				result.setCharAt(position, Character.isUpperCase(c) ? Character.toLowerCase(c) : Character.toUpperCase(c));
+			}
+			break;
+		case 1:
+			result.insert(0, ' ');
+			break;
+		case 2:
+			result.append(' ');
+			break;
+		default:
+			result.insert(position, c);
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Main method to generate synthetic validation data from the command line.
+	 *
+	 * @param args command line arguments
+	 */
+	public static void main(String[] args) {
+		Options options = new Options();
+		options.addOption("i","input",true,"File containing validation data (in the form produced by TestOfTestSpreasheetUtility) from which to generate rows, required.");
+		options.addOption("o","output",true,"File to which to write generated validation data, required, must not exist.");
+		options.addOption("n","rows",true,"Number of rows to generate, default 1000000.");
+		options.addOption("s","seed",true,"Seed for the random number generator, default 1.");
+		options.addOption("d","duplicateRatio",true,"Fraction of rows that repeat the dataID of an earlier row, default 0.");
+		options.addOption("e","emptyRatio",true,"Fraction of non-empty information element values replaced with empty values, default 0.");
+		options.addOption("p","perturbRatio",true,"Fraction of non-empty information element values perturbed, default 0.1.");
+		options.addOption("m","mix",true,"Comma separated list of guid=weight or gitHubIssueNumber=weight giving the relative frequency of rows for each test, if not specified rows are sampled uniformly from the input.");
+		options.addOption("h","help",false,"Show help.");
+		try {
+			CommandLineParser parser = new DefaultParser();
+			CommandLine cmd = parser.parse(options, args);
+			if (cmd.hasOption("h") || !cmd.hasOption("i") || !cmd.hasOption("o")) {
+				HelpFormatter formatter = new HelpFormatter();
+				formatter.printHelp("java -cp bdqtestrunner-{version}-{gitcommit}-executable.jar org.filteredpush.qc.bdqtestrunner.ValidationDataGenerator", options);
+			} else {
+				File outputFile = new File(cmd.getOptionValue("o"));
+				if (outputFile.exists()) {
+					throw new IOException("Specified output file already exists, cannot overwrite");
+				}
+				Reader in = new InputStreamReader(new FileInputStream(cmd.getOptionValue("i")), StandardCharsets.UTF_8);
+				ValidationDataGenerator generator = new ValidationDataGenerator(in);
+				in.close();
+				if (cmd.hasOption("d")) {
+					generator.setDuplicateRatio(Double.parseDouble(cmd.getOptionValue("d")));
+				}
+				if (cmd.hasOption("e")) {
+					generator.setEmptyRatio(Double.parseDouble(cmd.getOptionValue("e")));
+				}
+				if (cmd.hasOption("p")) {
+					generator.setPerturbRatio(Double.parseDouble(cmd.getOptionValue("p")));
+				}
+				if (cmd.hasOption("m")) {
+					Map<String,Double> mix = new HashMap<String,Double>();
+					Iterator<String> i = Arrays.asList(cmd.getOptionValue("m").split(",")).iterator();
+					while (i.hasNext()) {
+						String[] bits = i.next().split("=");
+						if (bits.length!=2) {
+							throw new IllegalArgumentException("Unable to parse mix, expected key=weight");
+						}
+						mix.put(bits[0].trim(), Double.parseDouble(bits[1].trim()));
+					}
+					generator.setGuidMix(mix);
+				}
+				long rows = 1000000L;
+				if (cmd.hasOption("n")) {
+					rows = Long.parseLong(cmd.getOptionValue("n").trim());
+				}
+				long seed = 1L;
+				if (cmd.hasOption("s")) {
+					seed = Long.parseLong(cmd.getOptionValue("s").trim());
+				}
+				BufferedWriter out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFile), StandardCharsets.UTF_8), 1 << 16);
+				try {
+					generator.generate(rows, seed, out);
+				} finally {
+					out.close();
+				}
+				System.out.println("Wrote " + Long.toString(rows) + " rows to " + outputFile.getName());
+			}
+		} catch (Exception e) {
+			logger.error(e.getMessage(),e);
+			System.out.println(e.getMessage());
+		}
+	}
+
+}
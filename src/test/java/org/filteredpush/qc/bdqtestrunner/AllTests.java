@@ -6,6 +6,33 @@ import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
 @SuiteClasses({ 
+	BloomFilterTest.class,
+	ChangeImpactAnalyzerTest.class,
+	CompactStringTableTest.class,
+	ConversionIndexTest.class,
+	ConversionRuleTest.class,
+	ExpectedResultTest.class,
+	FailureBudgetTest.class,
+	ImplementationRegistryTest.class,
+	InvocationAccountingTest.class,
+	LatencyProfileTest.class,
+	ParallelCSVReaderTest.class,
+	PerformanceFuzzerTest.class,
+	ReportTest.class,
+	ResultComparatorTest.class,
+	RowDictionaryTest.class,
+	RunCheckpointTest.class,
+	ShardedRunTest.class,
+	SlowInvocationTrackerTest.class,
+	StreamingTestRunnerTest.class,
+	TermValueTokenizerTest.class,
+	TestEventsTest.class,
+	TestOfTestSpreasheetUtilityTest.class,
+	TestRunnerMonitorTest.class,
+	TestRunnerServerTest.class,
+	TestRunnerTest.class,
+	ThreadSafetyClassificationTest.class,
+	ValidationDataGeneratorTest.class
 	})
 public class AllTests {
 
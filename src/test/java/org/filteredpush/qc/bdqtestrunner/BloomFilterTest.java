@@ -0,0 +1,92 @@
+/**
+ * BloomFilterTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+
+public class BloomFilterTest {
+
+	@Test
+	public void testNoFalseNegatives() {
+		BloomFilter filter = new BloomFilter(10000, 0.001d);
+		for (int i=0; i<10000; i++) {
+			filter.put("dataID" + i);
+		}
+		for (int i=0; i<10000; i++) {
+			assertTrue(filter.mightContain("dataID" + i));
+		}
+	}
+
+	@Test
+	public void testFalsePositiveRate() {
+		BloomFilter filter = new BloomFilter(10000, 0.01d);
+		for (int i=0; i<10000; i++) {
+			filter.put("dataID" + i);
+		}
+		int falsePositives = 0;
+		for (int i=0; i<100000; i++) {
+			if (filter.mightContain("other" + i)) {
+				falsePositives++;
+			}
+		}
+		// expected about 1000, allow for variation
+		assertTrue("False positives: " + falsePositives, falsePositives < 2000);
+	}
+
+	@Test
+	public void testEmpty() {
+		BloomFilter filter = new BloomFilter(0, 0.5d);
+		assertFalse(filter.mightContain(""));
+		filter.put("");
+		assertTrue(filter.mightContain(""));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRateOutOfRange() {
+		new BloomFilter(100, 1d);
+	}
+
+	@Test
+	public void testSerialization() throws IOException, ClassNotFoundException {
+		BloomFilter filter = new BloomFilter(1000, 0.001d);
+		for (int i=0; i<1000; i++) {
+			filter.put("dataID" + i);
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(filter);
+		out.close();
+		BloomFilter read = (BloomFilter)new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+		assertEquals(filter.getFootprint(), read.getFootprint());
+		for (int i=0; i<1000; i++) {
+			assertTrue(read.mightContain("dataID" + i));
+			assertEquals(filter.mightContain("other" + i), read.mightContain("other" + i));
+		}
+	}
+
+}
@@ -0,0 +1,272 @@
+/**
+ * ChangeImpactAnalyzerTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+public class ChangeImpactAnalyzerTest {
+
+	private static final String FIRST_GUID = "1a000000-0000-4000-8000-000000000001";
+	private static final String SECOND_GUID = "2b000000-0000-4000-8000-000000000002";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Generate a class with a no argument constructor and a method providing a test, which
+	 * returns a constant, or the value of a static method of a helper class.
+	 *
+	 * @param name internal name of the class.
+	 * @param guid provided by the method.
+	 * @param value returned when there's no helper.
+	 * @param line line number of the body of the method.
+	 * @param helper internal name of the helper class, null for none.
+	 * @return the class file.
+	 */
+	private static byte[] implementation(String name, String guid, int value, int line, String helper) {
+		ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, "java/lang/Object", null);
+		MethodVisitor init = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+		init.visitCode();
+		init.visitVarInsn(Opcodes.ALOAD, 0);
+		init.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+		init.visitInsn(Opcodes.RETURN);
+		init.visitMaxs(0, 0);
+		init.visitEnd();
+		MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "validationExample", "()Ljava/lang/Object;", null, null);
+		AnnotationVisitor provides = method.visitAnnotation(ChangeImpactAnalyzer.PROVIDES, true);
+		provides.visit("value", guid);
+		provides.visitEnd();
+		method.visitCode();
+		Label start = new Label();
+		method.visitLabel(start);
+		method.visitLineNumber(line, start);
+		if (helper==null) {
+			method.visitLdcInsn(Integer.valueOf(value));
+		} else {
+			method.visitMethodInsn(Opcodes.INVOKESTATIC, helper, "value", "()I", false);
+		}
+		method.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Integer", "valueOf", "(I)Ljava/lang/Integer;", false);
+		method.visitInsn(Opcodes.ARETURN);
+		method.visitMaxs(0, 0);
+		method.visitEnd();
+		writer.visitEnd();
+		return writer.toByteArray();
+	}
+
+	/**
+	 * @return a class file for a class with a static method returning a constant.
+	 */
+	private static byte[] helper(String name, int value) {
+		ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, "java/lang/Object", null);
+		MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "value", "()I", null, null);
+		method.visitCode();
+		method.visitLdcInsn(Integer.valueOf(value));
+		method.visitInsn(Opcodes.IRETURN);
+		method.visitMaxs(0, 0);
+		method.visitEnd();
+		writer.visitEnd();
+		return writer.toByteArray();
+	}
+
+	/**
+	 * A version of a library: two tests, the first using a helper class, and a class
+	 * used by neither test.
+	 */
+	private static Map<String,byte[]> library(int firstValue, int secondValue, int unrelatedValue) {
+		Map<String,byte[]> result = new LinkedHashMap<String,byte[]>();
+		result.put("example/First.class", implementation("example/First", FIRST_GUID, 0, 10, "example/Helper"));
+		result.put("example/Helper.class", helper("example/Helper", firstValue));
+		result.put("example/Second.class", implementation("example/Second", "urn:uuid:" + SECOND_GUID, secondValue, 20, null));
+		result.put("example/Unrelated.class", helper("example/Unrelated", unrelatedValue));
+		return result;
+	}
+
+	private Map<String,String> fingerprints(String name, Map<String,byte[]> entries) throws IOException {
+		File jar = new File(folder.getRoot(), name);
+		JarOutputStream out = new JarOutputStream(new FileOutputStream(jar));
+		try {
+			for (Map.Entry<String,byte[]> entry : entries.entrySet()) {
+				out.putNextEntry(new JarEntry(entry.getKey()));
+				out.write(entry.getValue());
+				out.closeEntry();
+			}
+		} finally {
+			out.close();
+		}
+		return new ChangeImpactAnalyzer(jar).getFingerprints();
+	}
+
+	@Test
+	public void testTests() throws IOException {
+		Map<String,String> fingerprints = fingerprints("before.jar", library(1, 2, 3));
+		// provided with a urn:uuid: prefix, found without it
+		assertEquals(new TreeSet<String>(Arrays.asList(FIRST_GUID, SECOND_GUID)), fingerprints.keySet());
+		assertFalse(fingerprints.get(FIRST_GUID).equals(fingerprints.get(SECOND_GUID)));
+		assertEquals(fingerprints, fingerprints("same.jar", library(1, 2, 3)));
+	}
+
+	@Test
+	public void testMethodBodyEdit() throws IOException {
+		Map<String,String> before = fingerprints("before.jar", library(1, 2, 3));
+		assertEquals(Collections.singleton(SECOND_GUID), ChangeImpactAnalyzer.changed(before, fingerprints("after.jar", library(1, 5, 3))));
+		// reached through the call to the helper
+		assertEquals(Collections.singleton(FIRST_GUID), ChangeImpactAnalyzer.changed(before, fingerprints("helper.jar", library(4, 2, 3))));
+	}
+
+	@Test
+	public void testUnrelatedEdit() throws IOException {
+		Map<String,String> before = fingerprints("before.jar", library(1, 2, 3));
+		assertTrue(ChangeImpactAnalyzer.changed(before, fingerprints("unrelated.jar", library(1, 2, 6))).isEmpty());
+		Map<String,byte[]> moved = library(1, 2, 3);
+		moved.put("example/Second.class", implementation("example/Second", "urn:uuid:" + SECOND_GUID, 2, 200, null));
+		// line numbers change with edits elsewhere in the source
+		assertTrue(ChangeImpactAnalyzer.changed(before, fingerprints("moved.jar", moved)).isEmpty());
+	}
+
+	@Test
+	public void testAddedAndRemovedTests() throws IOException {
+		Map<String,String> before = fingerprints("before.jar", library(1, 2, 3));
+		Map<String,byte[]> removed = library(1, 2, 3);
+		removed.remove("example/Second.class");
+		Map<String,String> after = fingerprints("removed.jar", removed);
+		assertEquals(Collections.singleton(SECOND_GUID), ChangeImpactAnalyzer.changed(before, after));
+		assertEquals(Collections.singleton(SECOND_GUID), ChangeImpactAnalyzer.changed(after, before));
+	}
+
+	@Test
+	public void testResources() throws IOException {
+		Map<String,byte[]> library = library(1, 2, 3);
+		library.put("META-INF/MANIFEST.MF", "Manifest-Version: 1.0\nBuild-Time: 1\n".getBytes(StandardCharsets.UTF_8));
+		library.put("example/vocabulary.txt", "COMPLIANT\n".getBytes(StandardCharsets.UTF_8));
+		Map<String,String> before = fingerprints("before.jar", library);
+
+		library.put("META-INF/MANIFEST.MF", "Manifest-Version: 1.0\nBuild-Time: 2\n".getBytes(StandardCharsets.UTF_8));
+		library.put("META-INF/maven/example/example/pom.properties", "version=2\n".getBytes(StandardCharsets.UTF_8));
+		// build metadata isn't hashed
+		assertTrue(ChangeImpactAnalyzer.changed(before, fingerprints("rebuilt.jar", library)).isEmpty());
+
+		library.put("example/vocabulary.txt", "COMPLIANT\nNOT_COMPLIANT\n".getBytes(StandardCharsets.UTF_8));
+		// any other resource may be loaded by any test
+		assertEquals(new TreeSet<String>(Arrays.asList(FIRST_GUID, SECOND_GUID)), ChangeImpactAnalyzer.changed(before, fingerprints("vocabulary.jar", library)));
+		library.remove("example/vocabulary.txt");
+		assertEquals(2, ChangeImpactAnalyzer.changed(before, fingerprints("removed.jar", library)).size());
+	}
+
+	/**
+	 * @return the output of a previous run of the example data, with results differing from
+	 *   what a run would give now, for rows of issue #901 to reuse and rows of #902 to run.
+	 */
+	private File previousOutput() throws IOException {
+		File result = folder.newFile("previous.txt");
+		Files.write(result.toPath(), ("Validation Test Data From: example_validation_data.csv\n"
+				+ "2026-01-01T00:00:00\n"
+				+ "Validating Test Implementations In:\n"
+				+ "org.filteredpush.qc.bdqtestrunner.ExampleImplementations\n"
+				+ "Startup: open input 0.000 ms, load classes 0.000 ms, discover tests 0.000 ms, read header 0.000 ms\n"
+				+ "1 #901 Pass\n"
+				+ "2 #901 Fail got RUN_HAS_RESULT expected INTERNAL_PREREQUISITES_NOT_MET a comment\n"
+				+ "continued on a second line\n"
+				+ "7 #902 Pass\n"
+				+ "8 #903Exception: thrown for dwc:day throw\n"
+				+ "\tat example.Throws.day(Throws.java:1)\n"
+				+ "Test already run (? duplicate dataID in input spreadsheet ?) for 3 #901 on line number 11\n"
+				+ "not part of any result\n"
+				+ "Ran 3 tests against the validation data.\n"
+				+ "11 #901 Pass\n").getBytes(StandardCharsets.UTF_8));
+		return result;
+	}
+
+	@Test
+	public void testReusePreviousResults() throws IOException {
+		TestRunner runner = new TestRunner(TestRunnerTest.exampleData(), "example_validation_data.csv");
+		runner.setChangeImpact(Collections.singleton("urn:uuid:" + ExampleImplementations.AMENDMENT_GUID), previousOutput());
+		String output = TestRunnerTest.run(runner);
+		assertTrue(output, output.contains("\n1 #901 Pass\n"));
+		// with the lines continuing a result
+		assertTrue(output, output.contains("\n2 #901 Fail got RUN_HAS_RESULT expected INTERNAL_PREREQUISITES_NOT_MET a comment\ncontinued on a second line\n3 #901 Pass\n"));
+		assertTrue(output, output.contains("\n8 #903Exception: thrown for dwc:day throw\n\tat example.Throws.day(Throws.java:1)\n9 #903 Pass\n"));
+		assertFalse(output, output.contains("not part of any result"));
+		// changed, so run again
+		assertTrue(output, output.contains("\n7 #902 Fail got {\"dwc:month\":\"3\"} expected {\"dwc:month\":\"4\"}"));
+		// after the summary of the previous run, so run again
+		assertTrue(output, output.contains("\n11 #901 Fail got NOT_COMPLIANT expected COMPLIANT"));
+		assertTrue(output, output.contains("\nReused results of unchanged tests from previous.txt: 3\n"));
+		Report report = runner.getReports().get(ExampleImplementations.VALIDATION_GUID);
+		assertEquals(Integer.valueOf(2), report.getPass());
+		assertEquals(Integer.valueOf(3), report.getFail());
+		assertEquals(Integer.valueOf(1), runner.getReports().get(ExampleImplementations.EXCEPTION_GUID).getFail());
+		assertEquals(Integer.valueOf(1), runner.getReports().get(ExampleImplementations.EXCEPTION_GUID).getPass());
+	}
+
+	@Test
+	public void testReusedFailuresNotCounted() throws IOException {
+		TestRunner runner = new TestRunner(TestRunnerTest.exampleData(), "example_validation_data.csv");
+		runner.setChangeImpact(Collections.<String>emptySet(), previousOutput());
+		runner.setFailurePolicy(true, 0, 0);
+		String output = TestRunnerTest.run(runner);
+		assertTrue(runner.isStopped());
+		// stopped at the first failure of a row run, not the failure reused before it
+		assertTrue(output, output.contains("\n4 #901 Fail got NOT_COMPLIANT expected COMPLIANT dwc:eventDate is bad\nStopped after 1 failures, remaining rows not run.\n"));
+		assertTrue(output, output.contains("\nReused results of unchanged tests from previous.txt: 2\n"));
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testReuseRejectedForShards() throws IOException {
+		TestRunner runner = new TestRunner(TestRunnerTest.exampleData(), "example_validation_data.csv");
+		runner.setShards(2, ShardedRun.SHARD_BY_DATAID);
+		runner.setChangeImpact(Collections.<String>emptySet(), previousOutput());
+	}
+
+	@Test
+	public void testReadWriteTests() throws IOException {
+		File file = folder.newFile("changed.txt");
+		Files.write(file.toPath(), ("# changed tests\n\nurn:uuid:" + FIRST_GUID + "\n " + SECOND_GUID + " \n").getBytes(StandardCharsets.UTF_8));
+		Set<String> read = ChangeImpactAnalyzer.readTests(file);
+		assertEquals(new TreeSet<String>(Arrays.asList(FIRST_GUID, SECOND_GUID)), read);
+		ChangeImpactAnalyzer.writeTests(read, file);
+		assertEquals(read, ChangeImpactAnalyzer.readTests(file));
+	}
+
+}
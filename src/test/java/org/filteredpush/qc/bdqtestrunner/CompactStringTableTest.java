@@ -0,0 +1,125 @@
+/**
+ * CompactStringTableTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class CompactStringTableTest {
+
+	@Test
+	public void testAddAndContains() {
+		CompactStringTable table = new CompactStringTable(16, false);
+		assertTrue(table.add("a"));
+		assertFalse(table.add("a"));
+		assertTrue(table.add(""));
+		assertTrue(table.add("été"));
+		assertEquals(3, table.size());
+		assertTrue(table.contains("a"));
+		assertTrue(table.contains(""));
+		assertTrue(table.contains("été"));
+		assertFalse(table.contains("b"));
+	}
+
+	@Test
+	public void testPutReplacesValue() {
+		CompactStringTable table = new CompactStringTable(16, false);
+		table.put("1", "first");
+		table.put("1", "second");
+		table.add("2");
+		assertEquals(2, table.size());
+		Map<String,String> entries = toMap(table);
+		assertEquals("second", entries.get("1"));
+		assertTrue(entries.containsKey("2"));
+		assertNull(entries.get("2"));
+	}
+
+	@Test
+	public void testExpectedSizeIsOnlyAHint() {
+		CompactStringTable table = new CompactStringTable(10000000, false);
+		assertTrue("Footprint: " + table.getFootprint(), table.getFootprint() < 4L * 1024 * 1024);
+	}
+
+	@Test
+	public void testGrowth() {
+		for (boolean direct : new boolean[] { false, true }) {
+			CompactStringTable table = new CompactStringTable(0, direct);
+			long initialFootprint = table.getFootprint();
+			for (int i=0; i<200000; i++) {
+				table.put("dataID" + i, "#" + i);
+			}
+			assertEquals(200000, table.size());
+			assertTrue(table.getFootprint() > initialFootprint);
+			for (int i=0; i<200000; i++) {
+				assertTrue(table.contains("dataID" + i));
+			}
+			assertFalse(table.contains("dataID200000"));
+			Map<String,String> entries = toMap(table);
+			assertEquals(200000, entries.size());
+			assertEquals("#199999", entries.get("dataID199999"));
+		}
+	}
+
+	@Test
+	public void testSerialization() throws IOException, ClassNotFoundException {
+		for (boolean direct : new boolean[] { false, true }) {
+			CompactStringTable table = new CompactStringTable(16, direct);
+			for (int i=0; i<1000; i++) {
+				table.put("dataID" + i, i % 2 == 0 ? "even" : "odd");
+			}
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			ObjectOutputStream out = new ObjectOutputStream(bytes);
+			out.writeObject(table);
+			out.close();
+			CompactStringTable read = (CompactStringTable)new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+			assertEquals(1000, read.size());
+			assertEquals(toMap(table), toMap(read));
+			// the table read can still grow
+			for (int i=1000; i<5000; i++) {
+				assertTrue(read.add("dataID" + i));
+			}
+			assertEquals(5000, read.size());
+			assertTrue(read.contains("dataID0"));
+			assertTrue(read.contains("dataID4999"));
+		}
+	}
+
+	private static Map<String,String> toMap(CompactStringTable table) {
+		Map<String,String> result = new HashMap<String,String>();
+		Iterator<Map.Entry<String,String>> entries = table.iterator();
+		while (entries.hasNext()) {
+			Map.Entry<String,String> entry = entries.next();
+			result.put(entry.getKey(), entry.getValue());
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,140 @@
+/**
+ * ConversionIndexTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.filteredpush.qc.bdqtestrunner.TestOfTestSpreasheetUtilityTest.AMENDMENT_ROW;
+import static org.filteredpush.qc.bdqtestrunner.TestOfTestSpreasheetUtilityTest.ERROR_ROW;
+import static org.filteredpush.qc.bdqtestrunner.TestOfTestSpreasheetUtilityTest.VALIDATION_ROW;
+import static org.filteredpush.qc.bdqtestrunner.TestOfTestSpreasheetUtilityTest.source;
+import static org.filteredpush.qc.bdqtestrunner.TestOfTestSpreasheetUtilityTest.write;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.csv.CSVRecord;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ConversionIndexTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/** The validation row with a changed comment. */
+	private static final String MODIFIED_VALIDATION_ROW = VALIDATION_ROW.replace("is a valid code", "is a standard code");
+
+	/** A further validation row without errors. */
+	private static final String ADDED_ROW = VALIDATION_ROW.replaceFirst("^1,1,", "4,3,").replace("US", "NZ");
+
+	private static String read(File file) throws IOException {
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testNoIndex() throws IOException {
+		File output = write(folder.newFile("TG2_test_validation_data_1.csv"), "");
+		assertNull(ConversionIndex.read(output));
+		assertNull(ConversionIndex.read(new File(folder.getRoot(), "missing.csv")));
+	}
+
+	@Test
+	public void testReuseUnchanged() throws IOException {
+		File source = write(folder.newFile("Test_data_1.csv"), source(VALIDATION_ROW, AMENDMENT_ROW, ERROR_ROW));
+		File output = new File(folder.getRoot(), "TG2_test_validation_data_1.csv");
+		TestOfTestSpreasheetUtility.ConversionReport first = TestOfTestSpreasheetUtility.convert(source, output);
+		assertEquals(0, first.getReused());
+		String converted = read(output);
+		String index = read(new File(output.getPath() + ConversionIndex.SUFFIX));
+		// incrementally, in place
+		TestOfTestSpreasheetUtility.ConversionReport second = TestOfTestSpreasheetUtility.convert(source, output, output);
+		assertEquals(output.getPath(), second.getPrevious());
+		// the row with an error is converted again, to report its error
+		assertEquals(2, second.getReused());
+		assertEquals(1, second.getErrors());
+		assertEquals(first.getMessages(), second.getMessages());
+		assertEquals(first.getInputTerms(), second.getInputTerms());
+		assertEquals(first.getOutputTerms(), second.getOutputTerms());
+		assertTrue(second.getAdded().isEmpty());
+		assertTrue(second.getRemoved().isEmpty());
+		assertTrue(second.getModified().isEmpty());
+		assertEquals(converted, read(output));
+		assertEquals(index, read(new File(output.getPath() + ConversionIndex.SUFFIX)));
+	}
+
+	@Test
+	public void testChanges() throws IOException {
+		File directory = folder.newFolder("sources");
+		File previousSource = write(new File(directory, "Test_data_1.csv"), source(VALIDATION_ROW, AMENDMENT_ROW, ERROR_ROW));
+		File source = write(new File(directory, "Test_data_2.csv"), source(ADDED_ROW, MODIFIED_VALIDATION_ROW, AMENDMENT_ROW));
+		File previous = new File(folder.getRoot(), "TG2_test_validation_data_1.csv");
+		File output = new File(folder.getRoot(), "TG2_test_validation_data_2.csv");
+		TestOfTestSpreasheetUtility.convert(previousSource, previous);
+		TestOfTestSpreasheetUtility.ConversionReport report = TestOfTestSpreasheetUtility.convert(source, output, previous);
+		assertEquals(Collections.singletonList("4"), report.getAdded());
+		assertEquals(Collections.singletonList("3"), report.getRemoved());
+		assertEquals(Collections.singletonList("1"), report.getModified());
+		assertEquals(1, report.getReused());
+		List<CSVRecord> rows = TestOfTestSpreasheetUtilityTest.parse(read(output));
+		assertEquals(Arrays.asList("4", "1", "2"), Arrays.asList(rows.get(0).get("dataID"), rows.get(1).get("dataID"), rows.get(2).get("dataID")));
+		assertEquals("dwc:countryCode is a standard code", rows.get(1).get("Response.comment"));
+		// the reused row has moved down a line
+		assertEquals("4", rows.get(2).get("LineNumber"));
+		assertEquals("{\"dwc:month\":\"3\"}", rows.get(2).get("Response.result"));
+	}
+
+	@Test
+	public void testConversionChangeInvalidatesIndex() throws IOException {
+		File source = write(folder.newFile("Test_data_1.csv"), source(VALIDATION_ROW, AMENDMENT_ROW));
+		File output = new File(folder.getRoot(), "TG2_test_validation_data_1.csv");
+		TestOfTestSpreasheetUtility.convert(source, output);
+		File indexFile = new File(output.getPath() + ConversionIndex.SUFFIX);
+		String index = read(indexFile);
+		assertTrue(index, index.contains("," + ConversionIndex.CONVERSION + ","));
+		// as if written by a conversion with other vocabulary or rules
+		write(indexFile, index.replace("," + ConversionIndex.CONVERSION + ",", ",0123456789abcdef,"));
+		TestOfTestSpreasheetUtility.ConversionReport report = TestOfTestSpreasheetUtility.convert(source, output, output);
+		assertEquals(0, report.getReused());
+		// still compared with the source rows of the previous conversion
+		assertTrue(report.getModified().isEmpty());
+		assertTrue(report.getAdded().isEmpty());
+		assertEquals(index, read(indexFile));
+	}
+
+	@Test
+	public void testChangedColumnsInvalidateIndex() throws IOException {
+		File source = write(folder.newFile("Test_data_1.csv"), source(VALIDATION_ROW, AMENDMENT_ROW));
+		File output = new File(folder.getRoot(), "TG2_test_validation_data_1.csv");
+		TestOfTestSpreasheetUtility.convert(source, output);
+		String converted = read(output);
+		// as if converted with an earlier list of information elements
+		write(output, converted.replaceFirst(",\"dwc:month\"", ",\"dwc:monthOfYear\""));
+		TestOfTestSpreasheetUtility.ConversionReport report = TestOfTestSpreasheetUtility.convert(source, output, output);
+		assertEquals(0, report.getReused());
+		assertEquals(converted, read(output));
+	}
+
+}
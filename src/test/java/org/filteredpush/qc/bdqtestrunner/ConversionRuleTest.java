@@ -0,0 +1,152 @@
+/**
+ * ConversionRuleTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.filteredpush.qc.bdqtestrunner.ConversionVocabulary.OutputType;
+import org.filteredpush.qc.bdqtestrunner.ConversionVocabulary.ResponseStatus;
+import org.junit.Test;
+
+public class ConversionRuleTest {
+
+	/**
+	 * @return a row of a source spreadsheet, on line 2, with the given values.
+	 */
+	private static SourceRow row(String dataID, String outputType, String inputData, String outputData, String status, String result) throws IOException {
+		StringBuilder source = new StringBuilder(TestOfTestSpreasheetUtilityTest.SOURCE_HEADER);
+		CSVPrinter printer = new CSVPrinter(source, CSVFormat.DEFAULT);
+		printer.printRecord(dataID, "1", "20", "0493bcfb-652e-4d17-815b-b0cce0742fbe", outputType, "EXAMPLE", inputData, outputData, status, result, "", "");
+		printer.flush();
+		return new SourceRow(CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(new StringReader(source.toString())).getRecords().get(0), 2);
+	}
+
+	private static List<String> check(ConversionRule rule, SourceRow row) {
+		List<String> result = new ArrayList<String>();
+		rule.check(row, result);
+		return result;
+	}
+
+	private static List<String> checkAll(SourceRow row) {
+		List<String> result = new ArrayList<String>();
+		for (ConversionRule rule : ConversionRule.values()) {
+			rule.check(row, result);
+		}
+		return result;
+	}
+
+	@Test
+	public void testValidRows() throws IOException {
+		assertEquals(Collections.emptyList(), checkAll(row("1", "VALIDATION", "dwc:countryCode=\"US\"", "", "RUN_HAS_RESULT", "COMPLIANT")));
+		assertEquals(Collections.emptyList(), checkAll(row("2", "AMENDMENT", "dwc:month=\"3 \"", "dwc:month=\"3\"", "AMENDED", "dwc:month=\"3\"")));
+		// a measure may give just its value
+		assertEquals(Collections.emptyList(), checkAll(row("3", "MEASURE", "dwc:eventDate=\"2000-01-01\"", "86400", "RUN_HAS_RESULT", "86400")));
+	}
+
+	@Test
+	public void testKnownOutputType() throws IOException {
+		assertEquals(Collections.singletonList("Error in 1 Line:2 unrecognized test class: VALIDATON"),
+				check(ConversionRule.KNOWN_OUTPUT_TYPE, row("1", "VALIDATON", "dwc:countryCode=\"US\"", "", "RUN_HAS_RESULT", "COMPLIANT")));
+		assertEquals(Collections.singletonList("Error in  Line:2 unrecognized test class:  (unable to read dataID, is there a blank line?)"),
+				check(ConversionRule.KNOWN_OUTPUT_TYPE, row("", "", "", "", "", "")));
+	}
+
+	@Test
+	public void testResultMatchesOutputData() throws IOException {
+		assertEquals(Collections.singletonList("Error in 2 Line:2 missmatch between Response.result [dwc:month=\"4\"] and Output.data [dwc:month=\"3\"] "),
+				check(ConversionRule.RESULT_MATCHES_OUTPUT_DATA, row("2", "AMENDMENT", "dwc:month=\"3 \"", "dwc:month=\"3\"", "AMENDED", "dwc:month=\"4\"")));
+	}
+
+	@Test
+	public void testStatusForOutputType() throws IOException {
+		assertEquals(Collections.singletonList("Error in line 2 unrecognized response.status [RUN_HAS_RESULT] for AMENDMENT"),
+				check(ConversionRule.STATUS_FOR_OUTPUT_TYPE, row("2", "AMENDMENT", "dwc:month=\"3\"", "", "RUN_HAS_RESULT", "")));
+		assertEquals(Collections.singletonList("Error in 2 unrecognized response.status AMENDED for VALIDATION"),
+				check(ConversionRule.STATUS_FOR_OUTPUT_TYPE, row("1", "VALIDATION", "dwc:countryCode=\"US\"", "", "AMENDED", "")));
+		// statuses of issues aren't checked, nor of unrecognized output types
+		assertTrue(check(ConversionRule.STATUS_FOR_OUTPUT_TYPE, row("1", "ISSUE", "dwc:countryCode=\"US\"", "", "AMENDED", "")).isEmpty());
+		assertTrue(check(ConversionRule.STATUS_FOR_OUTPUT_TYPE, row("1", "VALIDATON", "dwc:countryCode=\"US\"", "", "AMENDED", "")).isEmpty());
+	}
+
+	@Test
+	public void testKnownInputTerms() throws IOException {
+		assertEquals(Collections.singletonList("Error in 2 "),
+				check(ConversionRule.KNOWN_INPUT_TERMS, row("1", "VALIDATION", "", "", "RUN_HAS_RESULT", "COMPLIANT")));
+		assertEquals(Collections.singletonList("Error in 1 Line:2 unrecognized input term dwc:colour"),
+				check(ConversionRule.KNOWN_INPUT_TERMS, row("1", "VALIDATION", "dwc:countryCode=\"US\", dwc:colour=\"red\"", "", "RUN_HAS_RESULT", "COMPLIANT")));
+		// alternative quote characters are read as quotes
+		assertTrue(check(ConversionRule.KNOWN_INPUT_TERMS, row("1", "VALIDATION", "dwc:countryCode=”US”", "", "RUN_HAS_RESULT", "COMPLIANT")).isEmpty());
+		List<String> violations = check(ConversionRule.KNOWN_INPUT_TERMS, row("1", "VALIDATION", "\"US\"", "", "RUN_HAS_RESULT", "COMPLIANT"));
+		assertEquals(1, violations.size());
+		assertEquals("Error in 1 Line:2 US", violations.get(0));
+	}
+
+	@Test
+	public void testKnownOutputTerms() throws IOException {
+		assertEquals(Collections.singletonList("Error in Output 2 Line:2 3"),
+				check(ConversionRule.KNOWN_OUTPUT_TERMS, row("2", "AMENDMENT", "dwc:month=\"3 \"", "\"3\"", "AMENDED", "\"3\"")));
+		assertEquals(Collections.singletonList("Error in 2 Line:2 unrecognized output term dwc:monthOfYear"),
+				check(ConversionRule.KNOWN_OUTPUT_TERMS, row("2", "AMENDMENT", "dwc:month=\"3 \"", "dwc:monthOfYear=\"3\"", "AMENDED", "dwc:monthOfYear=\"3\"")));
+	}
+
+	@Test
+	public void testResultValuesOnlyWhenAmended() throws IOException {
+		assertEquals(Collections.singletonList("Error in Output 2 Line:2 key:value pairs present when Response.status is not AMENDED or FILLED_IN"),
+				check(ConversionRule.RESULT_VALUES_ONLY_WHEN_AMENDED, row("2", "AMENDMENT", "dwc:month=\"3\"", "dwc:month=\"3\", dwc:day=\"1\"", "NOT_AMENDED", "dwc:month=\"3\", dwc:day=\"1\"")));
+		assertTrue(check(ConversionRule.RESULT_VALUES_ONLY_WHEN_AMENDED, row("2", "AMENDMENT", "dwc:month=\"\"", "dwc:month=\"3\"", "FILLED_IN", "dwc:month=\"3\"")).isEmpty());
+	}
+
+	@Test
+	public void testVocabulary() {
+		assertEquals(OutputType.AMENDMENT, OutputType.lookup("AMENDMENT"));
+		assertNull(OutputType.lookup("amendment"));
+		assertEquals(ResponseStatus.FILLED_IN, ResponseStatus.lookup("FILLED_IN"));
+		assertNull(ResponseStatus.lookup(""));
+		assertTrue(OutputType.AMENDMENT.allows(ResponseStatus.FILLED_IN));
+		assertFalse(OutputType.VALIDATION.allows(ResponseStatus.FILLED_IN));
+		assertFalse(OutputType.ISSUE.allows(null));
+		for (ResponseStatus status : ResponseStatus.values()) {
+			assertTrue(OutputType.ISSUE.allows(status));
+		}
+		List<String> columns = ConversionVocabulary.getColumns();
+		assertEquals("LineNumber", columns.get(ConversionVocabulary.LINE_NUMBER));
+		assertEquals("dataID", columns.get(ConversionVocabulary.DATA_ID));
+		assertEquals("GitHubIssueNo", columns.get(ConversionVocabulary.GITHUB_ISSUE_NO));
+		assertEquals("Response.result", columns.get(ConversionVocabulary.RESPONSE_RESULT));
+		assertEquals("IssuesWithThisRow", columns.get(ConversionVocabulary.ISSUES_WITH_THIS_ROW));
+		assertEquals("bdq:annotation", ConversionVocabulary.getInformationElements().get(0));
+		assertEquals(columns.size(), ConversionVocabulary.getInformationElements().size() + ConversionVocabulary.ISSUES_WITH_THIS_ROW + 1);
+		for (int i=0; i<columns.size(); i++) {
+			assertEquals(i, ConversionVocabulary.columnIndex(columns.get(i)));
+		}
+		assertEquals(-1, ConversionVocabulary.columnIndex("dwc:colour"));
+		assertTrue(ConversionVocabulary.getSourceColumns().contains("Output Type"));
+	}
+
+}
@@ -0,0 +1,94 @@
+/**
+ * ExampleImplementations.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.datakurator.ffdq.annotations.ActedUpon;
+import org.datakurator.ffdq.annotations.Provides;
+import org.datakurator.ffdq.api.DQResponse;
+import org.datakurator.ffdq.api.ResultState;
+import org.datakurator.ffdq.api.result.AmendmentValue;
+import org.datakurator.ffdq.api.result.ComplianceValue;
+
+/**
+ * Small, fast, deterministic test implementations for tests of the runner, in place
+ * of the test libraries.
+ *
+ */
+public class ExampleImplementations {
+
+	/** Validation, COMPLIANT unless dwc:eventDate is "bad", prerequisites not met if empty. */
+	public static final String VALIDATION_GUID = "4a9a0f2b-1d7e-4c1a-9d0e-6a0b8f3c2d11";
+
+	/** Amendment, proposes dwc:month trimmed of whitespace. */
+	public static final String AMENDMENT_GUID = "8c1f5e3a-2b4d-4f6a-8e9c-0d1b2a3c4e22";
+
+	/** Validation which throws if dwc:day is "throw". */
+	public static final String EXCEPTION_GUID = "d2e4f6a8-0b1c-4d3e-9f5a-7b6c8d9e0f33";
+
+	@Provides("urn:uuid:" + VALIDATION_GUID)
+	public DQResponse<ComplianceValue> validationExampleNotbad(@ActedUpon("dwc:eventDate") String eventDate) {
+		DQResponse<ComplianceValue> result = new DQResponse<ComplianceValue>();
+		if (eventDate==null || eventDate.trim().length()==0) {
+			result.addComment("dwc:eventDate is bdq:Empty");
+			result.setResultState(ResultState.INTERNAL_PREREQUISITES_NOT_MET);
+		} else if (eventDate.equals("bad")) {
+			result.addComment("dwc:eventDate is bad");
+			result.setValue(ComplianceValue.NOT_COMPLIANT);
+			result.setResultState(ResultState.RUN_HAS_RESULT);
+		} else {
+			result.addComment("dwc:eventDate is not bad");
+			result.setValue(ComplianceValue.COMPLIANT);
+			result.setResultState(ResultState.RUN_HAS_RESULT);
+		}
+		return result;
+	}
+
+	@Provides(AMENDMENT_GUID)
+	public DQResponse<AmendmentValue> amendmentExampleMonthTrimmed(@ActedUpon("dwc:month") String month) {
+		DQResponse<AmendmentValue> result = new DQResponse<AmendmentValue>();
+		if (month==null || month.trim().length()==0) {
+			result.addComment("dwc:month is bdq:Empty");
+			result.setResultState(ResultState.INTERNAL_PREREQUISITES_NOT_MET);
+		} else if (month.trim().equals(month)) {
+			result.addComment("dwc:month has no whitespace to trim");
+			result.setResultState(ResultState.NOT_AMENDED);
+		} else {
+			Map<String,String> values = new HashMap<String,String>();
+			values.put("dwc:month", month.trim());
+			result.addComment("dwc:month trimmed");
+			result.setValue(new AmendmentValue(values));
+			result.setResultState(ResultState.AMENDED);
+		}
+		return result;
+	}
+
+	@Provides(EXCEPTION_GUID)
+	public DQResponse<ComplianceValue> validationExampleDayThrows(@ActedUpon("dwc:day") String day) {
+		if ("throw".equals(day)) {
+			throw new IllegalStateException("thrown for dwc:day " + day);
+		}
+		DQResponse<ComplianceValue> result = new DQResponse<ComplianceValue>();
+		result.setValue(ComplianceValue.COMPLIANT);
+		result.setResultState(ResultState.RUN_HAS_RESULT);
+		return result;
+	}
+
+}
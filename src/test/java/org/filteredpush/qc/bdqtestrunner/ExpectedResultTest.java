@@ -0,0 +1,109 @@
+/**
+ * ExpectedResultTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.Test;
+
+public class ExpectedResultTest {
+
+	@Test
+	public void testNotAMap() {
+		for (String raw : new String[] { "", "COMPLIANT", "1.5", "{", "{\"a\"}", "{\"a\":\"1\"} x", "{\"a\":\"1\",\"a\":\"2\"}" }) {
+			ExpectedResult expected = ExpectedResult.parse(raw);
+			assertFalse(raw, expected.isMap());
+			assertEquals(0, expected.size());
+			assertEquals(raw, expected.getRaw());
+		}
+	}
+
+	@Test
+	public void testEmptyMap() {
+		ExpectedResult expected = ExpectedResult.parse(" { } ");
+		assertTrue(expected.isMap());
+		assertEquals(0, expected.size());
+	}
+
+	@Test
+	public void testTermsSorted() {
+		ExpectedResult expected = ExpectedResult.parse("{\"dwc:month\":\"1\", \"dwc:day\" : \"2\",\"dwc:year\":\"\"}");
+		assertTrue(expected.isMap());
+		assertEquals(3, expected.size());
+		assertEquals("dwc:day", expected.getTerm(0));
+		assertEquals("2", expected.getValue(0));
+		assertEquals("dwc:month", expected.getTerm(1));
+		assertEquals("1", expected.getValue(1));
+		assertEquals("dwc:year", expected.getTerm(2));
+		assertEquals("", expected.getValue(2));
+	}
+
+	@Test
+	public void testEscapes() {
+		ExpectedResult expected = ExpectedResult.parse("{\"dwc:locality\":\"a \\\"b\\\", c:\\\\d\\e\"}");
+		assertTrue(expected.isMap());
+		// only quotes are unescaped, backslashes are kept as written
+		assertEquals("a \"b\", c:\\\\d\\e", expected.getValue(0));
+	}
+
+	@Test
+	public void testRoundTripWithConverter() throws IOException {
+		String[] values = { "plain", "with \"quotes\"", "c:\\\\share\\file", "comma, and = sign" };
+		StringWriter source = new StringWriter();
+		CSVPrinter printer = new CSVPrinter(source, CSVFormat.DEFAULT.withHeader(
+				"dataID", "LineForTest", "Number", "GUID", "Output Type", "Label", "Input.data", "Output.data",
+				"Response.status", "Response.result", "Response.comment", "ISSUE"));
+		for (int i=0; i<values.length; i++) {
+			String escaped = values[i].replace("\"", "\\\"");
+			printer.printRecord(Integer.toString(i + 1), "1", "86", "6d0a0c10-5e4a-4759-b448-88932f399812", "AMENDMENT",
+					"EVENTDATE_FROM_VERBATIM", "dwc:verbatimEventDate=\"x\"", "dwc:eventDate=\"" + escaped + "\", dwc:locality=\"y\"",
+					"AMENDED", "", "", "");
+		}
+		printer.flush();
+		StringWriter converted = new StringWriter();
+		TestOfTestSpreasheetUtility.convert("test", new StringReader(source.toString()), converted);
+		int i = 0;
+		for (CSVRecord record : CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(new StringReader(converted.toString()))) {
+			ExpectedResult expected = ExpectedResult.parse(record.get("Response.result"));
+			assertTrue(record.get("Response.result"), expected.isMap());
+			assertEquals(2, expected.size());
+			assertEquals("dwc:eventDate", expected.getTerm(0));
+			assertEquals(values[i], expected.getValue(0));
+			assertEquals("dwc:locality", expected.getTerm(1));
+			assertEquals("y", expected.getValue(1));
+			Map<String,String> amendment = new HashMap<String,String>();
+			amendment.put("dwc:eventDate", values[i]);
+			amendment.put("dwc:locality", "y");
+			assertTrue(new ResultComparator().matches(expected, amendment.toString(), amendment));
+			i++;
+		}
+		assertEquals(values.length, i);
+	}
+
+}
@@ -0,0 +1,120 @@
+/**
+ * FailureBudgetTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class FailureBudgetTest {
+
+	private static TestRunner runner() {
+		return new TestRunner(TestRunnerTest.exampleData(), "example_validation_data.csv");
+	}
+
+	@Test
+	public void testFailFast() {
+		TestRunner runner = runner();
+		runner.setFailurePolicy(true, 0, 0);
+		String output = TestRunnerTest.run(runner);
+		assertTrue(runner.isStopped());
+		assertTrue(output, output.contains("\n4 #901 Fail got NOT_COMPLIANT expected COMPLIANT dwc:eventDate is bad\nStopped after 1 failures, remaining rows not run.\n"));
+		assertFalse(output, output.contains("#902"));
+		// the summary is written for the rows run
+		assertTrue(output, output.contains("\nTest cases: 4\n"));
+		assertEquals(4L, runner.getMonitor().getRowsRead());
+	}
+
+	@Test
+	public void testMaxFailures() {
+		TestRunner runner = runner();
+		runner.setFailurePolicy(false, 2, 0);
+		String output = TestRunnerTest.run(runner);
+		assertTrue(runner.isStopped());
+		assertTrue(output, output.contains("\n7 #902 Fail got {\"dwc:month\":\"3\"} expected {\"dwc:month\":\"4\"} dwc:month trimmed\nStopped after 2 failures, remaining rows not run.\n"));
+		assertFalse(output, output.contains("#903"));
+		assertEquals(7L, runner.getMonitor().getRowsRead());
+		assertEquals(2L, runner.getMonitor().getFailTotal());
+	}
+
+	@Test
+	public void testMaxFailuresPerTest() {
+		TestRunner runner = runner();
+		runner.setFailurePolicy(false, 0, 1);
+		String output = TestRunnerTest.run(runner);
+		// each test stops at its first failure, the run continues
+		assertFalse(runner.isStopped());
+		assertEquals(13L, runner.getMonitor().getRowsRead());
+		assertFalse(output, output.contains("\n9 #903"));
+		assertFalse(output, output.contains("\n11 #901"));
+		assertFalse(output, output.contains("\n12 #902"));
+		assertTrue(output, output.contains("\nStopped after 1 failures: " + ExampleImplementations.VALIDATION_GUID + " 901 VALIDATION_EXAMPLE_NOTBAD, rows not run 2\n"));
+		assertTrue(output, output.contains("\nStopped after 1 failures: " + ExampleImplementations.AMENDMENT_GUID + " 902 AMENDMENT_EXAMPLE_MONTH_TRIMMED, rows not run 1\n"));
+		assertTrue(output, output.contains("\nStopped after 1 failures: " + ExampleImplementations.EXCEPTION_GUID + " 903 VALIDATION_EXAMPLE_DAY_THROWS, rows not run 1\n"));
+		assertEquals(Integer.valueOf(1), runner.getReports().get(ExampleImplementations.VALIDATION_GUID).getFail());
+		assertEquals(Integer.valueOf(3), runner.getReports().get(ExampleImplementations.VALIDATION_GUID).getPass());
+	}
+
+	@Test
+	public void testStreamedRowsStopped() throws ClassNotFoundException {
+		List<Map<String,String>> rows = new ArrayList<Map<String,String>>();
+		String[] eventDates = { "1999-12-31", "bad", "2000-01-01" };
+		for (int i=0; i<eventDates.length; i++) {
+			Map<String,String> row = new HashMap<String,String>();
+			row.put("LineNumber", Integer.toString(i + 2));
+			row.put("dataID", Integer.toString(i + 1));
+			row.put("GitHubIssueNo", "901");
+			row.put("GUID", ExampleImplementations.VALIDATION_GUID);
+			row.put("Label", "VALIDATION_EXAMPLE_NOTBAD");
+			row.put("dwc:eventDate", eventDates[i]);
+			row.put("Response.status", "RUN_HAS_RESULT");
+			row.put("Response.result", "COMPLIANT");
+			rows.add(row);
+		}
+		StreamingTestRunner runner = new StreamingTestRunner(new ImplementationRegistry(ExampleImplementations.class));
+		runner.setFailurePolicy(false, 1, 0);
+		List<TestResult> results = new ArrayList<TestResult>();
+		runner.run(rows.iterator(), results::add);
+		assertEquals(3, results.size());
+		assertEquals(TestResult.Outcome.PASS, results.get(0).getOutcome());
+		assertEquals(TestResult.Outcome.FAIL, results.get(1).getOutcome());
+		assertEquals(TestResult.Outcome.STOPPED, results.get(2).getOutcome());
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testRejectedForShards() {
+		TestRunner runner = runner();
+		runner.setShards(2, ShardedRun.SHARD_BY_DATAID);
+		runner.setFailurePolicy(false, 0, 1);
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testShardsRejectedForBudget() {
+		TestRunner runner = runner();
+		runner.setFailurePolicy(true, 0, 0);
+		runner.setShards(2, ShardedRun.SHARD_BY_GUID);
+	}
+
+}
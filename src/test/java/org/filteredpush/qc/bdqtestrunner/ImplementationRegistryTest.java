@@ -0,0 +1,121 @@
+/**
+ * ImplementationRegistryTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.datakurator.ffdq.annotations.ActedUpon;
+import org.datakurator.ffdq.annotations.Provides;
+import org.datakurator.ffdq.api.DQResponse;
+import org.datakurator.ffdq.api.result.ComplianceValue;
+import org.junit.Test;
+
+public class ImplementationRegistryTest {
+
+	private static volatile boolean lazyInitialized = false;
+
+	/**
+	 * Implementations with static initialization to observe, used by no other test.
+	 */
+	public static class LazyImplementations {
+		static {
+			lazyInitialized = true;
+		}
+
+		@Provides("5f0c7d2e-9a1b-4c3d-8e4f-1a2b3c4d5e66")
+		public DQResponse<ComplianceValue> validationLazy(@ActedUpon("dwc:eventDate") String eventDate) {
+			return new DQResponse<ComplianceValue>();
+		}
+	}
+
+	@Test
+	public void testClassesInitializedOnFirstUse() throws Exception {
+		ImplementationRegistry registry = new ImplementationRegistry(LazyImplementations.class);
+		assertEquals(1, registry.getMethods("5f0c7d2e-9a1b-4c3d-8e4f-1a2b3c4d5e66").size());
+		// found without initializing the class
+		assertFalse(lazyInitialized);
+		assertTrue(registry.getInitializationNanos().isEmpty());
+		registry.newInstance(LazyImplementations.class);
+		assertTrue(lazyInitialized);
+		assertTrue(registry.getInitializationNanos().containsKey(LazyImplementations.class));
+		long first = registry.getInitializationNanos().get(LazyImplementations.class);
+		registry.newInstance(LazyImplementations.class);
+		// only the first instantiation is timed
+		assertEquals(first, registry.getInitializationNanos().get(LazyImplementations.class).longValue());
+		assertTrue(registry.getLoadNanos() >= 0L);
+		assertTrue(registry.getDiscoveryNanos() >= 0L);
+	}
+
+	@Test
+	public void testGetMethods() {
+		ImplementationRegistry registry = new ImplementationRegistry(ExampleImplementations.class);
+		assertEquals(Arrays.<Class<?>>asList(ExampleImplementations.class), registry.getClasses());
+		assertEquals(3, registry.getGuids().size());
+		// provided with a urn:uuid: prefix, found with or without it
+		List<Method> methods = registry.getMethods(ExampleImplementations.VALIDATION_GUID);
+		assertEquals(1, methods.size());
+		assertEquals("validationExampleNotbad", methods.get(0).getName());
+		assertEquals(methods, registry.getMethods("urn:uuid:" + ExampleImplementations.VALIDATION_GUID));
+		assertEquals(1, registry.getMethods(ExampleImplementations.AMENDMENT_GUID).size());
+		assertTrue(registry.getMethods("00000000-0000-4000-8000-000000000044").isEmpty());
+		assertTrue(registry.getMethods(null).isEmpty());
+	}
+
+	@Test
+	public void testParameterTerms() {
+		ImplementationRegistry registry = new ImplementationRegistry(ExampleImplementations.class);
+		Method method = registry.getMethods(ExampleImplementations.AMENDMENT_GUID).get(0);
+		assertEquals(Collections.singletonList("dwc:month"), ImplementationRegistry.getParameterTerms(method));
+	}
+
+	@Test
+	public void testUnclassifiedInvocationsSerialized() throws Exception {
+		ImplementationRegistry registry = new ImplementationRegistry(ExampleImplementations.class);
+		// nothing known of the thread safety of the class
+		assertNotNull(registry.getInvocationLock(ExampleImplementations.class));
+		assertSame(registry.getInvocationLock(ExampleImplementations.class), registry.getInvocationLock(ExampleImplementations.class));
+		assertNotSame(registry.getInstance(ExampleImplementations.class), registry.getInstance(ExampleImplementations.class));
+	}
+
+	@Test
+	public void testClassifiedShared() throws Exception {
+		ImplementationRegistry registry = new ImplementationRegistry(ExampleImplementations.class);
+		ThreadSafetyClassification threadSafety = new ThreadSafetyClassification();
+		threadSafety.put(ExampleImplementations.class.getName(), ExampleImplementations.VALIDATION_GUID, ThreadSafetyClassification.Policy.SHARED, 10L, 0L, 0L);
+		registry.setThreadSafety(threadSafety);
+		assertNull(registry.getInvocationLock(ExampleImplementations.class));
+		assertSame(registry.getInstance(ExampleImplementations.class), registry.getInstance(ExampleImplementations.class));
+	}
+
+	@Test(expected=ClassNotFoundException.class)
+	public void testUnsupportedClass() throws Exception {
+		new ImplementationRegistry(Arrays.asList("DwCEventDQDefaults", "NotATestClass"));
+	}
+
+}
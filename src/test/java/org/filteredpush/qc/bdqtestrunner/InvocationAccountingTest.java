@@ -0,0 +1,90 @@
+/**
+ * InvocationAccountingTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class InvocationAccountingTest {
+
+	/** Keeps allocations from being optimized away. */
+	private static volatile Object sink;
+
+	@Test
+	public void testTopByResources() {
+		Map<String,Report> reports = new HashMap<String,Report>();
+		Report a = new Report("A", "1");
+		a.recordResources(100L, 3000L);
+		Report b = new Report("B", "2");
+		b.recordResources(300L, 1000L);
+		Report c = new Report("C", "3");
+		c.recordResources(200L, 2000L);
+		reports.put("a", a);
+		reports.put("b", b);
+		reports.put("c", c);
+		assertEquals(Arrays.asList("b", "c"), InvocationAccounting.topByAllocatedBytes(reports, 2));
+		assertEquals(Arrays.asList("a", "c", "b"), InvocationAccounting.topByCpuTime(reports, 5));
+	}
+
+	@Test
+	public void testResourcesAccumulate() {
+		Report report = new Report("A", "1");
+		report.recordResources(100L, 1000L);
+		report.recordResources(50L, 500L);
+		// counters going backwards aren't counted
+		report.recordResources(-10L, -10L);
+		assertEquals(150L, report.getAllocatedBytes());
+		assertEquals(1500L, report.getCpuTime());
+	}
+
+	@Test
+	public void testCostEndsWhenInvocationReturns() {
+		InvocationAccounting accounting = new InvocationAccounting();
+		assumeTrue(accounting.currentThreadAllocatedBytes() > 0L);
+		TestRunner.InvocationCost cost = new TestRunner.InvocationCost(accounting);
+		sink = new byte[1 << 20];
+		cost.end();
+		long allocated = cost.getAllocatedBytes();
+		long nanos = cost.getNanos();
+		assertTrue(Long.toString(allocated), allocated >= (1 << 20));
+		assertTrue(nanos > 0L);
+		// e.g. formatting the response, after the implementation returned
+		sink = new byte[4 << 20];
+		cost.end();
+		assertEquals(allocated, cost.getAllocatedBytes());
+		assertEquals(nanos, cost.getNanos());
+	}
+
+	@Test
+	public void testCostWithoutAccounting() {
+		TestRunner.InvocationCost cost = new TestRunner.InvocationCost(null);
+		sink = new byte[1 << 20];
+		cost.end();
+		assertEquals(0L, cost.getAllocatedBytes());
+		assertEquals(0L, cost.getCpuTime());
+		assertTrue(cost.getNanos() > 0L);
+	}
+
+}
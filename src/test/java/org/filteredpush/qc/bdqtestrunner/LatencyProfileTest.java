@@ -0,0 +1,137 @@
+/**
+ * LatencyProfileTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LatencyProfileTest {
+
+	private static final String GUID_A = "0a000000-0000-4000-8000-000000000001";
+	private static final String GUID_B = "0b000000-0000-4000-8000-000000000002";
+	private static final String GUID_C = "0c000000-0000-4000-8000-000000000003";
+	private static final String GUID_D = "0d000000-0000-4000-8000-000000000004";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * @return a report of invocations each taking the given time, small enough to be
+	 * recorded exactly.
+	 */
+	private static Report report(String label, int invocations, long nanoseconds) {
+		Report result = new Report(label, "1");
+		for (int i=0; i<invocations; i++) {
+			result.recordLatency(nanoseconds);
+		}
+		return result;
+	}
+
+	private static LatencyProfile profile() {
+		Map<String,Report> reports = new HashMap<String,Report>();
+		reports.put(GUID_A, report("VALIDATION_A", 3, 100L));
+		reports.put(GUID_B, report("VALIDATION_B", 1, 200L));
+		reports.put(GUID_C, report("VALIDATION_C", 1, 100L));
+		reports.put(GUID_D, report("VALIDATION_D", 1, 100L));
+		LatencyProfile result = new LatencyProfile();
+		result.update(reports);
+		return result;
+	}
+
+	private static String write(LatencyProfile profile) throws IOException {
+		StringWriter out = new StringWriter();
+		profile.write(out);
+		return out.toString();
+	}
+
+	@Test
+	public void testSchedule() {
+		LatencyProfile profile = profile();
+		assertEquals(4, profile.size());
+		assertEquals(300L, profile.getExpectedNanos(GUID_A));
+		assertEquals(-1L, profile.getExpectedNanos("00000000-0000-4000-8000-000000000044"));
+		Map<String,Integer> schedule = profile.schedule(2);
+		// longest first to the least loaded worker, C before D as their costs tie
+		assertEquals(Integer.valueOf(0), schedule.get(GUID_A));
+		assertEquals(Integer.valueOf(1), schedule.get(GUID_B));
+		assertEquals(Integer.valueOf(1), schedule.get(GUID_C));
+		assertEquals(Integer.valueOf(0), schedule.get(GUID_D));
+		assertEquals(schedule, profile().schedule(2));
+		assertEquals(Integer.valueOf(0), profile.schedule(1).get(GUID_B));
+	}
+
+	@Test
+	public void testUpdateKeepsUninvokedTests() {
+		LatencyProfile profile = profile();
+		Map<String,Report> reports = new HashMap<String,Report>();
+		reports.put(GUID_A, report("VALIDATION_A", 2, 10L));
+		// encountered but not invoked
+		reports.put(GUID_B, report("VALIDATION_B", 0, 0L));
+		reports.put("0e000000-0000-4000-8000-000000000005", report("VALIDATION_E", 1, 50L));
+		profile.update(reports);
+		assertEquals(5, profile.size());
+		assertEquals(20L, profile.getExpectedNanos(GUID_A));
+		assertEquals(200L, profile.getExpectedNanos(GUID_B));
+		assertEquals(100L, profile.getExpectedNanos(GUID_C));
+		assertEquals(50L, profile.getExpectedNanos("0e000000-0000-4000-8000-000000000005"));
+	}
+
+	@Test
+	public void testReadWrite() throws IOException {
+		LatencyProfile profile = profile();
+		File file = new File(folder.getRoot(), "latency.csv");
+		profile.write(file);
+		LatencyProfile read = LatencyProfile.read(file);
+		assertEquals(write(profile), write(read));
+		assertEquals(profile.schedule(3), read.schedule(3));
+		assertTrue(write(read).startsWith("GUID,GitHubIssueNo,label,invocations,meanNanos\r\n"
+				+ GUID_A + ",1,VALIDATION_A,3,100\r\n" + GUID_B + ","));
+	}
+
+	@Test
+	public void testReadMissing() throws IOException {
+		assertEquals(0, LatencyProfile.read(new File(folder.getRoot(), "latency.csv")).size());
+	}
+
+	@Test(expected=IOException.class)
+	public void testReadUnparsable() throws IOException {
+		File file = new File(folder.getRoot(), "latency.csv");
+		Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8);
+		try {
+			out.write("GUID,GitHubIssueNo,label,invocations,meanNanos\n" + GUID_A + ",1,VALIDATION_A,three,100\n");
+		} finally {
+			out.close();
+		}
+		LatencyProfile.read(file);
+	}
+
+}
@@ -0,0 +1,161 @@
+/**
+ * ParallelCSVReaderTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ParallelCSVReaderTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testQuotedNewlines() throws IOException {
+		File file = folder.newFile("quoted.csv");
+		Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8);
+		CSVPrinter printer = new CSVPrinter(out, CSVFormat.DEFAULT.withHeader("dataID", "dwc:locality", "dwc:eventDate"));
+		for (int i=0; i<200; i++) {
+			String locality;
+			switch (i % 5) {
+			case 0:
+				locality = "line one\nline two\n\nline four";
+				break;
+			case 1:
+				locality = "quoted \"name\"\nand, comma";
+				break;
+			case 2:
+				locality = "Zürich\r\n\"";
+				break;
+			case 3:
+				locality = "";
+				break;
+			default:
+				locality = "plain";
+				break;
+			}
+			printer.printRecord(Integer.toString(i), locality, "2020-01-" + (i % 28 + 1));
+		}
+		printer.close();
+		List<List<String>> expected = readSequentially(file);
+		assertEquals(200, expected.size());
+		// chunk sizes smaller than a row, so most regions start within a quoted value
+		for (int chunkBytes : new int[] { 1, 3, 17, 64, 1000, ParallelCSVReader.DEFAULT_CHUNK_BYTES }) {
+			for (int threads : new int[] { 1, 4 }) {
+				assertEquals("chunk size " + chunkBytes, expected, readInParallel(file, threads, chunkBytes));
+			}
+		}
+	}
+
+	@Test
+	public void testHeader() throws IOException {
+		File file = folder.newFile("header.csv");
+		write(file, "GUID,\"dwc:eventDate\",Label\r\na,b,c\r\nd,e,f");
+		ParallelCSVReader reader = new ParallelCSVReader(file, 2, 4);
+		try {
+			assertEquals(Arrays.asList("GUID", "dwc:eventDate", "Label"), reader.getHeader());
+			CSVRecord record = reader.next();
+			assertEquals("b", record.get("dwc:eventDate"));
+			record = reader.next();
+			// last row without a line feed
+			assertEquals("f", record.get("Label"));
+			assertFalse(reader.hasNext());
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void testHeaderOnly() throws IOException {
+		File file = folder.newFile("empty.csv");
+		write(file, "GUID,Label\n");
+		ParallelCSVReader reader = new ParallelCSVReader(file, 2, 1);
+		try {
+			assertEquals(Arrays.asList("GUID", "Label"), reader.getHeader());
+			assertFalse(reader.hasNext());
+		} finally {
+			reader.close();
+		}
+	}
+
+	private static void write(File file, String text) throws IOException {
+		Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8);
+		try {
+			out.write(text);
+		} finally {
+			out.close();
+		}
+	}
+
+	private static List<List<String>> readSequentially(File file) throws IOException {
+		List<List<String>> result = new ArrayList<List<String>>();
+		Reader in = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8);
+		try {
+			CSVParser parser = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(in);
+			for (CSVRecord record : parser) {
+				result.add(values(record));
+			}
+		} finally {
+			in.close();
+		}
+		return result;
+	}
+
+	private static List<List<String>> readInParallel(File file, int threads, int chunkBytes) throws IOException {
+		List<List<String>> result = new ArrayList<List<String>>();
+		ParallelCSVReader reader = new ParallelCSVReader(file, threads, chunkBytes);
+		try {
+			while (reader.hasNext()) {
+				result.add(values(reader.next()));
+			}
+		} finally {
+			reader.close();
+		}
+		return result;
+	}
+
+	private static List<String> values(CSVRecord record) {
+		List<String> result = new ArrayList<String>();
+		for (String value : record) {
+			result.add(value);
+		}
+		return result;
+	}
+
+}
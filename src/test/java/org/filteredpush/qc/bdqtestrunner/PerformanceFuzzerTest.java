@@ -0,0 +1,121 @@
+/**
+ * PerformanceFuzzerTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.datakurator.ffdq.annotations.ActedUpon;
+import org.datakurator.ffdq.annotations.Provides;
+import org.datakurator.ffdq.api.DQResponse;
+import org.datakurator.ffdq.api.ResultState;
+import org.datakurator.ffdq.api.result.ComplianceValue;
+import org.junit.Test;
+
+public class PerformanceFuzzerTest {
+
+	private static final String SLOW_GUID = "6b1e2f3a-4c5d-4e6f-8a7b-9c0d1e2f3a77";
+
+	private static final String HANGING_GUID = "7c2f3a4b-5d6e-4f7a-9b8c-0d1e2f3a4b88";
+
+	private static final String DATA = "LineNumber,dataID,GitHubIssueNo,GUID,Label,Response.status,Response.result,Response.comment,IssuesWithThisRow,dwc:eventDate\n"
+			+ "2,1,951," + SLOW_GUID + ",VALIDATION_EXAMPLE_SLOW,RUN_HAS_RESULT,COMPLIANT,,,1999-12-31\n"
+			+ "3,2,951," + SLOW_GUID + ",VALIDATION_EXAMPLE_SLOW,RUN_HAS_RESULT,COMPLIANT,,,2000\n"
+			+ "4,3,952," + HANGING_GUID + ",VALIDATION_EXAMPLE_HANGS,RUN_HAS_RESULT,COMPLIANT,,,1999-12-31\n";
+
+	/**
+	 * Implementations with inputs that are slow, used by no other test.
+	 */
+	public static class SlowImplementations {
+
+		@Provides(SLOW_GUID)
+		public DQResponse<ComplianceValue> validationExampleSlow(@ActedUpon("dwc:eventDate") String eventDate) throws InterruptedException {
+			if (eventDate.length() > 32) {
+				Thread.sleep(20L);
+			}
+			DQResponse<ComplianceValue> result = new DQResponse<ComplianceValue>();
+			result.setValue(ComplianceValue.COMPLIANT);
+			result.setResultState(ResultState.RUN_HAS_RESULT);
+			return result;
+		}
+
+		@Provides(HANGING_GUID)
+		public DQResponse<ComplianceValue> validationExampleHangs(@ActedUpon("dwc:eventDate") String eventDate) throws InterruptedException {
+			Thread.sleep(60000L);
+			return new DQResponse<ComplianceValue>();
+		}
+	}
+
+	private static List<CSVRecord> parse(String fuzzed) throws IOException {
+		CSVParser parser = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(new StringReader(fuzzed));
+		List<CSVRecord> result = parser.getRecords();
+		// saved cases have no expected response
+		assertFalse(parser.getHeaderMap().containsKey("Response.status"));
+		assertTrue(parser.getHeaderMap().containsKey("dwc:eventDate"));
+		return result;
+	}
+
+	@Test
+	public void testFindsSlowInputs() throws IOException {
+		PerformanceFuzzer fuzzer = new PerformanceFuzzer(new ImplementationRegistry(SlowImplementations.class), new StringReader(DATA), 1L);
+		fuzzer.setIterations(60);
+		fuzzer.setThresholdMillis(10L);
+		fuzzer.setMaxLength(1000);
+		StringBuilder out = new StringBuilder();
+		int found = fuzzer.fuzz(Collections.singletonList("951"), out);
+		List<CSVRecord> cases = parse(out.toString());
+		assertTrue(found > 0);
+		assertEquals(found, cases.size());
+		for (int i=0; i<cases.size(); i++) {
+			CSVRecord slow = cases.get(i);
+			assertEquals("fuzz" + (i + 1), slow.get("dataID"));
+			assertEquals(SLOW_GUID, slow.get("GUID"));
+			assertTrue(slow.get("dwc:eventDate").length() > 32);
+			assertTrue(slow.get("dwc:eventDate").length() <= 1000);
+			assertTrue(slow.get("IssuesWithThisRow"), slow.get("IssuesWithThisRow").startsWith("Performance: "));
+			assertTrue(slow.get("IssuesWithThisRow"), slow.get("IssuesWithThisRow").contains("SlowImplementations.validationExampleSlow, mutated from dataID "));
+		}
+	}
+
+	@Test
+	public void testStopsAtTimeout() throws IOException {
+		PerformanceFuzzer fuzzer = new PerformanceFuzzer(new ImplementationRegistry(SlowImplementations.class), new StringReader(DATA), 1L);
+		fuzzer.setIterations(20);
+		fuzzer.setTimeoutMillis(100L);
+		StringBuilder out = new StringBuilder();
+		long start = System.nanoTime();
+		int found = fuzzer.fuzz(Collections.singletonList("952"), out);
+		// one invocation, abandoned at its timeout, rather than twenty
+		assertEquals(1, found);
+		assertTrue((System.nanoTime() - start) < 20 * 100000000L);
+		List<CSVRecord> cases = parse(out.toString());
+		assertEquals(1, cases.size());
+		assertEquals(HANGING_GUID, cases.get(0).get("GUID"));
+		assertTrue(cases.get(0).get("IssuesWithThisRow"), cases.get(0).get("IssuesWithThisRow").startsWith("Performance: timed out after 100.000 ms"));
+	}
+
+}
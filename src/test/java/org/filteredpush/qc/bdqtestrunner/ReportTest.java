@@ -0,0 +1,87 @@
+/**
+ * ReportTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+
+public class ReportTest {
+
+	@Test
+	public void testNoLatencies() {
+		Report report = new Report("VALIDATION_EVENTDATE_NOTEMPTY", "33");
+		assertEquals(0d, report.getLatencyPercentile(99d), 0d);
+		assertEquals(0d, report.getLatencyMax(), 0d);
+		// no percentiles reported for a test that was never invoked
+		assertFalse(report.toString().contains("p50:"));
+		assertTrue(report.toString().endsWith("VALIDATION_EVENTDATE_NOTEMPTY #33"));
+	}
+
+	@Test
+	public void testPercentiles() {
+		Report report = new Report("VALIDATION_EVENTDATE_NOTEMPTY", "33");
+		for (int i=1; i<=100; i++) {
+			report.recordLatency(i * 1000000L);
+		}
+		assertEquals(100L, report.getLatency().getTotalCount());
+		// two significant digits
+		assertEquals(50d, report.getLatencyPercentile(50d), 1d);
+		assertEquals(90d, report.getLatencyPercentile(90d), 1d);
+		assertEquals(99d, report.getLatencyPercentile(99d), 1d);
+		assertEquals(100d, report.getLatencyMax(), 1d);
+		String summary = report.toString();
+		assertTrue(summary, summary.contains("p50:"));
+		assertTrue(summary, summary.contains("p99:"));
+		assertTrue(summary, summary.contains("max:"));
+	}
+
+	@Test
+	public void testNegativeLatency() {
+		Report report = new Report("VALIDATION_EVENTDATE_NOTEMPTY", "33");
+		// e.g. from a clock adjustment
+		report.recordLatency(-5L);
+		assertEquals(1L, report.getLatency().getTotalCount());
+		assertEquals(0d, report.getLatencyMax(), 0d);
+	}
+
+	@Test
+	public void testSerializedWithLatencies() throws Exception {
+		Report report = new Report("VALIDATION_EVENTDATE_NOTEMPTY", "33");
+		report.incrementPass();
+		report.recordLatency(2000000L);
+		report.recordLatency(4000000L);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(report);
+		out.close();
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		Report read = (Report)in.readObject();
+		in.close();
+		assertEquals(report.toString(), read.toString());
+		assertEquals(2L, read.getLatency().getTotalCount());
+	}
+
+}
@@ -0,0 +1,94 @@
+/**
+ * ResultComparatorTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class ResultComparatorTest {
+
+	@Test
+	public void testNonAmendmentExact() {
+		ResultComparator comparator = new ResultComparator();
+		assertTrue(comparator.matches(ExpectedResult.parse("COMPLIANT"), "COMPLIANT", null));
+		assertFalse(comparator.matches(ExpectedResult.parse("COMPLIANT"), "NOT_COMPLIANT", null));
+		assertFalse(comparator.matches(ExpectedResult.parse("1.0"), "1", null));
+		// a map compared with a result that isn't from an amendment is compared as found
+		assertTrue(comparator.matches(ExpectedResult.parse("{\"a\":\"1\"}"), "{\"a\":\"1\"}", null));
+	}
+
+	@Test
+	public void testAmendmentIgnoresOrder() {
+		ResultComparator comparator = new ResultComparator();
+		ExpectedResult expected = ExpectedResult.parse("{\"dwc:month\":\"1\",\"dwc:day\":\"2\"}");
+		Map<String,String> amendment = new HashMap<String,String>();
+		amendment.put("dwc:day", "2");
+		amendment.put("dwc:month", "1");
+		assertTrue(comparator.matches(expected, "", amendment));
+		amendment.put("dwc:month", "01");
+		assertFalse(comparator.matches(expected, "", amendment));
+		amendment.put("dwc:month", "1");
+		amendment.put("dwc:year", "2000");
+		assertFalse(comparator.matches(expected, "", amendment));
+		amendment.remove("dwc:year");
+		amendment.remove("dwc:day");
+		assertFalse(comparator.matches(expected, "", amendment));
+	}
+
+	@Test
+	public void testTolerance() {
+		ResultComparator comparator = ResultComparator.parse("dwc:decimalLatitude=0.001");
+		ExpectedResult expected = ExpectedResult.parse("{\"dwc:decimalLatitude\":\"10.0\",\"dwc:decimalLongitude\":\"20.0\"}");
+		Map<String,String> amendment = new HashMap<String,String>();
+		amendment.put("dwc:decimalLatitude", "10.0005");
+		amendment.put("dwc:decimalLongitude", "20.0");
+		assertTrue(comparator.matches(expected, "", amendment));
+		amendment.put("dwc:decimalLatitude", "10.01");
+		assertFalse(comparator.matches(expected, "", amendment));
+		amendment.put("dwc:decimalLatitude", "not a number");
+		assertFalse(comparator.matches(expected, "", amendment));
+		// no tolerance for longitude
+		amendment.put("dwc:decimalLatitude", "10.0");
+		amendment.put("dwc:decimalLongitude", "20.0001");
+		assertFalse(comparator.matches(expected, "", amendment));
+	}
+
+	@Test
+	public void testParseTolerances() {
+		ResultComparator comparator = ResultComparator.parse(" dwc:decimalLongitude = 0.5 ,dwc:decimalLatitude=0.25,");
+		assertEquals(comparator.getTolerances(), ResultComparator.parse(comparator.getTolerances()).getTolerances());
+		assertEquals("", ResultComparator.parse("").getTolerances());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testParseMalformed() {
+		ResultComparator.parse("dwc:decimalLatitude");
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNegativeTolerance() {
+		new ResultComparator().setTolerance("dwc:decimalLatitude", -1d);
+	}
+
+}
@@ -0,0 +1,112 @@
+/**
+ * RowDictionaryTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class RowDictionaryTest {
+
+	@Test
+	public void testRead() throws IOException {
+		RowDictionary dictionary = new RowDictionary();
+		List<DataRecord> rows = dictionary.read(new StringReader(
+				"GUID,dwc:eventDate,dwc:day\n"
+				+ "a,2020-01-01,\n"
+				+ "a,,1\n"
+				+ "b,\"with, comma\"\n"));
+		assertEquals(3, rows.size());
+		assertEquals("a", rows.get(0).get("GUID"));
+		assertEquals("2020-01-01", rows.get(0).get("dwc:eventDate"));
+		assertEquals("", rows.get(0).get("dwc:day"));
+		assertEquals("", rows.get(1).get("dwc:eventDate"));
+		assertEquals("1", rows.get(1).get("dwc:day"));
+		assertEquals("with, comma", rows.get(2).get("dwc:eventDate"));
+		// a short row has the columns of the header, empty
+		assertTrue(rows.get(2).isMapped("dwc:day"));
+		assertEquals("", rows.get(2).get("dwc:day"));
+		assertFalse(rows.get(0).isMapped("dwc:month"));
+		// each distinct value held once
+		assertEquals(5, dictionary.getValueCount());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testUnmappedColumn() throws IOException {
+		RowDictionary dictionary = new RowDictionary();
+		List<DataRecord> rows = dictionary.read(new StringReader("GUID\na\n"));
+		rows.get(0).get("dwc:eventDate");
+	}
+
+	@Test
+	public void testHeadersShareDictionary() throws IOException {
+		RowDictionary dictionary = new RowDictionary();
+		List<DataRecord> first = dictionary.read(new StringReader("GUID,dwc:day\na,1\n"));
+		List<DataRecord> second = dictionary.read(new StringReader("dwc:month,dwc:day,GUID\n2,1,a\n"));
+		assertEquals("1", first.get(0).get("dwc:day"));
+		assertEquals("a", second.get(0).get("GUID"));
+		assertEquals("1", second.get(0).get("dwc:day"));
+		assertEquals("2", second.get(0).get("dwc:month"));
+		// a column first seen in a later header isn't mapped in earlier rows
+		assertFalse(first.get(0).isMapped("dwc:month"));
+		assertEquals(3, dictionary.getValueCount());
+	}
+
+	@Test
+	public void testEncode() {
+		RowDictionary dictionary = new RowDictionary();
+		Map<String,String> row = new LinkedHashMap<String,String>();
+		row.put("dwc:year", "2000");
+		row.put("GUID", "a");
+		row.put("dwc:month", null);
+		row.put("dwc:day", "");
+		SparseDataRecord record = dictionary.encode(row);
+		assertEquals("2000", record.get("dwc:year"));
+		assertEquals("a", record.get("GUID"));
+		assertTrue(record.isMapped("dwc:month"));
+		assertEquals("", record.get("dwc:month"));
+		assertEquals("", record.get("dwc:day"));
+		assertFalse(record.isMapped("dwc:eventDate"));
+		assertEquals(2, dictionary.getValueCount());
+	}
+
+	@Test
+	public void testManyValues() throws IOException {
+		RowDictionary dictionary = new RowDictionary();
+		StringBuilder csv = new StringBuilder("dataID,GUID\n");
+		for (int i=0; i<5000; i++) {
+			csv.append(i).append(",a\n");
+		}
+		List<DataRecord> rows = dictionary.read(new StringReader(csv.toString()));
+		assertEquals(5000, rows.size());
+		assertEquals(5001, dictionary.getValueCount());
+		for (int i=0; i<5000; i++) {
+			assertEquals(Integer.toString(i), rows.get(i).get("dataID"));
+			assertEquals("a", rows.get(i).get("GUID"));
+		}
+	}
+
+}
@@ -0,0 +1,228 @@
+/**
+ * RunCheckpointTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RunCheckpointTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/** data rows of the example validation data run before the interruption */
+	private static final int ROWS_BEFORE_INTERRUPTION = 9;
+
+	private static List<String> exampleLines() throws IOException {
+		List<String> result = new ArrayList<String>();
+		BufferedReader in = new BufferedReader(TestRunnerTest.exampleData());
+		try {
+			String line;
+			while ((line = in.readLine()) != null) {
+				result.add(line.replaceAll(" p50:.* max:[0-9.]+ms", ""));
+			}
+		} finally {
+			in.close();
+		}
+		return result;
+	}
+
+	private static File write(File result, List<String> lines) throws IOException {
+		StringBuilder content = new StringBuilder();
+		for (String line : lines) {
+			content.append(line).append("\n");
+		}
+		Files.write(result.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+		return result;
+	}
+
+	private static TestRunner runner(File input, File output, File checkpoint, boolean resume) throws IOException {
+		return runner(input, output, checkpoint, resume, 0);
+	}
+
+	private static TestRunner runner(File input, File output, File checkpoint, boolean resume, int maxFailuresPerTest) throws IOException {
+		TestRunner result = new TestRunner(input);
+		result.setRegistry(new ImplementationRegistry(ExampleImplementations.class));
+		result.setCheckpoint(checkpoint.getPath(), 4);
+		result.setResume(resume);
+		result.setFailurePolicy(false, 0, maxFailuresPerTest);
+		result.setOutputFile(output.getPath());
+		return result;
+	}
+
+	/**
+	 * @return the lines of the output, without what differs between runs: the time of 
+	 *   the run, startup timings, latencies, and the note of resumption.
+	 */
+	private static List<String> comparable(File output) throws IOException {
+		List<String> result = new ArrayList<String>();
+		List<String> lines = Files.readAllLines(output.toPath(), StandardCharsets.UTF_8);
+		for (int i=0; i<lines.size(); i++) {
+			String line = lines.get(i);
+			if (i!=1 && !line.startsWith("Startup: ") && !line.startsWith("Resumed ") && !line.startsWith("Initialized on first use: ")) {
+				result.add(line.replaceAll(" p50:.* max:[0-9.]+ms", ""));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Run part of the example data, stopping at a malformed row after a checkpoint, as a 
+	 * run would stop if killed, then replace the input with the full data to resume from.
+	 *
+	 * @return the resumable run, not yet resumed.
+	 */
+	private TestRunner interrupt(File input, File output, File checkpoint) throws IOException {
+		return interrupt(input, output, checkpoint, ROWS_BEFORE_INTERRUPTION, 0);
+	}
+
+	private TestRunner interrupt(File input, File output, File checkpoint, int rowsBeforeInterruption, int maxFailuresPerTest) throws IOException {
+		List<String> lines = exampleLines();
+		List<String> partial = new ArrayList<String>(lines.subList(0, rowsBeforeInterruption + 1));
+		// too few columns to read the test from
+		partial.add("\"99\"");
+		write(input, partial);
+		TestRunner interrupted = runner(input, output, checkpoint, false, maxFailuresPerTest);
+		interrupted.runTests();
+		assertTrue(checkpoint.exists());
+		for (String line : Files.readAllLines(output.toPath(), StandardCharsets.UTF_8)) {
+			assertFalse(line, line.startsWith("Test cases: "));
+		}
+		write(input, lines);
+		return runner(input, output, checkpoint, true, maxFailuresPerTest);
+	}
+
+	@Test
+	public void testResumeMatchesUninterruptedRun() throws IOException {
+		// the same name for each run, which is written to the output
+		File fullDirectory = folder.newFolder("full");
+		File full = write(new File(fullDirectory, "example.csv"), exampleLines());
+		File fullOutput = new File(fullDirectory, "output.txt");
+		TestRunner uninterrupted = runner(full, fullOutput, new File(fullDirectory, "example.checkpoint"), false);
+		uninterrupted.runTests();
+
+		File directory = folder.newFolder("resumed");
+		File input = new File(directory, "example.csv");
+		File output = new File(directory, "output.txt");
+		File checkpoint = new File(directory, "example.checkpoint");
+		TestRunner resumed = interrupt(input, output, checkpoint);
+		resumed.runTests();
+		// removed once the run completes
+		assertFalse(checkpoint.exists());
+		assertTrue(new String(Files.readAllBytes(output.toPath()), StandardCharsets.UTF_8).contains("\nResumed "));
+
+		List<String> expected = comparable(fullOutput);
+		assertEquals(expected, comparable(output));
+		// the dataID run before the checkpoint is still found to be a duplicate after it
+		assertTrue(expected.toString(), expected.contains("Test already run (? duplicate dataID in input spreadsheet ?) for 3 #901 on line number 11"));
+		assertReportsEqual(uninterrupted.getReports(), resumed.getReports());
+	}
+
+	@Test
+	public void testResumeFromCheckpointWithoutFailureBudgets() throws Exception {
+		// the same name for each run, which is written to the output
+		File fullDirectory = folder.newFolder("full");
+		File full = write(new File(fullDirectory, "example.csv"), exampleLines());
+		File fullOutput = new File(fullDirectory, "output.txt");
+		TestRunner uninterrupted = runner(full, fullOutput, new File(fullDirectory, "example.checkpoint"), false);
+		uninterrupted.runTests();
+
+		File directory = folder.newFolder("resumed");
+		File input = new File(directory, "example.csv");
+		File output = new File(directory, "output.txt");
+		File checkpoint = new File(directory, "example.checkpoint");
+		TestRunner resumed = interrupt(input, output, checkpoint);
+		// as written before failure budgets were checkpointed
+		RunCheckpoint old = RunCheckpoint.read(checkpoint);
+		for (String name : Arrays.asList("testFailures", "stoppedTests")) {
+			Field field = RunCheckpoint.class.getDeclaredField(name);
+			field.setAccessible(true);
+			field.set(old, null);
+		}
+		old.write(checkpoint);
+		RunCheckpoint read = RunCheckpoint.read(checkpoint);
+		assertTrue(read.getTestFailures().isEmpty());
+		assertTrue(read.getStoppedTests().isEmpty());
+
+		resumed.runTests();
+		assertEquals(comparable(fullOutput), comparable(output));
+		assertReportsEqual(uninterrupted.getReports(), resumed.getReports());
+	}
+
+	@Test
+	public void testResumeKeepsFailureBudgets() throws IOException {
+		File fullDirectory = folder.newFolder("full");
+		File full = write(new File(fullDirectory, "example.csv"), exampleLines());
+		File fullOutput = new File(fullDirectory, "output.txt");
+		TestRunner uninterrupted = runner(full, fullOutput, new File(fullDirectory, "example.checkpoint"), false, 1);
+		uninterrupted.runTests();
+
+		File directory = folder.newFolder("resumed");
+		File input = new File(directory, "example.csv");
+		File output = new File(directory, "output.txt");
+		File checkpoint = new File(directory, "example.checkpoint");
+		// checkpointed after the rows of tests #901 and #903 stopped by their budgets, before the row of #902
+		TestRunner resumed = interrupt(input, output, checkpoint, 12, 1);
+		RunCheckpoint interrupted = RunCheckpoint.read(checkpoint);
+		assertEquals(3, interrupted.getFailures());
+		assertEquals(Integer.valueOf(1), interrupted.getTestFailures().get(ExampleImplementations.AMENDMENT_GUID));
+		assertEquals(Integer.valueOf(2), interrupted.getStoppedTests().get(ExampleImplementations.VALIDATION_GUID));
+		assertEquals(Integer.valueOf(1), interrupted.getStoppedTests().get(ExampleImplementations.EXCEPTION_GUID));
+		assertFalse(interrupted.getStoppedTests().containsKey(ExampleImplementations.AMENDMENT_GUID));
+
+		resumed.runTests();
+		List<String> expected = comparable(fullOutput);
+		assertEquals(expected, comparable(output));
+		assertTrue(expected.toString(), expected.contains("Stopped after 1 failures: " + ExampleImplementations.VALIDATION_GUID + " 901 VALIDATION_EXAMPLE_NOTBAD, rows not run 2"));
+		assertTrue(expected.toString(), expected.contains("Stopped after 1 failures: " + ExampleImplementations.AMENDMENT_GUID + " 902 AMENDMENT_EXAMPLE_MONTH_TRIMMED, rows not run 1"));
+		assertReportsEqual(uninterrupted.getReports(), resumed.getReports());
+	}
+
+	@Test(expected=IOException.class)
+	public void testNotACheckpoint() throws IOException {
+		File notACheckpoint = write(folder.newFile("not.checkpoint"), Arrays.asList("not a checkpoint"));
+		RunCheckpoint.read(notACheckpoint);
+	}
+
+	private static void assertReportsEqual(Map<String,Report> expected, Map<String,Report> actual) {
+		assertEquals(expected.keySet(), actual.keySet());
+		for (String guid : expected.keySet()) {
+			assertEquals(guid, expected.get(guid).getEncountered(), actual.get(guid).getEncountered());
+			assertEquals(guid, expected.get(guid).getPass(), actual.get(guid).getPass());
+			assertEquals(guid, expected.get(guid).getFail(), actual.get(guid).getFail());
+			assertEquals(guid, expected.get(guid).getLatency().getTotalCount(), actual.get(guid).getLatency().getTotalCount());
+		}
+	}
+
+}
@@ -0,0 +1,188 @@
+/**
+ * ShardedRunTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.Test;
+
+public class ShardedRunTest {
+
+	private static final String FIRST_GUID = "a1000000-0000-4000-8000-000000000001";
+
+	private static final String SECOND_GUID = "b2000000-0000-4000-8000-000000000002";
+
+	private static ShardedRun sharded(String shardBy) {
+		return new ShardedRun(2, shardBy, Collections.singletonList("DwCEventDQDefaults"), Collections.<String>emptyList(),
+				0, TestRunner.BOOKKEEPING_EXACT, 100L, 0.000001d, "");
+	}
+
+	private static CSVParser parse(Reader in) throws IOException {
+		return CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(in);
+	}
+
+	/**
+	 * @return the dataID and GUID of the rows in each shard, in order.
+	 */
+	private static List<List<String>> shardDataIDs(ShardedRun sharded) throws IOException {
+		List<List<String>> result = new ArrayList<List<String>>();
+		for (int i=0; i<2; i++) {
+			List<String> dataIDs = new ArrayList<String>();
+			Reader in = new InputStreamReader(Files.newInputStream(sharded.shardFile(i).toPath()), StandardCharsets.UTF_8);
+			try {
+				for (CSVRecord record : parse(in)) {
+					dataIDs.add(record.get("dataID") + " " + record.get("GUID").trim());
+				}
+			} finally {
+				in.close();
+			}
+			result.add(dataIDs);
+		}
+		return result;
+	}
+
+	private static int shardOf(List<List<String>> shards, String row) {
+		int result = -1;
+		for (int i=0; i<shards.size(); i++) {
+			if (shards.get(i).contains(row)) {
+				assertEquals(row + " in one shard", -1, result);
+				result = i;
+			}
+		}
+		assertTrue(row, result >= 0);
+		return result;
+	}
+
+	@Test
+	public void testPartitionByDataID() throws IOException {
+		ShardedRun sharded = sharded(ShardedRun.SHARD_BY_DATAID);
+		try {
+			CSVParser records = parse(TestRunnerTest.exampleData());
+			sharded.partition(records.iterator(), new ArrayList<String>(records.getHeaderMap().keySet()));
+			assertEquals(13L, sharded.getRowCount());
+			List<List<String>> shards = shardDataIDs(sharded);
+			assertEquals(13, shards.get(0).size() + shards.get(1).size());
+			String guid = ExampleImplementations.VALIDATION_GUID;
+			// both rows with dataID 3
+			List<String> shard = shards.get(Math.floorMod("3".hashCode(), 2));
+			assertEquals(2, Collections.frequency(shard, "3 " + guid));
+		} finally {
+			sharded.close();
+		}
+	}
+
+	@Test
+	public void testPartitionByGuidKeepsDuplicateDataIDs() throws IOException {
+		// equal latencies, so the schedule places one test in each shard
+		Map<String,Report> reports = new HashMap<String,Report>();
+		for (String guid : new String[] { FIRST_GUID, SECOND_GUID }) {
+			Report report = new Report("VALIDATION_" + guid.charAt(0), "1");
+			report.recordLatency(1000000L);
+			reports.put(guid, report);
+		}
+		LatencyProfile profile = new LatencyProfile();
+		profile.update(reports);
+		ShardedRun sharded = sharded(ShardedRun.SHARD_BY_GUID);
+		sharded.setLatencyProfile(profile);
+		try {
+			CSVParser records = parse(new StringReader("LineNumber,dataID,GUID\n"
+					+ "2,1," + FIRST_GUID + "\n"
+					+ "3,2, " + SECOND_GUID + " \n"
+					+ "4,1," + SECOND_GUID + "\n"
+					+ "5,3," + SECOND_GUID + "\n"));
+			sharded.partition(records.iterator(), new ArrayList<String>(records.getHeaderMap().keySet()));
+			List<List<String>> shards = shardDataIDs(sharded);
+			int first = shardOf(shards, "1 " + FIRST_GUID);
+			int second = shardOf(shards, "3 " + SECOND_GUID);
+			assertTrue(first!=second);
+			assertEquals(second, shardOf(shards, "2 " + SECOND_GUID));
+			// with the first row of its dataID rather than the other rows of its test
+			assertEquals(first, shardOf(shards, "1 " + SECOND_GUID));
+		} finally {
+			sharded.close();
+		}
+	}
+
+	@Test
+	public void testResultsInInputOrder() throws IOException, InterruptedException {
+		ShardedRun sharded = sharded(ShardedRun.SHARD_BY_DATAID);
+		try {
+			CSVParser records = parse(TestRunnerTest.exampleData());
+			sharded.partition(records.iterator(), new ArrayList<String>(records.getHeaderMap().keySet()));
+			sharded.runWorkers();
+			List<String> dataIDs = new ArrayList<String>();
+			Iterator<TestResult> results = sharded.results();
+			while (results.hasNext()) {
+				dataIDs.add(results.next().getDataID());
+			}
+			List<String> expected = new ArrayList<String>();
+			for (CSVRecord record : parse(TestRunnerTest.exampleData())) {
+				expected.add(record.get("dataID"));
+			}
+			// interleaved from both shards as in the input
+			assertEquals(expected, dataIDs);
+			// no implementation of the example tests in the class run by the workers
+			assertTrue(sharded.getReports().isEmpty());
+		} finally {
+			sharded.close();
+		}
+	}
+
+	@Test
+	public void testMergeReports() {
+		Report report = new Report("VALIDATION_EVENTDATE_NOTEMPTY", "33");
+		report.incrementPass();
+		report.recordLatency(2000000L);
+		report.recordResources(100L, 10L);
+		Report other = new Report("VALIDATION_EVENTDATE_NOTEMPTY", "33");
+		other.incrementPass();
+		other.incrementFail();
+		other.recordLatency(4000000L);
+		other.recordLatency(6000000L);
+		other.recordResources(50L, 5L);
+		report.merge(other);
+		// each pass and fail is also counted as encountered
+		assertEquals(Integer.valueOf(3), report.getEncountered());
+		assertEquals(Integer.valueOf(2), report.getPass());
+		assertEquals(Integer.valueOf(1), report.getFail());
+		assertEquals(3L, report.getLatency().getTotalCount());
+		assertEquals(6d, report.getLatencyMax(), 0.1d);
+		assertEquals(150L, report.getAllocatedBytes());
+		assertEquals(15L, report.getCpuTime());
+		// the other report is unchanged
+		assertEquals(Integer.valueOf(2), other.getEncountered());
+	}
+
+}
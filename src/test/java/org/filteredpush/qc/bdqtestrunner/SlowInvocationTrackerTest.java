@@ -0,0 +1,86 @@
+/**
+ * SlowInvocationTrackerTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class SlowInvocationTrackerTest {
+
+	private static SlowInvocationTracker.SlowInvocation invocation(String dataID, long durationNanos) {
+		return new SlowInvocationTracker.SlowInvocation("f51e15a6-a67d-4729-9c28-3766299d2985", "VALIDATION_EVENTDATE_NOTEMPTY", "33",
+				dataID, Collections.singletonList("dwc:eventDate=\"" + dataID + "\""), durationNanos, "RUN_HAS_RESULT");
+	}
+
+	@Test
+	public void testRetainsSlowest() {
+		SlowInvocationTracker tracker = new SlowInvocationTracker(3);
+		long[] durations = { 5L, 1L, 9L, 3L, 7L, 2L, 8L };
+		for (int i=0; i<durations.length; i++) {
+			if (tracker.isSlowEnough(durations[i])) {
+				tracker.offer(invocation(Integer.toString(i), durations[i]));
+			}
+		}
+		List<SlowInvocationTracker.SlowInvocation> slowest = tracker.getSlowest();
+		assertEquals(3, slowest.size());
+		assertEquals(9L, slowest.get(0).getDurationNanos());
+		assertEquals(8L, slowest.get(1).getDurationNanos());
+		assertEquals(7L, slowest.get(2).getDurationNanos());
+		assertEquals("2", slowest.get(0).getDataID());
+		assertFalse(tracker.isSlowEnough(7L));
+		assertTrue(tracker.isSlowEnough(10L));
+	}
+
+	@Test
+	public void testNoLimit() {
+		SlowInvocationTracker tracker = new SlowInvocationTracker(0);
+		assertFalse(tracker.isSlowEnough(Long.MAX_VALUE));
+		tracker.offer(invocation("1", 10L));
+		assertTrue(tracker.getSlowest().isEmpty());
+	}
+
+	@Test
+	public void testToString() {
+		SlowInvocationTracker.SlowInvocation slow = new SlowInvocationTracker.SlowInvocation("f51e15a6-a67d-4729-9c28-3766299d2985",
+				"VALIDATION_EVENTDATE_NOTEMPTY", "33", "12", Arrays.asList("dwc:eventDate=\"a\nb\"", "dwc:day=\"\""), 2500000L, "RUN_HAS_RESULT");
+		// arguments escaped so that each stays on one line of the output
+		assertEquals("2.500 ms f51e15a6-a67d-4729-9c28-3766299d2985 VALIDATION_EVENTDATE_NOTEMPTY #33 dataID=12 outcome=RUN_HAS_RESULT"
+				+ "\n\tdwc:eventDate=\"a\\nb\"\n\tdwc:day=\"\"", slow.toString());
+	}
+
+	@Test
+	public void testSlowestReportedByRun() {
+		TestRunner runner = new TestRunner(TestRunnerTest.exampleData(), "example_validation_data.csv");
+		runner.setSlowestToReport(2);
+		String output = TestRunnerTest.run(runner);
+		int start = output.indexOf("Slowest 2 invocations:\n");
+		assertTrue(output, start > 0);
+		String[] lines = output.substring(start).split("\n");
+		assertTrue(lines[1].startsWith("1. "));
+		assertTrue(lines[2].startsWith("\tdwc:"));
+		assertTrue(output.substring(start).contains("\n2. "));
+	}
+
+}
@@ -0,0 +1,151 @@
+/**
+ * StreamingTestRunnerTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class StreamingTestRunnerTest {
+
+	private static Map<String,String> row(String dataID, String eventDate, String status, String result) {
+		Map<String,String> row = new HashMap<String,String>();
+		row.put("LineNumber", Integer.toString(Integer.parseInt(dataID) + 1));
+		row.put("dataID", dataID);
+		row.put("GitHubIssueNo", "901");
+		row.put("GUID", ExampleImplementations.VALIDATION_GUID);
+		row.put("Label", "VALIDATION_EXAMPLE_NOTBAD");
+		row.put("dwc:eventDate", eventDate);
+		if (status!=null) {
+			row.put("Response.status", status);
+		}
+		if (result!=null) {
+			row.put("Response.result", result);
+		}
+		return row;
+	}
+
+	private static StreamingTestRunner runner() {
+		return new StreamingTestRunner(new ImplementationRegistry(ExampleImplementations.class));
+	}
+
+	@Test
+	public void testPush() throws ClassNotFoundException {
+		List<Map<String,String>> rows = Arrays.asList(
+				row("1", "1999-12-31", "RUN_HAS_RESULT", "COMPLIANT"),
+				row("2", "bad", "RUN_HAS_RESULT", "COMPLIANT"),
+				row("3", "", null, null),
+				row("1", "1999-12-31", "RUN_HAS_RESULT", "COMPLIANT"));
+		List<TestResult> results = new ArrayList<TestResult>();
+		StreamingTestRunner runner = runner();
+		runner.run(rows.iterator(), results::add);
+		assertEquals(4, results.size());
+		assertEquals(TestResult.Outcome.PASS, results.get(0).getOutcome());
+		assertEquals(ExampleImplementations.class.getName(), results.get(0).getImplementation());
+		assertEquals(TestResult.Outcome.FAIL, results.get(1).getOutcome());
+		assertEquals("NOT_COMPLIANT", results.get(1).getValue());
+		assertEquals("dwc:eventDate is bad", results.get(1).getComment());
+		// no expected response, run but not compared
+		assertEquals(TestResult.Outcome.NOT_COMPARED, results.get(2).getOutcome());
+		assertEquals("INTERNAL_PREREQUISITES_NOT_MET", results.get(2).getStatus());
+		assertEquals(TestResult.Outcome.DUPLICATE, results.get(3).getOutcome());
+		Report report = runner.getReports().get(ExampleImplementations.VALIDATION_GUID);
+		assertEquals(Integer.valueOf(1), report.getPass());
+		assertEquals(Integer.valueOf(1), report.getFail());
+	}
+
+	@Test
+	public void testStream() throws ClassNotFoundException {
+		List<TestResult> results = new ArrayList<TestResult>();
+		StreamingTestRunner runner = runner();
+		runner.setIssuesToRun(Collections.singletonList("902"));
+		runner.run(Arrays.asList(row("1", "1999-12-31", "RUN_HAS_RESULT", "COMPLIANT")).stream(), results::add);
+		assertEquals(1, results.size());
+		assertEquals(TestResult.Outcome.NOT_SELECTED, results.get(0).getOutcome());
+		assertTrue(results.get(0).toJson(), results.get(0).toJson().contains("\"outcome\":\"NOT_SELECTED\""));
+	}
+
+	@Test
+	public void testLazyPull() throws ClassNotFoundException {
+		final List<Map<String,String>> rows = Arrays.asList(
+				row("1", "1999-12-31", "RUN_HAS_RESULT", "COMPLIANT"),
+				row("2", "bad", "RUN_HAS_RESULT", "NOT_COMPLIANT"));
+		final int[] read = { 0 };
+		Iterator<Map<String,String>> source = new Iterator<Map<String,String>>() {
+			@Override
+			public boolean hasNext() {
+				return read[0] < rows.size();
+			}
+
+			@Override
+			public Map<String,String> next() {
+				return rows.get(read[0]++);
+			}
+		};
+		Iterator<TestResult> results = runner().results(source);
+		assertEquals(0, read[0]);
+		assertTrue(results.hasNext());
+		assertEquals(0, read[0]);
+		assertEquals("1", results.next().getDataID());
+		assertEquals(1, read[0]);
+		TestResult second = results.next();
+		assertEquals(TestResult.Outcome.PASS, second.getOutcome());
+		assertEquals(2, read[0]);
+		assertFalse(results.hasNext());
+	}
+
+	@Test
+	public void testMalformedRowIsError() throws ClassNotFoundException {
+		Map<String,String> malformed = row("2", "1999-12-31", "RUN_HAS_RESULT", "COMPLIANT");
+		malformed.remove("GUID");
+		List<TestResult> results = new ArrayList<TestResult>();
+		runner().run(Arrays.asList(malformed, row("3", "1999-12-31", "RUN_HAS_RESULT", "COMPLIANT")).iterator(), results::add);
+		// reported, and the run continues with the next row
+		assertEquals(2, results.size());
+		assertEquals(TestResult.Outcome.ERROR, results.get(0).getOutcome());
+		assertEquals("2", results.get(0).getDataID());
+		assertNull(results.get(0).getGuid());
+		assertTrue(results.get(0).getComment(), results.get(0).getComment().contains("GUID"));
+		assertEquals(TestResult.Outcome.PASS, results.get(1).getOutcome());
+	}
+
+	@Test
+	public void testStatusWithoutResult() throws ClassNotFoundException {
+		List<TestResult> results = new ArrayList<TestResult>();
+		runner().run(Arrays.asList(
+				row("1", "bad", "RUN_HAS_RESULT", null),
+				row("2", "", "RUN_HAS_RESULT", null)).iterator(), results::add);
+		// compared on the status alone
+		assertEquals(TestResult.Outcome.PASS, results.get(0).getOutcome());
+		assertNull(results.get(0).getExpectedResult());
+		assertEquals(TestResult.Outcome.FAIL, results.get(1).getOutcome());
+		assertEquals("INTERNAL_PREREQUISITES_NOT_MET", results.get(1).getStatus());
+	}
+
+}
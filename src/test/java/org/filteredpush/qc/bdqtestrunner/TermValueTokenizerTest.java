@@ -0,0 +1,121 @@
+/**
+ * TermValueTokenizerTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class TermValueTokenizerTest {
+
+	@Test
+	public void testTermValuePairs() {
+		List<String> malformed = new ArrayList<String>();
+		List<TermValueTokenizer.TermValue> result = TermValueTokenizer.tokenize(" dwc:eventDate=\"2020-01-01\" , dwc:day = \"1\"", malformed);
+		assertTrue(malformed.isEmpty());
+		assertEquals(2, result.size());
+		assertEquals("dwc:eventDate", result.get(0).term);
+		assertEquals("2020-01-01", result.get(0).value);
+		assertEquals("dwc:day", result.get(1).term);
+		assertEquals("1", result.get(1).value);
+	}
+
+	@Test
+	public void testValueWithCommaAndEquals() {
+		List<String> malformed = new ArrayList<String>();
+		List<TermValueTokenizer.TermValue> result = TermValueTokenizer.tokenize("a=\"x, y=z\", b=\"\"", malformed);
+		assertTrue(malformed.isEmpty());
+		assertEquals(2, result.size());
+		assertEquals("x, y=z", result.get(0).value);
+		assertEquals("b", result.get(1).term);
+		assertEquals("", result.get(1).value);
+	}
+
+	@Test
+	public void testQuotesInValue() {
+		List<String> malformed = new ArrayList<String>();
+		// a quote not followed by a comma or the end doesn't close the value
+		List<TermValueTokenizer.TermValue> result = TermValueTokenizer.tokenize("a=\"say \"hi\" now\"", malformed);
+		assertTrue(malformed.isEmpty());
+		assertEquals(1, result.size());
+		assertEquals("say \"hi\" now", result.get(0).value);
+		// an escaped quote never closes the value
+		result = TermValueTokenizer.tokenize("a=\"x\\\", y\", b=\"c:\\\\d\"", malformed);
+		assertTrue(malformed.isEmpty());
+		assertEquals(2, result.size());
+		assertEquals("x\", y", result.get(0).value);
+		// only quotes are unescaped
+		assertEquals("c:\\\\d", result.get(1).value);
+	}
+
+	@Test
+	public void testValueWithoutTerm() {
+		List<String> malformed = new ArrayList<String>();
+		List<TermValueTokenizer.TermValue> result = TermValueTokenizer.tokenize("\"1.5\"", malformed);
+		assertEquals(1, result.size());
+		assertNull(result.get(0).term);
+		assertEquals("1.5", result.get(0).value);
+		result = TermValueTokenizer.tokenize("1.5", malformed);
+		assertEquals(1, result.size());
+		assertNull(result.get(0).term);
+		assertEquals("1.5", result.get(0).value);
+		assertTrue(malformed.isEmpty());
+	}
+
+	@Test
+	public void testEmpty() {
+		List<String> malformed = new ArrayList<String>();
+		assertTrue(TermValueTokenizer.tokenize("", malformed).isEmpty());
+		assertTrue(TermValueTokenizer.tokenize("  ", malformed).isEmpty());
+		assertTrue(malformed.isEmpty());
+	}
+
+	@Test
+	public void testMalformed() {
+		List<String> malformed = new ArrayList<String>();
+		// missing term, resumes after the next comma
+		List<TermValueTokenizer.TermValue> result = TermValueTokenizer.tokenize("=\"x\", b=\"y\"", malformed);
+		assertEquals(1, result.size());
+		assertEquals("b", result.get(0).term);
+		assertEquals(1, malformed.size());
+		assertEquals("=\"x\"", malformed.get(0));
+		// term followed directly by a quote
+		malformed.clear();
+		result = TermValueTokenizer.tokenize("a\"x\", b=\"y\"", malformed);
+		assertEquals(1, result.size());
+		assertEquals("y", result.get(0).value);
+		assertEquals("a\"x\"", malformed.get(0));
+		// unquoted value after a term
+		malformed.clear();
+		result = TermValueTokenizer.tokenize("a=x, b=\"y\"", malformed);
+		assertEquals(1, result.size());
+		assertEquals("a=x", malformed.get(0));
+		// unterminated quote
+		malformed.clear();
+		result = TermValueTokenizer.tokenize("a=\"x\", b=\"y", malformed);
+		assertEquals(1, result.size());
+		assertEquals("x", result.get(0).value);
+		assertEquals("b=\"y", malformed.get(0));
+	}
+
+}
@@ -0,0 +1,101 @@
+/**
+ * TestEventsTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class TestEventsTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testRecorderReceivesPhase() {
+		final List<String> calls = new ArrayList<String>();
+		TestEvents.TestEvent event = new TestEvents.TestEvent(new TestEvents.Recorder() {
+			@Override
+			public void start() {
+				calls.add("start");
+			}
+
+			@Override
+			public void record(String guid, String testLabel, String gitHubIssueNo, String dataID, Class<?> implementation, String outcome) {
+				calls.add(guid + " " + testLabel + " " + gitHubIssueNo + " " + dataID + " " + implementation.getSimpleName() + " " + outcome);
+			}
+		}) { };
+		event.begin();
+		event.record("f51e15a6-a67d-4729-9c28-3766299d2985", "VALIDATION_EVENTDATE_NOTEMPTY", "33", "7", String.class, "PASS");
+		assertEquals(2, calls.size());
+		assertEquals("start", calls.get(0));
+		assertEquals("f51e15a6-a67d-4729-9c28-3766299d2985 VALIDATION_EVENTDATE_NOTEMPTY 33 7 String PASS", calls.get(1));
+	}
+
+	@Test
+	public void testNoRecorder() {
+		// as on a JRE without jdk.jfr
+		TestEvents.TestEvent event = new TestEvents.TestEvent(null) { };
+		event.begin();
+		event.record("f51e15a6-a67d-4729-9c28-3766299d2985", "VALIDATION_EVENTDATE_NOTEMPTY", "33", "7", null, "PASS");
+	}
+
+	@Test
+	public void testRecordedInFlightRecording() throws Exception {
+		File file = folder.newFile("run.jfr");
+		Recording recording = new Recording();
+		recording.enable("org.filteredpush.qc.bdqtestrunner.Invoke");
+		recording.disable("org.filteredpush.qc.bdqtestrunner.Parse");
+		recording.start();
+		TestEvents.Invoke invoke = new TestEvents.Invoke();
+		invoke.begin();
+		invoke.record("f51e15a6-a67d-4729-9c28-3766299d2985", "VALIDATION_EVENTDATE_NOTEMPTY", "33", "7", null, "COMPLIANT");
+		// disabled, not recorded
+		TestEvents.Parse parse = new TestEvents.Parse();
+		parse.begin();
+		parse.record("f51e15a6-a67d-4729-9c28-3766299d2985", "VALIDATION_EVENTDATE_NOTEMPTY", "33", "7", null, null);
+		recording.stop();
+		recording.dump(file.toPath());
+		recording.close();
+		List<RecordedEvent> events = new ArrayList<RecordedEvent>();
+		for (RecordedEvent event : RecordingFile.readAllEvents(file.toPath())) {
+			if (event.getEventType().getName().startsWith("org.filteredpush.qc.bdqtestrunner.")) {
+				events.add(event);
+			}
+		}
+		assertEquals(1, events.size());
+		RecordedEvent event = events.get(0);
+		assertEquals("org.filteredpush.qc.bdqtestrunner.Invoke", event.getEventType().getName());
+		assertEquals("f51e15a6-a67d-4729-9c28-3766299d2985", event.getString("guid"));
+		assertEquals("7", event.getString("dataID"));
+		assertEquals("COMPLIANT", event.getString("outcome"));
+		assertNull(event.getString("implementationClass"));
+	}
+
+}
@@ -0,0 +1,160 @@
+/**
+ * TestOfTestSpreasheetUtilityTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestOfTestSpreasheetUtilityTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	static final String SOURCE_HEADER = "\"dataID\",\"LineForTest\",\"Number\",\"GUID\",\"Output Type\",\"Label\",\"Input.data\",\"Output.data\",\"Response.status\",\"Response.result\",\"Response.comment\",\"ISSUE\"\n";
+
+	/** A validation row without errors. */
+	static final String VALIDATION_ROW = "1,1,20,\"0493bcfb-652e-4d17-815b-b0cce0742fbe\",\"VALIDATION\",\"COUNTRYCODE_STANDARD\",\"dwc:countryCode=\"\"US\"\"\",,\"RUN_HAS_RESULT\",\"COMPLIANT\",\"dwc:countryCode is a valid code\",\n";
+
+	/** An amendment row without errors. */
+	static final String AMENDMENT_ROW = "2,1,128,\"01c6dafa-0886-4b7e-9881-2c3018c98bdc\",\"AMENDMENT\",\"MONTH_STANDARDIZED\",\"dwc:month=\"\"3 \"\"\",\"dwc:month=\"\"3\"\"\",\"AMENDED\",\"dwc:month=\"\"3\"\"\",\"dwc:month trimmed\",\n";
+
+	/** A row with an unrecognized output type. */
+	static final String ERROR_ROW = "3,2,20,\"0493bcfb-652e-4d17-815b-b0cce0742fbe\",\"VALIDATON\",\"COUNTRYCODE_STANDARD\",\"dwc:countryCode=\"\"\"\"\",,\"INTERNAL_PREREQUISITES_NOT_MET\",,\"dwc:countryCode is bdq:Empty\",\n";
+
+	/**
+	 * @param rows rows of a source spreadsheet, each ending in a newline.
+	 * @return the source spreadsheet with a header.
+	 */
+	static String source(String... rows) {
+		StringBuilder result = new StringBuilder(SOURCE_HEADER);
+		for (String row : rows) {
+			result.append(row);
+		}
+		return result.toString();
+	}
+
+	static File write(File file, String content) throws IOException {
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	static List<CSVRecord> parse(String converted) throws IOException {
+		return CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(new StringReader(converted)).getRecords();
+	}
+
+	@Test
+	public void testConvert() throws IOException {
+		StringWriter out = new StringWriter();
+		TestOfTestSpreasheetUtility.ConversionReport report = TestOfTestSpreasheetUtility.convert("source.csv",
+				new StringReader(source(VALIDATION_ROW, AMENDMENT_ROW, ERROR_ROW)), out);
+		assertEquals(3, report.getRows());
+		assertEquals(1, report.getErrors());
+		assertTrue(report.getMessages().get(0), report.getMessages().get(0).startsWith("Error in 3 Line:4 unrecognized test class: VALIDATON"));
+		assertEquals(Arrays.asList("dwc:countryCode", "dwc:month"), Arrays.asList(report.getInputTerms().toArray()));
+		List<CSVRecord> rows = parse(out.toString());
+		assertEquals(3, rows.size());
+		assertEquals("2", rows.get(0).get("LineNumber"));
+		assertEquals("VALIDATION_COUNTRYCODE_STANDARD", rows.get(0).get("Label"));
+		assertEquals("US", rows.get(0).get("dwc:countryCode"));
+		assertEquals("COMPLIANT", rows.get(0).get("Response.result"));
+		assertEquals("128", rows.get(1).get("GitHubIssueNo"));
+		assertEquals("3 ", rows.get(1).get("dwc:month"));
+		assertEquals("{\"dwc:month\":\"3\"}", rows.get(1).get("Response.result"));
+	}
+
+	@Test(expected=IOException.class)
+	public void testMissingColumns() throws IOException {
+		TestOfTestSpreasheetUtility.convert("source.csv", new StringReader("\"dataID\",\"Number\"\n1,20\n"), new StringWriter());
+	}
+
+	@Test
+	public void testOutputName() {
+		assertEquals("TG2_test_validation_data_98_2025_03_05.csv", TestOfTestSpreasheetUtility.outputName(new File("src/main/resources/Test_data_98_2025_03_05.csv")));
+		assertEquals("TG2_test_validation_data_extra.csv", TestOfTestSpreasheetUtility.outputName(new File("extra.CSV")));
+	}
+
+	@Test
+	public void testExpandDirectory() throws IOException {
+		File directory = folder.newFolder("sources");
+		File second = write(new File(directory, "Test_data_2.csv"), source(VALIDATION_ROW));
+		File first = write(new File(directory, "Test_data_1.csv"), source(VALIDATION_ROW));
+		write(new File(directory, "notes.txt"), "not a source");
+		assertEquals(Arrays.asList(first, second), TestOfTestSpreasheetUtility.expandSources(Collections.singletonList(directory.getPath())));
+	}
+
+	@Test
+	public void testExpandGlob() throws IOException {
+		File directory = folder.newFolder("sources");
+		File nested = new File(directory, "nested");
+		assertTrue(nested.mkdir());
+		File first = write(new File(directory, "Test_data_1.csv"), source(VALIDATION_ROW));
+		File second = write(new File(directory, "Test_data_2.csv"), source(VALIDATION_ROW));
+		File deep = write(new File(nested, "Test_data_3.csv"), source(VALIDATION_ROW));
+		write(new File(directory, "Other_1.csv"), source(VALIDATION_ROW));
+		String root = directory.getPath() + File.separator;
+		assertEquals(Arrays.asList(first, second), TestOfTestSpreasheetUtility.expandSources(Collections.singletonList(root + "Test_data_*.csv")));
+		// a file named before a glob matching it is listed once, in argument order
+		assertEquals(Arrays.asList(second, first), TestOfTestSpreasheetUtility.expandSources(Arrays.asList(second.getPath(), root + "Test_data_?.csv")));
+		assertEquals(Arrays.asList(first, second, deep), TestOfTestSpreasheetUtility.expandSources(Collections.singletonList(root + "**Test_data_*.csv")));
+	}
+
+	@Test(expected=IOException.class)
+	public void testExpandNoMatch() throws IOException {
+		TestOfTestSpreasheetUtility.expandSources(Collections.singletonList(folder.getRoot().getPath() + File.separator + "Test_data_*.csv"));
+	}
+
+	@Test
+	public void testBatchConversion() throws IOException {
+		File directory = folder.newFolder("sources");
+		write(new File(directory, "Test_data_1.csv"), source(VALIDATION_ROW, ERROR_ROW));
+		write(new File(directory, "Test_data_2.csv"), source(AMENDMENT_ROW));
+		File outputDirectory = new File(folder.getRoot(), "converted");
+		File errorReport = new File(folder.getRoot(), "errors.csv");
+		TestOfTestSpreasheetUtility.main(new String[] { "-o", outputDirectory.getPath(), "-t", "2", "-e", errorReport.getPath(), directory.getPath() });
+		File firstOutput = new File(outputDirectory, "TG2_test_validation_data_1.csv");
+		File secondOutput = new File(outputDirectory, "TG2_test_validation_data_2.csv");
+		assertEquals(2, parse(new String(Files.readAllBytes(firstOutput.toPath()), StandardCharsets.UTF_8)).size());
+		assertEquals(1, parse(new String(Files.readAllBytes(secondOutput.toPath()), StandardCharsets.UTF_8)).size());
+		assertTrue(new File(firstOutput.getPath() + ConversionIndex.SUFFIX).isFile());
+		List<CSVRecord> errors = parse(new String(Files.readAllBytes(errorReport.toPath()), StandardCharsets.UTF_8));
+		// in argument order, a row for each error, or for a source without errors
+		assertEquals(2, errors.size());
+		assertEquals(firstOutput.getPath(), errors.get(0).get("output"));
+		assertEquals("1", errors.get(0).get("errors"));
+		assertTrue(errors.get(0).get("message").contains("unrecognized test class"));
+		assertEquals(secondOutput.getPath(), errors.get(1).get("output"));
+		assertEquals("0", errors.get(1).get("errors"));
+	}
+
+}
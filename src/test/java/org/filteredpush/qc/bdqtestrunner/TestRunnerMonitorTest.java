@@ -0,0 +1,105 @@
+/**
+ * TestRunnerMonitorTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+public class TestRunnerMonitorTest {
+
+	/**
+	 * @return the name the monitor for source is registered under, null if not registered.
+	 */
+	private static ObjectName findRegistered(String source) throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for (ObjectName name : server.queryNames(new ObjectName("org.filteredpush.qc.bdqtestrunner:type=TestRunner,*"), null)) {
+			if (source.equals(server.getAttribute(name, "Source"))) {
+				return name;
+			}
+		}
+		return null;
+	}
+
+	@Test
+	public void testCounters() {
+		TestRunnerMonitor monitor = new TestRunnerMonitor("counters.csv", new ConcurrentHashMap<String,Report>());
+		monitor.rowRead();
+		monitor.rowRead();
+		monitor.rowRead();
+		monitor.rowExecuted();
+		monitor.rowExecuted();
+		monitor.rowSkipped();
+		monitor.pass();
+		monitor.fail();
+		monitor.fail();
+		monitor.setQueueDepth(4);
+		assertEquals(3L, monitor.getRowsRead());
+		assertEquals(2L, monitor.getRowsExecuted());
+		assertEquals(1L, monitor.getRowsSkipped());
+		assertEquals(1L, monitor.getPassTotal());
+		assertEquals(2L, monitor.getFailTotal());
+		assertEquals(4, monitor.getQueueDepth());
+		assertFalse(monitor.isRunning());
+	}
+
+	@Test
+	public void testReports() {
+		Map<String,Report> reports = new ConcurrentHashMap<String,Report>();
+		TestRunnerMonitor monitor = new TestRunnerMonitor("reports.csv", reports);
+		assertTrue(monitor.getReports().isEmpty());
+		Report report = new Report("VALIDATION_EVENTDATE_NOTEMPTY", "33");
+		report.incrementPass();
+		// reports added by the run are seen by the monitor
+		reports.put("f51e15a6-a67d-4729-9c28-3766299d2985", report);
+		assertEquals(report.toString(), monitor.getReports().get("f51e15a6-a67d-4729-9c28-3766299d2985"));
+	}
+
+	@Test
+	public void testRegisteredWhileRunning() throws Exception {
+		TestRunnerMonitor monitor = new TestRunnerMonitor("registered.csv", new ConcurrentHashMap<String,Report>());
+		assertNull(findRegistered("registered.csv"));
+		monitor.start();
+		try {
+			assertTrue(monitor.isRunning());
+			ObjectName name = findRegistered("registered.csv");
+			assertTrue(name!=null);
+			monitor.rowRead();
+			monitor.pass();
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			assertEquals(Long.valueOf(1L), server.getAttribute(name, "RowsRead"));
+			assertEquals(Long.valueOf(1L), server.getAttribute(name, "PassTotal"));
+			assertEquals(Boolean.TRUE, server.getAttribute(name, "Running"));
+		} finally {
+			monitor.stop();
+		}
+		assertFalse(monitor.isRunning());
+		assertNull(findRegistered("registered.csv"));
+	}
+
+}
@@ -0,0 +1,163 @@
+/**
+ * TestRunnerServerTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestRunnerServerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private TestRunnerServer server;
+
+	@Before
+	public void setUp() throws IOException {
+		// any free port
+		server = new TestRunnerServer(new ImplementationRegistry(ExampleImplementations.class), 0, 2);
+		server.start();
+	}
+
+	@After
+	public void tearDown() {
+		server.stop(0);
+	}
+
+	private HttpURLConnection connect(String query) throws IOException {
+		URL url = new URL("http", server.getAddress().getHostString(), server.getAddress().getPort(), "/validate" + query);
+		return (HttpURLConnection)url.openConnection();
+	}
+
+	private List<String> post(String query) throws IOException {
+		HttpURLConnection connection = connect(query);
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		OutputStream out = connection.getOutputStream();
+		InputStream data = TestRunnerServerTest.class.getResourceAsStream("/example_validation_data.csv");
+		try {
+			byte[] buffer = new byte[4096];
+			int read;
+			while ((read = data.read(buffer)) > 0) {
+				out.write(buffer, 0, read);
+			}
+		} finally {
+			data.close();
+			out.close();
+		}
+		assertEquals(200, connection.getResponseCode());
+		assertTrue(connection.getContentType().startsWith("application/x-ndjson"));
+		List<String> result = new ArrayList<String>();
+		BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+		try {
+			String line;
+			while ((line = in.readLine()) != null) {
+				result.add(line);
+			}
+		} finally {
+			in.close();
+		}
+		return result;
+	}
+
+	private static int count(List<String> lines, String outcome) {
+		int result = 0;
+		for (String line : lines) {
+			if (line.contains("\"outcome\":\"" + outcome + "\"")) {
+				result++;
+			}
+		}
+		return result;
+	}
+
+	@Test
+	public void testGetIssues() throws IOException {
+		assertEquals(Collections.emptyList(), TestRunnerServer.getIssues(null));
+		assertEquals(Collections.emptyList(), TestRunnerServer.getIssues("other=1"));
+		assertEquals(Arrays.asList("61", "76"), TestRunnerServer.getIssues("other=1&gitHubIssues=61%2C+76,"));
+	}
+
+	@Test
+	public void testValidate() throws IOException {
+		List<String> lines = post("");
+		// a line for each row, in the order of the rows
+		assertEquals(13, lines.size());
+		assertTrue(lines.get(0), lines.get(0).startsWith("{\"guid\":\"" + ExampleImplementations.VALIDATION_GUID + "\""));
+		assertTrue(lines.get(0), lines.get(0).contains("\"dataID\":\"1\""));
+		assertEquals(7, count(lines, "PASS"));
+		assertEquals(3, count(lines, "FAIL"));
+		assertEquals(1, count(lines, "EXCEPTION"));
+		assertEquals(1, count(lines, "DUPLICATE"));
+		assertEquals(1, count(lines, "NOT_RUN"));
+	}
+
+	@Test
+	public void testValidateSelectedIssues() throws IOException {
+		List<String> lines = post("?gitHubIssues=902");
+		assertEquals(13, lines.size());
+		assertEquals(1, count(lines, "FAIL"));
+		assertTrue(count(lines, "NOT_SELECTED") > 0);
+		for (String line : lines) {
+			assertTrue(line, line.contains("\"gitHubIssueNo\":\"902\"") || line.contains("\"outcome\":\"NOT_SELECTED\""));
+		}
+	}
+
+	@Test
+	public void testOnlyPost() throws IOException {
+		HttpURLConnection connection = connect("");
+		assertEquals(405, connection.getResponseCode());
+		assertEquals("POST", connection.getHeaderField("Allow"));
+	}
+
+	@Test
+	public void testWarmUp() throws IOException, ClassNotFoundException {
+		File warmupFile = folder.newFile("warmup.csv");
+		InputStream data = TestRunnerServerTest.class.getResourceAsStream("/example_validation_data.csv");
+		try {
+			Files.copy(data, warmupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			data.close();
+		}
+		server.warmUp(warmupFile, 2);
+		// still serving requests after warming up
+		assertEquals(13, post("").size());
+	}
+
+}
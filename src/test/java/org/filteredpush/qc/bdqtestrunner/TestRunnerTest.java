@@ -0,0 +1,102 @@
+/**
+ * TestRunnerTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class TestRunnerTest {
+
+	/**
+	 * @return reader for the example validation data, run by ExampleImplementations.
+	 */
+	static Reader exampleData() {
+		return new InputStreamReader(TestRunnerTest.class.getResourceAsStream("/example_validation_data.csv"), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Run the example implementations, writing the output to a string.
+	 *
+	 * @param runner to run.
+	 * @return the output of the run.
+	 */
+	static String run(TestRunner runner) {
+		StringWriter out = new StringWriter();
+		runner.setRegistry(new ImplementationRegistry(ExampleImplementations.class));
+		runner.setOutput(out);
+		runner.runTests();
+		return out.toString();
+	}
+
+	@Test
+	public void testRun() {
+		TestRunner runner = new TestRunner(exampleData(), "example_validation_data.csv");
+		String output = run(runner);
+		assertTrue(output, output.startsWith("Validation Test Data From: example_validation_data.csv\n"));
+		assertTrue(output, output.contains("\n1 #901 Pass\n"));
+		assertTrue(output, output.contains("\n4 #901 Fail got NOT_COMPLIANT expected COMPLIANT"));
+		assertTrue(output, output.contains("\n5 #902 Pass\n"));
+		assertTrue(output, output.contains("\n7 #902 Fail got {\"dwc:month\":\"3\"} expected {\"dwc:month\":\"4\"}"));
+		assertTrue(output, output.contains("\n8 #903Exception: thrown for dwc:day throw\n"));
+		assertTrue(output, output.contains("Test already run (? duplicate dataID in input spreadsheet ?) for 3 #901"));
+		assertTrue(output, output.contains("No test found: 10 904 VALIDATION_EXAMPLE_UNIMPLEMENTED\n"));
+		assertEquals(13L, runner.getMonitor().getRowsRead());
+		assertEquals(7L, runner.getMonitor().getPassTotal());
+		assertEquals(4L, runner.getMonitor().getFailTotal());
+		Report report = runner.getReports().get(ExampleImplementations.VALIDATION_GUID);
+		assertEquals(Integer.valueOf(3), report.getPass());
+		assertEquals(Integer.valueOf(2), report.getFail());
+	}
+
+	@Test
+	public void testStartupReported() {
+		String output = run(new TestRunner(exampleData(), "example_validation_data.csv"));
+		assertTrue(output, output.contains("\nStartup: open input "));
+		assertTrue(output, output.contains(" load classes "));
+		assertTrue(output, output.contains(" discover tests "));
+		assertTrue(output, output.contains("\nInitialized on first use: org.filteredpush.qc.bdqtestrunner.ExampleImplementations "));
+	}
+
+	@Test
+	public void testSelectedIssues() {
+		TestRunner runner = new TestRunner(exampleData(), "example_validation_data.csv");
+		runner.setIssuesToRun(Arrays.asList("902", "903"));
+		String output = run(runner);
+		assertTrue(output, output.contains("\n5 #902 Pass\n"));
+		assertTrue(output, output.contains("\n9 #903 Pass\n"));
+		assertFalse(output, output.contains("#901"));
+		assertFalse(output, output.contains("#904"));
+		assertTrue(output, output.contains("\nRan 2 tests against the validation data.\n"));
+		// every row is still read, only the selected rows are run
+		assertEquals(13L, runner.getMonitor().getRowsRead());
+		assertEquals(4L, runner.getMonitor().getPassTotal());
+		assertEquals(2L, runner.getMonitor().getFailTotal());
+		assertEquals(2, runner.getReports().size());
+		assertFalse(runner.getReports().containsKey(ExampleImplementations.VALIDATION_GUID));
+	}
+
+}
@@ -0,0 +1,132 @@
+/**
+ * ThreadSafetyClassificationTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ThreadSafetyClassificationTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static final String EXAMPLES = ExampleImplementations.class.getName();
+
+	private static final String OTHER = ThreadSafetyClassificationTest.class.getName();
+
+	private ThreadSafetyClassification roundTrip(ThreadSafetyClassification classification) throws IOException {
+		File file = folder.newFile();
+		classification.write(file);
+		return ThreadSafetyClassification.read(file);
+	}
+
+	@Test
+	public void testMostRestrictiveTest() throws IOException {
+		ThreadSafetyClassification classification = new ThreadSafetyClassification();
+		classification.addImplementation(EXAMPLES, ExampleImplementations.VALIDATION_GUID);
+		classification.addImplementation(EXAMPLES, ExampleImplementations.AMENDMENT_GUID);
+		classification.put(EXAMPLES, ExampleImplementations.VALIDATION_GUID, ThreadSafetyClassification.Policy.SHARED, 100L, 0L, 0L);
+		assertEquals(ThreadSafetyClassification.Policy.SERIAL, classification.getClassPolicy(ExampleImplementations.class));
+		classification.put(EXAMPLES, ExampleImplementations.AMENDMENT_GUID, ThreadSafetyClassification.Policy.PER_THREAD, 100L, 3L, 0L);
+		// every implementation probed
+		assertEquals(ThreadSafetyClassification.Policy.PER_THREAD, classification.getClassPolicy(ExampleImplementations.class));
+		assertEquals(ThreadSafetyClassification.Policy.PER_THREAD, roundTrip(classification).getClassPolicy(ExampleImplementations.class));
+	}
+
+	@Test
+	public void testPerCallClassIsSerial() throws IOException {
+		ThreadSafetyClassification classification = new ThreadSafetyClassification();
+		classification.addImplementation(EXAMPLES, ExampleImplementations.VALIDATION_GUID);
+		classification.put(EXAMPLES, ExampleImplementations.VALIDATION_GUID, ThreadSafetyClassification.Policy.PER_CALL, 0L, 0L, 0L);
+		// no repeatable results to judge from
+		assertEquals(ThreadSafetyClassification.Policy.SERIAL, classification.getClassPolicy(ExampleImplementations.class));
+		StringWriter out = new StringWriter();
+		classification.write(out);
+		assertTrue(out.toString(), out.toString().contains(EXAMPLES + ",," + "SERIAL,,,\r\n"));
+		assertTrue(out.toString(), out.toString().contains(EXAMPLES + "," + ExampleImplementations.VALIDATION_GUID + ",PER_CALL,0,0,0\r\n"));
+	}
+
+	@Test
+	public void testNoProbedImplementations() throws IOException {
+		ThreadSafetyClassification classification = new ThreadSafetyClassification();
+		classification.addImplementation(EXAMPLES, ExampleImplementations.VALIDATION_GUID);
+		classification.addImplementation(EXAMPLES, ExampleImplementations.AMENDMENT_GUID);
+		assertEquals(ThreadSafetyClassification.Policy.SERIAL, classification.getClassPolicy(ExampleImplementations.class));
+		// written, so that a run reading the classification also serializes the class
+		assertEquals(ThreadSafetyClassification.Policy.SERIAL, roundTrip(classification).getClassPolicy(ExampleImplementations.class));
+	}
+
+	@Test
+	public void testUnclassifiedClass() {
+		ThreadSafetyClassification classification = new ThreadSafetyClassification();
+		classification.put(EXAMPLES, ExampleImplementations.VALIDATION_GUID, ThreadSafetyClassification.Policy.SHARED, 100L, 0L, 0L);
+		assertEquals(ThreadSafetyClassification.Policy.SHARED, classification.getClassPolicy(ExampleImplementations.class));
+		assertEquals(ThreadSafetyClassification.Policy.SERIAL, classification.getClassPolicy(ThreadSafetyClassificationTest.class));
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		ThreadSafetyClassification classification = new ThreadSafetyClassification();
+		classification.put(EXAMPLES, ExampleImplementations.VALIDATION_GUID, ThreadSafetyClassification.Policy.SHARED, 100L, 0L, 0L);
+		classification.put(OTHER, ExampleImplementations.EXCEPTION_GUID, ThreadSafetyClassification.Policy.PER_THREAD, 50L, 2L, 0L);
+		StringWriter written = new StringWriter();
+		classification.write(written);
+		File file = folder.newFile();
+		classification.write(file);
+		assertEquals(written.toString(), new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+		ThreadSafetyClassification read = ThreadSafetyClassification.read(file);
+		assertEquals(ThreadSafetyClassification.Policy.SHARED, read.getClassPolicy(ExampleImplementations.class));
+		assertEquals(ThreadSafetyClassification.Policy.PER_THREAD, read.getClassPolicy(ThreadSafetyClassificationTest.class));
+		StringWriter rewritten = new StringWriter();
+		read.write(rewritten);
+		// including the counts of each test
+		assertEquals(written.toString(), rewritten.toString());
+	}
+
+	@Test(expected=IOException.class)
+	public void testUnrecognizedPolicy() throws IOException {
+		File file = folder.newFile();
+		Files.write(file.toPath(), ("class,GUID,policy,invocations,sharedMismatches,separateMismatches\n" + EXAMPLES + ",,SOMETIMES,,,\n").getBytes(StandardCharsets.UTF_8));
+		ThreadSafetyClassification.read(file);
+	}
+
+	@Test
+	public void testProbe() throws IOException {
+		ThreadSafetyProbe probe = new ThreadSafetyProbe(new ImplementationRegistry(ExampleImplementations.class), TestRunnerTest.exampleData());
+		probe.setThreads(4);
+		probe.setRounds(2);
+		ThreadSafetyClassification classification = probe.probe(Collections.<String>emptyList());
+		// stateless implementations, each probed
+		assertEquals(ThreadSafetyClassification.Policy.SHARED, classification.getClassPolicy(ExampleImplementations.class));
+		classification = probe.probe(Collections.singletonList("901"));
+		// only some probed
+		assertEquals(ThreadSafetyClassification.Policy.SERIAL, classification.getClassPolicy(ExampleImplementations.class));
+	}
+
+}
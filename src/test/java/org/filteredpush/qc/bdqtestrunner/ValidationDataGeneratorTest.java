@@ -0,0 +1,137 @@
+/**
+ * ValidationDataGeneratorTest.java
+ *
+ * Copyright 2026 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.filteredpush.qc.bdqtestrunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.Test;
+
+public class ValidationDataGeneratorTest {
+
+	private static String generate(ValidationDataGenerator generator, long rows, long seed) throws IOException {
+		StringBuilder out = new StringBuilder();
+		generator.generate(rows, seed, out);
+		return out.toString();
+	}
+
+	private static List<CSVRecord> parse(String generated) throws IOException {
+		return CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(new StringReader(generated)).getRecords();
+	}
+
+	@Test
+	public void testSameSeedSameOutput() throws IOException {
+		ValidationDataGenerator generator = new ValidationDataGenerator(TestRunnerTest.exampleData());
+		generator.setDuplicateRatio(0.1d);
+		generator.setEmptyRatio(0.1d);
+		generator.setPerturbRatio(0.5d);
+		String first = generate(generator, 500, 42L);
+		assertEquals(first, generate(generator, 500, 42L));
+		assertFalse(first.equals(generate(generator, 500, 43L)));
+	}
+
+	@Test
+	public void testSameOutputInAnyLocale() throws IOException {
+		ValidationDataGenerator generator = new ValidationDataGenerator(new StringReader(
+				"LineNumber,dataID,GUID,GitHubIssueNo,dwc:decimalLatitude\n2,1,a,1,10.25\n"));
+		generator.setPerturbRatio(1d);
+		Locale locale = Locale.getDefault();
+		String inRoot;
+		String inGermany;
+		try {
+			Locale.setDefault(Locale.ROOT);
+			inRoot = generate(generator, 50, 7L);
+			// writes a decimal comma by default
+			Locale.setDefault(Locale.GERMANY);
+			inGermany = generate(generator, 50, 7L);
+		} finally {
+			Locale.setDefault(locale);
+		}
+		assertEquals(inRoot, inGermany);
+		for (CSVRecord record : parse(inRoot)) {
+			assertTrue(record.get("dwc:decimalLatitude"), record.get("dwc:decimalLatitude").matches("^-?[0-9]+\\.[0-9]{2}$"));
+		}
+	}
+
+	@Test
+	public void testRowsAndDataIDs() throws IOException {
+		ValidationDataGenerator generator = new ValidationDataGenerator(TestRunnerTest.exampleData());
+		List<CSVRecord> rows = parse(generate(generator, 100, 1L));
+		assertEquals(100, rows.size());
+		for (int i=0; i<rows.size(); i++) {
+			assertEquals("syn" + i, rows.get(i).get("dataID"));
+			assertEquals(Integer.toString(i + 2), rows.get(i).get("LineNumber"));
+		}
+	}
+
+	@Test
+	public void testDuplicates() throws IOException {
+		ValidationDataGenerator generator = new ValidationDataGenerator(TestRunnerTest.exampleData());
+		generator.setDuplicateRatio(1d);
+		List<CSVRecord> rows = parse(generate(generator, 100, 1L));
+		assertEquals("syn0", rows.get(0).get("dataID"));
+		for (int i=1; i<rows.size(); i++) {
+			// repeats the dataID of an earlier row
+			int repeated = Integer.parseInt(rows.get(i).get("dataID").substring("syn".length()));
+			assertTrue(repeated < i);
+		}
+	}
+
+	@Test
+	public void testGuidMixAndEmpty() throws IOException {
+		ValidationDataGenerator generator = new ValidationDataGenerator(TestRunnerTest.exampleData());
+		generator.setGuidMix(Collections.singletonMap("902", 1d));
+		generator.setEmptyRatio(1d);
+		for (CSVRecord row : parse(generate(generator, 50, 3L))) {
+			assertEquals("902", row.get("GitHubIssueNo"));
+			assertEquals("", row.get("dwc:month"));
+			// expected responses are kept
+			assertFalse(row.get("Response.status").isEmpty());
+		}
+	}
+
+	@Test(expected=IOException.class)
+	public void testGuidMixMatchingNoRows() throws IOException {
+		ValidationDataGenerator generator = new ValidationDataGenerator(TestRunnerTest.exampleData());
+		generator.setGuidMix(Collections.singletonMap("999", 1d));
+		generate(generator, 10, 3L);
+	}
+
+	@Test
+	public void testPerturb() {
+		SplittableRandom random = new SplittableRandom(5L);
+		for (int i=0; i<100; i++) {
+			assertTrue(ValidationDataGenerator.perturb("12", random).matches("^-?[0-9]+$"));
+			assertTrue(ValidationDataGenerator.perturb("-3.125", random).matches("^-?[0-9]+\\.[0-9]{3}$"));
+			String text = ValidationDataGenerator.perturb("Aves", random);
+			assertTrue(text, text.length()==4 || text.length()==5);
+		}
+	}
+
+}